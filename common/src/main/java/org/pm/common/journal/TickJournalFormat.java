@@ -0,0 +1,87 @@
+package org.pm.common.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * On-disk layout of the market-data tick capture journal.
+ *
+ * <pre>
+ * &lt;dir&gt;/&lt;yyyy-MM-dd&gt;/&lt;writer&gt;-&lt;segment&gt;.ticks
+ *
+ * header (64 bytes)
+ *   0  int   magic "PMTJ"
+ *   4  int   version
+ *   8  int   record size
+ *  12  int   segment number
+ *  16  long  creation time (epoch ms)
+ *
+ * record (64 bytes, little-endian, starting at offset 64)
+ *   0  long   exchange trade time (epoch ms)
+ *   8  long   receive System.nanoTime()
+ *  16  long   trade id
+ *  24  double price
+ *  32  double quantity
+ *  40  byte[16] symbol, ASCII, zero padded
+ *  56  int    commit word, written last; 0 = no record here (yet)
+ *  60  int    reserved
+ * </pre>
+ *
+ * Files are pre-sized and sparse, so a reader can tail a segment that is still being written:
+ * the first record with a zero commit word is the end of the data.
+ */
+public final class TickJournalFormat {
+
+    public static final int MAGIC = 0x4A544D50; // "PMTJ" read little-endian
+    public static final int VERSION = 1;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 64;
+
+    public static final int HEADER_MAGIC = 0;
+    public static final int HEADER_VERSION = 4;
+    public static final int HEADER_RECORD_SIZE = 8;
+    public static final int HEADER_SEGMENT = 12;
+    public static final int HEADER_CREATED = 16;
+
+    public static final int TIMESTAMP = 0;
+    public static final int RECEIVE_NANOS = 8;
+    public static final int TRADE_ID = 16;
+    public static final int PRICE = 24;
+    public static final int QUANTITY = 32;
+    public static final int SYMBOL = 40;
+    public static final int SYMBOL_LENGTH = 16;
+    public static final int COMMIT = 56;
+
+    public static final int COMMITTED = 1;
+
+    public static final String SUFFIX = ".ticks";
+
+    private TickJournalFormat() {}
+
+    public static Path dayDirectory(Path root, LocalDate day) {
+        return root.resolve(day.toString());
+    }
+
+    public static Path segmentFile(Path root, LocalDate day, String writer, int segment) {
+        return dayDirectory(root, day).resolve(String.format("%s-%04d%s", writer, segment, SUFFIX));
+    }
+
+    /** Every segment of every writer for one day, sorted by name (writer, then segment). */
+    public static List<Path> segments(Path root, LocalDate day) throws IOException {
+        Path dir = dayDirectory(root, day);
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return files;
+        try (Stream<Path> list = Files.list(dir)) {
+            list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().forEach(files::add);
+        }
+        return files;
+    }
+}
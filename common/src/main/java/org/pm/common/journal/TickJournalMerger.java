@@ -0,0 +1,142 @@
+package org.pm.common.journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads every writer's journal over a range of days as one stream in trade-time order.
+ *
+ * Each writer's segments are chained into one sequential stream and the streams are k-way merged
+ * on a binary heap keyed by trade time (ties go to the lower stream). Records of one writer are
+ * never reordered, so anything that was in order on the wire (e.g. one symbol's trades) stays
+ * in order.
+ *
+ * <pre>
+ * try (TickJournalMerger merged = TickJournalMerger.open(root, day, day)) {
+ *     while (merged.next()) {
+ *         merged.current().readInto(tick);
+ *     }
+ * }
+ * </pre>
+ */
+public final class TickJournalMerger implements AutoCloseable {
+
+    // one writer's segments, oldest first
+    private static final class Stream {
+        final List<Path> segments;
+        int nextSegment;
+        TickJournalReader reader;
+
+        Stream(List<Path> segments) {
+            this.segments = segments;
+        }
+
+        boolean advance() throws IOException {
+            while (true) {
+                if (reader != null && reader.next()) return true;
+                if (nextSegment == segments.size()) return false;
+                if (reader != null) reader.close();
+                reader = TickJournalReader.open(segments.get(nextSegment++));
+            }
+        }
+    }
+
+    private final Stream[] streams;
+    private final int[] heap;
+    private int size;
+    private boolean started;
+
+    private TickJournalMerger(List<List<Path>> writers) {
+        this.streams = new Stream[writers.size()];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = new Stream(writers.get(i));
+        }
+        this.heap = new int[streams.length];
+    }
+
+    /** All writers' segments from {@code from} to {@code to}, both inclusive. */
+    public static TickJournalMerger open(Path root, LocalDate from, LocalDate to) throws IOException {
+        Map<String, List<Path>> byWriter = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            for (Path file : TickJournalFormat.segments(root, day)) {
+                byWriter.computeIfAbsent(writerName(file), w -> new ArrayList<>()).add(file);
+            }
+        }
+        return new TickJournalMerger(new ArrayList<>(byWriter.values()));
+    }
+
+    /** Merges the given files as they are, one stream per file. */
+    public static TickJournalMerger of(List<Path> files) {
+        List<List<Path>> writers = new ArrayList<>();
+        for (Path file : files) writers.add(List.of(file));
+        return new TickJournalMerger(writers);
+    }
+
+    // "trades-0-0003.ticks" -> "trades-0"
+    static String writerName(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.lastIndexOf('-'));
+    }
+
+    public boolean next() throws IOException {
+        if (!started) {
+            started = true;
+            for (int i = 0; i < streams.length; i++) {
+                if (streams[i].advance()) {
+                    heap[size++] = i;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) siftDown(i);
+            return size > 0;
+        }
+        if (size == 0) return false;
+
+        if (!streams[heap[0]].advance()) {
+            streams[heap[0]].reader.close();
+            heap[0] = heap[--size];
+        }
+        siftDown(0);
+        return size > 0;
+    }
+
+    /** The reader positioned on the current record; valid until the next call to {@link #next()}. */
+    public TickJournalReader current() {
+        return streams[heap[0]].reader;
+    }
+
+    public int streamCount() {
+        return streams.length;
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int smallest = left + 1 < size && less(heap[left + 1], heap[left]) ? left + 1 : left;
+            if (!less(heap[smallest], heap[i])) return;
+            int tmp = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = tmp;
+            i = smallest;
+        }
+    }
+
+    private boolean less(int a, int b) {
+        long ta = streams[a].reader.timestamp();
+        long tb = streams[b].reader.timestamp();
+        return ta < tb || (ta == tb && a < b);
+    }
+
+    @Override
+    public void close() {
+        for (Stream stream : streams) {
+            if (stream.reader != null) stream.reader.close();
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,155 @@
+package org.pm.common.journal;
+
+import org.pm.common.model.Tick;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.pm.common.journal.TickJournalFormat.*;
+
+/**
+ * Forward cursor over one journal segment, mapped read-only.
+ *
+ * <pre>
+ * try (TickJournalReader r = TickJournalReader.open(file)) {
+ *     while (r.next()) {
+ *         sum += r.price() * r.quantity();
+ *     }
+ * }
+ * </pre>
+ *
+ * The accessors read straight from the mapping, so a scan is bounded by memory bandwidth.
+ * {@link #symbol()} resolves the 16 symbol bytes through a small cache and returns the same
+ * String instance for every record of a symbol. Not thread-safe.
+ */
+public final class TickJournalReader implements AutoCloseable {
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ORDER);
+
+    private final Path file;
+    private final MappedByteBuffer buf;
+    private final int segment;
+    private final int limit;
+    private int position = -RECORD_SIZE;
+
+    // tiny symbol cache keyed by the two longs that hold the padded symbol bytes
+    private long[] cacheLo = new long[16];
+    private long[] cacheHi = new long[16];
+    private String[] cacheNames = new String[16];
+    private int cached;
+
+    private TickJournalReader(Path file, MappedByteBuffer buf) {
+        this.file = file;
+        this.buf = buf;
+        if (buf.capacity() < HEADER_SIZE || buf.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new IllegalArgumentException("Not a tick journal: " + file);
+        }
+        if (buf.getInt(HEADER_VERSION) != VERSION || buf.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IllegalArgumentException("Unsupported tick journal version in " + file);
+        }
+        this.segment = buf.getInt(HEADER_SEGMENT);
+        this.limit = buf.capacity() - RECORD_SIZE;
+    }
+
+    public static TickJournalReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buf.order(ORDER);
+            return new TickJournalReader(file, buf);
+        }
+    }
+
+    /**
+     * Advances to the next committed record.
+     *
+     * @return false at the end of the data; calling again later picks up records appended since
+     */
+    public boolean next() {
+        int candidate = position < 0 ? HEADER_SIZE : position + RECORD_SIZE;
+        if (candidate > limit || (int) INT.getAcquire((ByteBuffer) buf, candidate + COMMIT) != COMMITTED) {
+            return false;
+        }
+        position = candidate;
+        return true;
+    }
+
+    public long timestamp() {
+        return buf.getLong(position + TIMESTAMP);
+    }
+
+    public long receiveNanos() {
+        return buf.getLong(position + RECEIVE_NANOS);
+    }
+
+    public long tradeId() {
+        return buf.getLong(position + TRADE_ID);
+    }
+
+    public double price() {
+        return buf.getDouble(position + PRICE);
+    }
+
+    public double quantity() {
+        return buf.getDouble(position + QUANTITY);
+    }
+
+    public String symbol() {
+        long lo = buf.getLong(position + SYMBOL);
+        long hi = buf.getLong(position + SYMBOL + 8);
+        for (int i = 0; i < cached; i++) {
+            if (cacheLo[i] == lo && cacheHi[i] == hi) return cacheNames[i];
+        }
+        return cacheSymbol(lo, hi);
+    }
+
+    private String cacheSymbol(long lo, long hi) {
+        byte[] bytes = new byte[SYMBOL_LENGTH];
+        buf.get(position + SYMBOL, bytes);
+        int length = 0;
+        while (length < SYMBOL_LENGTH && bytes[length] != 0) length++;
+        String name = new String(bytes, 0, length, StandardCharsets.US_ASCII);
+
+        if (cached == cacheNames.length) {
+            cacheLo = Arrays.copyOf(cacheLo, cached * 2);
+            cacheHi = Arrays.copyOf(cacheHi, cached * 2);
+            cacheNames = Arrays.copyOf(cacheNames, cached * 2);
+        }
+        cacheLo[cached] = lo;
+        cacheHi[cached] = hi;
+        cacheNames[cached++] = name;
+        return name;
+    }
+
+    /** Copies the current record into {@code tick}; tradeCount/volume are set as for a single trade. */
+    public void readInto(Tick tick) {
+        tick.setSymbol(symbol());
+        tick.setPrice(price());
+        tick.setQuantity(quantity());
+        tick.setTimestamp(timestamp());
+        tick.setTradeId(tradeId());
+        tick.setTradeCount(1);
+        tick.setVolume(tick.getQuantity());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getSegment() {
+        return segment;
+    }
+
+    // the mapping is released when the reader is collected; there is no portable unmap
+    @Override
+    public void close() {
+        position = limit + RECORD_SIZE;
+    }
+}
@@ -0,0 +1,128 @@
+package org.pm.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+
+// One closed OHLCV bar. openTime/closeTime are exchange event time in ms, closeTime exclusive.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Candle implements Serializable {
+    private String symbol;
+    // "1s", "1m", "5m", ...
+    private String interval;
+    private long openTime;
+    private long closeTime;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+    private double vwap;
+    private int tradeCount;
+
+    public Candle() {}
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getInterval() {
+        return interval;
+    }
+
+    public void setInterval(String interval) {
+        this.interval = interval;
+    }
+
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    public void setOpenTime(long openTime) {
+        this.openTime = openTime;
+    }
+
+    public long getCloseTime() {
+        return closeTime;
+    }
+
+    public void setCloseTime(long closeTime) {
+        this.closeTime = closeTime;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public void setOpen(double open) {
+        this.open = open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public void setHigh(double high) {
+        this.high = high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public void setLow(double low) {
+        this.low = low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public void setClose(double close) {
+        this.close = close;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public void setVolume(double volume) {
+        this.volume = volume;
+    }
+
+    public double getVwap() {
+        return vwap;
+    }
+
+    public void setVwap(double vwap) {
+        this.vwap = vwap;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public void setTradeCount(int tradeCount) {
+        this.tradeCount = tradeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Candle{" +
+                "symbol='" + symbol + '\'' +
+                ", interval='" + interval + '\'' +
+                ", openTime=" + openTime +
+                ", closeTime=" + closeTime +
+                ", open=" + open +
+                ", high=" + high +
+                ", low=" + low +
+                ", close=" + close +
+                ", volume=" + volume +
+                ", vwap=" + vwap +
+                ", tradeCount=" + tradeCount +
+                '}';
+    }
+}
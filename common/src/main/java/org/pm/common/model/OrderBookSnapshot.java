@@ -0,0 +1,98 @@
+package org.pm.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Top N levels of one symbol's L2 book, best level first on both sides.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderBookSnapshot implements Serializable {
+    private String symbol;
+    private long lastUpdateId;
+    private long eventTime;
+    private double[] bidPrices;
+    private double[] bidQuantities;
+    private double[] askPrices;
+    private double[] askQuantities;
+
+    public OrderBookSnapshot() {}
+
+    public OrderBookSnapshot(String symbol, long lastUpdateId, long eventTime,
+                             double[] bidPrices, double[] bidQuantities,
+                             double[] askPrices, double[] askQuantities) {
+        this.symbol = symbol;
+        this.lastUpdateId = lastUpdateId;
+        this.eventTime = eventTime;
+        this.bidPrices = bidPrices;
+        this.bidQuantities = bidQuantities;
+        this.askPrices = askPrices;
+        this.askQuantities = askQuantities;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public long getLastUpdateId() {
+        return lastUpdateId;
+    }
+
+    public void setLastUpdateId(long lastUpdateId) {
+        this.lastUpdateId = lastUpdateId;
+    }
+
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(long eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    public double[] getBidPrices() {
+        return bidPrices;
+    }
+
+    public void setBidPrices(double[] bidPrices) {
+        this.bidPrices = bidPrices;
+    }
+
+    public double[] getBidQuantities() {
+        return bidQuantities;
+    }
+
+    public void setBidQuantities(double[] bidQuantities) {
+        this.bidQuantities = bidQuantities;
+    }
+
+    public double[] getAskPrices() {
+        return askPrices;
+    }
+
+    public void setAskPrices(double[] askPrices) {
+        this.askPrices = askPrices;
+    }
+
+    public double[] getAskQuantities() {
+        return askQuantities;
+    }
+
+    public void setAskQuantities(double[] askQuantities) {
+        this.askQuantities = askQuantities;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderBookSnapshot{" +
+                "symbol='" + symbol + '\'' +
+                ", lastUpdateId=" + lastUpdateId +
+                ", eventTime=" + eventTime +
+                ", bidPrices=" + Arrays.toString(bidPrices) +
+                ", askPrices=" + Arrays.toString(askPrices) +
+                '}';
+    }
+}
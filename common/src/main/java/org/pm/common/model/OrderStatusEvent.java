@@ -1,6 +1,11 @@
-package org.pm.orderexecution.model;
+package org.pm.common.model;
 
-public class OrderStatusEvent {
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+
+// Published by order-execution on `order-status`, keyed by tradeId.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderStatusEvent implements Serializable {
     private String tradeId;
     private String brokerOrderId;
     private String symbol;
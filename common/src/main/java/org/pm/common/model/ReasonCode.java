@@ -0,0 +1,39 @@
+package org.pm.common.model;
+
+/**
+ * Why risk-manager accepted or rejected a signal. Travels on {@link ValidatedTrade} with up to two
+ * numeric arguments; the text is only built by {@link #render} when someone asks for it.
+ */
+public enum ReasonCode {
+    OK,             // arg0 = position after the trade
+    HOLD,
+    DUPLICATE,      // the signal's side is the argument
+    INVALID_PRICE,
+    PRICE_TOO_LOW,  // arg0 = price, arg1 = min
+    PRICE_TOO_HIGH, // arg0 = price, arg1 = max
+    RATE_LIMIT,     // arg0 = trades per minute
+    POSITION_LIMIT; // arg0 = |position after the trade|, arg1 = max
+
+    public String render(double arg0, double arg1, TradeSignal signal) {
+        switch (this) {
+            case OK:
+                return String.format("OK - Position: $%.2f", arg0);
+            case HOLD:
+                return "HOLD signal - no action required";
+            case DUPLICATE:
+                return "Duplicate signal - already " + (signal == null ? null : signal.getSignal());
+            case INVALID_PRICE:
+                return "Invalid price: must be positive";
+            case PRICE_TOO_LOW:
+                return "Price too low: $" + arg0 + " < $" + arg1;
+            case PRICE_TOO_HIGH:
+                return "Price too high: $" + arg0 + " > $" + arg1;
+            case RATE_LIMIT:
+                return "Rate limit exceeded: max " + (long) arg0 + " trades/minute";
+            case POSITION_LIMIT:
+                return String.format("Position limit exceeded: $%.2f > $%.2f", arg0, arg1);
+            default:
+                return name();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.pm.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+
+// One leg of a multi-symbol TradeSignal (pairs / basket trades).
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SignalLeg implements Serializable {
+    private String symbol;
+    private String signal;  // BUY, SELL
+    private double price;
+    // units of this leg per unit of the signal's first leg (the hedge ratio); 1 for the first leg
+    private double ratio;
+
+    public SignalLeg() {}
+
+    public SignalLeg(String symbol, String signal, double price, double ratio) {
+        this.symbol = symbol;
+        this.signal = signal;
+        this.price = price;
+        this.ratio = ratio;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSignal() {
+        return signal;
+    }
+
+    public void setSignal(String signal) {
+        this.signal = signal;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+
+    @Override
+    public String toString() {
+        return "SignalLeg{" +
+                "symbol='" + symbol + '\'' +
+                ", signal='" + signal + '\'' +
+                ", price=" + price +
+                ", ratio=" + ratio +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package org.pm.common.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 
@@ -9,6 +10,14 @@ public class Tick implements Serializable {
     private double price;
     private double quantity;
     private long timestamp;
+    private long tradeId;
+    // trades folded into this tick by market-data conflation (1 / quantity when not conflated)
+    private int tradeCount;
+    private double volume;
+    // System.nanoTime() when market-data received the trade; process-local, never serialized
+    // (it travels as a Kafka header instead)
+    @JsonIgnore
+    private transient long receivedNanos;
 
     public Tick() {}
 
@@ -51,6 +60,40 @@ public class Tick implements Serializable {
         this.timestamp = timestamp; 
     }
 
+    public long getTradeId() {
+        return tradeId;
+    }
+
+    public void setTradeId(long tradeId) {
+        this.tradeId = tradeId;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public void setTradeCount(int tradeCount) {
+        this.tradeCount = tradeCount;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public void setVolume(double volume) {
+        this.volume = volume;
+    }
+
+    @JsonIgnore
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    @JsonIgnore
+    public void setReceivedNanos(long receivedNanos) {
+        this.receivedNanos = receivedNanos;
+    }
+
     @Override
     public String toString() {
         return "Tick{" +
@@ -58,6 +101,9 @@ public class Tick implements Serializable {
                 ", price=" + price +
                 ", quantity=" + quantity +
                 ", timestamp=" + timestamp +
+                ", tradeId=" + tradeId +
+                ", tradeCount=" + tradeCount +
+                ", volume=" + volume +
                 '}';
     }
 }
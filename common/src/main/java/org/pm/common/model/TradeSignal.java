@@ -2,6 +2,7 @@ package org.pm.common.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
+import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class TradeSignal implements Serializable {
@@ -9,6 +10,12 @@ public class TradeSignal implements Serializable {
     private String signal;  // BUY, SELL, HOLD
     private double price;
     private long timestamp;
+    // which configured strategy (and parameter set) produced it, e.g. "sma-grid:20/50"
+    private String strategyId;
+    // pairs / basket signals only, null otherwise; symbol/signal/price above repeat the first leg.
+    // Nothing downstream executes legs yet: risk-manager checks the first leg only and
+    // order-execution rejects multi-leg trades, so baskets stay research-only for now
+    private List<SignalLeg> legs;
 
     public TradeSignal() {}
 
@@ -19,6 +26,11 @@ public class TradeSignal implements Serializable {
         this.timestamp = timestamp;
     }
 
+    public TradeSignal(String strategyId, String symbol, String signal, double price, long timestamp) {
+        this(symbol, signal, price, timestamp);
+        this.strategyId = strategyId;
+    }
+
     public String getSymbol() {
         return symbol;
     }
@@ -51,13 +63,39 @@ public class TradeSignal implements Serializable {
         this.timestamp = timestamp;
     }
 
+    public String getStrategyId() {
+        return strategyId;
+    }
+
+    public void setStrategyId(String strategyId) {
+        this.strategyId = strategyId;
+    }
+
+    public List<SignalLeg> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<SignalLeg> legs) {
+        this.legs = legs;
+    }
+
+    /** Multi-leg signal; the first leg also fills symbol/signal/price. */
+    public static TradeSignal ofLegs(String strategyId, List<SignalLeg> legs, long timestamp) {
+        SignalLeg first = legs.get(0);
+        TradeSignal signal = new TradeSignal(strategyId, first.getSymbol(), first.getSignal(), first.getPrice(), timestamp);
+        signal.setLegs(legs);
+        return signal;
+    }
+
     @Override
     public String toString() {
         return "TradeSignal{" +
-                "symbol='" + symbol + '\'' +
+                "strategyId='" + strategyId + '\'' +
+                ", symbol='" + symbol + '\'' +
                 ", signal='" + signal + '\'' +
                 ", price=" + price +
                 ", timestamp=" + timestamp +
+                (legs == null ? "" : ", legs=" + legs) +
                 '}';
     }
 }
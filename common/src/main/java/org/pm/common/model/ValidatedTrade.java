@@ -1,12 +1,20 @@
 package org.pm.common.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ValidatedTrade {
     private TradeSignal signal;
     private boolean valid;
+    // the decision as a code and its numbers; `reason` is the text, built from them on first read
+    private ReasonCode reasonCode;
+    private double reasonArg0;
+    private double reasonArg1;
     private String reason;
+    // set on valid trades; order-execution uses it as the tradeId of the order's status events
+    private String tradeId;
 
     public ValidatedTrade() {}
 
@@ -16,6 +24,22 @@ public class ValidatedTrade {
         this.reason = reason;
     }
 
+    public ValidatedTrade(TradeSignal signal, boolean valid, ReasonCode reasonCode, double reasonArg0, double reasonArg1) {
+        this.signal = signal;
+        this.valid = valid;
+        this.reasonCode = reasonCode;
+        this.reasonArg0 = reasonArg0;
+        this.reasonArg1 = reasonArg1;
+    }
+
+    public static ValidatedTrade accepted(TradeSignal signal, ReasonCode reasonCode, double reasonArg0) {
+        return new ValidatedTrade(signal, true, reasonCode, reasonArg0, 0.0);
+    }
+
+    public static ValidatedTrade rejected(TradeSignal signal, ReasonCode reasonCode, double reasonArg0, double reasonArg1) {
+        return new ValidatedTrade(signal, false, reasonCode, reasonArg0, reasonArg1);
+    }
+
     public TradeSignal getSignal() {
         return signal;
     }
@@ -32,20 +56,59 @@ public class ValidatedTrade {
         this.valid = valid;
     }
 
+    // not sent: readers render it from the code (older senders' text is still read)
+    @JsonIgnore
     public String getReason() {
+        if (reason == null && reasonCode != null) {
+            reason = reasonCode.render(reasonArg0, reasonArg1, signal);
+        }
         return reason;
     }
 
+    @JsonProperty("reason")
     public void setReason(String reason) {
         this.reason = reason;
     }
 
+    public ReasonCode getReasonCode() {
+        return reasonCode;
+    }
+
+    public void setReasonCode(ReasonCode reasonCode) {
+        this.reasonCode = reasonCode;
+    }
+
+    public double getReasonArg0() {
+        return reasonArg0;
+    }
+
+    public void setReasonArg0(double reasonArg0) {
+        this.reasonArg0 = reasonArg0;
+    }
+
+    public double getReasonArg1() {
+        return reasonArg1;
+    }
+
+    public void setReasonArg1(double reasonArg1) {
+        this.reasonArg1 = reasonArg1;
+    }
+
+    public String getTradeId() {
+        return tradeId;
+    }
+
+    public void setTradeId(String tradeId) {
+        this.tradeId = tradeId;
+    }
+
     @Override
     public String toString() {
         return "ValidatedTrade{" +
                 "signal=" + signal +
                 ", valid=" + valid +
-                ", reason='" + reason + '\'' +
+                ", reason='" + getReason() + '\'' +
+                ", tradeId='" + tradeId + '\'' +
                 '}';
     }
 }
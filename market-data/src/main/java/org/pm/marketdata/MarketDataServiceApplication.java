@@ -1,6 +1,7 @@
 package org.pm.marketdata;
 
 
+import org.pm.marketdata.orderbook.OrderBookService;
 import org.pm.marketdata.service.MarketDataService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
@@ -10,9 +11,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class MarketDataServiceApplication implements CommandLineRunner {
 
     private final MarketDataService marketDataService;
+    private final OrderBookService orderBookService;
 
-    public MarketDataServiceApplication(MarketDataService marketDataService) {
+    public MarketDataServiceApplication(MarketDataService marketDataService, OrderBookService orderBookService) {
         this.marketDataService = marketDataService;
+        this.orderBookService = orderBookService;
     }
 
     public static void main(String[] args) {
@@ -27,5 +30,7 @@ public class MarketDataServiceApplication implements CommandLineRunner {
 //        Called automatically when the application starts
 //        Starts your WebSocket connection
         marketDataService.startStreaming();
+        // no-op unless marketdata.depth.enabled
+        orderBookService.start();
     }
 }
@@ -0,0 +1,165 @@
+package org.pm.marketdata.candle;
+
+import jakarta.annotation.PreDestroy;
+import org.pm.common.model.Candle;
+import org.pm.common.model.Tick;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Incremental OHLCV + VWAP bars built from every trade, one topic per interval
+ * (candles-1s, candles-1m, ...), keyed by symbol.
+ *
+ * Bars are bucketed on exchange trade time. A bar closes when the symbol's first trade of a
+ * later bucket arrives, or, for symbols that went quiet, when the wall clock is grace-ms past
+ * the bar's end. Trades for a bar that is already closed are counted as late and dropped.
+ * Buckets without trades produce no bar.
+ */
+@Component
+public class CandleAggregator {
+
+    @Value("${marketdata.candles.enabled:false}")
+    private boolean enabled;
+
+    @Value("${marketdata.candles.intervals:1s,1m,5m}")
+    private List<String> intervals;
+
+    // bars go to <topic-prefix><interval>
+    @Value("${marketdata.candles.topic-prefix:candles-}")
+    private String topicPrefix;
+
+    // how far past a bar's end the sweeper waits for stragglers before closing it
+    @Value("${marketdata.candles.grace-ms:2000}")
+    private long graceMs;
+
+    @Value("${marketdata.candles.sweep-interval-ms:250}")
+    private long sweepIntervalMs;
+
+    private final Map<String, CandleSeries> series = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder lateTrades = new LongAdder();
+
+    private long[] intervalMs;
+    private String[] intervalNames;
+    // set once in start(), before any connection is opened
+    private volatile Consumer<Candle> publisher;
+    // bars closed by the current add/sweep, published once the series' monitor is released;
+    // one per event loop so the hot path doesn't allocate
+    private final ThreadLocal<List<Candle>> closedBars = ThreadLocal.withInitial(ArrayList::new);
+    private ScheduledExecutorService sweeper;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param sink receives (topic, candle) for every closed bar; called from the event loops and
+     *             the sweeper thread, so it must be thread-safe (KafkaTemplate is)
+     */
+    public synchronized void start(BiConsumer<String, Candle> sink) {
+        if (!enabled || sweeper != null) return;
+
+        intervalMs = new long[intervals.size()];
+        intervalNames = new String[intervals.size()];
+        String[] topics = new String[intervals.size()];
+        for (int i = 0; i < intervals.size(); i++) {
+            intervalNames[i] = intervals.get(i).trim();
+            intervalMs[i] = parseInterval(intervalNames[i]);
+            topics[i] = topicPrefix + intervalNames[i];
+        }
+        publisher = candle -> {
+            sink.accept(topicPrefix + candle.getInterval(), candle);
+            published.increment();
+        };
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "md-candle-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleAtFixedRate(() -> sweep(System.currentTimeMillis()),
+                sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("Candle aggregation enabled: " + String.join(", ", topics));
+    }
+
+    // Hot path, called for every trade before conflation. Allocates only when a bar closes.
+    public void onTick(Tick tick) {
+        if (publisher == null) return;
+        CandleSeries s = series.get(tick.getSymbol());
+        if (s == null) {
+            s = series.computeIfAbsent(tick.getSymbol(), symbol -> new CandleSeries(symbol, intervalMs, intervalNames));
+        }
+        List<Candle> closed = closedBars.get();
+        int late = s.add(tick.getPrice(), tick.getQuantity(), tick.getTimestamp(), closed);
+        if (late > 0) {
+            lateTrades.add(late);
+        }
+        if (!closed.isEmpty()) publish(closed);
+    }
+
+    int sweep(long nowMillis) {
+        int swept = 0;
+        List<Candle> closed = closedBars.get();
+        try {
+            for (CandleSeries s : series.values()) {
+                swept += s.sweep(nowMillis, graceMs, closed);
+                if (!closed.isEmpty()) publish(closed);
+            }
+        } catch (RuntimeException e) {
+            // never let an exception cancel the scheduled sweep
+            System.err.println("Candle sweep failed: " + e.getMessage());
+        }
+        return swept;
+    }
+
+    private void publish(List<Candle> closed) {
+        try {
+            for (int i = 0; i < closed.size(); i++) {
+                publisher.accept(closed.get(i));
+            }
+        } finally {
+            closed.clear();
+        }
+    }
+
+    // "500ms", "1s", "1m", "5m", "1h", "1d"
+    static long parseInterval(String interval) {
+        String s = interval.trim().toLowerCase();
+        if (s.endsWith("ms")) return Long.parseLong(s.substring(0, s.length() - 2));
+        long n = Long.parseLong(s.substring(0, s.length() - 1));
+        return switch (s.charAt(s.length() - 1)) {
+            case 's' -> TimeUnit.SECONDS.toMillis(n);
+            case 'm' -> TimeUnit.MINUTES.toMillis(n);
+            case 'h' -> TimeUnit.HOURS.toMillis(n);
+            case 'd' -> TimeUnit.DAYS.toMillis(n);
+            default -> throw new IllegalArgumentException("Unknown candle interval: " + interval);
+        };
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getLateTrades() {
+        return lateTrades.sum();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.pm.marketdata.candle;
+
+import org.pm.common.model.Candle;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open bars of one symbol, one slot per configured interval, kept in primitive arrays.
+ *
+ * Updated by the event loop that receives the symbol's trades and by the sweeper that closes
+ * bars of symbols that stopped trading. The two only meet on bar boundaries, so a plain
+ * monitor is uncontended in practice. Closed bars are handed back to the caller, which publishes
+ * them after leaving the monitor, so a slow send never holds up the other thread.
+ */
+final class CandleSeries {
+
+    private final String symbol;
+    private final long[] intervalMs;
+    private final String[] intervalNames;
+
+    private final long[] openTime;
+    // end of the last bar closed per interval; trades older than this are late
+    private final long[] closedUntil;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] volume;
+    private final double[] notional;
+    private final int[] tradeCount;
+
+    CandleSeries(String symbol, long[] intervalMs, String[] intervalNames) {
+        int n = intervalMs.length;
+        this.symbol = symbol;
+        this.intervalMs = intervalMs;
+        this.intervalNames = intervalNames;
+        this.openTime = new long[n];
+        this.closedUntil = new long[n];
+        Arrays.fill(closedUntil, Long.MIN_VALUE);
+        this.open = new double[n];
+        this.high = new double[n];
+        this.low = new double[n];
+        this.close = new double[n];
+        this.volume = new double[n];
+        this.notional = new double[n];
+        this.tradeCount = new int[n];
+    }
+
+    /**
+     * Folds one trade into every interval. A trade in a later bucket than the open bar is the
+     * event-time watermark for that bar: the bar is closed and added to {@code closed} first.
+     *
+     * @return number of intervals the trade was too late for
+     */
+    synchronized int add(double price, double quantity, long timestamp, List<Candle> closed) {
+        int late = 0;
+        for (int i = 0; i < intervalMs.length; i++) {
+            long bucket = timestamp - Math.floorMod(timestamp, intervalMs[i]);
+
+            if (tradeCount[i] > 0) {
+                if (bucket > openTime[i]) {
+                    closeBar(i, closed);
+                } else if (bucket < openTime[i]) {
+                    late++;
+                    continue;
+                }
+            }
+
+            if (tradeCount[i] == 0) {
+                if (bucket < closedUntil[i]) {
+                    late++;
+                    continue;
+                }
+                openTime[i] = bucket;
+                open[i] = price;
+                high[i] = price;
+                low[i] = price;
+                volume[i] = 0.0;
+                notional[i] = 0.0;
+            } else {
+                if (price > high[i]) high[i] = price;
+                if (price < low[i]) low[i] = price;
+            }
+            close[i] = price;
+            volume[i] += quantity;
+            notional[i] += price * quantity;
+            tradeCount[i]++;
+        }
+        return late;
+    }
+
+    /**
+     * Wall-clock watermark: closes every open bar whose end is at least {@code graceMs} behind
+     * {@code nowMillis}, for symbols where no later trade came along to close it.
+     */
+    synchronized int sweep(long nowMillis, long graceMs, List<Candle> closed) {
+        int swept = 0;
+        for (int i = 0; i < intervalMs.length; i++) {
+            if (tradeCount[i] > 0 && openTime[i] + intervalMs[i] + graceMs <= nowMillis) {
+                closeBar(i, closed);
+                swept++;
+            }
+        }
+        return swept;
+    }
+
+    // the only allocation, once per bar
+    private void closeBar(int i, List<Candle> closed) {
+        Candle candle = new Candle();
+        candle.setSymbol(symbol);
+        candle.setInterval(intervalNames[i]);
+        candle.setOpenTime(openTime[i]);
+        candle.setCloseTime(openTime[i] + intervalMs[i]);
+        candle.setOpen(open[i]);
+        candle.setHigh(high[i]);
+        candle.setLow(low[i]);
+        candle.setClose(close[i]);
+        candle.setVolume(volume[i]);
+        candle.setVwap(volume[i] > 0.0 ? notional[i] / volume[i] : close[i]);
+        candle.setTradeCount(tradeCount[i]);
+
+        closedUntil[i] = openTime[i] + intervalMs[i];
+        tradeCount[i] = 0;
+        closed.add(candle);
+    }
+}
@@ -2,6 +2,8 @@ package org.pm.marketdata.config;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.pm.common.model.Candle;
+import org.pm.common.model.OrderBookSnapshot;
 import org.pm.common.model.Tick;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.*;
@@ -38,4 +40,33 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, Tick> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    // order book top-of-book snapshots share the connection settings but need their own value type
+    @Bean
+    public ProducerFactory<String, OrderBookSnapshot> depthProducerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, OrderBookSnapshot> depthKafkaTemplate() {
+        return new KafkaTemplate<>(depthProducerFactory());
+    }
+
+    @Bean
+    public ProducerFactory<String, Candle> candleProducerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, Candle> candleKafkaTemplate() {
+        return new KafkaTemplate<>(candleProducerFactory());
+    }
 }
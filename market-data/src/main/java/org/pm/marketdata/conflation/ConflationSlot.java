@@ -0,0 +1,108 @@
+package org.pm.marketdata.conflation;
+
+import org.pm.common.model.Tick;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Latest-value slot for one symbol, guarded by a sequence lock.
+ *
+ * Writers bump the sequence to odd, store the fields and release it to the next even value;
+ * the drainer copies the fields and retries if the sequence moved underneath it. Readers never
+ * block writers, and writers only ever wait on each other when the same symbol is fed from two
+ * threads at once (it is normally pinned to one connection). Volume and trade count are kept
+ * as running totals so the drainer can publish deltas without resetting anything the writer owns.
+ */
+final class ConflationSlot {
+
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(ConflationSlot.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final String symbol;
+
+    @SuppressWarnings("unused") // accessed through SEQUENCE
+    private volatile long sequence;
+
+    // written under the sequence lock
+    private double price;
+    private double quantity;
+    private long timestamp;
+    private long tradeId;
+    private long receivedNanos;
+    private long totalTrades;
+    private double totalVolume;
+
+    // drainer-only: what has already been published
+    private long publishedTrades;
+    private double publishedVolume;
+
+    ConflationSlot(String symbol) {
+        this.symbol = symbol;
+    }
+
+    void write(Tick tick) {
+        long seq;
+        do {
+            seq = (long) SEQUENCE.getVolatile(this);
+        } while ((seq & 1) != 0 || !SEQUENCE.compareAndSet(this, seq, seq + 1));
+
+        price = tick.getPrice();
+        quantity = tick.getQuantity();
+        timestamp = tick.getTimestamp();
+        tradeId = tick.getTradeId();
+        receivedNanos = tick.getReceivedNanos();
+        totalTrades++;
+        totalVolume += tick.getQuantity();
+
+        SEQUENCE.setRelease(this, seq + 2);
+    }
+
+    /**
+     * Copies the latest trade plus the volume/count accumulated since the previous drain into {@code out}.
+     *
+     * @return false if nothing traded since the previous drain
+     */
+    boolean drainInto(Tick out) {
+        double p, q, volume;
+        long ts, id, received, trades;
+        long seq;
+        do {
+            seq = (long) SEQUENCE.getAcquire(this);
+            while ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                seq = (long) SEQUENCE.getAcquire(this);
+            }
+            p = price;
+            q = quantity;
+            ts = timestamp;
+            id = tradeId;
+            received = receivedNanos;
+            trades = totalTrades;
+            volume = totalVolume;
+            VarHandle.loadLoadFence();
+        } while (seq != (long) SEQUENCE.getVolatile(this));
+
+        if (trades == publishedTrades) return false;
+
+        out.setSymbol(symbol);
+        out.setPrice(p);
+        out.setQuantity(q);
+        out.setTimestamp(ts);
+        out.setTradeId(id);
+        out.setReceivedNanos(received);
+        out.setTradeCount((int) Math.min(Integer.MAX_VALUE, trades - publishedTrades));
+        out.setVolume(volume - publishedVolume);
+
+        publishedTrades = trades;
+        publishedVolume = volume;
+        return true;
+    }
+}
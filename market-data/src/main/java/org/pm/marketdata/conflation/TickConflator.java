@@ -0,0 +1,97 @@
+package org.pm.marketdata.conflation;
+
+import jakarta.annotation.PreDestroy;
+import org.pm.common.model.Tick;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Optional stage between parsing and the Kafka publish that keeps only the latest trade per symbol
+ * and publishes at most one tick per symbol per interval, carrying the volume and trade count of
+ * everything it replaced. In pass-through mode (the default) every trade is published as-is.
+ */
+@Component
+public class TickConflator {
+
+    // pass-through = every trade goes to Kafka, conflate = latest trade per symbol per interval
+    @Value("${marketdata.conflation.mode:pass-through}")
+    private String mode;
+
+    @Value("${marketdata.conflation.interval-ms:100}")
+    private long intervalMs;
+
+    private final Map<String, ConflationSlot> slots = new ConcurrentHashMap<>();
+    private final LongAdder ticksIn = new LongAdder();
+    private final LongAdder ticksOut = new LongAdder();
+
+    private ScheduledExecutorService drainer;
+
+    // only touched by the drainer thread; the sink serializes it before returning
+    private final Tick scratch = new Tick();
+
+    public boolean isEnabled() {
+        return "conflate".equalsIgnoreCase(mode);
+    }
+
+    public synchronized void start(Consumer<Tick> sink) {
+        if (!isEnabled() || drainer != null) return;
+        drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "md-conflation");
+            t.setDaemon(true);
+            return t;
+        });
+        drainer.scheduleAtFixedRate(() -> drain(sink), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("Tick conflation enabled: at most one tick per symbol every " + intervalMs + "ms");
+    }
+
+    // Hot path, called from the websocket event loops. Allocates only the first time a symbol is seen.
+    public void offer(Tick tick) {
+        ConflationSlot slot = slots.get(tick.getSymbol());
+        if (slot == null) {
+            slot = slots.computeIfAbsent(tick.getSymbol(), ConflationSlot::new);
+        }
+        slot.write(tick);
+        ticksIn.increment();
+    }
+
+    int drain(Consumer<Tick> sink) {
+        int published = 0;
+        try {
+            for (ConflationSlot slot : slots.values()) {
+                if (slot.drainInto(scratch)) {
+                    sink.accept(scratch);
+                    published++;
+                }
+            }
+        } catch (RuntimeException e) {
+            // never let an exception cancel the scheduled drain
+            System.err.println("Conflation drain failed: " + e.getMessage());
+        }
+        ticksOut.add(published);
+        return published;
+    }
+
+    public long getTicksIn() {
+        return ticksIn.sum();
+    }
+
+    public long getTicksOut() {
+        return ticksOut.sum();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+            drainer = null;
+        }
+    }
+}
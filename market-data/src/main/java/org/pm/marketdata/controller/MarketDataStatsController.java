@@ -0,0 +1,110 @@
+package org.pm.marketdata.controller;
+
+import org.pm.marketdata.candle.CandleAggregator;
+import org.pm.marketdata.conflation.TickConflator;
+import org.pm.marketdata.feed.FeedArbiter;
+import org.pm.marketdata.feed.FeedStats;
+import org.pm.marketdata.journal.TickJournal;
+import org.pm.marketdata.latency.IngestMetrics;
+import org.pm.marketdata.replay.TickReplayService;
+import org.pm.marketdata.websocket.BinanceWebSocketClient;
+import org.pm.marketdata.websocket.ConnectionStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/stats")
+public class MarketDataStatsController {
+
+    private final BinanceWebSocketClient wsClient;
+    private final TickConflator conflator;
+    private final CandleAggregator candles;
+    private final TickJournal journal;
+    private final TickReplayService replay;
+    private final IngestMetrics metrics;
+    private final FeedArbiter arbiter;
+
+    public MarketDataStatsController(BinanceWebSocketClient wsClient, TickConflator conflator,
+                                     CandleAggregator candles, TickJournal journal,
+                                     TickReplayService replay, IngestMetrics metrics,
+                                     FeedArbiter arbiter) {
+        this.wsClient = wsClient;
+        this.conflator = conflator;
+        this.candles = candles;
+        this.journal = journal;
+        this.replay = replay;
+        this.metrics = metrics;
+        this.arbiter = arbiter;
+    }
+
+    // per-connection throughput (msgs/sec since the previous call) and exchange->receive lag
+    @GetMapping("/connections")
+    public List<ConnectionStats> connections() {
+        return wsClient.stats();
+    }
+
+    @GetMapping("/conflation")
+    public Map<String, Object> conflation() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", conflator.isEnabled());
+        stats.put("ticksIn", conflator.getTicksIn());
+        stats.put("ticksOut", conflator.getTicksOut());
+        return stats;
+    }
+
+    @GetMapping("/candles")
+    public Map<String, Object> candles() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", candles.isEnabled());
+        stats.put("published", candles.getPublished());
+        stats.put("lateTrades", candles.getLateTrades());
+        return stats;
+    }
+
+    @GetMapping("/journal")
+    public Map<String, Object> journal() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", journal.isEnabled());
+        stats.put("written", journal.getWritten());
+        stats.put("dropped", journal.getDropped());
+        return stats;
+    }
+
+    @GetMapping("/replay")
+    public Map<String, Object> replay() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", replay.isEnabled());
+        stats.put("running", replay.isRunning());
+        stats.put("published", replay.getPublished());
+        stats.put("ticksPerSecond", replay.getTicksPerSecond());
+        return stats;
+    }
+
+    // microsecond histograms since start, or since the previous ?reset=true call
+    @GetMapping("/latency")
+    public Map<String, Object> latency(@RequestParam(defaultValue = "false") boolean reset) {
+        return metrics.latency(reset);
+    }
+
+    @GetMapping("/sequence")
+    public Map<String, Object> sequence() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("gaps", metrics.getSequences().totalGaps());
+        stats.put("missingTrades", metrics.getSequences().totalMissing());
+        stats.put("duplicates", metrics.getSequences().totalDuplicates());
+        stats.put("symbols", metrics.getSequences().stats());
+        return stats;
+    }
+
+    // per redundant feed: win rate, staleness, how far behind the winner its lost copies were
+    @GetMapping("/feeds")
+    public List<FeedStats> feeds() {
+        return arbiter.stats();
+    }
+}
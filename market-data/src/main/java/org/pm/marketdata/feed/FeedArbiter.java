@@ -0,0 +1,118 @@
+package org.pm.marketdata.feed;
+
+import org.pm.marketdata.latency.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * First-arrival arbitration between redundant feeds carrying the same trade streams.
+ *
+ * Every symbol has a small ring of the most recent trade ids, indexed by {@code id & (window-1)}.
+ * A copy wins if it CASes its id into the slot first; the later copy finds the same (or a newer)
+ * id there and is dropped. Trade ids are consecutive per symbol, so consecutive ids never share a
+ * slot and the ring only has to span the largest lead one feed gets over another. If one feed
+ * stalls the other simply wins everything, so failover is immediate and gapless.
+ *
+ * Each feed's connections call {@link #accept} from their own event loops; nothing blocks.
+ */
+@Component
+public class FeedArbiter {
+
+    // trades per symbol that one feed may run ahead of another and still be deduped; power of two
+    @Value("${marketdata.arbitration.window:4096}")
+    private int window;
+
+    private static final class Window {
+        final AtomicLongArray ids;
+        // receive nanoTime of the winning copy, to see how far behind the loser was
+        final AtomicLongArray arrivals;
+
+        Window(int size) {
+            ids = new AtomicLongArray(size);
+            arrivals = new AtomicLongArray(size);
+        }
+    }
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private int mask;
+    private List<String> feedNames = List.of();
+    private LongAdder[] wins;
+    private LongAdder[] losses;
+    private LatencyHistogram[] behind;
+    private AtomicLongArray lastSeenNanos;
+
+    public synchronized void start(List<String> feeds) {
+        int size = Integer.highestOneBit(Math.max(2, window - 1)) << 1;
+        mask = size - 1;
+        window = size;
+        feedNames = List.copyOf(feeds);
+        wins = new LongAdder[feeds.size()];
+        losses = new LongAdder[feeds.size()];
+        behind = new LatencyHistogram[feeds.size()];
+        for (int i = 0; i < feeds.size(); i++) {
+            wins[i] = new LongAdder();
+            losses[i] = new LongAdder();
+            behind[i] = new LatencyHistogram();
+        }
+        lastSeenNanos = new AtomicLongArray(feeds.size());
+        enabled = true;
+        System.out.println("Feed arbitration across " + feeds.size() + " feeds, dedupe window " + size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if this is the first copy of the trade, false if another feed already delivered it
+     */
+    public boolean accept(String symbol, long tradeId, int feed, long receivedNanos) {
+        lastSeenNanos.lazySet(feed, receivedNanos);
+        if (tradeId <= 0) {
+            // no id to dedupe on (fallback parser on an odd frame)
+            return true;
+        }
+        Window w = windows.get(symbol);
+        if (w == null) {
+            w = windows.computeIfAbsent(symbol, s -> new Window(mask + 1));
+        }
+        int slot = (int) (tradeId & mask);
+        while (true) {
+            long current = w.ids.get(slot);
+            if (current >= tradeId) {
+                losses[feed].increment();
+                if (current == tradeId) {
+                    behind[feed].record((receivedNanos - w.arrivals.get(slot)) / 1000);
+                }
+                return false;
+            }
+            if (w.ids.compareAndSet(slot, current, tradeId)) {
+                w.arrivals.lazySet(slot, receivedNanos);
+                wins[feed].increment();
+                return true;
+            }
+        }
+    }
+
+    public List<FeedStats> stats() {
+        List<FeedStats> stats = new ArrayList<>(feedNames.size());
+        long now = System.nanoTime();
+        for (int i = 0; i < feedNames.size(); i++) {
+            long w = wins[i].sum();
+            long l = losses[i].sum();
+            long lastSeen = lastSeenNanos.get(i);
+            stats.add(new FeedStats(feedNames.get(i), w, l, w + l == 0 ? 0.0 : (double) w / (w + l),
+                    lastSeen == 0 ? -1 : (now - lastSeen) / 1_000_000, behind[i].snapshot(false)));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,62 @@
+package org.pm.marketdata.feed;
+
+import org.pm.marketdata.latency.HistogramSnapshot;
+
+/**
+ * Arbitration outcome for one redundant feed, served by /stats/feeds.
+ */
+public class FeedStats {
+    private final String feed;
+    private final long wins;
+    private final long losses;
+    private final double winRate;
+    private final long millisSinceLastMessage;
+    // how far (us) this feed's copy arrived after the winning copy, for trades it lost
+    private final HistogramSnapshot behindWinnerMicros;
+
+    public FeedStats(String feed, long wins, long losses, double winRate, long millisSinceLastMessage,
+                     HistogramSnapshot behindWinnerMicros) {
+        this.feed = feed;
+        this.wins = wins;
+        this.losses = losses;
+        this.winRate = winRate;
+        this.millisSinceLastMessage = millisSinceLastMessage;
+        this.behindWinnerMicros = behindWinnerMicros;
+    }
+
+    public String getFeed() {
+        return feed;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public double getWinRate() {
+        return winRate;
+    }
+
+    public long getMillisSinceLastMessage() {
+        return millisSinceLastMessage;
+    }
+
+    public HistogramSnapshot getBehindWinnerMicros() {
+        return behindWinnerMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "FeedStats{" +
+                "feed='" + feed + '\'' +
+                ", wins=" + wins +
+                ", losses=" + losses +
+                ", winRate=" + winRate +
+                ", millisSinceLastMessage=" + millisSinceLastMessage +
+                ", behindWinnerMicros=" + behindWinnerMicros +
+                '}';
+    }
+}
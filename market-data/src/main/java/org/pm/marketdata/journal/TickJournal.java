@@ -0,0 +1,60 @@
+package org.pm.marketdata.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Raw trade capture. Every received tick is appended, with its receive nanoTime, to a
+ * memory-mapped journal that rolls daily; see {@link TickJournalWriter}. Read it back with
+ * {@link org.pm.common.journal.TickJournalReader}.
+ */
+@Component
+public class TickJournal {
+
+    @Value("${marketdata.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${marketdata.journal.dir:./journal}")
+    private String dir;
+
+    // mapped size of each file; a full file rolls to the next segment of the same day
+    @Value("${marketdata.journal.segment-size-mb:512}")
+    private long segmentSizeMb;
+
+    private final List<TickJournalWriter> writers = new CopyOnWriteArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** One per connection; the writer must only be used from that connection's event loop. */
+    public TickJournalWriter newWriter(String name) {
+        TickJournalWriter writer = new TickJournalWriter(Path.of(dir), name, segmentSizeMb * 1024 * 1024);
+        writers.add(writer);
+        return writer;
+    }
+
+    public long getWritten() {
+        long sum = 0;
+        for (TickJournalWriter writer : writers) sum += writer.getWritten();
+        return sum;
+    }
+
+    public long getDropped() {
+        long sum = 0;
+        for (TickJournalWriter writer : writers) sum += writer.getDropped();
+        return sum;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (TickJournalWriter writer : writers) {
+            writer.close();
+        }
+    }
+}
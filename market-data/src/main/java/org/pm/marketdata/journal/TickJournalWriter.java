@@ -0,0 +1,176 @@
+package org.pm.marketdata.journal;
+
+import org.pm.common.model.Tick;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.pm.common.journal.TickJournalFormat.*;
+
+/**
+ * Appends ticks to a memory-mapped journal segment (layout in
+ * {@link org.pm.common.journal.TickJournalFormat}).
+ *
+ * Single writer: one instance per websocket connection, only ever called from that connection's
+ * event loop, so there are no locks and no CAS. An append is a handful of stores into the mapping
+ * followed by a release store of the commit word; the kernel writes the pages back on its own.
+ * The only syscalls happen when a segment fills up or the UTC day (by trade time) changes and the
+ * next file is mapped.
+ */
+public final class TickJournalWriter implements AutoCloseable {
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ORDER);
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final Path root;
+    private final String name;
+    private final int segmentBytes;
+
+    private MappedByteBuffer buf;
+    private int position;
+    private int limit;
+    private LocalDate day;
+    private long rollAtMillis = Long.MIN_VALUE;
+    private int segment;
+    private boolean failed;
+
+    // symbol -> its 16 padded bytes as two longs
+    private final Map<String, long[]> symbolBytes = new HashMap<>();
+
+    private long written;
+    private long dropped;
+
+    /**
+     * @param segmentBytes size of each mapped file; rounded down to whole records, max ~2GB
+     */
+    public TickJournalWriter(Path root, String name, long segmentBytes) {
+        this.root = root;
+        this.name = name;
+        long records = (Math.min(segmentBytes, Integer.MAX_VALUE) - HEADER_SIZE) / RECORD_SIZE;
+        if (records < 1) {
+            throw new IllegalArgumentException("Journal segment too small: " + segmentBytes);
+        }
+        this.segmentBytes = (int) (HEADER_SIZE + records * RECORD_SIZE);
+    }
+
+    public void append(Tick tick, long receiveNanos) {
+        long timestamp = tick.getTimestamp();
+        if (timestamp >= rollAtMillis || position > limit) {
+            if (!roll(timestamp)) {
+                dropped++;
+                return;
+            }
+        }
+
+        int at = position;
+        long[] symbol = symbolBytes.get(tick.getSymbol());
+        if (symbol == null) {
+            symbol = encodeSymbol(tick.getSymbol());
+        }
+        buf.putLong(at + TIMESTAMP, timestamp);
+        buf.putLong(at + RECEIVE_NANOS, receiveNanos);
+        buf.putLong(at + TRADE_ID, tick.getTradeId());
+        buf.putDouble(at + PRICE, tick.getPrice());
+        buf.putDouble(at + QUANTITY, tick.getQuantity());
+        buf.putLong(at + SYMBOL, symbol[0]);
+        buf.putLong(at + SYMBOL + 8, symbol[1]);
+        // publishes the record to readers tailing the file
+        INT.setRelease((ByteBuffer) buf, at + COMMIT, COMMITTED);
+
+        position = at + RECORD_SIZE;
+        written++;
+    }
+
+    private long[] encodeSymbol(String symbol) {
+        ByteBuffer bytes = ByteBuffer.allocate(SYMBOL_LENGTH).order(ORDER);
+        for (int i = 0; i < Math.min(symbol.length(), SYMBOL_LENGTH); i++) {
+            bytes.put(i, (byte) symbol.charAt(i));
+        }
+        long[] encoded = {bytes.getLong(0), bytes.getLong(8)};
+        symbolBytes.put(symbol, encoded);
+        return encoded;
+    }
+
+    // Maps the next segment: a new day directory when the trade time crossed midnight UTC,
+    // otherwise the next free segment number of the current day.
+    private boolean roll(long timestamp) {
+        if (failed) return false;
+        try {
+            LocalDate tickDay = LocalDate.ofEpochDay(Math.floorDiv(timestamp, DAY_MILLIS));
+            if (day == null || tickDay.isAfter(day)) {
+                day = tickDay;
+                segment = 0;
+                rollAtMillis = (tickDay.toEpochDay() + 1) * DAY_MILLIS;
+            } else {
+                segment++;
+            }
+
+            Path file = segmentFile(root, day, name, segment);
+            // never overwrite what an earlier run captured today
+            while (Files.exists(file)) {
+                file = segmentFile(root, day, name, ++segment);
+            }
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            }
+            buf.order(ORDER);
+            buf.putInt(HEADER_VERSION, VERSION);
+            buf.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+            buf.putInt(HEADER_SEGMENT, segment);
+            buf.putLong(HEADER_CREATED, System.currentTimeMillis());
+            INT.setRelease((ByteBuffer) buf, HEADER_MAGIC, MAGIC);
+
+            position = HEADER_SIZE;
+            limit = segmentBytes - RECORD_SIZE;
+            System.out.println("Tick journal " + name + " writing " + file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // losing the capture must never take the feed down with it
+            System.err.println("Tick journal " + name + " disabled: " + e.getMessage());
+            failed = true;
+            buf = null;
+            // route every later append through roll(), which now just refuses
+            rollAtMillis = Long.MIN_VALUE;
+            return false;
+        }
+    }
+
+    /** Asks the kernel to write dirty pages back now (msync); not needed for readers on this host. */
+    public void flush() {
+        MappedByteBuffer current = buf;
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // plain fields, read racily for stats
+    public long getWritten() {
+        return written;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,79 @@
+package org.pm.marketdata.latency;
+
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency and completeness of the live trade path:
+ *  - exchange -> receive: trade time T against our receive time (includes clock skew to Binance),
+ *  - receive -> ack: from the websocket frame to the Kafka broker acknowledging the record,
+ *  - trade-id gaps and duplicates per symbol.
+ * Receive and publish times also go out as Kafka headers (epoch microseconds, 8 bytes big-endian)
+ * so consumers can measure their own lag against them.
+ */
+@Component
+public class IngestMetrics {
+
+    public static final String RECEIVED_HEADER = "md-received-us";
+    public static final String PUBLISHED_HEADER = "md-published-us";
+
+    @Value("${marketdata.latency.headers:true}")
+    private boolean headers;
+
+    private final LatencyHistogram exchangeToReceive = new LatencyHistogram();
+    private final LatencyHistogram receiveToAck = new LatencyHistogram();
+    private final SequenceTracker sequences = new SequenceTracker();
+
+    // nanoTime -> epoch micros, calibrated once; drift over a run is far below what we measure
+    private final long epochMicrosAtStart = System.currentTimeMillis() * 1000;
+    private final long nanosAtStart = System.nanoTime();
+
+    public long epochMicros(long nanoTime) {
+        return epochMicrosAtStart + (nanoTime - nanosAtStart) / 1000;
+    }
+
+    // event loop, once per received trade
+    public void onReceive(String symbol, long tradeId, long tradeTimeMillis, long receivedNanos) {
+        exchangeToReceive.record(epochMicros(receivedNanos) - tradeTimeMillis * 1000);
+        sequences.track(symbol, tradeId);
+    }
+
+    // producer I/O thread, once per acknowledged record
+    public void onAck(long receivedNanos) {
+        receiveToAck.record((System.nanoTime() - receivedNanos) / 1000);
+    }
+
+    public void stamp(Headers recordHeaders, long receivedNanos) {
+        if (!headers) return;
+        if (receivedNanos != 0) {
+            recordHeaders.add(RECEIVED_HEADER, longBytes(epochMicros(receivedNanos)));
+        }
+        recordHeaders.add(PUBLISHED_HEADER, longBytes(epochMicros(System.nanoTime())));
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+
+    public boolean isHeaders() {
+        return headers;
+    }
+
+    public SequenceTracker getSequences() {
+        return sequences;
+    }
+
+    /** @param reset start new histogram intervals after reading */
+    public Map<String, Object> latency(boolean reset) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("unit", "us");
+        stats.put("exchangeToReceive", exchangeToReceive.snapshot(reset));
+        stats.put("receiveToAck", receiveToAck.snapshot(reset));
+        return stats;
+    }
+}
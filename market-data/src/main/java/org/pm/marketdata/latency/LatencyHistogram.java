@@ -0,0 +1,84 @@
+package org.pm.marketdata.latency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of non-negative longs (microseconds here).
+ *
+ * Values below 32 get their own bucket; above that every power of two is split into 32 buckets,
+ * so any recorded value is reported within ~3% of itself. Recording is one bucket index
+ * computation and one atomic increment, safe from any number of threads. 1888 buckets cover the
+ * whole long range, ~15KB per histogram.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS - 1 + 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long value) {
+        counts.getAndIncrement(bucket(value < 0 ? 0 : value));
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    // smallest value that lands in the bucket
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        long sub = bucket % SUB_COUNT;
+        return (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    }
+
+    // largest value that lands in the bucket
+    static long upperBound(int bucket) {
+        return bucket + 1 < BUCKETS ? lowerBound(bucket + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Copies the counts out. Concurrent records may or may not be included, but nothing is lost.
+     *
+     * @param reset clear the histogram while copying, so the next snapshot covers a fresh interval
+     */
+    public HistogramSnapshot snapshot(boolean reset) {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+            total += copy[i];
+        }
+        if (total == 0) {
+            return new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        double sum = 0;
+        long min = -1, max = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (copy[i] == 0) continue;
+            // midpoint of the bucket for the mean
+            sum += copy[i] * (lowerBound(i) / 2.0 + upperBound(i) / 2.0);
+            if (min < 0) min = lowerBound(i);
+            max = upperBound(i);
+        }
+        return new HistogramSnapshot(total, min, sum / total,
+                percentile(copy, total, 0.50), percentile(copy, total, 0.90),
+                percentile(copy, total, 0.99), percentile(copy, total, 0.999), max);
+    }
+
+    private static long percentile(long[] copy, long total, double quantile) {
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < copy.length; i++) {
+            seen += copy[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(copy.length - 1);
+    }
+}
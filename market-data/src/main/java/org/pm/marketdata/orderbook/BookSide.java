@@ -0,0 +1,112 @@
+package org.pm.marketdata.orderbook;
+
+import org.pm.marketdata.parser.LevelSink;
+
+import java.util.Arrays;
+
+/**
+ * One side of an L2 book as two parallel primitive arrays.
+ *
+ * Levels are kept sorted from worst to best, so the best price is always at index size-1.
+ * Asks are stored with negated prices, which lets both sides share one ascending order and
+ * one binary search. Lookups are O(log levels); an insert or delete only shifts the levels
+ * that are better than the one being changed, which for depth-stream traffic (almost all of it
+ * within a few ticks of the touch) is a handful of elements. Nothing is allocated after construction.
+ */
+public final class BookSide implements LevelSink {
+
+    private final boolean bids;
+    private final int maxLevels;
+    private final double[] keys;
+    private final double[] quantities;
+    private int size;
+
+    /**
+     * @param maxLevels levels to keep; the arrays hold twice that so the worst levels can be
+     *                  trimmed in one bulk copy instead of on every insert
+     */
+    public BookSide(boolean bids, int maxLevels) {
+        this.bids = bids;
+        this.maxLevels = maxLevels;
+        this.keys = new double[maxLevels * 2];
+        this.quantities = new double[maxLevels * 2];
+    }
+
+    /**
+     * Sets the quantity at a price level; zero removes the level.
+     */
+    @Override
+    public void set(double price, double quantity) {
+        double key = bids ? price : -price;
+        int idx = Arrays.binarySearch(keys, 0, size, key);
+
+        if (idx >= 0) {
+            if (quantity == 0.0) {
+                int tail = size - idx - 1;
+                System.arraycopy(keys, idx + 1, keys, idx, tail);
+                System.arraycopy(quantities, idx + 1, quantities, idx, tail);
+                size--;
+            } else {
+                quantities[idx] = quantity;
+            }
+            return;
+        }
+
+        if (quantity == 0.0) {
+            // removing a level we don't hold (e.g. trimmed away) is a no-op
+            return;
+        }
+
+        int insertAt = -idx - 1;
+        if (size == keys.length) {
+            if (insertAt == 0) {
+                // worse than everything we keep
+                return;
+            }
+            insertAt -= trimWorst();
+            if (insertAt < 0) return;
+        }
+        int tail = size - insertAt;
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, tail);
+        System.arraycopy(quantities, insertAt, quantities, insertAt + 1, tail);
+        keys[insertAt] = key;
+        quantities[insertAt] = quantity;
+        size++;
+    }
+
+    // drops everything beyond maxLevels from the worst end; returns how many levels were dropped
+    private int trimWorst() {
+        int drop = size - maxLevels;
+        System.arraycopy(keys, drop, keys, 0, maxLevels);
+        System.arraycopy(quantities, drop, quantities, 0, maxLevels);
+        size = maxLevels;
+        return drop;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int depth() {
+        return Math.min(size, maxLevels);
+    }
+
+    /** @param level 0 = best */
+    public double price(int level) {
+        double key = keys[size - 1 - level];
+        return bids ? key : -key;
+    }
+
+    /** @param level 0 = best */
+    public double quantity(int level) {
+        return quantities[size - 1 - level];
+    }
+
+    public double bestPrice() {
+        return size == 0 ? Double.NaN : price(0);
+    }
+
+    public boolean isBids() {
+        return bids;
+    }
+}
@@ -0,0 +1,51 @@
+package org.pm.marketdata.orderbook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.pm.marketdata.util.JsonUtil;
+
+/**
+ * REST depth snapshot (GET /api/v3/depth) used to seed or resync a book.
+ * Only fetched on startup and after a sequence gap, so it is parsed with plain Jackson.
+ */
+public final class DepthSnapshot {
+
+    final long lastUpdateId;
+    final double[] bidPrices;
+    final double[] bidQuantities;
+    final double[] askPrices;
+    final double[] askQuantities;
+
+    public DepthSnapshot(long lastUpdateId, double[] bidPrices, double[] bidQuantities,
+                         double[] askPrices, double[] askQuantities) {
+        this.lastUpdateId = lastUpdateId;
+        this.bidPrices = bidPrices;
+        this.bidQuantities = bidQuantities;
+        this.askPrices = askPrices;
+        this.askQuantities = askQuantities;
+    }
+
+    //    {"lastUpdateId":1027024,"bids":[["4.00000000","431.00000000"]],"asks":[["4.00000200","12.00000000"]]}
+    public static DepthSnapshot parse(String body) {
+        JsonNode json = JsonUtil.parse(body);
+        JsonNode bids = json.get("bids");
+        JsonNode asks = json.get("asks");
+
+        double[] bidPrices = new double[bids.size()];
+        double[] bidQuantities = new double[bids.size()];
+        for (int i = 0; i < bids.size(); i++) {
+            bidPrices[i] = bids.get(i).get(0).asDouble();
+            bidQuantities[i] = bids.get(i).get(1).asDouble();
+        }
+        double[] askPrices = new double[asks.size()];
+        double[] askQuantities = new double[asks.size()];
+        for (int i = 0; i < asks.size(); i++) {
+            askPrices[i] = asks.get(i).get(0).asDouble();
+            askQuantities[i] = asks.get(i).get(1).asDouble();
+        }
+        return new DepthSnapshot(json.get("lastUpdateId").asLong(), bidPrices, bidQuantities, askPrices, askQuantities);
+    }
+
+    public long getLastUpdateId() {
+        return lastUpdateId;
+    }
+}
@@ -0,0 +1,138 @@
+package org.pm.marketdata.orderbook;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-symbol L2 book maintained from a REST snapshot plus the diff-depth stream, following
+ * Binance's sync rules:
+ *  - drop diffs with u <= lastUpdateId of the snapshot,
+ *  - the first diff applied after a snapshot must have U <= lastUpdateId + 1 <= u,
+ *  - every later diff must have U == previous u + 1, anything else is a gap and forces a resync.
+ *
+ * Single-writer: only the event loop of the depth connection that carries this symbol touches it.
+ * The REST snapshot arrives on another thread and is handed over through {@link #offerSnapshot},
+ * then applied by the owner on its next frame. While unsynced, diffs are buffered as raw frames
+ * (the only allocation, and only during a resync).
+ */
+public final class OrderBook {
+
+    public enum Sequence { APPLY, STALE, GAP, NOT_SYNCED }
+
+    // frames kept while waiting for a snapshot; beyond this we'd be resyncing anyway
+    private static final int MAX_BUFFERED = 2048;
+
+    private final String symbol;
+    private final BookSide bids;
+    private final BookSide asks;
+
+    private long lastUpdateId;
+    private boolean synced;
+    private boolean firstDiffAfterSnapshot;
+    private long lastPublishMillis;
+
+    private final ArrayDeque<byte[]> buffered = new ArrayDeque<>();
+    private volatile DepthSnapshot pendingSnapshot;
+    final AtomicBoolean snapshotInFlight = new AtomicBoolean();
+
+    public OrderBook(String symbol, int maxLevels) {
+        this.symbol = symbol;
+        this.bids = new BookSide(true, maxLevels);
+        this.asks = new BookSide(false, maxLevels);
+    }
+
+    public Sequence check(long firstUpdateId, long finalUpdateId) {
+        if (!synced) return Sequence.NOT_SYNCED;
+        if (finalUpdateId <= lastUpdateId) return Sequence.STALE;
+        if (firstDiffAfterSnapshot) {
+            return firstUpdateId <= lastUpdateId + 1 ? Sequence.APPLY : Sequence.GAP;
+        }
+        return firstUpdateId == lastUpdateId + 1 ? Sequence.APPLY : Sequence.GAP;
+    }
+
+    // call after the diff's levels have been applied
+    public void applied(long finalUpdateId) {
+        lastUpdateId = finalUpdateId;
+        firstDiffAfterSnapshot = false;
+    }
+
+    /** Called from the REST client thread. */
+    public void offerSnapshot(DepthSnapshot snapshot) {
+        pendingSnapshot = snapshot;
+        snapshotInFlight.set(false);
+    }
+
+    /**
+     * Applies a snapshot handed over by {@link #offerSnapshot}, if there is one.
+     *
+     * @return true if the book was just (re)seeded and buffered frames should be replayed
+     */
+    public boolean adoptPendingSnapshot() {
+        DepthSnapshot snapshot = pendingSnapshot;
+        if (snapshot == null) return false;
+        pendingSnapshot = null;
+
+        bids.clear();
+        asks.clear();
+        for (int i = 0; i < snapshot.bidPrices.length; i++) {
+            bids.set(snapshot.bidPrices[i], snapshot.bidQuantities[i]);
+        }
+        for (int i = 0; i < snapshot.askPrices.length; i++) {
+            asks.set(snapshot.askPrices[i], snapshot.askQuantities[i]);
+        }
+        lastUpdateId = snapshot.lastUpdateId;
+        synced = true;
+        firstDiffAfterSnapshot = true;
+        return true;
+    }
+
+    // a gap was detected: stop applying diffs until the next snapshot arrives
+    public void invalidate() {
+        synced = false;
+        bids.clear();
+        asks.clear();
+    }
+
+    public void buffer(byte[] frame) {
+        if (buffered.size() == MAX_BUFFERED) {
+            buffered.pollFirst();
+        }
+        buffered.addLast(frame);
+    }
+
+    public void bufferFirst(byte[] frame) {
+        buffered.addFirst(frame);
+    }
+
+    public byte[] pollBuffered() {
+        return buffered.pollFirst();
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public BookSide bids() {
+        return bids;
+    }
+
+    public BookSide asks() {
+        return asks;
+    }
+
+    public long getLastUpdateId() {
+        return lastUpdateId;
+    }
+
+    long getLastPublishMillis() {
+        return lastPublishMillis;
+    }
+
+    void setLastPublishMillis(long lastPublishMillis) {
+        this.lastPublishMillis = lastPublishMillis;
+    }
+}
@@ -0,0 +1,204 @@
+package org.pm.marketdata.orderbook;
+
+import io.netty.buffer.ByteBuf;
+import org.pm.common.model.OrderBookSnapshot;
+import org.pm.marketdata.parser.BinanceDepthParser;
+import org.pm.marketdata.parser.DepthUpdate;
+import org.pm.marketdata.parser.SymbolTable;
+import org.pm.marketdata.websocket.BinanceWebSocketClient;
+import org.pm.marketdata.websocket.FrameHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Depth-stream ingest: keeps an L2 {@link OrderBook} per symbol from Binance diff-depth events
+ * and publishes the top levels of each book to the depth topic at most once per interval.
+ */
+@Service
+public class OrderBookService {
+
+    @Value("${marketdata.depth.enabled:false}")
+    private boolean enabled;
+
+    @Value("${marketdata.symbols}")
+    private List<String> symbols;
+
+    @Value("${marketdata.depth.connections:1}")
+    private int connections;
+
+    // appended to each symbol, e.g. btcusdt@depth@100ms
+    @Value("${marketdata.depth.stream-suffix:@depth@100ms}")
+    private String streamSuffix;
+
+    @Value("${marketdata.depth.snapshot-url:https://api.binance.com/api/v3/depth}")
+    private String snapshotUrl;
+
+    @Value("${marketdata.depth.snapshot-limit:1000}")
+    private int snapshotLimit;
+
+    @Value("${marketdata.depth.max-levels:1000}")
+    private int maxLevels;
+
+    @Value("${marketdata.depth.publish-levels:10}")
+    private int publishLevels;
+
+    @Value("${marketdata.depth.publish-interval-ms:100}")
+    private long publishIntervalMs;
+
+    @Value("${marketdata.depth.topic:market-depth}")
+    private String topic;
+
+    private final KafkaTemplate<String, OrderBookSnapshot> kafkaTemplate;
+    private final BinanceWebSocketClient wsClient;
+    private final SymbolTable symbolTable = new SymbolTable();
+    private final HttpClient restClient = HttpClient.create();
+
+    // filled once in start(), read-only afterwards
+    private final Map<String, OrderBook> books = new HashMap<>();
+
+    public OrderBookService(KafkaTemplate<String, OrderBookSnapshot> kafkaTemplate,
+                            BinanceWebSocketClient wsClient) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.wsClient = wsClient;
+    }
+
+    public void start() {
+        if (!enabled) return;
+
+        List<String> streams = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            String lower = symbol.trim().toLowerCase();
+            books.put(lower.toUpperCase(), new OrderBook(lower.toUpperCase(), maxLevels));
+            streams.add(lower + streamSuffix);
+        }
+        System.out.println("Starting depth ingest for " + books.size() + " symbols -> " + topic);
+        wsClient.connect("depth", streams, connections, connection -> new DepthFeed());
+    }
+
+    public OrderBook book(String symbol) {
+        return books.get(symbol);
+    }
+
+    // One per depth connection; owns the books of the symbols on that connection.
+    private final class DepthFeed implements FrameHandler {
+        private final BinanceDepthParser parser = new BinanceDepthParser(symbolTable);
+        private final DepthUpdate update = new DepthUpdate();
+        private final DepthUpdate replay = new DepthUpdate();
+
+        @Override
+        public long onFrame(ByteBuf frame) {
+            if (!parser.parse(frame, update)) return -1;
+            OrderBook book = books.get(update.getSymbol());
+            if (book == null) return -1;
+
+            if (book.adoptPendingSnapshot()) {
+                replayBuffered(book);
+            }
+            process(book, update, false);
+            return update.getEventTime();
+        }
+
+        private void process(OrderBook book, DepthUpdate diff, boolean replaying) {
+            switch (book.check(diff.getFirstUpdateId(), diff.getFinalUpdateId())) {
+                case APPLY -> {
+                    if (!BinanceDepthParser.applyBids(diff, book.bids())
+                            || !BinanceDepthParser.applyAsks(diff, book.asks())) {
+                        // half-applied diff: the book can't be trusted any more
+                        resync(book, "undecodable levels");
+                        return;
+                    }
+                    book.applied(diff.getFinalUpdateId());
+                    maybePublish(book, diff.getEventTime());
+                }
+                case STALE -> { }
+                case GAP -> {
+                    resync(book, "gap: expected U=" + (book.getLastUpdateId() + 1)
+                            + " got U=" + diff.getFirstUpdateId());
+                    if (replaying) book.bufferFirst(diff.copyFrame());
+                    else book.buffer(diff.copyFrame());
+                }
+                case NOT_SYNCED -> {
+                    book.buffer(diff.copyFrame());
+                    requestSnapshot(book);
+                }
+            }
+        }
+
+        private void replayBuffered(OrderBook book) {
+            byte[] frame;
+            while (book.isSynced() && (frame = book.pollBuffered()) != null) {
+                if (parser.parse(frame, 0, frame.length, replay)) {
+                    process(book, replay, true);
+                }
+            }
+        }
+
+        private void resync(OrderBook book, String reason) {
+            System.err.println("Order book " + book.getSymbol() + " out of sync (" + reason + "), resyncing");
+            book.invalidate();
+            requestSnapshot(book);
+        }
+    }
+
+    private void requestSnapshot(OrderBook book) {
+        if (!book.snapshotInFlight.compareAndSet(false, true)) return;
+
+        restClient.get()
+                .uri(snapshotUrl + "?symbol=" + book.getSymbol() + "&limit=" + snapshotLimit)
+                .responseSingle((response, body) -> response.status().code() == 200
+                        ? body.asString()
+                        : Mono.error(new IllegalStateException("HTTP " + response.status().code())))
+                .map(DepthSnapshot::parse)
+                .retryWhen(Retry.backoff(5, Duration.ofSeconds(1)))
+                .subscribe(
+                        book::offerSnapshot,
+                        err -> {
+                            System.err.println("Depth snapshot for " + book.getSymbol() + " failed: " + err.getMessage());
+                            // the next diff will ask again
+                            book.snapshotInFlight.set(false);
+                        });
+    }
+
+    // runs on the book's event loop, so reading the book here is safe
+    private void maybePublish(OrderBook book, long eventTime) {
+        long now = System.currentTimeMillis();
+        if (now - book.getLastPublishMillis() < publishIntervalMs) return;
+        book.setLastPublishMillis(now);
+
+        BookSide bids = book.bids();
+        BookSide asks = book.asks();
+        int bidLevels = Math.min(publishLevels, bids.depth());
+        int askLevels = Math.min(publishLevels, asks.depth());
+        double[] bidPrices = new double[bidLevels];
+        double[] bidQuantities = new double[bidLevels];
+        double[] askPrices = new double[askLevels];
+        double[] askQuantities = new double[askLevels];
+        for (int i = 0; i < bidLevels; i++) {
+            bidPrices[i] = bids.price(i);
+            bidQuantities[i] = bids.quantity(i);
+        }
+        for (int i = 0; i < askLevels; i++) {
+            askPrices[i] = asks.price(i);
+            askQuantities[i] = asks.quantity(i);
+        }
+
+        OrderBookSnapshot snapshot = new OrderBookSnapshot(book.getSymbol(), book.getLastUpdateId(), eventTime,
+                bidPrices, bidQuantities, askPrices, askQuantities);
+        kafkaTemplate.send(topic, book.getSymbol(), snapshot)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        System.err.println("Failed to send book snapshot: " + ex.getMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,110 @@
+package org.pm.marketdata.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses the ASCII decimals Binance sends as JSON strings ("88500.50000000")
+ * straight out of the frame bytes, without going through a String or Double.parseDouble.
+ *
+ * The digits are folded into a long mantissa and divided once by an exact power of ten. That
+ * gives the correctly rounded double only while the mantissa itself is exact as a double
+ * (below 2^53, i.e. all 15-digit and most 16-digit inputs, every price/qty Binance publishes).
+ * Anything longer returns NaN from {@link #parseDouble}; {@link #toDouble} falls back to
+ * Double.parseDouble for those.
+ */
+public final class AsciiDecimals {
+
+    // keeps the mantissa (and parseLong) from overflowing a long
+    private static final int MAX_DIGITS = 18;
+
+    // largest mantissa a double holds exactly
+    private static final long EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POW10 = new double[MAX_DIGITS + 1];
+
+    static {
+        double p = 1.0;
+        for (int i = 0; i < POW10.length; i++) {
+            POW10[i] = p;
+            p *= 10.0;
+        }
+    }
+
+    private AsciiDecimals() {}
+
+    /**
+     * @return the decimal in [from, to), or NaN if it is malformed or too long to parse exactly
+     */
+    public static double parseDouble(byte[] buf, int from, int to) {
+        if (from >= to) return Double.NaN;
+
+        boolean negative = false;
+        int i = from;
+        if (buf[i] == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            byte b = buf[i];
+            if (b == '.') {
+                if (fractionDigits >= 0) return Double.NaN;
+                fractionDigits = 0;
+                continue;
+            }
+            int d = b - '0';
+            if (d < 0 || d > 9) return Double.NaN;
+            // leading zeros don't count against the precision budget
+            if (mantissa != 0 || d != 0) {
+                if (++digits > MAX_DIGITS) return Double.NaN;
+            }
+            mantissa = mantissa * 10 + d;
+            if (fractionDigits >= 0) fractionDigits++;
+        }
+
+        if (mantissa >= EXACT_MANTISSA) {
+            // would be rounded twice (to a double, then by the division)
+            return Double.NaN;
+        }
+        if (fractionDigits > MAX_DIGITS) {
+            // "0.0000000000000000001"-style inputs; never seen from Binance
+            return Double.NaN;
+        }
+
+        double value = fractionDigits > 0 ? mantissa / POW10[fractionDigits] : (double) mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Like {@link #parseDouble}, but decimals the fast path can't round exactly go through
+     * Double.parseDouble (allocating) instead of being refused.
+     *
+     * @return the decimal in [from, to), or NaN if it is malformed
+     */
+    public static double toDouble(byte[] buf, int from, int to) {
+        double value = parseDouble(buf, from, to);
+        if (!Double.isNaN(value)) return value;
+        try {
+            return Double.parseDouble(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * @return the unsigned integer in [from, to), or -1 if it is malformed
+     */
+    public static long parseLong(byte[] buf, int from, int to) {
+        if (from >= to || to - from > MAX_DIGITS) return -1;
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,171 @@
+package org.pm.marketdata.parser;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.pm.marketdata.parser.JsonBytes.*;
+
+/**
+ * Streaming parser for Binance diff-depth events
+ *   {"e":"depthUpdate","E":1712345678913,"s":"BTCUSDT","U":157,"u":160,"b":[["0.0024","10"]],"a":[["0.0026","100"]]}
+ * raw or inside a combined-stream envelope.
+ *
+ * Works like {@link BinanceTradeParser}: one instance per event loop, no allocation per frame.
+ * {@link #parse} only decodes the header and remembers where the level arrays are, so the
+ * book can check U/u before {@link #applyBids}/{@link #applyAsks} walk the levels.
+ */
+public final class BinanceDepthParser {
+
+    private static final int SYMBOL = 1;
+    private static final int FIRST_ID = 1 << 1;
+    private static final int FINAL_ID = 1 << 2;
+    private static final int BIDS = 1 << 3;
+    private static final int ASKS = 1 << 4;
+    private static final int REQUIRED = SYMBOL | FIRST_ID | FINAL_ID | BIDS | ASKS;
+
+    private static final byte[] DEPTH_UPDATE = "depthUpdate".getBytes(StandardCharsets.US_ASCII);
+
+    private final SymbolTable symbols;
+    private byte[] scratch = new byte[8192];
+
+    public BinanceDepthParser(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Decodes the frame header into {@code out}. The level ranges point into either the frame's
+     * backing array or this parser's scratch buffer, so apply them before parsing the next frame.
+     */
+    public boolean parse(ByteBuf frame, DepthUpdate out) {
+        int length = frame.readableBytes();
+        if (frame.hasArray()) {
+            int offset = frame.arrayOffset() + frame.readerIndex();
+            return parse(frame.array(), offset, offset + length, out);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        frame.getBytes(frame.readerIndex(), scratch, 0, length);
+        return parse(scratch, 0, length, out);
+    }
+
+    public boolean parse(byte[] frame, int from, int to, DepthUpdate out) {
+        int i = from;
+        int seen = 0;
+        out.buf = frame;
+        out.frameFrom = from;
+        out.frameTo = to;
+
+        while (i < to) {
+            if (frame[i] != '"') {
+                i++;
+                continue;
+            }
+
+            int keyStart = i + 1;
+            int keyEnd = endOfString(frame, keyStart, to);
+            if (keyEnd < 0) return false;
+            i = skipWhitespace(frame, keyEnd + 1, to);
+            if (i >= to || frame[i] != ':') return false;
+            i = skipWhitespace(frame, i + 1, to);
+            if (i >= to) return false;
+
+            byte key = keyEnd - keyStart == 1 ? frame[keyStart] : 0;
+            byte first = frame[i];
+
+            if (first == '"') {
+                int valueStart = i + 1;
+                int valueEnd = endOfString(frame, valueStart, to);
+                if (valueEnd < 0) return false;
+                i = valueEnd + 1;
+                if (key == 'e' && !isDepthUpdate(frame, valueStart, valueEnd)) {
+                    return false;
+                } else if (key == 's') {
+                    out.setSymbol(symbols.intern(frame, valueStart, valueEnd));
+                    seen |= SYMBOL;
+                }
+            } else if (first == '{') {
+                i++;
+            } else if (first == '[') {
+                int end = endOfContainer(frame, i, to);
+                if (end < 0) return false;
+                if (key == 'b') {
+                    out.bidsFrom = i;
+                    out.bidsTo = end;
+                    seen |= BIDS;
+                } else if (key == 'a') {
+                    out.asksFrom = i;
+                    out.asksTo = end;
+                    seen |= ASKS;
+                }
+                i = end;
+            } else {
+                int valueEnd = endOfLiteral(frame, i, to);
+                if (key == 'U' || key == 'u' || key == 'E') {
+                    long value = AsciiDecimals.parseLong(frame, i, valueEnd);
+                    if (value < 0) return false;
+                    if (key == 'U') {
+                        out.setFirstUpdateId(value);
+                        seen |= FIRST_ID;
+                    } else if (key == 'u') {
+                        out.setFinalUpdateId(value);
+                        seen |= FINAL_ID;
+                    } else {
+                        out.setEventTime(value);
+                    }
+                }
+                i = valueEnd;
+            }
+        }
+        return (seen & REQUIRED) == REQUIRED;
+    }
+
+    public static boolean applyBids(DepthUpdate update, LevelSink sink) {
+        return applyLevels(update.buf, update.bidsFrom, update.bidsTo, sink);
+    }
+
+    public static boolean applyAsks(DepthUpdate update, LevelSink sink) {
+        return applyLevels(update.buf, update.asksFrom, update.asksTo, sink);
+    }
+
+    /**
+     * Walks [["price","qty"],...] in buf[from, to). The only strings in a level array are the
+     * price/qty pairs, so they simply alternate.
+     *
+     * @return false if a level could not be decoded; levels before it have already been applied
+     */
+    static boolean applyLevels(byte[] buf, int from, int to, LevelSink sink) {
+        int i = from;
+        double price = 0;
+        boolean havePrice = false;
+        while (i < to) {
+            if (buf[i] != '"') {
+                i++;
+                continue;
+            }
+            int valueStart = i + 1;
+            int valueEnd = endOfString(buf, valueStart, to);
+            if (valueEnd < 0) return false;
+            double value = AsciiDecimals.toDouble(buf, valueStart, valueEnd);
+            if (Double.isNaN(value)) return false;
+            if (havePrice) {
+                sink.set(price, value);
+                havePrice = false;
+            } else {
+                price = value;
+                havePrice = true;
+            }
+            i = valueEnd + 1;
+        }
+        return !havePrice;
+    }
+
+    private static boolean isDepthUpdate(byte[] buf, int from, int to) {
+        if (to - from != DEPTH_UPDATE.length) return false;
+        for (int k = 0; k < DEPTH_UPDATE.length; k++) {
+            if (buf[from + k] != DEPTH_UPDATE[k]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package org.pm.marketdata.parser;
+
+import io.netty.buffer.ByteBuf;
+import org.pm.common.model.Tick;
+
+import static org.pm.marketdata.parser.JsonBytes.*;
+
+/**
+ * Streaming parser for Binance trade events, reading the websocket frame bytes directly.
+ *
+ * Handles both the raw stream payload
+ *   {"e":"trade","E":1712345678913,"s":"BTCUSDT","t":12345,"p":"88500.50","q":"0.002","T":1712345678912,"m":true,"M":true}
+ * and the combined-stream envelope {"stream":"btcusdt@trade","data":{...}}.
+ *
+ * Only s/p/q/T/t are decoded; everything else is skipped byte by byte. Nothing is allocated per
+ * frame: the symbol comes from the {@link SymbolTable} and the result is written into the caller's Tick.
+ *
+ * Heap frames are scanned in their backing array; direct frames are copied once into a reused
+ * scratch array, which is far cheaper than paying ByteBuf's bounds/refCnt checks on every byte.
+ * Because of that scratch array an instance belongs to one event loop; the symbol table can be shared.
+ */
+public final class BinanceTradeParser {
+
+    private static final int SYMBOL = 1;
+    private static final int PRICE = 1 << 1;
+    private static final int QUANTITY = 1 << 2;
+    private static final int TRADE_TIME = 1 << 3;
+    private static final int REQUIRED = SYMBOL | PRICE | QUANTITY | TRADE_TIME;
+
+    private final SymbolTable symbols;
+    private byte[] scratch = new byte[512];
+
+    public BinanceTradeParser(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Parses the readable bytes of the frame into {@code out} without moving the reader index.
+     *
+     * @return false if the frame is not a trade event or could not be decoded exactly;
+     *         {@code out} may then be partially written and the caller should use the slow path
+     */
+    public boolean parse(ByteBuf frame, Tick out) {
+        int length = frame.readableBytes();
+        if (frame.hasArray()) {
+            int offset = frame.arrayOffset() + frame.readerIndex();
+            return parse(frame.array(), offset, offset + length, out);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        frame.getBytes(frame.readerIndex(), scratch, 0, length);
+        return parse(scratch, 0, length, out);
+    }
+
+    /**
+     * Same as {@link #parse(ByteBuf, Tick)} for a frame held in {@code frame[from, to)}.
+     */
+    public boolean parse(byte[] frame, int from, int to, Tick out) {
+        int i = from;
+        int end = to;
+        int seen = 0;
+        long tradeId = 0;
+
+        while (i < end) {
+            byte b = frame[i];
+            if (b != '"') {
+                // '{', '}', ',' and whitespace between members
+                i++;
+                continue;
+            }
+
+            int keyStart = i + 1;
+            int keyEnd = endOfString(frame, keyStart, end);
+            if (keyEnd < 0) return false;
+            i = skipWhitespace(frame, keyEnd + 1, end);
+            if (i >= end || frame[i] != ':') return false;
+            i = skipWhitespace(frame, i + 1, end);
+            if (i >= end) return false;
+
+            byte key = keyEnd - keyStart == 1 ? frame[keyStart] : 0;
+            byte first = frame[i];
+
+            if (first == '"') {
+                int valueStart = i + 1;
+                int valueEnd = endOfString(frame, valueStart, end);
+                if (valueEnd < 0) return false;
+                i = valueEnd + 1;
+
+                switch (key) {
+                    case 'e' -> {
+                        if (!isTrade(frame, valueStart, valueEnd)) return false;
+                    }
+                    case 's' -> {
+                        out.setSymbol(symbols.intern(frame, valueStart, valueEnd));
+                        seen |= SYMBOL;
+                    }
+                    case 'p' -> {
+                        double price = AsciiDecimals.toDouble(frame, valueStart, valueEnd);
+                        if (Double.isNaN(price)) return false;
+                        out.setPrice(price);
+                        seen |= PRICE;
+                    }
+                    case 'q' -> {
+                        double qty = AsciiDecimals.toDouble(frame, valueStart, valueEnd);
+                        if (Double.isNaN(qty)) return false;
+                        out.setQuantity(qty);
+                        seen |= QUANTITY;
+                    }
+                    default -> { }
+                }
+            } else if (first == '{') {
+                // combined-stream "data" envelope: keep scanning its members
+                i++;
+            } else if (first == '[') {
+                i = endOfContainer(frame, i, end);
+                if (i < 0) return false;
+            } else {
+                int valueEnd = endOfLiteral(frame, i, end);
+                if (key == 'T') {
+                    long time = AsciiDecimals.parseLong(frame, i, valueEnd);
+                    if (time < 0) return false;
+                    out.setTimestamp(time);
+                    seen |= TRADE_TIME;
+                } else if (key == 't') {
+                    tradeId = AsciiDecimals.parseLong(frame, i, valueEnd);
+                }
+                i = valueEnd;
+            }
+        }
+
+        if ((seen & REQUIRED) != REQUIRED) return false;
+        out.setTradeId(tradeId);
+        return true;
+    }
+
+    private static boolean isTrade(byte[] buf, int from, int to) {
+        return to - from == 5
+                && buf[from] == 't'
+                && buf[from + 1] == 'r'
+                && buf[from + 2] == 'a'
+                && buf[from + 3] == 'd'
+                && buf[from + 4] == 'e';
+    }
+}
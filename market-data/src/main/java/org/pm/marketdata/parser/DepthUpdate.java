@@ -0,0 +1,65 @@
+package org.pm.marketdata.parser;
+
+import java.util.Arrays;
+
+/**
+ * Header of one Binance depthUpdate event as decoded by {@link BinanceDepthParser}.
+ * The bid/ask level arrays are not decoded up front; their byte ranges are kept so the
+ * caller can validate the sequence numbers first and only then apply the levels.
+ * Reused across frames.
+ */
+public final class DepthUpdate {
+
+    byte[] buf;
+    int frameFrom;
+    int frameTo;
+    int bidsFrom;
+    int bidsTo;
+    int asksFrom;
+    int asksTo;
+
+    private String symbol;
+    private long firstUpdateId;
+    private long finalUpdateId;
+    private long eventTime;
+
+    /** @return a copy of the whole frame, for buffering it while the book is resyncing */
+    public byte[] copyFrame() {
+        return Arrays.copyOfRange(buf, frameFrom, frameTo);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    // "U"
+    public long getFirstUpdateId() {
+        return firstUpdateId;
+    }
+
+    void setFirstUpdateId(long firstUpdateId) {
+        this.firstUpdateId = firstUpdateId;
+    }
+
+    // "u"
+    public long getFinalUpdateId() {
+        return finalUpdateId;
+    }
+
+    void setFinalUpdateId(long finalUpdateId) {
+        this.finalUpdateId = finalUpdateId;
+    }
+
+    // "E"
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    void setEventTime(long eventTime) {
+        this.eventTime = eventTime;
+    }
+}
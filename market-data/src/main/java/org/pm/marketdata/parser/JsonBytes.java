@@ -0,0 +1,58 @@
+package org.pm.marketdata.parser;
+
+/**
+ * Tiny scanning helpers shared by the streaming parsers. These only understand as much JSON
+ * as Binance's market-data payloads use (no escapes inside keys or the values we read).
+ */
+final class JsonBytes {
+
+    private JsonBytes() {}
+
+    static int skipWhitespace(byte[] b, int i, int end) {
+        while (i < end) {
+            byte c = b[i];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') break;
+            i++;
+        }
+        return i;
+    }
+
+    /** @return index of the closing quote of a string whose first content byte is at i, or -1 */
+    static int endOfString(byte[] b, int i, int end) {
+        while (i < end) {
+            byte c = b[i];
+            if (c == '"') return i;
+            if (c == '\\') i++;
+            i++;
+        }
+        return -1;
+    }
+
+    /** @return index just past a number/true/false/null literal starting at i */
+    static int endOfLiteral(byte[] b, int i, int end) {
+        while (i < end) {
+            byte c = b[i];
+            if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') break;
+            i++;
+        }
+        return i;
+    }
+
+    /** @return index just past the array or object opening at i, or -1 if it is not closed */
+    static int endOfContainer(byte[] b, int i, int end) {
+        int depth = 0;
+        while (i < end) {
+            byte c = b[i];
+            if (c == '"') {
+                i = endOfString(b, i + 1, end);
+                if (i < 0) return -1;
+            } else if (c == '[' || c == '{') {
+                depth++;
+            } else if (c == ']' || c == '}') {
+                if (--depth == 0) return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,11 @@
+package org.pm.marketdata.parser;
+
+/**
+ * Receives price levels as {@link BinanceDepthParser} walks a bids/asks array.
+ */
+@FunctionalInterface
+public interface LevelSink {
+
+    /** quantity 0 means the level was removed */
+    void set(double price, double quantity);
+}
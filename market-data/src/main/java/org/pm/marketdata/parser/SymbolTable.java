@@ -0,0 +1,64 @@
+package org.pm.marketdata.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interns symbol names read from frame bytes so the same "BTCUSDT" String instance
+ * is handed out for every frame instead of allocating a new one per trade.
+ *
+ * Open addressing over a fixed array. Lookups and inserts are unsynchronised: the worst a race
+ * can do is intern the same symbol twice, and Strings are safe to publish through a data race.
+ */
+public final class SymbolTable {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_PROBES = 8;
+
+    private final String[] slots;
+    private final int mask;
+
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SymbolTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    public String intern(byte[] buf, int from, int to) {
+        int hash = hash(buf, from, to);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (hash + probe) & mask;
+            String existing = slots[slot];
+            if (existing == null) {
+                String created = new String(buf, from, to - from, StandardCharsets.US_ASCII);
+                slots[slot] = created;
+                return created;
+            }
+            if (matches(existing, buf, from, to)) {
+                return existing;
+            }
+        }
+        // table is saturated around this hash - still correct, just not cached
+        return new String(buf, from, to - from, StandardCharsets.US_ASCII);
+    }
+
+    private static int hash(byte[] buf, int from, int to) {
+        int h = 0x811c9dc5;
+        for (int i = from; i < to; i++) {
+            h = (h ^ buf[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String s, byte[] buf, int from, int to) {
+        int len = to - from;
+        if (s.length() != len) return false;
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != (char) buf[from + i]) return false;
+        }
+        return true;
+    }
+}
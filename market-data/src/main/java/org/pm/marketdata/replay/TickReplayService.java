@@ -0,0 +1,157 @@
+package org.pm.marketdata.replay;
+
+import jakarta.annotation.PreDestroy;
+import org.pm.common.journal.TickJournalMerger;
+import org.pm.common.model.Tick;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Replays captured tick journals (see {@link org.pm.marketdata.journal.TickJournal}) into the
+ * normal publish path in place of the live feed.
+ *
+ * speed = 1 keeps the original gaps between trades, N replays N times faster and 0 goes as fast
+ * as the pipeline accepts. Ticks come out in trade-time order and each symbol's trades keep
+ * their recorded order.
+ */
+@Service
+public class TickReplayService {
+
+    @Value("${marketdata.replay.enabled:false}")
+    private boolean enabled;
+
+    @Value("${marketdata.replay.dir:${marketdata.journal.dir:./journal}}")
+    private String dir;
+
+    // yyyy-MM-dd, inclusive
+    @Value("${marketdata.replay.from:}")
+    private String from;
+
+    @Value("${marketdata.replay.to:}")
+    private String to;
+
+    @Value("${marketdata.replay.speed:1}")
+    private double speed;
+
+    // start over from the first tick when the range is exhausted
+    @Value("${marketdata.replay.loop:false}")
+    private boolean loop;
+
+    // below this, wait by spinning instead of parking; parkNanos can't hit short gaps
+    private static final long SPIN_THRESHOLD_NANOS = 50_000;
+    private static final long REPORT_INTERVAL_NANOS = 5_000_000_000L;
+
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    private volatile long published;
+    private volatile double ticksPerSecond;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Starts replaying on a dedicated thread; {@code sink} gets a reused Tick per record. */
+    public synchronized void start(Consumer<Tick> sink) {
+        if (thread != null) return;
+        LocalDate first = from.isBlank() ? LocalDate.now(ZoneOffset.UTC) : LocalDate.parse(from);
+        LocalDate last = to.isBlank() ? first : LocalDate.parse(to);
+
+        running = true;
+        thread = new Thread(() -> run(first, last, sink), "md-replay");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("Replaying " + dir + " " + first + ".." + last + " at "
+                + (speed <= 0 ? "max speed" : speed + "x"));
+    }
+
+    private void run(LocalDate first, LocalDate last, Consumer<Tick> sink) {
+        try {
+            do {
+                replay(first, last, sink);
+            } while (loop && running);
+        } catch (Exception e) {
+            System.err.println("Replay failed: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            running = false;
+        }
+    }
+
+    void replay(LocalDate first, LocalDate last, Consumer<Tick> sink) throws Exception {
+        Tick tick = new Tick();
+        long count = 0;
+        long startNanos = System.nanoTime();
+        long lastReportNanos = startNanos;
+        long lastReportCount = 0;
+        long firstTimestamp = Long.MIN_VALUE;
+
+        try (TickJournalMerger merged = TickJournalMerger.open(Path.of(dir), first, last)) {
+            while (running && merged.next()) {
+                merged.current().readInto(tick);
+
+                if (speed > 0) {
+                    if (firstTimestamp == Long.MIN_VALUE) firstTimestamp = tick.getTimestamp();
+                    long due = startNanos + (long) ((tick.getTimestamp() - firstTimestamp) * 1_000_000L / speed);
+                    waitUntil(due);
+                }
+
+                sink.accept(tick);
+                published = ++count;
+
+                if ((count & 1023) == 0) {
+                    long now = System.nanoTime();
+                    if (now - lastReportNanos >= REPORT_INTERVAL_NANOS) {
+                        ticksPerSecond = (count - lastReportCount) * 1e9 / (now - lastReportNanos);
+                        System.out.printf("Replay: %d ticks, %.0f ticks/sec%n", count, ticksPerSecond);
+                        lastReportNanos = now;
+                        lastReportCount = count;
+                    }
+                }
+            }
+        }
+
+        long elapsed = Math.max(1, System.nanoTime() - startNanos);
+        ticksPerSecond = count * 1e9 / elapsed;
+        System.out.printf("Replay finished: %d ticks in %.1f s, %.0f ticks/sec%n", count, elapsed / 1e9, ticksPerSecond);
+    }
+
+    private void waitUntil(long dueNanos) {
+        long remaining;
+        while ((remaining = dueNanos - System.nanoTime()) > 0 && running) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    // over the last report interval while running, over the whole replay once finished
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+}
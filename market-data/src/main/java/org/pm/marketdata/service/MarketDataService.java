@@ -1,42 +1,175 @@
 package org.pm.marketdata.service;
 
 
+import io.netty.buffer.ByteBuf;
+import org.pm.common.model.Candle;
 import org.pm.common.model.Tick;
+import org.pm.marketdata.candle.CandleAggregator;
+import org.pm.marketdata.conflation.TickConflator;
+import org.pm.marketdata.feed.FeedArbiter;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.pm.marketdata.journal.TickJournal;
+import org.pm.marketdata.journal.TickJournalWriter;
+import org.pm.marketdata.latency.IngestMetrics;
+import org.pm.marketdata.parser.BinanceTradeParser;
+import org.pm.marketdata.replay.TickReplayService;
+import org.pm.marketdata.parser.SymbolTable;
 import org.pm.marketdata.util.JsonUtil;
 import org.pm.marketdata.websocket.BinanceWebSocketClient;
+import org.pm.marketdata.websocket.FrameHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class MarketDataService {
 
+    // lower-case Binance symbols, spread across `connections` combined streams
+    @Value("${marketdata.symbols}")
+    private List<String> symbols;
+
+    @Value("${marketdata.connections:1}")
+    private int connections;
+
     @Value("${marketdata.websocket-url}")
     private String websocketUrl;
 
+    // extra endpoints carrying the same streams; with any set, the first copy of each trade wins
+    @Value("${marketdata.standby-urls:}")
+    private List<String> standbyUrls;
+
     @Value("${marketdata.topic}")
     private String kafkaTopic;
 
+    // false = always go through the Jackson tree path below
+    @Value("${marketdata.parser.streaming:true}")
+    private boolean streamingParser;
+
     private final KafkaTemplate<String, Tick> kafkaTemplate;
     private final BinanceWebSocketClient wsClient;
+    private final TickConflator conflator;
+    private final CandleAggregator candles;
+    private final KafkaTemplate<String, Candle> candleKafkaTemplate;
+    private final TickJournal journal;
+    private final TickReplayService replay;
+    private final IngestMetrics metrics;
+    private final FeedArbiter arbiter;
+
+    private final SymbolTable symbolTable = new SymbolTable();
 
     //Listen to live market data from WebSocket
     // → convert it to Tick object → send it to Kafka.
 
     public MarketDataService(KafkaTemplate<String, Tick> kafkaTemplate,
-                             BinanceWebSocketClient wsClient) {
+                             BinanceWebSocketClient wsClient,
+                             TickConflator conflator,
+                             CandleAggregator candles,
+                             KafkaTemplate<String, Candle> candleKafkaTemplate,
+                             TickJournal journal,
+                             TickReplayService replay,
+                             IngestMetrics metrics,
+                             FeedArbiter arbiter) {
         this.kafkaTemplate = kafkaTemplate;
         this.wsClient = wsClient;
+        this.conflator = conflator;
+        this.candles = candles;
+        this.candleKafkaTemplate = candleKafkaTemplate;
+        this.journal = journal;
+        this.replay = replay;
+        this.metrics = metrics;
+        this.arbiter = arbiter;
     }
 
     //WebSocketClient, connect to Binance WebSocket
-    // ,and whenever you get a message, call my handleMessage method.
+    // ,and whenever a connection gets a message, call its TradeFeed.
     public void startStreaming() {
-        wsClient.connect(websocketUrl, this::handleMessage);
+        conflator.start(this::send);
+        candles.start(this::sendCandle);
+
+        // replay mode: recorded ticks go through exactly the same path, no exchange connection
+        if (replay.isEnabled()) {
+            replay.start(this::onTick);
+            return;
+        }
+
+        List<String> streams = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            streams.add(symbol.trim().toLowerCase() + "@trade");
+        }
+
+        List<String> urls = new ArrayList<>();
+        urls.add(websocketUrl);
+        for (String url : standbyUrls) {
+            if (!url.isBlank()) urls.add(url.trim());
+        }
+        if (urls.size() == 1) {
+            wsClient.connect("trades", streams, connections, connection -> new TradeFeed(-1,
+                    journal.isEnabled() ? journal.newWriter("trades-" + connection) : null));
+            return;
+        }
+
+        // hot standby: every feed subscribes to everything, the arbiter keeps the first copy
+        List<String> names = new ArrayList<>(urls.size());
+        for (int f = 0; f < urls.size(); f++) {
+            names.add("trades-" + (char) ('a' + f));
+        }
+        arbiter.start(names);
+        for (int f = 0; f < urls.size(); f++) {
+            int feed = f;
+            String name = names.get(f);
+            wsClient.connect(name, urls.get(f), streams, connections, connection -> new TradeFeed(feed,
+                    journal.isEnabled() ? journal.newWriter(name + "-" + connection) : null));
+        }
+    }
+
+    // One per websocket connection, always called from that connection's event loop.
+    private final class TradeFeed implements FrameHandler {
+        private final BinanceTradeParser parser = new BinanceTradeParser(symbolTable);
+        // index of this connection's feed for arbitration, -1 with a single feed
+        private final int feed;
+        // null when capture is off
+        private final TickJournalWriter journalWriter;
+
+        // Reused for every frame. KafkaTemplate serializes the value inside send(),
+        // so overwriting it on the next frame is safe.
+        private final Tick scratch = new Tick();
+
+        TradeFeed(int feed, TickJournalWriter journalWriter) {
+            this.feed = feed;
+            this.journalWriter = journalWriter;
+        }
+
+        @Override
+        public long onFrame(ByteBuf frame) {
+            long receivedNanos = System.nanoTime();
+            Tick tick;
+            if (streamingParser && parser.parse(frame, scratch)) {
+                tick = scratch;
+            } else {
+                // anything the streaming parser can't decode exactly takes the original path
+                tick = handleMessage(frame.toString(StandardCharsets.UTF_8));
+                if (tick == null) return -1;
+            }
+            if (feed >= 0 && !arbiter.accept(tick.getSymbol(), tick.getTradeId(), feed, receivedNanos)) {
+                // another feed already delivered this trade
+                return tick.getTimestamp();
+            }
+            tick.setReceivedNanos(receivedNanos);
+            metrics.onReceive(tick.getSymbol(), tick.getTradeId(), tick.getTimestamp(), receivedNanos);
+            if (journalWriter != null) {
+                journalWriter.append(tick, receivedNanos);
+            }
+            onTick(tick);
+            return tick.getTimestamp();
+        }
     }
 
-    private void handleMessage(String msg) {
+    private Tick handleMessage(String msg) {
         try {
             JsonNode json = JsonUtil.parse(msg);
 
@@ -48,11 +181,18 @@ public class MarketDataService {
 //                    "q": "0.002",
 //                    "T": 1712345678912
 //            }
+//            (wrapped in {"stream": ..., "data": {...}} on combined streams)
+            if (json.has("data")) {
+                json = json.get("data");
+            }
 
             tick.setSymbol(json.get("s").asText());
             tick.setPrice(json.get("p").asDouble());
             tick.setQuantity(json.get("q").asDouble());
             tick.setTimestamp(json.get("T").asLong());
+            if (json.has("t")) {
+                tick.setTradeId(json.get("t").asLong());
+            }
 
 //            This creates a Java object:
 //
@@ -62,19 +202,50 @@ public class MarketDataService {
 //                quantity = 0.002
 //                timestamp = 1712345678912
 //            }
-            System.out.println("Sending tick to Kafka: " + tick.getSymbol() + " @ " + tick.getPrice());
-            kafkaTemplate.send(kafkaTopic, tick.getSymbol(), tick)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            System.err.println("Failed to send message: " + ex.getMessage());
-                        } else {
-                            System.out.println("Message sent successfully to partition: " + result.getRecordMetadata().partition());
-                        }
-                    });
+            return tick;
 
         } catch (Exception e) {
             System.err.println("Error parsing tick: " + msg);
             e.printStackTrace();
+            return null;
         }
     }
+
+    // Every decoded trade ends up here, on the event loop of the connection that received it
+    // (or on the replay thread).
+    private void onTick(Tick tick) {
+        // bars need every trade, so they're fed before conflation collapses them
+        candles.onTick(tick);
+        if (conflator.isEnabled()) {
+            conflator.offer(tick);
+            return;
+        }
+        tick.setTradeCount(1);
+        tick.setVolume(tick.getQuantity());
+        send(tick);
+    }
+
+    private void send(Tick tick) {
+        // tick may be a reused scratch instance, so read what the callback needs now
+        long receivedNanos = tick.getReceivedNanos();
+        ProducerRecord<String, Tick> record = new ProducerRecord<>(kafkaTopic, tick.getSymbol(), tick);
+        metrics.stamp(record.headers(), receivedNanos);
+        kafkaTemplate.send(record)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        System.err.println("Failed to send message: " + ex.getMessage());
+                    } else if (receivedNanos != 0) {
+                        metrics.onAck(receivedNanos);
+                    }
+                });
+    }
+
+    private void sendCandle(String topic, Candle candle) {
+        candleKafkaTemplate.send(topic, candle.getSymbol(), candle)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        System.err.println("Failed to send candle: " + ex.getMessage());
+                    }
+                });
+    }
 }
@@ -0,0 +1,81 @@
+package org.pm.marketdata.websocket;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Spreads a list of Binance streams ("btcusdt@trade", ...) across N combined-stream
+ * connections, round-robin so every connection carries a similar share of symbols.
+ */
+public class BinanceConnectionPool {
+
+    // Binance rejects combined-stream connections with more than 1024 streams
+    public static final int MAX_STREAMS_PER_CONNECTION = 1024;
+
+    private final String name;
+    private final List<FeedConnection> connections = new ArrayList<>();
+
+    /**
+     * @param baseUrl  combined-stream endpoint, e.g. wss://data-stream.binance.vision/stream
+     * @param handlers called once per connection index to create that connection's handler
+     */
+    public BinanceConnectionPool(String name, String baseUrl, List<String> streams, int connectionCount,
+                                 IntFunction<FrameHandler> handlers, Duration minBackoff, Duration maxBackoff) {
+        this.name = name;
+        List<List<String>> shards = shard(streams, connectionCount);
+        for (int i = 0; i < shards.size(); i++) {
+            String url = baseUrl + "?streams=" + String.join("/", shards.get(i));
+            connections.add(new FeedConnection(name + "-" + i, url, shards.get(i), handlers.apply(i),
+                    minBackoff, maxBackoff));
+        }
+    }
+
+    static List<List<String>> shard(List<String> streams, int connectionCount) {
+        if (streams.isEmpty()) {
+            throw new IllegalArgumentException("No streams configured");
+        }
+        int count = Math.max(1, Math.min(connectionCount, streams.size()));
+        int needed = (streams.size() + MAX_STREAMS_PER_CONNECTION - 1) / MAX_STREAMS_PER_CONNECTION;
+        if (count < needed) {
+            System.out.println("Raising connection count from " + count + " to " + needed
+                    + " to stay under " + MAX_STREAMS_PER_CONNECTION + " streams per connection");
+            count = needed;
+        }
+
+        List<List<String>> shards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (int i = 0; i < streams.size(); i++) {
+            shards.get(i % count).add(streams.get(i));
+        }
+        return shards;
+    }
+
+    public void start() {
+        System.out.println("Starting connection pool '" + name + "' with " + connections.size() + " connections");
+        connections.forEach(FeedConnection::start);
+    }
+
+    public void close() {
+        connections.forEach(FeedConnection::close);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<FeedConnection> getConnections() {
+        return connections;
+    }
+
+    public List<ConnectionStats> stats() {
+        List<ConnectionStats> stats = new ArrayList<>(connections.size());
+        for (FeedConnection connection : connections) {
+            stats.add(connection.snapshot());
+        }
+        return stats;
+    }
+}
@@ -1,41 +1,58 @@
 package org.pm.marketdata.websocket;
 
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import reactor.core.Disposable;
-import reactor.netty.http.client.HttpClient;
 
-import java.util.function.Consumer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
 
 @Component
 public class BinanceWebSocketClient {
 
-    private Disposable connection;
-
-    public void connect(String uri, Consumer<String> onMessage) {
-        connection = HttpClient.create()
-                .websocket()
-                .uri(uri)
-                .handle((inbound, outbound) -> 
-                    inbound.receive()
-                            .asString()
-                            .doOnNext(msg -> {
-                                System.out.println("Received message: " + msg.substring(0, Math.min(100, msg.length())));
-                                onMessage.accept(msg);
-                            })
-                            .doOnError(err -> System.err.println("WebSocket error: " + err.getMessage()))
-                            .doFinally(sig -> System.out.println("WebSocket closed: " + sig))
-                            .then()
-                )
-                .subscribe(
-                    unused -> System.out.println("WebSocket connected successfully"),
-                    error -> System.err.println("Failed to connect: " + error.getMessage())
-                );
+    // combined-stream endpoint, streams are appended as ?streams=a@trade/b@trade
+    @Value("${marketdata.websocket-url}")
+    private String websocketUrl;
+
+    @Value("${marketdata.reconnect.min-backoff-ms:250}")
+    private long minBackoffMs;
+
+    @Value("${marketdata.reconnect.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    private final List<BinanceConnectionPool> pools = new CopyOnWriteArrayList<>();
+
+    // Opens `connections` websockets for the given streams, each on its own event loop.
+    // handlers.apply(i) creates the handler for connection i.
+    public BinanceConnectionPool connect(String name, List<String> streams, int connections,
+                                         IntFunction<FrameHandler> handlers) {
+        return connect(name, websocketUrl, streams, connections, handlers);
     }
 
-    public void disconnect() {
-        if (connection != null && !connection.isDisposed()) {
-            connection.dispose();
+    public BinanceConnectionPool connect(String name, String baseUrl, List<String> streams, int connections,
+                                         IntFunction<FrameHandler> handlers) {
+        BinanceConnectionPool pool = new BinanceConnectionPool(name, baseUrl, streams, connections, handlers,
+                Duration.ofMillis(minBackoffMs), Duration.ofMillis(maxBackoffMs));
+        pools.add(pool);
+        pool.start();
+        return pool;
+    }
+
+    public List<ConnectionStats> stats() {
+        List<ConnectionStats> stats = new ArrayList<>();
+        for (BinanceConnectionPool pool : pools) {
+            stats.addAll(pool.stats());
         }
+        return stats;
+    }
+
+    @PreDestroy
+    public void disconnect() {
+        pools.forEach(BinanceConnectionPool::close);
+        pools.clear();
     }
 }
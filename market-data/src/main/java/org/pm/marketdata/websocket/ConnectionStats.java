@@ -0,0 +1,82 @@
+package org.pm.marketdata.websocket;
+
+import java.util.List;
+
+/**
+ * Point-in-time view of one pooled connection, served by the /stats endpoints.
+ */
+public class ConnectionStats {
+    private final String name;
+    private final List<String> streams;
+    private final boolean connected;
+    private final long messages;
+    private final long bytes;
+    private final long reconnects;
+    private final double messagesPerSecond;
+    private final long lagMillis;
+    private final long millisSinceLastMessage;
+
+    public ConnectionStats(String name, List<String> streams, boolean connected, long messages, long bytes,
+                           long reconnects, double messagesPerSecond, long lagMillis, long millisSinceLastMessage) {
+        this.name = name;
+        this.streams = streams;
+        this.connected = connected;
+        this.messages = messages;
+        this.bytes = bytes;
+        this.reconnects = reconnects;
+        this.messagesPerSecond = messagesPerSecond;
+        this.lagMillis = lagMillis;
+        this.millisSinceLastMessage = millisSinceLastMessage;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getStreams() {
+        return streams;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getMessages() {
+        return messages;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getReconnects() {
+        return reconnects;
+    }
+
+    // average over the interval since the previous snapshot of this connection
+    public double getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+    // receive wall clock minus exchange event time of the last decoded frame
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public long getMillisSinceLastMessage() {
+        return millisSinceLastMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionStats{" +
+                "name='" + name + '\'' +
+                ", streams=" + streams.size() +
+                ", connected=" + connected +
+                ", messages=" + messages +
+                ", reconnects=" + reconnects +
+                ", messagesPerSecond=" + messagesPerSecond +
+                ", lagMillis=" + lagMillis +
+                '}';
+    }
+}
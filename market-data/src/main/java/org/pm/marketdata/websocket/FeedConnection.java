@@ -0,0 +1,161 @@
+package org.pm.marketdata.websocket;
+
+import io.netty.buffer.ByteBuf;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One combined-stream websocket connection of a {@link BinanceConnectionPool}.
+ *
+ * Runs on its own single-threaded event loop, so frames for this connection's streams are
+ * decoded on a dedicated thread. When the socket drops or the server closes it (Binance does
+ * every 24h) it reconnects with exponential backoff; the stream list is part of the URL, so
+ * reconnecting is also the resubscribe.
+ */
+public class FeedConnection {
+
+    private static final int MAX_FRAME_PAYLOAD = 1 << 20;
+
+    private final String name;
+    private final String url;
+    private final List<String> streams;
+    private final FrameHandler handler;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+    private final LoopResources loop;
+    private final HttpClient client;
+
+    private Disposable subscription;
+
+    // Several writer threads, readers in /stats, hence volatile. messages/bytes/lastMessageNanos/
+    // lagMillis are written only by the event loop. connected is set there but cleared by the
+    // retry path and by close() on the caller's thread; reconnects is written by the retry path
+    // (which may run on the Mono.delay scheduler), consecutiveFailures by it and by the event loop
+    // once data flows again. The retry path and a live session never run at the same time, so
+    // no counter has two concurrent writers and plain ++ doesn't lose updates.
+    private volatile boolean connected;
+    private volatile long messages;
+    private volatile long bytes;
+    private volatile long lastMessageNanos;
+    private volatile long lagMillis;
+    private volatile long reconnects;
+    private volatile int consecutiveFailures;
+
+    // reader side of the throughput gauge, guarded by snapshot()
+    private long sampledMessages;
+    private long sampledAtNanos = System.nanoTime();
+
+    public FeedConnection(String name, String url, List<String> streams, FrameHandler handler,
+                          Duration minBackoff, Duration maxBackoff) {
+        this.name = name;
+        this.url = url;
+        this.streams = List.copyOf(streams);
+        this.handler = handler;
+        this.minBackoffMillis = Math.max(1, minBackoff.toMillis());
+        this.maxBackoffMillis = Math.max(minBackoffMillis, maxBackoff.toMillis());
+        this.loop = LoopResources.create(name, 1, true);
+        this.client = HttpClient.create(ConnectionProvider.newConnection()).runOn(loop);
+    }
+
+    public synchronized void start() {
+        if (subscription != null) return;
+        subscription = Mono.defer(this::session)
+                // a clean close from the server is just another reason to reconnect
+                .then(Mono.<Void>error(() -> new IllegalStateException("closed by server")))
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    connected = false;
+                    reconnects++;
+                    long delay = nextBackoffMillis();
+                    System.err.println("WebSocket " + name + " dropped (" + signal.failure().getMessage()
+                            + "), reconnecting in " + delay + "ms");
+                    return Mono.delay(Duration.ofMillis(delay));
+                })))
+                .subscribe();
+    }
+
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        connected = false;
+        loop.dispose();
+    }
+
+    private Mono<Void> session() {
+        return client.websocket(WebsocketClientSpec.builder().maxFramePayloadLength(MAX_FRAME_PAYLOAD).build())
+                .uri(url)
+                .handle((inbound, outbound) -> {
+                    connected = true;
+                    System.out.println("WebSocket " + name + " connected: " + streams.size() + " streams");
+                    return inbound.receive()
+                            .doOnNext(this::onFrame)
+                            .then();
+                })
+                .then();
+    }
+
+    private void onFrame(ByteBuf frame) {
+        if (consecutiveFailures != 0) {
+            // data is flowing again, so the next drop starts from the minimum backoff
+            consecutiveFailures = 0;
+        }
+        messages++;
+        bytes += frame.readableBytes();
+        lastMessageNanos = System.nanoTime();
+
+        long eventTime;
+        try {
+            eventTime = handler.onFrame(frame);
+        } catch (RuntimeException e) {
+            System.err.println("WebSocket " + name + " handler failed: " + e.getMessage());
+            return;
+        }
+        if (eventTime > 0) {
+            lagMillis = System.currentTimeMillis() - eventTime;
+        }
+    }
+
+    private long nextBackoffMillis() {
+        int failures = Math.min(consecutiveFailures, 20);
+        consecutiveFailures = failures + 1;
+        long delay = Math.min(maxBackoffMillis, minBackoffMillis << failures);
+        // jitter so N connections dropped by the same event don't reconnect in lockstep
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getStreams() {
+        return streams;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public synchronized ConnectionStats snapshot() {
+        long now = System.nanoTime();
+        long count = messages;
+        double elapsedSeconds = (now - sampledAtNanos) / 1e9;
+        double rate = elapsedSeconds > 0 ? (count - sampledMessages) / elapsedSeconds : 0.0;
+        sampledMessages = count;
+        sampledAtNanos = now;
+
+        long last = lastMessageNanos;
+        long sinceLast = last == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(now - last);
+        return new ConnectionStats(name, streams, connected, count, bytes, reconnects, rate, lagMillis, sinceLast);
+    }
+}
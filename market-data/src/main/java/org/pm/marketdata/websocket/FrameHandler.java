@@ -0,0 +1,20 @@
+package org.pm.marketdata.websocket;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Consumes frames from one pooled websocket connection. Each connection gets its own
+ * instance and always calls it from the same event loop thread, so implementations
+ * can keep unsynchronised scratch state.
+ */
+@FunctionalInterface
+public interface FrameHandler {
+
+    /**
+     * The frame is released once this returns, so it must be fully consumed (or retained) here.
+     *
+     * @return the exchange event time of the frame in epoch millis (feeds the connection's lag gauge),
+     *         or -1 if the frame carried none or could not be decoded
+     */
+    long onFrame(ByteBuf frame);
+}
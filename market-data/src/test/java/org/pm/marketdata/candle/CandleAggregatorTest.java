@@ -0,0 +1,99 @@
+package org.pm.marketdata.candle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Candle;
+import org.pm.common.model.Tick;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleAggregatorTest {
+
+    private final List<String> topics = new ArrayList<>();
+    private final List<Candle> bars = new ArrayList<>();
+    private CandleAggregator aggregator;
+
+    @AfterEach
+    void stop() {
+        aggregator.stop();
+    }
+
+    @Test
+    void foldsTradesAndClosesOnEventTime() {
+        aggregator = aggregator("1s,1m");
+        aggregator.onTick(new Tick("BTCUSDT", 100.0, 1.0, 10_000));
+        aggregator.onTick(new Tick("BTCUSDT", 103.0, 1.0, 10_200));
+        aggregator.onTick(new Tick("BTCUSDT", 99.0, 2.0, 10_999));
+        assertTrue(bars.isEmpty());
+
+        // first trade of the next second closes the 1s bar, not the 1m one
+        aggregator.onTick(new Tick("BTCUSDT", 101.0, 1.0, 11_000));
+
+        assertEquals(List.of("candles-1s"), topics);
+        Candle bar = bars.get(0);
+        assertEquals("1s", bar.getInterval());
+        assertEquals(10_000, bar.getOpenTime());
+        assertEquals(11_000, bar.getCloseTime());
+        assertEquals(100.0, bar.getOpen());
+        assertEquals(103.0, bar.getHigh());
+        assertEquals(99.0, bar.getLow());
+        assertEquals(99.0, bar.getClose());
+        assertEquals(4.0, bar.getVolume());
+        assertEquals((100.0 + 103.0 + 99.0 * 2) / 4.0, bar.getVwap(), 1e-9);
+        assertEquals(3, bar.getTradeCount());
+    }
+
+    @Test
+    void sweeperClosesQuietSymbolsAndLateTradesAreDropped() {
+        aggregator = aggregator("1s");
+        aggregator.onTick(new Tick("ETHUSDT", 10.0, 1.0, 5_500));
+
+        // still inside the grace period
+        assertEquals(0, aggregator.sweep(6_000 + 1_999));
+        assertEquals(1, aggregator.sweep(6_000 + 2_000));
+        assertEquals(1, bars.size());
+        assertEquals(5_000, bars.get(0).getOpenTime());
+
+        aggregator.onTick(new Tick("ETHUSDT", 11.0, 1.0, 5_900));
+        assertEquals(1, aggregator.getLateTrades());
+        assertEquals(0, aggregator.sweep(100_000));
+    }
+
+    @Test
+    void publishesOutsideTheSeriesMonitor() {
+        aggregator = aggregator("1s");
+        @SuppressWarnings("unchecked")
+        Map<String, CandleSeries> series = (Map<String, CandleSeries>) ReflectionTestUtils.getField(aggregator, "series");
+        List<Boolean> heldLock = new ArrayList<>();
+        // swap the test sink for one that checks where it is called from
+        ReflectionTestUtils.setField(aggregator, "publisher",
+                (Consumer<Candle>) candle -> heldLock.add(Thread.holdsLock(series.get(candle.getSymbol()))));
+
+        aggregator.onTick(new Tick("BTCUSDT", 100.0, 1.0, 1_000));
+        aggregator.onTick(new Tick("BTCUSDT", 101.0, 1.0, 2_000)); // closed by the trade
+        aggregator.sweep(10_000);                                    // closed by the sweeper
+
+        assertEquals(List.of(false, false), heldLock);
+    }
+
+    private CandleAggregator aggregator(String intervals) {
+        CandleAggregator aggregator = new CandleAggregator();
+        ReflectionTestUtils.setField(aggregator, "enabled", true);
+        ReflectionTestUtils.setField(aggregator, "intervals", List.of(intervals.split(",")));
+        ReflectionTestUtils.setField(aggregator, "topicPrefix", "candles-");
+        ReflectionTestUtils.setField(aggregator, "graceMs", 2_000L);
+        // the test drives sweep() itself
+        ReflectionTestUtils.setField(aggregator, "sweepIntervalMs", 3_600_000L);
+        aggregator.start((topic, candle) -> {
+            topics.add(topic);
+            bars.add(candle);
+        });
+        return aggregator;
+    }
+}
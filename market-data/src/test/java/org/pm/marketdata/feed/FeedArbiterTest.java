@@ -0,0 +1,73 @@
+package org.pm.marketdata.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedArbiterTest {
+
+    @Test
+    void racingFeedsDeliverEveryTradeExactlyOnce() throws Exception {
+        FeedArbiter arbiter = arbiter(1024);
+        int trades = 500_000;
+        AtomicLong accepted = new AtomicLong();
+        CountDownLatch go = new CountDownLatch(1);
+
+        Thread[] feeds = new Thread[2];
+        for (int f = 0; f < feeds.length; f++) {
+            int feed = f;
+            feeds[f] = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long id = 1; id <= trades; id++) {
+                    if (arbiter.accept("BTCUSDT", id, feed, System.nanoTime())) accepted.incrementAndGet();
+                }
+            });
+            feeds[f].start();
+        }
+        go.countDown();
+        for (Thread t : feeds) t.join();
+
+        assertEquals(trades, accepted.get());
+        List<FeedStats> stats = arbiter.stats();
+        assertEquals(trades, stats.get(0).getWins() + stats.get(1).getWins());
+        assertEquals(trades, stats.get(0).getLosses() + stats.get(1).getLosses());
+    }
+
+    @Test
+    void failsOverWithoutGapWhenOneFeedStalls() {
+        FeedArbiter arbiter = arbiter(8);
+        for (long id = 1; id <= 5; id++) {
+            assertTrue(arbiter.accept("ETHUSDT", id, 0, id));
+            assertFalse(arbiter.accept("ETHUSDT", id, 1, id + 1_000));
+        }
+        // feed 0 goes quiet, feed 1 carries on
+        for (long id = 6; id <= 20; id++) {
+            assertTrue(arbiter.accept("ETHUSDT", id, 1, id));
+        }
+        // feed 0 comes back with stale copies, even ones older than the window
+        assertFalse(arbiter.accept("ETHUSDT", 7, 0, 100));
+        assertFalse(arbiter.accept("ETHUSDT", 18, 0, 100));
+        assertTrue(arbiter.accept("ETHUSDT", 21, 0, 100));
+
+        FeedStats standby = arbiter.stats().get(1);
+        assertEquals(15, standby.getWins());
+        assertEquals(5, standby.getLosses());
+        assertEquals(5, standby.getBehindWinnerMicros().getCount());
+    }
+
+    private static FeedArbiter arbiter(int window) {
+        FeedArbiter arbiter = new FeedArbiter();
+        ReflectionTestUtils.setField(arbiter, "window", window);
+        arbiter.start(List.of("trades-a", "trades-b"));
+        return arbiter;
+    }
+}
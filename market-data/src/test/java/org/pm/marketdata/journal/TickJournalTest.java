@@ -0,0 +1,90 @@
+package org.pm.marketdata.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pm.common.journal.TickJournalFormat;
+import org.pm.common.journal.TickJournalReader;
+import org.pm.common.model.Tick;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTest {
+
+    private static final long DAY = 86_400_000L;
+    // 2024-04-05T00:00:00Z
+    private static final long MIDNIGHT = LocalDate.of(2024, 4, 5).toEpochDay() * DAY;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsTicksAndTailsAppends() throws Exception {
+        TickJournalWriter writer = new TickJournalWriter(dir, "trades-0", 1 << 20);
+        Tick tick = new Tick("BTCUSDT", 88500.5, 0.002, MIDNIGHT + 1_000);
+        tick.setTradeId(42);
+        writer.append(tick, 123_456_789L);
+
+        List<Path> files = TickJournalFormat.segments(dir, LocalDate.of(2024, 4, 5));
+        assertEquals(1, files.size());
+
+        try (TickJournalReader reader = TickJournalReader.open(files.get(0))) {
+            assertTrue(reader.next());
+            assertEquals("BTCUSDT", reader.symbol());
+            assertEquals(88500.5, reader.price());
+            assertEquals(0.002, reader.quantity());
+            assertEquals(MIDNIGHT + 1_000, reader.timestamp());
+            assertEquals(123_456_789L, reader.receiveNanos());
+            assertEquals(42, reader.tradeId());
+            assertFalse(reader.next());
+
+            // a reader sitting at the end picks up later appends
+            writer.append(new Tick("ETHUSDT", 3000.0, 1.5, MIDNIGHT + 2_000), 1L);
+            assertTrue(reader.next());
+            Tick read = new Tick();
+            reader.readInto(read);
+            assertEquals("ETHUSDT", read.getSymbol());
+            assertEquals(1.5, read.getVolume());
+            assertFalse(reader.next());
+        }
+        writer.close();
+    }
+
+    @Test
+    void rollsOnFullSegmentAndOnNewDay() throws Exception {
+        // header + 4 records per segment
+        TickJournalWriter writer = new TickJournalWriter(dir, "trades-0", 64 + 4 * 64);
+        Tick tick = new Tick("BTCUSDT", 1.0, 1.0, 0);
+        for (int i = 0; i < 10; i++) {
+            tick.setTimestamp(MIDNIGHT + i);
+            tick.setTradeId(i);
+            writer.append(tick, i);
+        }
+        tick.setTimestamp(MIDNIGHT + DAY);
+        writer.append(tick, 10);
+        writer.close();
+
+        List<Path> day1 = TickJournalFormat.segments(dir, LocalDate.of(2024, 4, 5));
+        assertEquals(3, day1.size());
+        long expectedId = 0;
+        for (Path file : day1) {
+            try (TickJournalReader reader = TickJournalReader.open(file)) {
+                while (reader.next()) {
+                    assertEquals(expectedId++, reader.tradeId());
+                }
+            }
+        }
+        assertEquals(10, expectedId);
+        assertEquals(1, TickJournalFormat.segments(dir, LocalDate.of(2024, 4, 6)).size());
+        assertEquals(11, writer.getWritten());
+
+        // a restarted writer appends new segments instead of overwriting
+        TickJournalWriter restarted = new TickJournalWriter(dir, "trades-0", 1 << 20);
+        tick.setTimestamp(MIDNIGHT + 5);
+        restarted.append(tick, 0);
+        assertEquals(4, TickJournalFormat.segments(dir, LocalDate.of(2024, 4, 5)).size());
+    }
+}
@@ -0,0 +1,56 @@
+package org.pm.marketdata.latency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestMetricsTest {
+
+    @Test
+    void bucketsStayWithinThreePercent() {
+        Random random = new Random(7);
+        for (int n = 0; n < 100_000; n++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(LatencyHistogram.lowerBound(bucket) <= value, "value " + value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value, "value " + value);
+            assertTrue(LatencyHistogram.upperBound(bucket) - LatencyHistogram.lowerBound(bucket) <= value / 32 + 1);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void reportsPercentilesAndResets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot(true);
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(500, snapshot.getP50(), 16);
+        assertEquals(990, snapshot.getP99(), 32);
+        assertTrue(snapshot.getMax() >= 1000);
+        assertEquals(500.5, snapshot.getMean(), 10);
+
+        assertEquals(0, histogram.snapshot(false).getCount());
+    }
+
+    @Test
+    void countsGapsAndDuplicatesPerSymbol() {
+        SequenceTracker tracker = new SequenceTracker();
+        assertEquals(SequenceTracker.Result.FIRST, tracker.track("BTCUSDT", 100));
+        assertEquals(SequenceTracker.Result.IN_SEQUENCE, tracker.track("BTCUSDT", 101));
+        assertEquals(SequenceTracker.Result.GAP, tracker.track("BTCUSDT", 105));
+        assertEquals(SequenceTracker.Result.DUPLICATE, tracker.track("BTCUSDT", 103));
+        assertEquals(SequenceTracker.Result.FIRST, tracker.track("ETHUSDT", 7));
+
+        assertEquals(1, tracker.totalGaps());
+        assertEquals(3, tracker.totalMissing());
+        assertEquals(1, tracker.totalDuplicates());
+        assertEquals(105L, tracker.stats().get("BTCUSDT").get("lastTradeId"));
+    }
+}
@@ -0,0 +1,273 @@
+package org.pm.marketdata.loadgen;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Binance trade streams, for load-testing the websocket client and the
+ * parsing path without network access.
+ *
+ * Serves both endpoint shapes the exchange has:
+ *   ws://host:port/stream?streams=btcusdt@trade/ethusdt@trade   combined, {"stream":..,"data":{..}}
+ *   ws://host:port/ws/btcusdt@trade                            raw trade objects
+ * Without a streams parameter a connection gets `symbols` synthetic streams (SYM0USDT, ...).
+ *
+ * Each stream emits trades with increasing trade ids and a random-walk price at
+ * `ratePerStream` msgs/sec (0 = as fast as the socket drains), plus `burstSize` extra trades every
+ * `burstEveryMs`. With `disconnectAfterMs` set, every connection is closed by the server after
+ * roughly that long (+-50% jitter), to exercise reconnects.
+ *
+ * Embed it in a test, or run the main method:
+ *   java -cp "market-data/target/test-classes:market-data/target/classes:<test classpath>" \
+ *        org.pm.marketdata.loadgen.BinanceLoadGenerator --port=9000 --rate=5000 --burst-every-ms=1000 --burst-size=2000
+ * and point marketdata.websocket-url at ws://localhost:9000/stream.
+ */
+public class BinanceLoadGenerator {
+
+    private int port = 0;
+    private int symbols = 5;
+    private int ratePerStream = 1000;
+    private long burstEveryMs = 0;
+    private int burstSize = 0;
+    private long disconnectAfterMs = 0;
+    private double volatility = 0.0002;
+
+    private DisposableServer server;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+
+    public BinanceLoadGenerator port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public BinanceLoadGenerator symbols(int symbols) {
+        this.symbols = symbols;
+        return this;
+    }
+
+    public BinanceLoadGenerator ratePerStream(int ratePerStream) {
+        this.ratePerStream = ratePerStream;
+        return this;
+    }
+
+    public BinanceLoadGenerator bursts(long everyMs, int size) {
+        this.burstEveryMs = everyMs;
+        this.burstSize = size;
+        return this;
+    }
+
+    public BinanceLoadGenerator disconnectAfterMs(long disconnectAfterMs) {
+        this.disconnectAfterMs = disconnectAfterMs;
+        return this;
+    }
+
+    // per-trade standard deviation of the log price
+    public BinanceLoadGenerator volatility(double volatility) {
+        this.volatility = volatility;
+        return this;
+    }
+
+    public BinanceLoadGenerator start() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(port)
+                .handle((request, response) -> {
+                    List<String> streams = streams(request.uri());
+                    boolean combined = !request.uri().startsWith("/ws/");
+                    connections.incrementAndGet();
+                    return response.sendWebsocket((in, out) -> out.sendString(frames(streams, combined)));
+                })
+                .bindNow();
+        return this;
+    }
+
+    private List<String> streams(String uri) {
+        if (uri.startsWith("/ws/")) {
+            return List.of(uri.substring(4));
+        }
+        List<String> requested = new QueryStringDecoder(uri).parameters().get("streams");
+        if (requested != null && !requested.isEmpty()) {
+            return List.of(requested.get(0).split("/"));
+        }
+        List<String> synthetic = new ArrayList<>(symbols);
+        for (int i = 0; i < symbols; i++) {
+            synthetic.add("sym" + i + "usdt@trade");
+        }
+        return synthetic;
+    }
+
+    private Flux<String> frames(List<String> streams, boolean combined) {
+        List<StreamState> states = new ArrayList<>(streams.size());
+        for (String stream : streams) {
+            states.add(new StreamState(stream, combined, volatility));
+        }
+
+        Flux<String> steady;
+        if (ratePerStream <= 0) {
+            // round-robin over the streams, pulled as fast as the socket takes them
+            steady = Flux.generate(() -> 0, (i, sink) -> {
+                sink.next(states.get(i).next());
+                return i + 1 == states.size() ? 0 : i + 1;
+            });
+        } else {
+            // 1ms ticks; each carries that millisecond's share of every stream's rate
+            double perTick = ratePerStream / 1000.0;
+            steady = Flux.interval(Duration.ofMillis(1), Schedulers.parallel())
+                    .onBackpressureDrop()
+                    .concatMapIterable(tick -> {
+                        List<String> batch = new ArrayList<>();
+                        for (StreamState state : states) {
+                            state.credit += perTick;
+                            while (state.credit >= 1.0) {
+                                state.credit -= 1.0;
+                                batch.add(state.next());
+                            }
+                        }
+                        return batch;
+                    });
+        }
+
+        Flux<String> frames = steady;
+        if (burstEveryMs > 0 && burstSize > 0) {
+            Flux<String> bursts = Flux.interval(Duration.ofMillis(burstEveryMs), Schedulers.parallel())
+                    .onBackpressureDrop()
+                    .concatMapIterable(tick -> {
+                        List<String> burst = new ArrayList<>(burstSize);
+                        for (int i = 0; i < burstSize; i++) {
+                            burst.add(states.get(i % states.size()).next());
+                        }
+                        return burst;
+                    });
+            // both sources touch the stream states, so keep them on one thread
+            frames = Flux.merge(steady, bursts).publishOn(Schedulers.single());
+        }
+        if (disconnectAfterMs > 0) {
+            long jittered = (long) (disconnectAfterMs * (0.5 + new SplittableRandom().nextDouble()));
+            frames = frames.take(Duration.ofMillis(jittered));
+        }
+        return frames.doOnNext(frame -> sent.increment());
+    }
+
+    // Price walk and trade id sequence of one stream on one connection.
+    private static final class StreamState {
+        private final String stream;
+        private final String symbol;
+        private final boolean combined;
+        private final SplittableRandom random = new SplittableRandom();
+        private final StringBuilder sb = new StringBuilder(256);
+        private double logPrice;
+        private long tradeId;
+        private final double volatility;
+        private double credit;
+
+        StreamState(String stream, boolean combined, double volatility) {
+            this.stream = stream;
+            this.volatility = volatility;
+            this.symbol = stream.substring(0, stream.indexOf('@')).toUpperCase();
+            this.combined = combined;
+            this.logPrice = Math.log(10 + random.nextDouble() * 50_000);
+            this.tradeId = random.nextLong(1, 1_000_000_000L);
+        }
+
+        synchronized String next() {
+            logPrice += volatility * gaussian();
+            long now = System.currentTimeMillis();
+            sb.setLength(0);
+            if (combined) {
+                sb.append("{\"stream\":\"").append(stream).append("\",\"data\":");
+            }
+            sb.append("{\"e\":\"trade\",\"E\":").append(now)
+                    .append(",\"s\":\"").append(symbol)
+                    .append("\",\"t\":").append(tradeId++)
+                    .append(",\"p\":\"");
+            appendFixed8(Math.exp(logPrice));
+            sb.append("\",\"q\":\"");
+            appendFixed8(0.001 + random.nextDouble() * 2);
+            sb.append("\",\"T\":").append(now)
+                    .append(",\"m\":").append(random.nextBoolean())
+                    .append(",\"M\":true}");
+            if (combined) {
+                sb.append('}');
+            }
+            return sb.toString();
+        }
+
+        // Binance sends 8 decimals; String.format would cap the generator well below the client
+        private void appendFixed8(double value) {
+            long scaled = Math.round(value * 1e8);
+            sb.append(scaled / 100_000_000L).append('.');
+            String fraction = Long.toString(scaled % 100_000_000L);
+            for (int i = fraction.length(); i < 8; i++) sb.append('0');
+            sb.append(fraction);
+        }
+
+        // Box-Muller, one of the pair
+        private double gaussian() {
+            double u = 1.0 - random.nextDouble();
+            return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+        }
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public String combinedUrl() {
+        return "ws://127.0.0.1:" + port() + "/stream";
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        BinanceLoadGenerator generator = new BinanceLoadGenerator().port(9000);
+        long burstEvery = 0;
+        int burstSize = 0;
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            switch (kv[0]) {
+                case "port" -> generator.port(Integer.parseInt(kv[1]));
+                case "symbols" -> generator.symbols(Integer.parseInt(kv[1]));
+                case "rate" -> generator.ratePerStream(Integer.parseInt(kv[1]));
+                case "burst-every-ms" -> burstEvery = Long.parseLong(kv[1]);
+                case "burst-size" -> burstSize = Integer.parseInt(kv[1]);
+                case "disconnect-after-ms" -> generator.disconnectAfterMs(Long.parseLong(kv[1]));
+                case "volatility" -> generator.volatility(Double.parseDouble(kv[1]));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        generator.bursts(burstEvery, burstSize).start();
+        System.out.println("Load generator listening on " + generator.combinedUrl());
+
+        long lastSent = 0;
+        while (true) {
+            Thread.sleep(1000);
+            long total = generator.getSent();
+            System.out.printf("connections=%d sent=%d (%d msgs/sec)%n", generator.getConnections(), total, total - lastSent);
+            lastSent = total;
+        }
+    }
+}
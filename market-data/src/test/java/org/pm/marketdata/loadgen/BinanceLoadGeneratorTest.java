@@ -0,0 +1,91 @@
+package org.pm.marketdata.loadgen;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+import org.pm.marketdata.parser.BinanceTradeParser;
+import org.pm.marketdata.parser.SymbolTable;
+import org.pm.marketdata.websocket.BinanceConnectionPool;
+import org.pm.marketdata.websocket.ConnectionStats;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinanceLoadGeneratorTest {
+
+    private static final List<String> STREAMS = List.of("btcusdt@trade", "ethusdt@trade", "bnbusdt@trade", "solusdt@trade");
+
+    private BinanceLoadGenerator generator;
+    private BinanceConnectionPool pool;
+
+    @AfterEach
+    void stop() {
+        if (pool != null) pool.close();
+        generator.stop();
+    }
+
+    @Test
+    void ingestsUnthrottledFeedWithoutLosingTrades() throws Exception {
+        generator = new BinanceLoadGenerator().ratePerStream(0).start();
+        AtomicLong parsed = new AtomicLong();
+        AtomicLong outOfSequence = new AtomicLong();
+        AtomicLong unparsed = new AtomicLong();
+        pool = pool(parsed, outOfSequence, unparsed);
+
+        Thread.sleep(1500);
+        long received = parsed.get();
+
+        assertTrue(received > 1000, "only " + received + " trades");
+        assertEquals(0, outOfSequence.get());
+        assertEquals(0, unparsed.get());
+    }
+
+    @Test
+    void reconnectsWhenGeneratorDropsConnections() throws Exception {
+        generator = new BinanceLoadGenerator().ratePerStream(200).bursts(100, 50).disconnectAfterMs(200).start();
+        AtomicLong unparsed = new AtomicLong();
+        pool = pool(new AtomicLong(), new AtomicLong(), unparsed);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline && pool.stats().stream().anyMatch(s -> s.getReconnects() < 2)) {
+            Thread.sleep(20);
+        }
+        for (ConnectionStats s : pool.stats()) {
+            assertTrue(s.getReconnects() >= 2, s.toString());
+            assertTrue(s.getMessages() > 0, s.toString());
+        }
+        assertEquals(0, unparsed.get());
+    }
+
+    // the frame handler runs on the Netty event loop, where a failed assertion would only be logged,
+    // so it just counts and the test thread asserts
+    private BinanceConnectionPool pool(AtomicLong parsed, AtomicLong outOfSequence, AtomicLong unparsed) {
+        SymbolTable symbols = new SymbolTable();
+        BinanceConnectionPool pool = new BinanceConnectionPool("load", generator.combinedUrl(), STREAMS, 2,
+                connection -> {
+                    BinanceTradeParser parser = new BinanceTradeParser(symbols);
+                    Tick tick = new Tick();
+                    Map<String, Long> lastIds = new HashMap<>();
+                    return (ByteBuf frame) -> {
+                        if (!parser.parse(frame, tick)) {
+                            unparsed.incrementAndGet();
+                            return -1;
+                        }
+                        Long last = lastIds.put(tick.getSymbol(), tick.getTradeId());
+                        // ids restart after a reconnect, but never skip within one session
+                        if (last != null && tick.getTradeId() != last + 1) outOfSequence.incrementAndGet();
+                        parsed.incrementAndGet();
+                        return tick.getTimestamp();
+                    };
+                },
+                Duration.ofMillis(10), Duration.ofMillis(50));
+        pool.start();
+        return pool;
+    }
+}
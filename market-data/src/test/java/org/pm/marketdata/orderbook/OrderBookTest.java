@@ -0,0 +1,116 @@
+package org.pm.marketdata.orderbook;
+
+import org.junit.jupiter.api.Test;
+import org.pm.marketdata.parser.BinanceDepthParser;
+import org.pm.marketdata.parser.DepthUpdate;
+import org.pm.marketdata.parser.SymbolTable;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    @Test
+    void keepsBothSidesOrderedBestFirst() {
+        BookSide bids = new BookSide(true, 10);
+        BookSide asks = new BookSide(false, 10);
+        for (double p : new double[]{100.0, 102.0, 101.0}) {
+            bids.set(p, 1.0);
+            asks.set(p + 10, 1.0);
+        }
+
+        assertEquals(102.0, bids.price(0));
+        assertEquals(101.0, bids.price(1));
+        assertEquals(100.0, bids.price(2));
+        assertEquals(110.0, asks.price(0));
+        assertEquals(111.0, asks.price(1));
+        assertEquals(112.0, asks.price(2));
+    }
+
+    @Test
+    void updatesAndRemovesLevels() {
+        BookSide bids = new BookSide(true, 10);
+        bids.set(100.0, 1.0);
+        bids.set(101.0, 2.0);
+        bids.set(101.0, 3.0);
+        assertEquals(2, bids.depth());
+        assertEquals(3.0, bids.quantity(0));
+
+        bids.set(101.0, 0.0);
+        bids.set(99.0, 0.0);
+        assertEquals(1, bids.depth());
+        assertEquals(100.0, bids.bestPrice());
+    }
+
+    @Test
+    void trimsWorstLevelsWhenFull() {
+        BookSide asks = new BookSide(false, 3);
+        for (int i = 0; i < 10; i++) {
+            asks.set(100.0 + i, 1.0);
+        }
+        // better than everything kept
+        asks.set(99.5, 1.0);
+
+        assertEquals(3, asks.depth());
+        assertEquals(99.5, asks.price(0));
+        assertEquals(100.0, asks.price(1));
+        assertEquals(101.0, asks.price(2));
+    }
+
+    @Test
+    void validatesUpdateSequence() {
+        OrderBook book = new OrderBook("BTCUSDT", 10);
+        assertEquals(OrderBook.Sequence.NOT_SYNCED, book.check(1, 2));
+
+        book.offerSnapshot(new DepthSnapshot(100, new double[]{10.0}, new double[]{1.0},
+                new double[]{11.0}, new double[]{1.0}));
+        assertTrue(book.adoptPendingSnapshot());
+        assertFalse(book.adoptPendingSnapshot());
+
+        assertEquals(OrderBook.Sequence.STALE, book.check(90, 100));
+        assertEquals(OrderBook.Sequence.GAP, book.check(102, 110));
+        // first diff only has to straddle the snapshot id
+        assertEquals(OrderBook.Sequence.APPLY, book.check(95, 105));
+        book.applied(105);
+
+        assertEquals(OrderBook.Sequence.APPLY, book.check(106, 108));
+        assertEquals(OrderBook.Sequence.GAP, book.check(107, 109));
+
+        book.invalidate();
+        assertEquals(OrderBook.Sequence.NOT_SYNCED, book.check(106, 108));
+        assertEquals(0, book.bids().depth());
+    }
+
+    @Test
+    void appliesParsedDiffLevels() {
+        String raw = "{\"stream\":\"btcusdt@depth@100ms\",\"data\":{\"e\":\"depthUpdate\",\"E\":1712345678913,"
+                + "\"s\":\"BTCUSDT\",\"U\":101,\"u\":103,"
+                + "\"b\":[[\"10.00000000\",\"0.00000000\"],[\"9.50000000\",\"2.00000000\"]],"
+                + "\"a\":[[\"10.50000000\",\"4.00000000\"]]}}";
+        byte[] bytes = raw.getBytes(StandardCharsets.US_ASCII);
+
+        OrderBook book = new OrderBook("BTCUSDT", 10);
+        book.offerSnapshot(new DepthSnapshot(100, new double[]{10.0}, new double[]{1.0},
+                new double[]{11.0}, new double[]{1.0}));
+        book.adoptPendingSnapshot();
+
+        DepthUpdate update = new DepthUpdate();
+        assertTrue(new BinanceDepthParser(new SymbolTable()).parse(bytes, 0, bytes.length, update));
+        assertEquals("BTCUSDT", update.getSymbol());
+        assertEquals(1712345678913L, update.getEventTime());
+        assertEquals(OrderBook.Sequence.APPLY, book.check(update.getFirstUpdateId(), update.getFinalUpdateId()));
+
+        assertTrue(BinanceDepthParser.applyBids(update, book.bids()));
+        assertTrue(BinanceDepthParser.applyAsks(update, book.asks()));
+        book.applied(update.getFinalUpdateId());
+
+        assertEquals(1, book.bids().depth());
+        assertEquals(9.5, book.bids().bestPrice());
+        assertEquals(2.0, book.bids().quantity(0));
+        assertEquals(10.5, book.asks().bestPrice());
+        assertEquals(2, book.asks().depth());
+        assertEquals(103, book.getLastUpdateId());
+        assertArrayEquals(bytes, update.copyFrame());
+    }
+}
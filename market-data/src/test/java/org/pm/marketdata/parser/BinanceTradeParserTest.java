@@ -0,0 +1,103 @@
+package org.pm.marketdata.parser;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinanceTradeParserTest {
+
+    private static final String RAW = "{\"e\":\"trade\",\"E\":1712345678913,\"s\":\"BTCUSDT\",\"t\":3345678901,"
+            + "\"p\":\"88500.50000000\",\"q\":\"0.00200000\",\"T\":1712345678912,\"m\":true,\"M\":true}";
+
+    private final BinanceTradeParser parser = new BinanceTradeParser(new SymbolTable());
+
+    @Test
+    void parsesRawTradeFrame() {
+        Tick tick = new Tick();
+
+        assertTrue(parser.parse(buf(RAW), tick));
+        assertEquals("BTCUSDT", tick.getSymbol());
+        assertEquals(88500.5, tick.getPrice());
+        assertEquals(0.002, tick.getQuantity());
+        assertEquals(1712345678912L, tick.getTimestamp());
+        assertEquals(3345678901L, tick.getTradeId());
+    }
+
+    @Test
+    void parsesCombinedStreamEnvelope() {
+        Tick tick = new Tick();
+
+        assertTrue(parser.parse(buf("{\"stream\":\"btcusdt@trade\",\"data\":" + RAW + "}"), tick));
+        assertEquals("BTCUSDT", tick.getSymbol());
+        assertEquals(88500.5, tick.getPrice());
+    }
+
+    @Test
+    void rejectsOtherEventsAndTruncatedFrames() {
+        assertFalse(parser.parse(buf("{\"e\":\"depthUpdate\",\"s\":\"BTCUSDT\",\"U\":1,\"u\":2,\"b\":[],\"a\":[]}"), new Tick()));
+        assertFalse(parser.parse(buf(RAW.substring(0, 60)), new Tick()));
+        assertFalse(parser.parse(buf("{\"result\":null,\"id\":1}"), new Tick()));
+    }
+
+    @Test
+    void parsesDirectBuffers() {
+        byte[] bytes = RAW.getBytes(StandardCharsets.US_ASCII);
+        ByteBuf direct = Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+        Tick tick = new Tick();
+        try {
+            assertTrue(parser.parse(direct, tick));
+            assertEquals(88500.5, tick.getPrice());
+            assertEquals(0, direct.readerIndex());
+        } finally {
+            direct.release();
+        }
+    }
+
+    @Test
+    void reusesSymbolInstances() {
+        Tick first = new Tick();
+        Tick second = new Tick();
+        parser.parse(buf(RAW), first);
+        parser.parse(buf(RAW), second);
+
+        assertSame(first.getSymbol(), second.getSymbol());
+    }
+
+    @Test
+    void decimalsMatchDoubleParseDouble() {
+        Random random = new Random(42);
+        for (int n = 0; n < 100_000; n++) {
+            long units = random.nextLong(1, 10_000_000_000_000L);
+            int scale = random.nextInt(0, 9);
+            String text = java.math.BigDecimal.valueOf(units, scale).toPlainString();
+
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Double.parseDouble(text), AsciiDecimals.parseDouble(bytes, 0, bytes.length), text);
+        }
+    }
+
+    @Test
+    void longDecimalsAreRoundedCorrectly() {
+        // 17 significant digits: the mantissa isn't exact as a double, so the fast path must not answer
+        for (String text : new String[]{"9007199254740993", "90071992547.40993", "0.12345678901234567"}) {
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            assertTrue(Double.isNaN(AsciiDecimals.parseDouble(bytes, 0, bytes.length)), text);
+        }
+
+        // the parser falls back instead of dropping the trade
+        Tick tick = new Tick();
+        assertTrue(parser.parse(buf(RAW.replace("88500.50000000", "90071992547.40993")), tick));
+        assertEquals(Double.parseDouble("90071992547.40993"), tick.getPrice());
+        assertFalse(parser.parse(buf(RAW.replace("88500.50000000", "88500.5x")), tick));
+    }
+
+    private static ByteBuf buf(String s) {
+        return Unpooled.wrappedBuffer(s.getBytes(StandardCharsets.US_ASCII));
+    }
+}
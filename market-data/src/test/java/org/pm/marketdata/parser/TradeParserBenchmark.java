@@ -0,0 +1,78 @@
+package org.pm.marketdata.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pm.common.model.Tick;
+import org.pm.marketdata.util.JsonUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson tree path (what MarketDataService did for every frame) vs the streaming parser.
+ *
+ * Run the main method from the IDE, or after `mvn -pl market-data test-compile`:
+ *   java -cp "market-data/target/test-classes:market-data/target/classes:<test classpath>" \
+ *        org.pm.marketdata.parser.TradeParserBenchmark
+ * Add "-prof gc" to the JMH options to see the allocation rate of each path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TradeParserBenchmark {
+
+    private static final String FRAME = "{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\",\"E\":1712345678913,"
+            + "\"s\":\"BTCUSDT\",\"t\":3345678901,\"p\":\"88500.50000000\",\"q\":\"0.00200000\","
+            + "\"T\":1712345678912,\"m\":true,\"M\":true}}";
+
+    private ByteBuf frame;
+    private BinanceTradeParser parser;
+    private Tick scratch;
+
+    @Setup
+    public void setup() {
+        byte[] bytes = FRAME.getBytes(StandardCharsets.US_ASCII);
+        frame = Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+        parser = new BinanceTradeParser(new SymbolTable());
+        scratch = new Tick();
+    }
+
+    @TearDown
+    public void tearDown() {
+        frame.release();
+    }
+
+    @Benchmark
+    public Tick jacksonTree() {
+        JsonNode json = JsonUtil.parse(frame.toString(StandardCharsets.UTF_8)).get("data");
+        Tick tick = new Tick();
+        tick.setSymbol(json.get("s").asText());
+        tick.setPrice(json.get("p").asDouble());
+        tick.setQuantity(json.get("q").asDouble());
+        tick.setTimestamp(json.get("T").asLong());
+        tick.setTradeId(json.get("t").asLong());
+        return tick;
+    }
+
+    @Benchmark
+    public Tick streaming() {
+        parser.parse(frame, scratch);
+        return scratch;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TradeParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
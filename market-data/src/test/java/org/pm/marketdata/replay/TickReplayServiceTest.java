@@ -0,0 +1,76 @@
+package org.pm.marketdata.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pm.common.model.Tick;
+import org.pm.marketdata.journal.TickJournalWriter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickReplayServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 4, 5);
+    private static final long MIDNIGHT = DAY.toEpochDay() * 86_400_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mergesWritersInTradeTimeOrder() throws Exception {
+        // two connections, each with its own symbol, interleaved in time; a tiny segment size
+        // so each writer also spans several files
+        write("trades-0", "BTCUSDT", 0, 2, 4, 6, 8);
+        write("trades-1", "ETHUSDT", 1, 3, 5, 7, 9);
+
+        List<Tick> replayed = replay(0);
+
+        assertEquals(10, replayed.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(MIDNIGHT + i, replayed.get(i).getTimestamp());
+            assertEquals(i % 2 == 0 ? "BTCUSDT" : "ETHUSDT", replayed.get(i).getSymbol());
+        }
+    }
+
+    @Test
+    void pacesBySpeedFactor() throws Exception {
+        write("trades-0", "BTCUSDT", 0, 100, 200);
+
+        long start = System.nanoTime();
+        List<Tick> replayed = replay(4);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(3, replayed.size());
+        // 200ms of trades at 4x
+        assertTrue(elapsedMillis >= 45, "replayed too fast: " + elapsedMillis + "ms");
+    }
+
+    private void write(String writerName, String symbol, long... offsets) {
+        TickJournalWriter writer = new TickJournalWriter(dir, writerName, 64 + 2 * 64);
+        for (long offset : offsets) {
+            Tick tick = new Tick(symbol, 100.0 + offset, 1.0, MIDNIGHT + offset);
+            tick.setTradeId(offset);
+            writer.append(tick, 0);
+        }
+        writer.close();
+    }
+
+    private List<Tick> replay(double speed) throws Exception {
+        TickReplayService replay = new TickReplayService();
+        ReflectionTestUtils.setField(replay, "dir", dir.toString());
+        ReflectionTestUtils.setField(replay, "speed", speed);
+        ReflectionTestUtils.setField(replay, "running", true);
+
+        List<Tick> out = new ArrayList<>();
+        replay.replay(DAY, DAY, tick -> {
+            Tick copy = new Tick(tick.getSymbol(), tick.getPrice(), tick.getQuantity(), tick.getTimestamp());
+            out.add(copy);
+        });
+        return out;
+    }
+}
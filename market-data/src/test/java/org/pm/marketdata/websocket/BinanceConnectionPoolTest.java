@@ -0,0 +1,111 @@
+package org.pm.marketdata.websocket;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+import org.pm.marketdata.parser.BinanceTradeParser;
+import org.pm.marketdata.parser.SymbolTable;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinanceConnectionPoolTest {
+
+    private static final int FRAMES_PER_STREAM = 5;
+
+    // stand-in for Binance: sends a few trades per requested stream, then closes the socket
+    private DisposableServer stub;
+    private final AtomicInteger handshakes = new AtomicInteger();
+
+    private BinanceConnectionPool pool;
+
+    @BeforeEach
+    void startStub() {
+        stub = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    String query = request.uri().substring(request.uri().indexOf("streams=") + 8);
+                    List<String> streams = List.of(query.split("/"));
+                    handshakes.incrementAndGet();
+                    return response.sendWebsocket((in, out) -> out.sendString(
+                            Flux.fromIterable(streams)
+                                    .flatMap(stream -> Flux.range(1, FRAMES_PER_STREAM).map(id -> trade(stream, id)))));
+                })
+                .bindNow();
+    }
+
+    @AfterEach
+    void stop() {
+        if (pool != null) pool.close();
+        stub.disposeNow();
+    }
+
+    @Test
+    void shardsSymbolsAndResubscribesAfterServerClose() throws Exception {
+        List<String> streams = List.of("btcusdt@trade", "ethusdt@trade", "bnbusdt@trade", "solusdt@trade", "xrpusdt@trade");
+        SymbolTable symbols = new SymbolTable();
+        Map<Integer, Set<String>> symbolsByConnection = new ConcurrentHashMap<>();
+        Map<Integer, Set<String>> threadsByConnection = new ConcurrentHashMap<>();
+        // the handler runs on the event loop, where a failed assertion would only be logged
+        AtomicLong unparsed = new AtomicLong();
+
+        pool = new BinanceConnectionPool("test", "ws://127.0.0.1:" + stub.port() + "/stream", streams, 2,
+                connection -> {
+                    BinanceTradeParser parser = new BinanceTradeParser(symbols);
+                    Tick tick = new Tick();
+                    return (ByteBuf frame) -> {
+                        if (!parser.parse(frame, tick)) {
+                            unparsed.incrementAndGet();
+                            return -1;
+                        }
+                        symbolsByConnection.computeIfAbsent(connection, k -> ConcurrentHashMap.newKeySet()).add(tick.getSymbol());
+                        threadsByConnection.computeIfAbsent(connection, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+                        return tick.getTimestamp();
+                    };
+                },
+                Duration.ofMillis(10), Duration.ofMillis(50));
+        pool.start();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline
+                && pool.stats().stream().anyMatch(s -> s.getReconnects() < 2 || s.getMessages() < 2L * FRAMES_PER_STREAM * s.getStreams().size())) {
+            Thread.sleep(20);
+        }
+
+        List<ConnectionStats> stats = pool.stats();
+        assertEquals(2, stats.size());
+        assertEquals(Set.of("BTCUSDT", "BNBUSDT", "XRPUSDT"), symbolsByConnection.get(0));
+        assertEquals(Set.of("ETHUSDT", "SOLUSDT"), symbolsByConnection.get(1));
+        for (ConnectionStats s : stats) {
+            assertTrue(s.getReconnects() >= 2, s.toString());
+            assertTrue(s.getMessages() >= 2L * FRAMES_PER_STREAM * s.getStreams().size(), s.toString());
+        }
+        assertTrue(handshakes.get() >= 4);
+        assertEquals(0, unparsed.get());
+
+        // each connection decodes on its own, single event loop thread
+        assertEquals(1, threadsByConnection.get(0).size());
+        assertEquals(1, threadsByConnection.get(1).size());
+        assertNotEquals(threadsByConnection.get(0), threadsByConnection.get(1));
+    }
+
+    private static String trade(String stream, int id) {
+        String symbol = stream.substring(0, stream.indexOf('@')).toUpperCase();
+        return "{\"stream\":\"" + stream + "\",\"data\":{\"e\":\"trade\",\"E\":1712345678913,\"s\":\"" + symbol
+                + "\",\"t\":" + id + ",\"p\":\"100.5\",\"q\":\"1\",\"T\":" + System.currentTimeMillis()
+                + ",\"m\":true,\"M\":true}}";
+    }
+}
@@ -1,6 +1,6 @@
 package org.pm.orderexecution.producer;
 
-import org.pm.orderexecution.model.OrderStatusEvent;
+import org.pm.common.model.OrderStatusEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
@@ -4,7 +4,7 @@ import org.pm.common.model.TradeSignal;
 import org.pm.common.model.ValidatedTrade;
 import org.pm.orderexecution.broker.BrokerClient;
 import org.pm.orderexecution.broker.MockBrokerService;
-import org.pm.orderexecution.model.OrderStatusEvent;
+import org.pm.common.model.OrderStatusEvent;
 import org.pm.orderexecution.producer.OrderStatusProducer;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
@@ -25,8 +25,27 @@ public class OrderExecutionService {
 
     public void executeOrder(ValidatedTrade validatedTrade) {
         TradeSignal signal = validatedTrade.getSignal();
-        String tradeId = "TRADE-" + UUID.randomUUID().toString().substring(0, 8);
+        // risk-manager assigns the id so it can match the order-status events to its pending exposure
+        String tradeId = validatedTrade.getTradeId() != null
+                ? validatedTrade.getTradeId()
+                : "TRADE-" + UUID.randomUUID().toString().substring(0, 8);
         
+        // pairs / basket trades: placing only the first leg would leave a naked position, so
+        // refuse them (REJECTED lets risk-manager release the pending exposure)
+        if (signal.getLegs() != null && signal.getLegs().size() > 1) {
+            System.err.println("❌ Multi-leg trade not supported, not executing: " + tradeId);
+            OrderStatusEvent s = new OrderStatusEvent();
+            s.setTradeId(tradeId);
+            s.setSymbol(signal.getSymbol());
+            s.setSide(signal.getSignal());
+            s.setPrice(signal.getPrice());
+            s.setStatus("REJECTED");
+            s.setTimestamp(Instant.now().toEpochMilli());
+            s.setMessage("Multi-leg trades are not supported (" + signal.getLegs().size() + " legs)");
+            statusProducer.publish(s);
+            return;
+        }
+
         System.out.println("🔄 Executing order: " + signal.getSignal() + " " + signal.getSymbol() + " @ $" + signal.getPrice());
 
         Mono<MockBrokerService.BrokerOrderResponse> resp = mockBroker.placeOrder(validatedTrade, tradeId);
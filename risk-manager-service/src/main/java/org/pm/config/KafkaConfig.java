@@ -2,8 +2,11 @@ package org.pm.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.pm.common.model.OrderStatusEvent;
 import org.pm.common.model.TradeSignal;
 import org.pm.common.model.ValidatedTrade;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +28,10 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // listener threads; risk state is per symbol and lock-free, so these don't contend
+    @Value("${risk.consumer.concurrency:1}")
+    private int concurrency;
+
     @Bean
     public ConsumerFactory<String, TradeSignal> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -48,6 +55,7 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, TradeSignal> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         
         // Add error handler to log and skip bad messages
         factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler(
@@ -60,6 +68,40 @@ public class KafkaConfig {
         return factory;
     }
 
+    // order-status feeds the exposure cache: every instance needs every fill, so no shared group
+    // offsets to resume from, only what happens from now on
+    @Bean
+    public ConsumerFactory<String, OrderStatusEvent> orderStatusConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                  org.springframework.kafka.support.serializer.ErrorHandlingDeserializer.class);
+        props.put(org.springframework.kafka.support.serializer.ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS,
+                  JsonDeserializer.class);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderStatusEvent.class.getName());
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderStatusEvent> orderStatusListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderStatusEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderStatusConsumerFactory());
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler(
+            (record, exception) -> {
+                System.err.println("Error deserializing order status: " + exception.getMessage());
+                System.err.println("Skipping bad record at offset: " + record.offset());
+            }
+        ));
+
+        return factory;
+    }
+
     @Bean
     public ProducerFactory<String, ValidatedTrade> producerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -74,5 +116,30 @@ public class KafkaConfig {
     public KafkaTemplate<String, ValidatedTrade> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
-}
 
+    // risk state changelog (see RiskStateStore): binary values, read back by assignment only
+    @Bean
+    public ProducerFactory<String, byte[]> riskStateProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        // with the broker down, give up on a flush round quickly instead of blocking for a minute
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000);
+
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> riskStateConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+}
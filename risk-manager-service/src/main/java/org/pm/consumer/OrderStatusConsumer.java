@@ -0,0 +1,24 @@
+package org.pm.consumer;
+
+import org.pm.common.model.OrderStatusEvent;
+import org.pm.service.ExposureCache;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderStatusConsumer {
+
+    private final ExposureCache exposure;
+
+    public OrderStatusConsumer(ExposureCache exposure) {
+        this.exposure = exposure;
+    }
+
+    // random group per instance: each risk-manager keeps its own exposure, so each needs every event
+    @KafkaListener(topics = "${topics.order-status}",
+            groupId = "risk-manager-exposure-${random.uuid}",
+            containerFactory = "orderStatusListenerContainerFactory")
+    public void onMessage(OrderStatusEvent event) {
+        exposure.onOrderStatus(event);
+    }
+}
@@ -19,12 +19,9 @@ public class TradeSignalConsumer {
 
     @KafkaListener(topics = "${topics.trade-signals}", groupId = "risk-manager-group")
     public void onMessage(TradeSignal signal) {
-        System.out.println("Received trade signal: " + signal);
-
+        // no per-signal logging: in a burst printing cost more than validating
         var validated = validationService.validate(signal);
 
         producer.publish(validated);
-
-        System.out.println("Validation result published: " + validated);
     }
 }
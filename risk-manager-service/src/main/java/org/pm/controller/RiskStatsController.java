@@ -0,0 +1,41 @@
+package org.pm.controller;
+
+import org.pm.service.ExposureCache;
+import org.pm.service.RiskRuleEngine;
+import org.pm.service.RiskStateStore;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class RiskStatsController {
+
+    private final RiskRuleEngine rules;
+    private final ExposureCache exposure;
+    private final RiskStateStore state;
+
+    public RiskStatsController(RiskRuleEngine rules, ExposureCache exposure, RiskStateStore state) {
+        this.rules = rules;
+        this.exposure = exposure;
+        this.state = state;
+    }
+
+    // limits version in force, and per rule: evaluations, rejections, mean nanoseconds
+    @GetMapping("/stats/rules")
+    public Map<String, Object> rules() {
+        return rules.stats();
+    }
+
+    // per symbol pending / filled notional, and how order-status events settled them
+    @GetMapping("/stats/exposure")
+    public Map<String, Object> exposure() {
+        return exposure.stats();
+    }
+
+    // restore time at startup, changelog records sent / replayed, snapshots written
+    @GetMapping("/stats/state")
+    public Map<String, Object> state() {
+        return state.stats();
+    }
+}
@@ -21,10 +21,7 @@ public class ValidatedTradeProducer {
         kafkaTemplate.send(validatedTopic, trade.getSignal().getSymbol(), trade)
                 .whenComplete((result, ex) -> {
                     if (ex != null) {
-                        System.err.println("Failed to send validated trade: " + ex.getMessage());
-                    } else {
-                        System.out.println("✓ Validated trade sent to partition " + 
-                                result.getRecordMetadata().partition() + ": " + trade);
+                        System.err.println("Failed to send validated trade: " + ex.getMessage() + " " + trade);
                     }
                 });
     }
@@ -0,0 +1,52 @@
+package org.pm.service;
+
+import org.pm.common.model.TradeSignal;
+
+/**
+ * One symbol's rules, in evaluation order, with their stats alongside. Immutable; a reload builds
+ * new instances.
+ */
+final class CompiledRules {
+
+    private final RiskLimits limits;
+    private final RiskRule[] rules;
+    private final RuleStats[] stats;
+
+    CompiledRules(RiskLimits limits, RiskRule[] rules, RuleStats[] stats) {
+        this.limits = limits;
+        this.rules = rules;
+        this.stats = stats;
+    }
+
+    /** Runs the rules in order up to the first rejection; returns it, or null if all passed. */
+    RiskRule firstFailure(TradeSignal signal, SymbolRiskState risk, double newPosition) {
+        return run(signal, risk, newPosition, false);
+    }
+
+    /** Same, for only the position-dependent rules (after the position moved under a CAS). */
+    RiskRule firstPositionFailure(TradeSignal signal, SymbolRiskState risk, double newPosition) {
+        return run(signal, risk, newPosition, true);
+    }
+
+    private RiskRule run(TradeSignal signal, SymbolRiskState risk, double newPosition, boolean positionOnly) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rules.length; i++) {
+            RiskRule rule = rules[i];
+            if (positionOnly && !rule.usesPosition()) continue;
+            boolean passed = rule.test(signal, risk, newPosition);
+            long end = System.nanoTime();
+            stats[i].record(end - start, !passed);
+            if (!passed) return rule;
+            start = end;
+        }
+        return null;
+    }
+
+    RiskLimits getLimits() {
+        return limits;
+    }
+
+    int size() {
+        return rules.length;
+    }
+}
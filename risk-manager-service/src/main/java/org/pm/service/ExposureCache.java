@@ -0,0 +1,198 @@
+package org.pm.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.pm.common.model.OrderStatusEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory exposure per symbol, split into pending (validated, not yet reported back by
+ * order-execution) and filled notional. Validation adds to pending; the {@code order-status}
+ * events move an order from pending to filled at the fill price (FILLED) or drop it
+ * (REJECTED / ERROR). Pre-trade checks read one snapshot per symbol and never leave the process.
+ *
+ * Orders whose outcome never arrives (order-execution down, status lost) would hold pending
+ * exposure forever, so they're released after {@code risk.exposure.pending-timeout-ms}.
+ * With {@code risk.state.enabled} every change is also persisted by {@link RiskStateStore} and
+ * restored from there on startup.
+ */
+@Component
+public class ExposureCache {
+
+    // how long an order may stay pending before its exposure is released anyway; 0 = never
+    @Value("${risk.exposure.pending-timeout-ms:60000}")
+    private long pendingTimeoutMs;
+
+    // Exposure, last signal per strategy and rate limiter of each symbol, updated lock-free
+    private final Map<String, SymbolRiskState> symbols = new ConcurrentHashMap<>();
+
+    // tradeId -> order still waiting for its outcome
+    private final Map<String, PendingOrder> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder fills = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder unknownFills = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private ScheduledExecutorService sweeper;
+
+    // told about every symbol / order that changed; RiskStateStore when persistence is on
+    private volatile ChangeListener changes = ChangeListener.NONE;
+
+    /** Keys whose state changed and has to be persisted; called on the validating thread. */
+    interface ChangeListener {
+        ChangeListener NONE = new ChangeListener() {
+            @Override
+            public void symbolChanged(String symbol) {
+            }
+
+            @Override
+            public void orderChanged(String tradeId) {
+            }
+        };
+
+        void symbolChanged(String symbol);
+
+        void orderChanged(String tradeId);
+    }
+
+    @PostConstruct
+    void init() {
+        if (pendingTimeoutMs <= 0) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "risk-exposure-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long every = Math.max(100, pendingTimeoutMs / 4);
+        sweeper.scheduleWithFixedDelay(() -> expire(System.currentTimeMillis()), every, every, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    SymbolRiskState state(String symbol) {
+        SymbolRiskState risk = symbols.get(symbol);
+        if (risk == null) {
+            risk = symbols.computeIfAbsent(symbol, s -> new SymbolRiskState());
+        }
+        return risk;
+    }
+
+    /** A validated order whose signed notional is already in its symbol's pending exposure. */
+    void onAccepted(String tradeId, String symbol, double signedNotional) {
+        pending.put(tradeId, new PendingOrder(symbol, signedNotional, System.currentTimeMillis()));
+        ChangeListener listener = changes;
+        listener.symbolChanged(symbol);
+        listener.orderChanged(tradeId);
+    }
+
+    public void onOrderStatus(OrderStatusEvent event) {
+        if (event.getTradeId() == null || event.getStatus() == null) return;
+        switch (event.getStatus()) {
+            case "FILLED" -> {
+                PendingOrder order = pending.remove(event.getTradeId());
+                double fill = "SELL".equals(event.getSide()) ? -event.getPrice() : event.getPrice(); // 1 unit
+                if (order != null) {
+                    settle(event.getTradeId(), order.symbol, order.signedNotional, fill);
+                } else if (event.getSymbol() != null) {
+                    // validated before a restart, or already expired: the fill still counts
+                    state(event.getSymbol()).settle(0.0, fill);
+                    changes.symbolChanged(event.getSymbol());
+                    unknownFills.increment();
+                }
+                fills.increment();
+            }
+            case "REJECTED", "ERROR" -> {
+                PendingOrder order = pending.remove(event.getTradeId());
+                if (order != null) {
+                    settle(event.getTradeId(), order.symbol, order.signedNotional, 0.0);
+                }
+                rejections.increment();
+            }
+            default -> {
+                // ACCEPTED: still working, nothing moves
+            }
+        }
+    }
+
+    // releases orders pending since before now - timeout; only called from the sweeper (and tests)
+    void expire(long now) {
+        if (pendingTimeoutMs <= 0) return;
+        for (Map.Entry<String, PendingOrder> entry : pending.entrySet()) {
+            PendingOrder order = entry.getValue();
+            // remove(key, value) so an outcome racing with the sweep is applied exactly once
+            if (now - order.createdMs >= pendingTimeoutMs && pending.remove(entry.getKey(), order)) {
+                settle(entry.getKey(), order.symbol, order.signedNotional, 0.0);
+                expired.increment();
+                System.err.println("Releasing pending exposure of " + entry.getKey() + " (" + order.symbol
+                        + "), no order status after " + pendingTimeoutMs + "ms");
+            }
+        }
+    }
+
+    // the order was already taken out of `pending`
+    private void settle(String tradeId, String symbol, double pendingReleased, double signedFill) {
+        state(symbol).settle(pendingReleased, signedFill);
+        ChangeListener listener = changes;
+        listener.symbolChanged(symbol);
+        listener.orderChanged(tradeId);
+    }
+
+    void setChangeListener(ChangeListener listener) {
+        this.changes = listener;
+    }
+
+    // for RiskStateStore: the live state it snapshots, and where restored state goes
+    Map<String, SymbolRiskState> symbols() {
+        return symbols;
+    }
+
+    Map<String, PendingOrder> pendingOrders() {
+        return pending;
+    }
+
+    // current exposure (pending + filled) of a symbol, 0 if it never traded
+    double exposure(String symbol) {
+        SymbolRiskState risk = symbols.get(symbol);
+        return risk == null ? 0.0 : risk.current().exposure();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pendingOrders", pending.size());
+        result.put("fills", fills.sum());
+        result.put("unknownFills", unknownFills.sum());
+        result.put("rejections", rejections.sum());
+        result.put("expired", expired.sum());
+        Map<String, Object> bySymbol = new LinkedHashMap<>();
+        symbols.forEach((symbol, risk) -> {
+            SymbolRiskState.Snapshot s = risk.current();
+            bySymbol.put(symbol, Map.of("pending", s.pending, "filled", s.filled, "exposure", s.exposure()));
+        });
+        result.put("symbols", bySymbol);
+        return result;
+    }
+
+    static final class PendingOrder {
+        final String symbol;
+        final double signedNotional;
+        final long createdMs;
+
+        PendingOrder(String symbol, double signedNotional, long createdMs) {
+            this.symbol = symbol;
+            this.signedNotional = signedNotional;
+            this.createdMs = createdMs;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.pm.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Limits for one symbol (or the defaults) as written in the limits file. Unset fields fall back
+ * to the defaults entry, then to the built-in values; 0 turns a price bound off.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RiskLimits {
+    private Double minPrice;
+    private Double maxPrice;
+    private Double maxPosition;
+    private Integer maxTradesPerMinute;
+
+    public RiskLimits() {}
+
+    public RiskLimits(Double minPrice, Double maxPrice, Double maxPosition, Integer maxTradesPerMinute) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.maxPosition = maxPosition;
+        this.maxTradesPerMinute = maxTradesPerMinute;
+    }
+
+    // what RiskValidationService hardcoded before limits were configurable
+    static RiskLimits builtIn() {
+        return new RiskLimits(100.0, 150000.0, 1000000.0, 1000);
+    }
+
+    /** These limits with unset fields taken from {@code fallback}. */
+    RiskLimits orElse(RiskLimits fallback) {
+        return new RiskLimits(
+                minPrice != null ? minPrice : fallback.minPrice,
+                maxPrice != null ? maxPrice : fallback.maxPrice,
+                maxPosition != null ? maxPosition : fallback.maxPosition,
+                maxTradesPerMinute != null ? maxTradesPerMinute : fallback.maxTradesPerMinute);
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getMaxPosition() {
+        return maxPosition;
+    }
+
+    public void setMaxPosition(Double maxPosition) {
+        this.maxPosition = maxPosition;
+    }
+
+    public Integer getMaxTradesPerMinute() {
+        return maxTradesPerMinute;
+    }
+
+    public void setMaxTradesPerMinute(Integer maxTradesPerMinute) {
+        this.maxTradesPerMinute = maxTradesPerMinute;
+    }
+
+    @Override
+    public String toString() {
+        return "RiskLimits{" +
+                "minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", maxPosition=" + maxPosition +
+                ", maxTradesPerMinute=" + maxTradesPerMinute +
+                '}';
+    }
+}
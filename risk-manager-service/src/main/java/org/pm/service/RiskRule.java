@@ -0,0 +1,28 @@
+package org.pm.service;
+
+import org.pm.common.model.TradeSignal;
+import org.pm.common.model.ValidatedTrade;
+
+/**
+ * One pre-trade check with its limit compiled in. {@link #test} runs for every signal, so it must
+ * not allocate; {@link #reject} only runs for the rule that rejected, and allocates nothing but
+ * its result (the reason text is rendered only if someone reads it).
+ */
+interface RiskRule {
+
+    /** Stats key, shared by this rule's instances across symbols. */
+    String name();
+
+    /**
+     * @param newPosition the symbol's position if the trade were accepted
+     * @return true to let the signal through to the next rule
+     */
+    boolean test(TradeSignal signal, SymbolRiskState risk, double newPosition);
+
+    ValidatedTrade reject(TradeSignal signal, double newPosition);
+
+    /** Rules whose outcome depends on the position are re-run when the position changed under us. */
+    default boolean usesPosition() {
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package org.pm.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the compiled per-symbol rules and reloads them when the limits file changes:
+ * <pre>
+ * {
+ *   "defaults": { "maxPosition": 1000000, "maxTradesPerMinute": 1000 },
+ *   "symbols": {
+ *     "BTCUSDT": { "minPrice": 100, "maxPrice": 150000 },
+ *     "DOGEUSDT": { "maxPosition": 50000, "maxTradesPerMinute": 200 }
+ *   }
+ * }
+ * </pre>
+ * A reload compiles a complete new {@link RuleBook} off to the side and publishes it with one
+ * volatile write; validations pick up whichever book they read first and are never blocked.
+ * A file that doesn't parse keeps the current book.
+ */
+@Component
+public class RiskRuleEngine {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // empty = built-in limits only
+    @Value("${risk.limits.file:}")
+    private String file;
+
+    @Value("${risk.limits.reload-interval-ms:2000}")
+    private long reloadIntervalMs;
+
+    // rule name -> stats, kept across reloads
+    private final Map<String, RuleStats> stats = new ConcurrentHashMap<>();
+    private volatile RuleBook book = RuleBook.compile(new LimitsFile(), stats, 0, "built-in");
+    private long lastModified = -1;
+    private ScheduledExecutorService reloader;
+
+    @PostConstruct
+    void init() {
+        if (file == null || file.isBlank()) {
+            System.out.println("Risk limits: built-in " + book.getDefaults().getLimits());
+            return;
+        }
+        reload();
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "risk-limits-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+        reloader.scheduleWithFixedDelay(this::reload, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (reloader != null) reloader.shutdownNow();
+    }
+
+    /** The rules for {@code symbol} in the current book. */
+    CompiledRules forSymbol(String symbol) {
+        return book.forSymbol(symbol);
+    }
+
+    // only ever called from init and the reloader thread
+    void reload() {
+        Path path = Path.of(file);
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == lastModified) return;
+            LimitsFile limits = MAPPER.readValue(path.toFile(), LimitsFile.class);
+            RuleBook next = RuleBook.compile(limits, stats, book.getVersion() + 1, path.toString());
+            book = next;
+            lastModified = modified;
+            System.out.println("Risk limits v" + next.getVersion() + " loaded from " + path + ": defaults "
+                    + next.getDefaults().getLimits() + ", " + next.symbolCount() + " symbol overrides");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Risk limits not reloaded from " + path + ", keeping v" + book.getVersion()
+                    + ": " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        RuleBook current = book;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("version", current.getVersion());
+        result.put("source", current.getSource());
+        result.put("symbolOverrides", current.symbolCount());
+        Map<String, Object> rules = new LinkedHashMap<>();
+        for (RuleStats rule : stats.values()) {
+            rules.put(rule.getRule(), rule.snapshot());
+        }
+        result.put("rules", rules);
+        return result;
+    }
+
+    /** Layout of the limits file. */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class LimitsFile {
+        private RiskLimits defaults = new RiskLimits();
+        private Map<String, RiskLimits> symbols = new HashMap<>();
+
+        public RiskLimits getDefaults() {
+            return defaults;
+        }
+
+        public void setDefaults(RiskLimits defaults) {
+            this.defaults = defaults;
+        }
+
+        public Map<String, RiskLimits> getSymbols() {
+            return symbols;
+        }
+
+        public void setSymbols(Map<String, RiskLimits> symbols) {
+            this.symbols = symbols;
+        }
+    }
+}
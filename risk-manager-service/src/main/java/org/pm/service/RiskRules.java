@@ -0,0 +1,163 @@
+package org.pm.service;
+
+import org.pm.common.model.ReasonCode;
+import org.pm.common.model.TradeSignal;
+import org.pm.common.model.ValidatedTrade;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rule types, and {@link #compile} which turns a symbol's limits into the flat array the
+ * engine runs: always the same order, and disabled limits are left out rather than checked.
+ */
+final class RiskRules {
+
+    private RiskRules() {}
+
+    static final String POSITIVE_PRICE = "positive-price";
+    static final String MIN_PRICE = "min-price";
+    static final String MAX_PRICE = "max-price";
+    static final String RATE_LIMIT = "rate-limit";
+    static final String MAX_POSITION = "max-position";
+
+    static final long RATE_WINDOW_MS = 60_000;
+
+    static CompiledRules compile(RiskLimits limits, Map<String, RuleStats> stats) {
+        List<RiskRule> rules = new ArrayList<>();
+        rules.add(new PositivePrice());
+        if (limits.getMinPrice() != null && limits.getMinPrice() > 0) {
+            rules.add(new MinPrice(limits.getMinPrice()));
+        }
+        if (limits.getMaxPrice() != null && limits.getMaxPrice() > 0) {
+            rules.add(new MaxPrice(limits.getMaxPrice()));
+        }
+        if (limits.getMaxTradesPerMinute() != null && limits.getMaxTradesPerMinute() > 0) {
+            rules.add(new RateLimit(limits.getMaxTradesPerMinute()));
+        }
+        if (limits.getMaxPosition() != null && limits.getMaxPosition() > 0) {
+            rules.add(new MaxPosition(limits.getMaxPosition()));
+        }
+        RuleStats[] ruleStats = new RuleStats[rules.size()];
+        for (int i = 0; i < ruleStats.length; i++) {
+            ruleStats[i] = stats.computeIfAbsent(rules.get(i).name(), RuleStats::new);
+        }
+        return new CompiledRules(limits, rules.toArray(new RiskRule[0]), ruleStats);
+    }
+
+    static final class PositivePrice implements RiskRule {
+        @Override
+        public String name() {
+            return POSITIVE_PRICE;
+        }
+
+        @Override
+        public boolean test(TradeSignal signal, SymbolRiskState risk, double newPosition) {
+            return signal.getPrice() > 0;
+        }
+
+        @Override
+        public ValidatedTrade reject(TradeSignal signal, double newPosition) {
+            return ValidatedTrade.rejected(signal, ReasonCode.INVALID_PRICE, signal.getPrice(), 0.0);
+        }
+    }
+
+    static final class MinPrice implements RiskRule {
+        private final double min;
+
+        MinPrice(double min) {
+            this.min = min;
+        }
+
+        @Override
+        public String name() {
+            return MIN_PRICE;
+        }
+
+        @Override
+        public boolean test(TradeSignal signal, SymbolRiskState risk, double newPosition) {
+            return signal.getPrice() >= min;
+        }
+
+        @Override
+        public ValidatedTrade reject(TradeSignal signal, double newPosition) {
+            return ValidatedTrade.rejected(signal, ReasonCode.PRICE_TOO_LOW, signal.getPrice(), min);
+        }
+    }
+
+    static final class MaxPrice implements RiskRule {
+        private final double max;
+
+        MaxPrice(double max) {
+            this.max = max;
+        }
+
+        @Override
+        public String name() {
+            return MAX_PRICE;
+        }
+
+        @Override
+        public boolean test(TradeSignal signal, SymbolRiskState risk, double newPosition) {
+            return signal.getPrice() <= max;
+        }
+
+        @Override
+        public ValidatedTrade reject(TradeSignal signal, double newPosition) {
+            return ValidatedTrade.rejected(signal, ReasonCode.PRICE_TOO_HIGH, signal.getPrice(), max);
+        }
+    }
+
+    // takes a permit when it passes, so it sits after every check that doesn't cost anything
+    static final class RateLimit implements RiskRule {
+        private final int perMinute;
+
+        RateLimit(int perMinute) {
+            this.perMinute = perMinute;
+        }
+
+        @Override
+        public String name() {
+            return RATE_LIMIT;
+        }
+
+        @Override
+        public boolean test(TradeSignal signal, SymbolRiskState risk, double newPosition) {
+            return risk.limiter(perMinute, RATE_WINDOW_MS).tryAcquire(System.currentTimeMillis());
+        }
+
+        @Override
+        public ValidatedTrade reject(TradeSignal signal, double newPosition) {
+            return ValidatedTrade.rejected(signal, ReasonCode.RATE_LIMIT, perMinute, 0.0);
+        }
+    }
+
+    static final class MaxPosition implements RiskRule {
+        private final double max;
+
+        MaxPosition(double max) {
+            this.max = max;
+        }
+
+        @Override
+        public String name() {
+            return MAX_POSITION;
+        }
+
+        @Override
+        public boolean test(TradeSignal signal, SymbolRiskState risk, double newPosition) {
+            return Math.abs(newPosition) <= max;
+        }
+
+        @Override
+        public ValidatedTrade reject(TradeSignal signal, double newPosition) {
+            return ValidatedTrade.rejected(signal, ReasonCode.POSITION_LIMIT, Math.abs(newPosition), max);
+        }
+
+        @Override
+        public boolean usesPosition() {
+            return true;
+        }
+    }
+}
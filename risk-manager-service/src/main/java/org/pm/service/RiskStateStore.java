@@ -0,0 +1,462 @@
+package org.pm.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Persists the exposure cache so a restart doesn't begin from zero positions.
+ *
+ * Every change is written to a compacted changelog topic keyed by what changed: "s:SYMBOL" holds
+ * that symbol's full state, "o:TRADEID" a pending order (a tombstone once it's settled), so the
+ * topic never holds more than the live keys. Validation only marks keys dirty; a single flusher
+ * thread sends each dirty key's current state every few milliseconds, which coalesces bursts and
+ * keeps a slow or absent broker off the validating threads. Every {@code snapshot-interval-ms}
+ * the flusher also writes the whole state to a local binary file together with the changelog
+ * offsets it had been acked up to.
+ *
+ * Startup loads that file and replays only the changelog records after its offsets, then lets
+ * traffic in. Symbol states carry a version, so a record older than what the snapshot holds is
+ * skipped. Without a snapshot the (compacted) topic is read from the start. With Kafka unreachable
+ * the snapshot alone is restored; a replay that starts but doesn't reach the end offsets fails
+ * startup instead. Rate limiter windows are not persisted.
+ */
+@Component
+public class RiskStateStore implements ExposureCache.ChangeListener {
+
+    private static final int MAGIC = 0x52534B31; // "RSK1"
+    private static final byte SYMBOL = 1;
+    private static final byte ORDER = 2;
+    static final String SYMBOL_KEY = "s:";
+    static final String ORDER_KEY = "o:";
+
+    @Value("${risk.state.enabled:false}")
+    private boolean enabled;
+
+    @Value("${risk.state.changelog-topic:risk-state-changelog}")
+    private String topic;
+
+    @Value("${risk.state.snapshot-dir:./risk-state}")
+    private String snapshotDir;
+
+    @Value("${risk.state.snapshot-interval-ms:30000}")
+    private long snapshotIntervalMs;
+
+    @Value("${risk.state.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    // how long startup waits for Kafka before going on with the snapshot alone
+    @Value("${risk.state.restore-timeout-ms:3000}")
+    private long restoreTimeoutMs;
+
+    // how long the changelog replay may take once the broker answered; past it startup fails
+    @Value("${risk.state.replay-timeout-ms:60000}")
+    private long replayTimeoutMs;
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    private final ExposureCache exposure;
+    private final ProducerFactory<String, byte[]> producerFactory;
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+
+    private final Set<String> dirtySymbols = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirtyOrders = ConcurrentHashMap.newKeySet();
+    // partition -> highest offset the broker acked, written by producer callbacks
+    private final Map<Integer, Long> acked = new ConcurrentHashMap<>();
+
+    private Producer<String, byte[]> producer;
+    private ScheduledExecutorService flusher;
+    private long lastSnapshotMs;
+    private volatile long restoreMillis = -1;
+    private volatile long replayed;
+    private volatile long sent;
+    private volatile long snapshots;
+
+    public RiskStateStore(ExposureCache exposure,
+                          ProducerFactory<String, byte[]> riskStateProducerFactory,
+                          ConsumerFactory<String, byte[]> riskStateConsumerFactory) {
+        this.exposure = exposure;
+        this.producerFactory = riskStateProducerFactory;
+        this.consumerFactory = riskStateConsumerFactory;
+    }
+
+    // runs before the listener containers start, so no signal is validated against missing state
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        Map<Integer, Long> from = loadSnapshot(snapshotFile());
+        replayChangelog(from);
+        restoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("Risk state restored in " + restoreMillis + "ms: " + exposure.symbols().size()
+                + " symbols, " + exposure.pendingOrders().size() + " pending orders, "
+                + replayed + " changelog records replayed");
+
+        producer = producerFactory.createProducer();
+        exposure.setChangeListener(this);
+        lastSnapshotMs = System.currentTimeMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "risk-state-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushAndMaybeSnapshot, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) return;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(2, TimeUnit.SECONDS);
+            // one last round, acked before the final snapshot, so a clean restart replays nothing
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("Final risk state flush failed: " + e.getMessage());
+        } finally {
+            producer.close(Duration.ofSeconds(2));
+        }
+        writeSnapshot(snapshotFile());
+    }
+
+    @Override
+    public void symbolChanged(String symbol) {
+        dirtySymbols.add(symbol);
+    }
+
+    @Override
+    public void orderChanged(String tradeId) {
+        dirtyOrders.add(tradeId);
+    }
+
+    private void flushAndMaybeSnapshot() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // broker unreachable: the keys stay dirty and the next round retries
+            System.err.println("Risk state flush failed: " + e.getMessage());
+        }
+        // the local snapshot doesn't depend on Kafka being up
+        long now = System.currentTimeMillis();
+        if (now - lastSnapshotMs >= snapshotIntervalMs) {
+            lastSnapshotMs = now;
+            writeSnapshot(snapshotFile());
+        }
+    }
+
+    // flusher thread only: sends the current state of every key marked since the last round
+    void flush() {
+        for (String symbol : dirtySymbols) {
+            // remove first: a change after this point marks it again for the next round
+            dirtySymbols.remove(symbol);
+            try {
+                send(SYMBOL_KEY + symbol, encodeSymbol(exposure.state(symbol).current()), dirtySymbols, symbol);
+            } catch (RuntimeException e) {
+                dirtySymbols.add(symbol);
+                throw e;
+            }
+        }
+        for (String tradeId : dirtyOrders) {
+            dirtyOrders.remove(tradeId);
+            ExposureCache.PendingOrder order = exposure.pendingOrders().get(tradeId);
+            try {
+                send(ORDER_KEY + tradeId, order == null ? null : encodeOrder(order), dirtyOrders, tradeId);
+            } catch (RuntimeException e) {
+                dirtyOrders.add(tradeId);
+                throw e;
+            }
+        }
+    }
+
+    // throws when the broker's metadata can't be had within max.block.ms; a delivery that fails
+    // later marks the key dirty again, so the next round resends its then-current state
+    private void send(String key, byte[] value, Set<String> dirty, String id) {
+        producer.send(new ProducerRecord<>(topic, key, value), (metadata, ex) -> {
+            if (ex != null) {
+                dirty.add(id);
+                System.err.println("Failed to send risk state " + key + ", will resend: " + ex.getMessage());
+            } else {
+                acked.merge(metadata.partition(), metadata.offset(), Math::max);
+            }
+        });
+        sent++;
+    }
+
+    private Path snapshotFile() {
+        return Path.of(snapshotDir, "risk-state.snapshot");
+    }
+
+    /**
+     * Writes every symbol state and pending order, with the changelog offset to resume from per
+     * partition. The offsets are read before the state: anything acked after that is replayed on
+     * top, and the versions make replaying a change the snapshot already has harmless.
+     */
+    void writeSnapshot(Path file) {
+        Map<Integer, Long> offsets = new HashMap<>(acked);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeLong(System.currentTimeMillis());
+                out.writeUTF(topic);
+                out.writeInt(offsets.size());
+                for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeLong(entry.getValue() + 1);
+                }
+                // copied first so the counts match what follows while validation keeps adding
+                List<Map.Entry<String, SymbolRiskState>> symbolEntries = new ArrayList<>(exposure.symbols().entrySet());
+                out.writeInt(symbolEntries.size());
+                for (Map.Entry<String, SymbolRiskState> entry : symbolEntries) {
+                    out.writeUTF(entry.getKey());
+                    writeSymbol(out, entry.getValue().current());
+                }
+                List<Map.Entry<String, ExposureCache.PendingOrder>> orders = new ArrayList<>(exposure.pendingOrders().entrySet());
+                out.writeInt(orders.size());
+                for (Map.Entry<String, ExposureCache.PendingOrder> entry : orders) {
+                    out.writeUTF(entry.getKey());
+                    writeOrder(out, entry.getValue());
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshots++;
+        } catch (IOException e) {
+            System.err.println("Risk state snapshot not written to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /** Restores the snapshot into the exposure cache; returns the changelog offsets to resume from. */
+    Map<Integer, Long> loadSnapshot(Path file) {
+        Map<Integer, Long> offsets = new HashMap<>();
+        if (!Files.exists(file)) {
+            System.out.println("No risk state snapshot at " + file + ", restoring from the changelog alone");
+            return offsets;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException("not a risk state snapshot");
+            long takenAt = in.readLong();
+            boolean sameTopic = topic.equals(in.readUTF());
+            for (int n = in.readInt(); n > 0; n--) {
+                int partition = in.readInt();
+                long offset = in.readLong();
+                if (sameTopic) offsets.put(partition, offset);
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                String symbol = in.readUTF();
+                exposure.state(symbol).restore(readSymbol(in));
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                String tradeId = in.readUTF();
+                exposure.pendingOrders().put(tradeId, readOrder(in));
+            }
+            System.out.println("Risk state snapshot from " + Instant.ofEpochMilli(takenAt) + " loaded");
+        } catch (IOException e) {
+            // a torn or foreign file: start over from the changelog, which has everything
+            System.err.println("Risk state snapshot " + file + " unreadable, ignoring it: " + e.getMessage());
+            exposure.symbols().clear();
+            exposure.pendingOrders().clear();
+            offsets.clear();
+        }
+        return offsets;
+    }
+
+    private void replayChangelog(Map<Integer, Long> from) {
+        try {
+            ensureTopic();
+        } catch (Exception e) {
+            System.err.println("Risk state changelog " + topic + " unavailable, restored from the snapshot only: " + e.getMessage());
+            return;
+        }
+        // the broker is there: from here on a replay that doesn't reach the end offsets fails
+        // startup rather than letting signals be checked against part of the exposure
+        Duration timeout = Duration.ofMillis(restoreTimeoutMs);
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(topic, timeout)) {
+                partitions.add(new TopicPartition(topic, info.partition()));
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions, timeout);
+            Map<TopicPartition, Long> remaining = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                long offset = from.getOrDefault(partition.partition(), 0L);
+                if (offset < end.get(partition)) {
+                    consumer.seek(partition, offset);
+                    remaining.put(partition, end.get(partition));
+                } else {
+                    consumer.pause(List.of(partition));
+                }
+            }
+            long deadline = System.currentTimeMillis() + replayTimeoutMs;
+            while (!remaining.isEmpty()) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("risk state changelog replay timed out after " + replayTimeoutMs
+                            + "ms, " + remaining.size() + " partitions incomplete");
+                }
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    apply(record.key(), record.value());
+                    replayed++;
+                }
+                for (TopicPartition partition : new ArrayList<>(remaining.keySet())) {
+                    if (consumer.position(partition) >= remaining.get(partition)) remaining.remove(partition);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Risk state changelog " + topic + " not replayed, refusing to start on partial exposure", e);
+        }
+    }
+
+    private void ensureTopic() throws InterruptedException, ExecutionException, TimeoutException {
+        Map<String, Object> props = new HashMap<>();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, (int) restoreTimeoutMs);
+        props.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) restoreTimeoutMs);
+        try (Admin admin = Admin.create(props)) {
+            NewTopic changelog = new NewTopic(topic, 1, (short) 1)
+                    .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+            admin.createTopics(List.of(changelog)).all().get(restoreTimeoutMs, TimeUnit.MILLISECONDS);
+            System.out.println("Created compacted risk state changelog " + topic);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) throw e;
+        }
+    }
+
+    /** Applies one changelog record (a null value is a settled order's tombstone). */
+    void apply(String key, byte[] value) {
+        try {
+            if (key.startsWith(SYMBOL_KEY)) {
+                if (value == null) return;
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+                if (in.readByte() != SYMBOL) return;
+                exposure.state(key.substring(SYMBOL_KEY.length())).restore(readSymbol(in));
+            } else if (key.startsWith(ORDER_KEY)) {
+                String tradeId = key.substring(ORDER_KEY.length());
+                if (value == null) {
+                    exposure.pendingOrders().remove(tradeId);
+                    return;
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+                if (in.readByte() != ORDER) return;
+                exposure.pendingOrders().put(tradeId, readOrder(in));
+            }
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable risk state record " + key + ": " + e.getMessage());
+        }
+    }
+
+    static byte[] encodeSymbol(SymbolRiskState.Snapshot state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(SYMBOL);
+            writeSymbol(out, state);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] encodeOrder(ExposureCache.PendingOrder order) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(ORDER);
+            writeOrder(out, order);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeSymbol(DataOutputStream out, SymbolRiskState.Snapshot state) throws IOException {
+        out.writeLong(state.version);
+        out.writeDouble(state.pending);
+        out.writeDouble(state.filled);
+        out.writeShort(state.strategyCount());
+        for (int i = 0; i < state.strategyCount(); i++) {
+            out.writeUTF(state.strategy(i));
+            String signal = state.lastSignal(i);
+            out.writeUTF(signal == null ? "" : signal);
+        }
+    }
+
+    private static SymbolRiskState.Snapshot readSymbol(DataInputStream in) throws IOException {
+        long version = in.readLong();
+        double pending = in.readDouble();
+        double filled = in.readDouble();
+        int n = in.readUnsignedShort();
+        String[] strategies = new String[n];
+        String[] signals = new String[n];
+        for (int i = 0; i < n; i++) {
+            strategies[i] = in.readUTF();
+            String signal = in.readUTF();
+            signals[i] = signal.isEmpty() ? null : signal;
+        }
+        return SymbolRiskState.Snapshot.restored(version, pending, filled, strategies, signals);
+    }
+
+    private static void writeOrder(DataOutputStream out, ExposureCache.PendingOrder order) throws IOException {
+        out.writeUTF(order.symbol);
+        out.writeDouble(order.signedNotional);
+        out.writeLong(order.createdMs);
+    }
+
+    private static ExposureCache.PendingOrder readOrder(DataInputStream in) throws IOException {
+        return new ExposureCache.PendingOrder(in.readUTF(), in.readDouble(), in.readLong());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("restoreMillis", restoreMillis);
+        result.put("replayed", replayed);
+        result.put("sent", sent);
+        result.put("snapshots", snapshots);
+        result.put("pendingFlush", dirtySymbols.size() + dirtyOrders.size());
+        result.put("ackedOffsets", new HashMap<>(acked));
+        return result;
+    }
+}
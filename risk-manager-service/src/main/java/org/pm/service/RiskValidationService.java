@@ -1,115 +1,90 @@
 package org.pm.service;
 
+import org.pm.common.model.ReasonCode;
 import org.pm.common.model.TradeSignal;
 import org.pm.common.model.ValidatedTrade;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class RiskValidationService {
 
-    // Risk limits
-    private static final double MAX_PRICE_PER_UNIT = 150000;     // Max $150k per unit (for BTC)
-    private static final double MIN_PRICE_PER_UNIT = 100;        // Min $100 per unit
-    private static final double MAX_POSITION_SIZE = 1000000;     // Max $1M total position
-    private static final int MAX_TRADES_PER_MINUTE = 1000;       // Rate limiting (increased for high-frequency)
-    
-    // Track positions, trade frequency, and last signal
-    private final Map<String, Double> positions = new ConcurrentHashMap<>();
-    private final Map<String, TradeCounter> tradeCounters = new ConcurrentHashMap<>();
-    private final Map<String, String> lastSignals = new ConcurrentHashMap<>();
+    // Price, rate and position limits per symbol, hot-reloadable
+    private final RiskRuleEngine rules;
 
+    // Pending / filled exposure of each symbol, kept current from order-status
+    private final ExposureCache exposure;
+
+    // tradeIds of validated orders: unique per process start, matched against order-status
+    private final String tradeIdPrefix = "RISK-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final AtomicLong tradeSeq = new AtomicLong();
+
+    public RiskValidationService(RiskRuleEngine rules, ExposureCache exposure) {
+        this.rules = rules;
+        this.exposure = exposure;
+    }
+
+    // Runs for every signal, so nothing here formats or prints: the outcome is a reason code plus
+    // numbers, and the only allocation on a rejection is the returned ValidatedTrade.
     public ValidatedTrade validate(TradeSignal signal) {
-        System.out.println("Validating signal: " + signal);
-        
         // Skip validation for HOLD signals
         if ("HOLD".equals(signal.getSignal())) {
-            return new ValidatedTrade(signal, true, "HOLD signal - no action required");
+            return ValidatedTrade.accepted(signal, ReasonCode.HOLD, 0.0);
         }
 
-        // Check if this is a duplicate signal (same as last one)
-        String lastSignal = lastSignals.get(signal.getSymbol());
-        if (signal.getSignal().equals(lastSignal)) {
-            return new ValidatedTrade(signal, false, "Duplicate signal - already " + signal.getSignal());
-        }
+        SymbolRiskState risk = exposure.state(signal.getSymbol());
 
-        // 1. Validate price is reasonable
-        if (signal.getPrice() <= 0) {
-            return invalid(signal, "Invalid price: must be positive");
+        // Check if this is a duplicate signal (same as this strategy's last one on the symbol;
+        // several strategies / parameter sets can trade the same symbol)
+        String strategy = signal.getStrategyId() == null ? "" : signal.getStrategyId();
+        SymbolRiskState.Snapshot current = risk.current();
+        if (signal.getSignal().equals(current.lastSignal(strategy))) {
+            return duplicate(signal);
         }
 
-        if (signal.getPrice() < MIN_PRICE_PER_UNIT) {
-            return invalid(signal, "Price too low: $" + signal.getPrice() + " < $" + MIN_PRICE_PER_UNIT);
+        // Price, rate and position rules for this symbol, first failure wins. The position limit is
+        // checked against filled + pending exposure, and the order's notional becomes pending in
+        // the same atomic step; order-status fills and rejections settle it later
+        CompiledRules symbolRules = rules.forSymbol(signal.getSymbol());
+        double orderValue = signedValue(signal); // Assuming 1 unit per trade
+        double newPosition = current.exposure() + orderValue;
+        RiskRule failed = symbolRules.firstFailure(signal, risk, newPosition);
+        while (failed == null && !risk.compareAndSet(current, current.accepted(orderValue, strategy, signal.getSignal()))) {
+            current = risk.current();
+            // another thread may have accepted the same signal since the check above
+            if (signal.getSignal().equals(current.lastSignal(strategy))) {
+                return duplicate(signal);
+            }
+            // the position moved: only the rules that look at it need to run again
+            newPosition = current.exposure() + orderValue;
+            failed = symbolRules.firstPositionFailure(signal, risk, newPosition);
         }
-
-        if (signal.getPrice() > MAX_PRICE_PER_UNIT) {
-            return invalid(signal, "Price too high: $" + signal.getPrice() + " > $" + MAX_PRICE_PER_UNIT);
+        if (failed != null) {
+            return failed.reject(signal, newPosition);
         }
 
-        // 2. Check rate limiting
-        TradeCounter counter = tradeCounters.computeIfAbsent(
-            signal.getSymbol(), 
-            k -> new TradeCounter()
-        );
-        
-        if (!counter.allowTrade()) {
-            return invalid(signal, "Rate limit exceeded: max " + MAX_TRADES_PER_MINUTE + " trades/minute");
-        }
+        String tradeId = tradeIdPrefix + tradeSeq.incrementAndGet();
+        exposure.onAccepted(tradeId, signal.getSymbol(), orderValue);
+        ValidatedTrade trade = ValidatedTrade.accepted(signal, ReasonCode.OK, newPosition);
+        trade.setTradeId(tradeId);
+        return trade;
+    }
 
-        // 3. Check position limits
-        double currentPosition = positions.getOrDefault(signal.getSymbol(), 0.0);
-        double orderValue = signal.getPrice(); // Assuming 1 unit per trade
-        
-        double newPosition;
+    private static double signedValue(TradeSignal signal) {
         if ("BUY".equals(signal.getSignal())) {
-            newPosition = currentPosition + orderValue;
+            return signal.getPrice();
         } else { // SELL
-            newPosition = currentPosition - orderValue;
+            return -signal.getPrice();
         }
-
-        if (Math.abs(newPosition) > MAX_POSITION_SIZE) {
-            return invalid(signal, 
-                String.format("Position limit exceeded: $%.2f > $%.2f", 
-                    Math.abs(newPosition), MAX_POSITION_SIZE));
-        }
-
-        // Update position and last signal (in real system, this would be done after execution)
-        positions.put(signal.getSymbol(), newPosition);
-        lastSignals.put(signal.getSymbol(), signal.getSignal());
-        
-        System.out.println(String.format("✓ Trade validated: %s %s @ $%.2f | Position: $%.2f", 
-            signal.getSignal(), signal.getSymbol(), signal.getPrice(), newPosition));
-
-        return new ValidatedTrade(signal, true, String.format("OK - Position: $%.2f", newPosition));
     }
 
-    private ValidatedTrade invalid(TradeSignal signal, String reason) {
-        System.out.println("✗ Trade rejected: " + reason);
-        return new ValidatedTrade(signal, false, reason);
+    // current exposure of a symbol, 0 if it never traded
+    double position(String symbol) {
+        return exposure.exposure(symbol);
     }
 
-    // Simple rate limiter
-    private static class TradeCounter {
-        private long windowStart = System.currentTimeMillis();
-        private int count = 0;
-
-        synchronized boolean allowTrade() {
-            long now = System.currentTimeMillis();
-            
-            // Reset counter every minute
-            if (now - windowStart > 60000) {
-                windowStart = now;
-                count = 0;
-            }
-
-            if (count >= MAX_TRADES_PER_MINUTE) {
-                return false;
-            }
-
-            count++;
-            return true;
-        }
+    private ValidatedTrade duplicate(TradeSignal signal) {
+        return ValidatedTrade.rejected(signal, ReasonCode.DUPLICATE, 0.0, 0.0);
     }
 }
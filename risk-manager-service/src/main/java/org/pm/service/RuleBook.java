@@ -0,0 +1,54 @@
+package org.pm.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every symbol's compiled rules for one version of the limits. Never modified once built.
+ */
+final class RuleBook {
+
+    private final CompiledRules defaults;
+    private final Map<String, CompiledRules> bySymbol;
+    private final long version;
+    private final String source;
+
+    private RuleBook(CompiledRules defaults, Map<String, CompiledRules> bySymbol, long version, String source) {
+        this.defaults = defaults;
+        this.bySymbol = bySymbol;
+        this.version = version;
+        this.source = source;
+    }
+
+    static RuleBook compile(RiskRuleEngine.LimitsFile file, Map<String, RuleStats> stats, long version, String source) {
+        RiskLimits defaults = (file.getDefaults() == null ? new RiskLimits() : file.getDefaults())
+                .orElse(RiskLimits.builtIn());
+        Map<String, CompiledRules> bySymbol = new HashMap<>();
+        if (file.getSymbols() != null) {
+            file.getSymbols().forEach((symbol, limits) ->
+                    bySymbol.put(symbol.trim().toUpperCase(), RiskRules.compile(limits.orElse(defaults), stats)));
+        }
+        return new RuleBook(RiskRules.compile(defaults, stats), bySymbol, version, source);
+    }
+
+    CompiledRules forSymbol(String symbol) {
+        CompiledRules rules = bySymbol.get(symbol);
+        return rules != null ? rules : defaults;
+    }
+
+    CompiledRules getDefaults() {
+        return defaults;
+    }
+
+    int symbolCount() {
+        return bySymbol.size();
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,40 @@
+package org.pm.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluations, rejections and time spent in one rule, summed over all symbols and listener
+ * threads. Striped counters, so threads recording at the same time don't fight over a cache line.
+ */
+final class RuleStats {
+
+    private final String rule;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    RuleStats(String rule) {
+        this.rule = rule;
+    }
+
+    void record(long elapsedNanos, boolean rejected) {
+        evaluations.increment();
+        nanos.add(elapsedNanos);
+        if (rejected) rejections.increment();
+    }
+
+    Map<String, Object> snapshot() {
+        long count = evaluations.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("evaluations", count);
+        stats.put("rejections", rejections.sum());
+        stats.put("meanNanos", count == 0 ? 0 : nanos.sum() / count);
+        return stats;
+    }
+
+    String getRule() {
+        return rule;
+    }
+}
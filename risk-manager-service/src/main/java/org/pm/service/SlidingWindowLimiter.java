@@ -0,0 +1,65 @@
+package org.pm.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * At most {@code limit} permits in any {@code windowMillis}-long interval, without locks.
+ *
+ * Keeps the times of the last {@code limit} grants in a ring: a new grant is allowed when the
+ * grant {@code limit} places back is at least a window old. Unlike the fixed one-minute window it
+ * replaces there is no edge where two full windows' worth can go through back to back. The grant
+ * count is claimed with a CAS, so every caller that gets a permit got a distinct slot, whatever
+ * the number of threads.
+ *
+ * Costs 8 bytes per permit of limit; meant for per-symbol limits in the hundreds to thousands.
+ */
+final class SlidingWindowLimiter {
+
+    private static final VarHandle GRANTED;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static {
+        try {
+            GRANTED = MethodHandles.lookup().findVarHandle(SlidingWindowLimiter.class, "granted", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long windowMillis;
+    // grant times, grant n at n % limit
+    private final long[] times;
+    // total grants so far, only ever advanced by CAS
+    private volatile long granted;
+
+    SlidingWindowLimiter(int limit, long windowMillis) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive: " + limit);
+        this.windowMillis = windowMillis;
+        this.times = new long[limit];
+    }
+
+    boolean tryAcquire(long nowMillis) {
+        while (true) {
+            long n = granted;
+            int slot = (int) (n % times.length);
+            // the grant `limit` places back; its slot is where this grant will go
+            if (n >= times.length && nowMillis - (long) SLOT.getAcquire(times, slot) < windowMillis) {
+                return false;
+            }
+            if (GRANTED.compareAndSet(this, n, n + 1)) {
+                // a caller reading this slot before the store would need `limit` grants in flight
+                SLOT.setRelease(times, slot, nowMillis);
+                return true;
+            }
+        }
+    }
+
+    int limit() {
+        return times.length;
+    }
+
+    long windowMillis() {
+        return windowMillis;
+    }
+}
@@ -0,0 +1,142 @@
+package org.pm.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Everything the risk checks keep about one symbol, in one place: the rate limiter and an
+ * immutable {@link Snapshot} of exposure and last signal per strategy. Validation reads the
+ * snapshot, decides, and swaps in the successor with a CAS, retrying if another listener thread
+ * got there first, so the duplicate check, the position limit and the update act on the same state
+ * and no concurrent update is lost.
+ */
+final class SymbolRiskState {
+
+    private static final VarHandle STATE;
+    private static final VarHandle LIMITER;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(SymbolRiskState.class, "state", Snapshot.class);
+            LIMITER = MethodHandles.lookup().findVarHandle(SymbolRiskState.class, "limiter", SlidingWindowLimiter.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile SlidingWindowLimiter limiter;
+    private volatile Snapshot state = Snapshot.EMPTY;
+
+    /**
+     * The symbol's rate limiter for the given limit. A reload that changes the limit gets a fresh
+     * limiter (and window); otherwise the same one is kept across reloads.
+     */
+    SlidingWindowLimiter limiter(int tradesPerWindow, long windowMillis) {
+        SlidingWindowLimiter current = limiter;
+        if (current != null && current.limit() == tradesPerWindow && current.windowMillis() == windowMillis) {
+            return current;
+        }
+        SlidingWindowLimiter fresh = new SlidingWindowLimiter(tradesPerWindow, windowMillis);
+        return LIMITER.compareAndSet(this, current, fresh) ? fresh : limiter;
+    }
+
+    Snapshot current() {
+        return state;
+    }
+
+    boolean compareAndSet(Snapshot expected, Snapshot next) {
+        return STATE.compareAndSet(this, expected, next);
+    }
+
+    /** Installs a persisted snapshot unless this state already moved past it. */
+    void restore(Snapshot restored) {
+        Snapshot current;
+        do {
+            current = state;
+            if (current.version >= restored.version) return;
+        } while (!STATE.compareAndSet(this, current, restored));
+    }
+
+    void settle(double pendingReleased, double signedFill) {
+        Snapshot current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current, current.settled(pendingReleased, signedFill)));
+    }
+
+    /** Exposure and the last accepted signal of each strategy trading the symbol. Never modified. */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0L, 0.0, 0.0, new String[0], new String[0]);
+
+        // bumped by every successor, so a restore can tell which of two copies is newer
+        final long version;
+
+        // signed notional (BUY +, SELL -) validated but not yet filled or rejected by the broker
+        final double pending;
+        // signed notional the broker reported filled
+        final double filled;
+        // a handful of strategies per symbol, so parallel arrays beat a map; "" = no strategy id
+        private final String[] strategies;
+        private final String[] lastSignals;
+
+        private Snapshot(long version, double pending, double filled, String[] strategies, String[] lastSignals) {
+            this.version = version;
+            this.pending = pending;
+            this.filled = filled;
+            this.strategies = strategies;
+            this.lastSignals = lastSignals;
+        }
+
+        /** What the position limit is checked against: filled plus still working. */
+        double exposure() {
+            return pending + filled;
+        }
+
+        /** A snapshot read back from a state snapshot file or the changelog. */
+        static Snapshot restored(long version, double pending, double filled, String[] strategies, String[] lastSignals) {
+            return new Snapshot(version, pending, filled, strategies, lastSignals);
+        }
+
+        int strategyCount() {
+            return strategies.length;
+        }
+
+        String strategy(int i) {
+            return strategies[i];
+        }
+
+        String lastSignal(int i) {
+            return lastSignals[i];
+        }
+
+        String lastSignal(String strategy) {
+            for (int i = 0; i < strategies.length; i++) {
+                if (strategies[i].equals(strategy)) return lastSignals[i];
+            }
+            return null;
+        }
+
+        /** A validated order: its notional becomes pending, and it is the strategy's last signal. */
+        Snapshot accepted(double signedNotional, String strategy, String signal) {
+            double nextPending = pending + signedNotional;
+            for (int i = 0; i < strategies.length; i++) {
+                if (strategies[i].equals(strategy)) {
+                    String[] signals = lastSignals.clone();
+                    signals[i] = signal;
+                    return new Snapshot(version + 1, nextPending, filled, strategies, signals);
+                }
+            }
+            String[] moreStrategies = Arrays.copyOf(strategies, strategies.length + 1);
+            String[] moreSignals = Arrays.copyOf(lastSignals, lastSignals.length + 1);
+            moreStrategies[strategies.length] = strategy;
+            moreSignals[strategies.length] = signal;
+            return new Snapshot(version + 1, nextPending, filled, moreStrategies, moreSignals);
+        }
+
+        /** A broker outcome: pending notional released, and on a fill the filled notional added. */
+        Snapshot settled(double pendingReleased, double signedFill) {
+            return new Snapshot(version + 1, pending - pendingReleased, filled + signedFill, strategies, lastSignals);
+        }
+    }
+}
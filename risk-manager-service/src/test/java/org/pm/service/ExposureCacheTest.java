@@ -0,0 +1,77 @@
+package org.pm.service;
+
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.OrderStatusEvent;
+import org.pm.common.model.TradeSignal;
+import org.pm.common.model.ValidatedTrade;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExposureCacheTest {
+
+    @Test
+    void fillsAndRejectionsSettlePendingExposure() throws Exception {
+        Path file = Files.createTempFile("risk-limits", ".json");
+        Files.writeString(file, "{\"defaults\": {\"maxPosition\": 2500}}");
+        RiskRuleEngine engine = new RiskRuleEngine();
+        ReflectionTestUtils.setField(engine, "file", file.toString());
+        engine.reload();
+        ExposureCache exposure = new ExposureCache();
+        RiskValidationService service = new RiskValidationService(engine, exposure);
+
+        ValidatedTrade first = service.validate(new TradeSignal("a", "BTCUSDT", "BUY", 1_000, 1));
+        ValidatedTrade second = service.validate(new TradeSignal("b", "BTCUSDT", "BUY", 1_000, 2));
+        assertNotNull(first.getTradeId());
+        assertNotEquals(first.getTradeId(), second.getTradeId());
+        // 2000 pending, a third would make 3000
+        assertFalse(service.validate(new TradeSignal("c", "BTCUSDT", "BUY", 1_000, 3)).isValid());
+
+        // the first fills slightly better, the second is rejected by the broker
+        exposure.onOrderStatus(status(first.getTradeId(), "BUY", 990, "FILLED"));
+        exposure.onOrderStatus(status(second.getTradeId(), "BUY", 1_000, "REJECTED"));
+        assertEquals(990.0, exposure.exposure("BTCUSDT"));
+        assertEquals(0, exposure.stats().get("pendingOrders"));
+
+        // the same outcome again (redelivery) changes nothing
+        exposure.onOrderStatus(status(second.getTradeId(), "BUY", 1_000, "REJECTED"));
+        assertEquals(990.0, exposure.exposure("BTCUSDT"));
+
+        // room again for the third
+        assertTrue(service.validate(new TradeSignal("c", "BTCUSDT", "BUY", 1_000, 4)).isValid());
+        assertEquals(1_990.0, exposure.exposure("BTCUSDT"));
+    }
+
+    @Test
+    void pendingOrdersWithoutOutcomeAreReleased() {
+        ExposureCache exposure = new ExposureCache();
+        ReflectionTestUtils.setField(exposure, "pendingTimeoutMs", 1_000L);
+        RiskValidationService service = new RiskValidationService(new RiskRuleEngine(), exposure);
+
+        assertTrue(service.validate(new TradeSignal("a", "ETHUSDT", "SELL", 3_000, 1)).isValid());
+        assertEquals(-3_000.0, exposure.exposure("ETHUSDT"));
+        exposure.expire(System.currentTimeMillis());
+        assertEquals(-3_000.0, exposure.exposure("ETHUSDT"));
+
+        exposure.expire(System.currentTimeMillis() + 1_000);
+        assertEquals(0.0, exposure.exposure("ETHUSDT"));
+        assertEquals(1L, exposure.stats().get("expired"));
+
+        // a fill arriving after the release still counts
+        exposure.onOrderStatus(status("RISK-late", "SELL", 3_010, "FILLED"));
+        assertEquals(-3_010.0, exposure.exposure("ETHUSDT"));
+    }
+
+    private static OrderStatusEvent status(String tradeId, String side, double price, String status) {
+        OrderStatusEvent event = new OrderStatusEvent();
+        event.setTradeId(tradeId);
+        event.setSymbol(side.equals("SELL") ? "ETHUSDT" : "BTCUSDT");
+        event.setSide(side);
+        event.setPrice(price);
+        event.setStatus(status);
+        return event;
+    }
+}
@@ -0,0 +1,76 @@
+package org.pm.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pm.common.model.TradeSignal;
+import org.pm.common.model.ValidatedTrade;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskRuleEngineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void perSymbolLimitsReloadWhenTheFileChanges() throws Exception {
+        Path file = dir.resolve("limits.json");
+        Files.writeString(file, "{\"defaults\": {\"minPrice\": 0, \"maxPrice\": 0},"
+                + " \"symbols\": {\"BTCUSDT\": {\"minPrice\": 100, \"maxPrice\": 150000}}}");
+        RiskRuleEngine engine = new RiskRuleEngine();
+        ReflectionTestUtils.setField(engine, "file", file.toString());
+        engine.reload();
+        RiskValidationService service = new RiskValidationService(engine, new ExposureCache());
+
+        // no price band for symbols without an override any more
+        assertTrue(service.validate(new TradeSignal("a", "DOGEUSDT", "BUY", 0.15, 1)).isValid());
+        ValidatedTrade low = service.validate(new TradeSignal("a", "BTCUSDT", "BUY", 50, 1));
+        assertFalse(low.isValid());
+        assertEquals("Price too low: $50.0 < $100.0", low.getReason());
+
+        Files.writeString(file, "{\"symbols\": {\"BTCUSDT\": {\"minPrice\": 10, \"maxPosition\": 60}}}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        engine.reload();
+
+        assertTrue(service.validate(new TradeSignal("a", "BTCUSDT", "BUY", 50, 2)).isValid());
+        ValidatedTrade tooBig = service.validate(new TradeSignal("b", "BTCUSDT", "BUY", 50, 3));
+        assertFalse(tooBig.isValid());
+        assertEquals("Position limit exceeded: $100.00 > $60.00", tooBig.getReason());
+        // built-in band is back for other symbols
+        assertFalse(service.validate(new TradeSignal("a", "XRPUSDT", "BUY", 0.5, 4)).isValid());
+
+        Map<String, Object> stats = engine.stats();
+        assertEquals(2L, stats.get("version"));
+        Map<?, ?> rules = (Map<?, ?>) stats.get("rules");
+        Map<?, ?> minPrice = (Map<?, ?>) rules.get(RiskRules.MIN_PRICE);
+        assertEquals(2L, minPrice.get("rejections"));
+        Map<?, ?> maxPosition = (Map<?, ?>) rules.get(RiskRules.MAX_POSITION);
+        assertEquals(1L, maxPosition.get("rejections"));
+    }
+
+    @Test
+    void brokenFileKeepsTheCurrentLimits() throws Exception {
+        Path file = dir.resolve("limits.json");
+        Files.writeString(file, "{\"defaults\": {\"maxTradesPerMinute\": 2}}");
+        RiskRuleEngine engine = new RiskRuleEngine();
+        ReflectionTestUtils.setField(engine, "file", file.toString());
+        engine.reload();
+
+        Files.writeString(file, "{\"defaults\": ");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        engine.reload();
+
+        assertEquals(1L, engine.stats().get("version"));
+        RiskValidationService service = new RiskValidationService(engine, new ExposureCache());
+        assertTrue(service.validate(new TradeSignal("a", "BTCUSDT", "BUY", 1_000, 1)).isValid());
+        assertTrue(service.validate(new TradeSignal("b", "BTCUSDT", "BUY", 1_000, 2)).isValid());
+        ValidatedTrade limited = service.validate(new TradeSignal("c", "BTCUSDT", "BUY", 1_000, 3));
+        assertEquals("Rate limit exceeded: max 2 trades/minute", limited.getReason());
+    }
+}
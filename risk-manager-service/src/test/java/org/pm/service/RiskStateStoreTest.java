@@ -0,0 +1,119 @@
+package org.pm.service;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.OrderStatusEvent;
+import org.pm.common.model.TradeSignal;
+import org.pm.common.model.ValidatedTrade;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskStateStoreTest {
+
+    @Test
+    void snapshotPlusChangelogTailRestoresExposure() throws Exception {
+        Path file = Files.createTempDirectory("risk-state").resolve("risk-state.snapshot");
+        ExposureCache before = new ExposureCache();
+        RiskValidationService service = new RiskValidationService(new RiskRuleEngine(), before);
+        RiskStateStore store = store(before);
+
+        ValidatedTrade filled = service.validate(new TradeSignal("a", "BTCUSDT", "BUY", 60_000, 1));
+        ValidatedTrade working = service.validate(new TradeSignal("a", "ETHUSDT", "SELL", 3_000, 2));
+        before.onOrderStatus(fill(filled.getTradeId(), "BTCUSDT", "BUY", 59_990));
+        store.writeSnapshot(file);
+
+        // after the snapshot: ETH fills, and a second strategy buys ETH; only the changelog has these
+        before.onOrderStatus(fill(working.getTradeId(), "ETHUSDT", "SELL", 3_005));
+        ValidatedTrade later = service.validate(new TradeSignal("b", "ETHUSDT", "BUY", 3_010, 3));
+        byte[] eth = RiskStateStore.encodeSymbol(before.state("ETHUSDT").current());
+        byte[] laterOrder = RiskStateStore.encodeOrder(before.pendingOrders().get(later.getTradeId()));
+        byte[] staleBtc = RiskStateStore.encodeSymbol(SymbolRiskState.Snapshot.EMPTY.accepted(1, "x", "BUY"));
+
+        ExposureCache after = new ExposureCache();
+        RiskStateStore restoring = store(after);
+        Map<Integer, Long> offsets = restoring.loadSnapshot(file);
+        assertTrue(offsets.isEmpty());
+        assertEquals(59_990.0, after.exposure("BTCUSDT"));
+        assertEquals(-3_000.0, after.exposure("ETHUSDT"));
+        assertTrue(after.pendingOrders().containsKey(working.getTradeId()));
+
+        restoring.apply(RiskStateStore.SYMBOL_KEY + "ETHUSDT", eth);
+        restoring.apply(RiskStateStore.ORDER_KEY + working.getTradeId(), null);
+        restoring.apply(RiskStateStore.ORDER_KEY + later.getTradeId(), laterOrder);
+        // older than what the snapshot holds: ignored
+        restoring.apply(RiskStateStore.SYMBOL_KEY + "BTCUSDT", staleBtc);
+
+        assertEquals(59_990.0, after.exposure("BTCUSDT"));
+        assertEquals(before.exposure("ETHUSDT"), after.exposure("ETHUSDT"));
+        assertEquals("ETHUSDT", after.pendingOrders().get(later.getTradeId()).symbol);
+        assertEquals(1, after.pendingOrders().size());
+
+        // restored state carries on: duplicates are still caught, and the order settles normally
+        RiskValidationService restarted = new RiskValidationService(new RiskRuleEngine(), after);
+        assertFalse(restarted.validate(new TradeSignal("b", "ETHUSDT", "BUY", 3_010, 4)).isValid());
+        OrderStatusEvent rejected = fill(later.getTradeId(), "ETHUSDT", "BUY", 3_010);
+        rejected.setStatus("REJECTED");
+        after.onOrderStatus(rejected);
+        assertEquals(-3_005.0, after.exposure("ETHUSDT"));
+    }
+
+    @Test
+    void unreadableSnapshotIsIgnored() throws Exception {
+        Path file = Files.createTempFile("risk-state", ".snapshot");
+        Files.write(file, new byte[]{1, 2, 3});
+        ExposureCache exposure = new ExposureCache();
+        assertTrue(store(exposure).loadSnapshot(file).isEmpty());
+        assertTrue(exposure.symbols().isEmpty());
+    }
+
+    private static RiskStateStore store(ExposureCache exposure) {
+        RiskStateStore store = new RiskStateStore(exposure, null, null);
+        ReflectionTestUtils.setField(store, "topic", "risk-state-changelog");
+        return store;
+    }
+
+    private static OrderStatusEvent fill(String tradeId, String symbol, String side, double price) {
+        OrderStatusEvent event = new OrderStatusEvent();
+        event.setTradeId(tradeId);
+        event.setSymbol(symbol);
+        event.setSide(side);
+        event.setPrice(price);
+        event.setStatus("FILLED");
+        return event;
+    }
+
+    @Test
+    void failedDeliveriesAreResent() {
+        ExposureCache exposure = new ExposureCache();
+        RiskValidationService service = new RiskValidationService(new RiskRuleEngine(), exposure);
+        RiskStateStore store = store(exposure);
+        MockProducer<String, byte[]> producer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        ReflectionTestUtils.setField(store, "producer", producer);
+        exposure.setChangeListener(store);
+
+        ValidatedTrade trade = service.validate(new TradeSignal("a", "BTCUSDT", "BUY", 60_000, 1));
+        store.flush();
+        assertEquals(2, producer.history().size());
+        // the broker loses both records after they were handed to the producer
+        producer.errorNext(new RuntimeException("broker gone"));
+        producer.errorNext(new RuntimeException("broker gone"));
+        assertEquals(2, store.stats().get("pendingFlush"));
+        assertEquals(Map.of(), store.stats().get("ackedOffsets"));
+
+        store.flush();
+        assertEquals(4, producer.history().size());
+        assertEquals(RiskStateStore.ORDER_KEY + trade.getTradeId(), producer.history().get(3).key());
+        producer.completeNext();
+        producer.completeNext();
+        assertEquals(0, store.stats().get("pendingFlush"));
+        // only the resent copies (offsets 2 and 3 in the mock) were acked
+        assertEquals(Map.of(0, 3L), store.stats().get("ackedOffsets"));
+    }
+}
@@ -0,0 +1,162 @@
+package org.pm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.ReasonCode;
+import org.pm.common.model.SignalLeg;
+import org.pm.common.model.TradeSignal;
+import org.pm.common.model.ValidatedTrade;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskValidationServiceTest {
+
+    // where measured results go, so the JIT can't drop the allocation of the ValidatedTrade
+    private static Object sink;
+
+    @Test
+    void concurrentValidationsLoseNoPositionUpdates() throws InterruptedException {
+        RiskValidationService service = new RiskValidationService(new RiskRuleEngine(), new ExposureCache());
+        int threads = 4;
+        int strategiesPerThread = 100;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // each strategy buys once; the same signal again must be a duplicate
+                for (int s = 0; s < strategiesPerThread; s++) {
+                    String id = "s" + thread + "-" + s;
+                    if (service.validate(new TradeSignal(id, "BTCUSDT", "BUY", 1_000, s)).isValid()) {
+                        accepted.incrementAndGet();
+                    }
+                    assertFalse(service.validate(new TradeSignal(id, "BTCUSDT", "BUY", 1_000, s)).isValid());
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        assertEquals(threads * strategiesPerThread, accepted.get());
+        assertEquals(threads * strategiesPerThread * 1_000.0, service.position("BTCUSDT"));
+    }
+
+    @Test
+    void sameSignalFromTwoThreadsIsAcceptedOnce() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            RiskValidationService service = new RiskValidationService(new RiskRuleEngine(), new ExposureCache());
+            TradeSignal signal = new TradeSignal("sma", "ETHUSDT", "SELL", 3_000, round);
+            ValidatedTrade[] results = new ValidatedTrade[2];
+            Thread a = new Thread(() -> results[0] = service.validate(signal));
+            Thread b = new Thread(() -> results[1] = service.validate(signal));
+            a.start();
+            b.start();
+            a.join();
+            b.join();
+            assertTrue(results[0].isValid() ^ results[1].isValid());
+            assertEquals(-3_000.0, service.position("ETHUSDT"));
+        }
+    }
+
+    @Test
+    void pairsFlipPassesTheDuplicateCheck() {
+        RiskValidationService service = new RiskValidationService(new RiskRuleEngine(), new ExposureCache());
+        // what PairsStrategy emits for: enter short, exit, enter short again, then flip to long
+        String[][] sequence = {
+                {"short", "SELL"}, {"short", "BUY"}, {"short", "SELL"}, {"short", "BUY"}, {"long", "BUY"}};
+        for (String[] step : sequence) {
+            List<SignalLeg> legs = List.of(new SignalLeg("ETHUSDT", step[1], 3_000, 1.0),
+                    new SignalLeg("BTCUSDT", step[1].equals("BUY") ? "SELL" : "BUY", 60_000, 0.05));
+            TradeSignal signal = TradeSignal.ofLegs("pairs:ETHUSDT/BTCUSDT:" + step[0], legs, 1);
+            ValidatedTrade result = service.validate(signal);
+            assertTrue(result.isValid(), step[0] + " " + step[1] + ": " + result.getReason());
+        }
+        assertEquals(3_000.0, service.position("ETHUSDT"));
+    }
+
+    @Test
+    void slidingWindowNeverAllowsMoreThanTheLimit() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(3, 1_000);
+        assertTrue(limiter.tryAcquire(0));
+        assertTrue(limiter.tryAcquire(900));
+        assertTrue(limiter.tryAcquire(999));
+        assertFalse(limiter.tryAcquire(999));
+        // a fixed window would reset at 1000 and allow 3 more right at the edge
+        assertTrue(limiter.tryAcquire(1_000));
+        assertFalse(limiter.tryAcquire(1_001));
+        assertFalse(limiter.tryAcquire(1_899));
+        assertTrue(limiter.tryAcquire(1_900));
+        assertTrue(limiter.tryAcquire(1_999));
+        assertFalse(limiter.tryAcquire(1_999));
+    }
+
+    @Test
+    void rejectionsAllocateNothingButTheResult() {
+        RiskValidationService service = new RiskValidationService(new RiskRuleEngine(), new ExposureCache());
+        TradeSignal tooHigh = new TradeSignal("s", "BTCUSDT", "BUY", 200_000, 1);
+        TradeSignal duplicate = new TradeSignal("d", "BTCUSDT", "BUY", 60_000, 2);
+        assertTrue(service.validate(duplicate).isValid());
+        // the BUY plus seven $140k sells leave BTCUSDT at -$920k: one more sell breaks the $1M limit
+        for (int s = 0; s < 7; s++) {
+            assertTrue(service.validate(new TradeSignal("p" + s, "BTCUSDT", "SELL", 140_000, 3)).isValid());
+        }
+        TradeSignal overLimit = new TradeSignal("p7", "BTCUSDT", "SELL", 140_000, 4);
+
+        ValidatedTrade rejected = service.validate(overLimit);
+        assertEquals(ReasonCode.POSITION_LIMIT, rejected.getReasonCode());
+        assertNull(ReflectionTestUtils.getField(rejected, "reason"));
+        assertEquals("Position limit exceeded: $1060000.00 > $1000000.00", rejected.getReason());
+        assertEquals(ReasonCode.PRICE_TOO_HIGH, service.validate(tooHigh).getReasonCode());
+        assertEquals("Duplicate signal - already BUY", service.validate(duplicate).getReason());
+
+        // the output object alone, allocated the same way, is the budget
+        long budget = allocatedPerCall(() -> sink = ValidatedTrade.rejected(tooHigh, ReasonCode.PRICE_TOO_HIGH, 1, 2));
+        assertTrue(budget > 0);
+        long priceLimit = allocatedPerCall(() -> sink = service.validate(tooHigh));
+        long duplicates = allocatedPerCall(() -> sink = service.validate(duplicate));
+        // position limit, then the rate limit once its permits are used up
+        long positionOrRate = allocatedPerCall(() -> sink = service.validate(overLimit));
+        assertTrue(priceLimit <= budget, "price limit: " + priceLimit + " > " + budget + " bytes/call");
+        assertTrue(duplicates <= budget, "duplicate: " + duplicates + " > " + budget + " bytes/call");
+        assertTrue(positionOrRate <= budget, "position/rate limit: " + positionOrRate + " > " + budget + " bytes/call");
+    }
+
+    @Test
+    void reasonTextIsRenderedByTheReaderNotSent() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ValidatedTrade trade = ValidatedTrade.rejected(new TradeSignal("s", "ETHUSDT", "BUY", 50, 1),
+                ReasonCode.PRICE_TOO_LOW, 50, 100);
+        String json = mapper.writeValueAsString(trade);
+        assertFalse(json.contains("Price too low"), json);
+
+        ValidatedTrade read = mapper.readValue(json, ValidatedTrade.class);
+        assertEquals(ReasonCode.PRICE_TOO_LOW, read.getReasonCode());
+        assertEquals("Price too low: $50.0 < $100.0", read.getReason());
+        // text from a sender that predates the codes
+        assertEquals("legacy", mapper.readValue("{\"valid\":false,\"reason\":\"legacy\"}", ValidatedTrade.class).getReason());
+    }
+
+    // bytes allocated by this thread per call, after enough calls for the JIT to have compiled it
+    private static long allocatedPerCall(Runnable call) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int calls = 100_000;
+        for (int i = 0; i < calls; i++) call.run();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) call.run();
+        return (threads.getCurrentThreadAllocatedBytes() - before) / calls;
+    }
+}
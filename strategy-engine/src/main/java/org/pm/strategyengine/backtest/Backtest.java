@@ -0,0 +1,122 @@
+package org.pm.strategyengine.backtest;
+
+import org.pm.strategyengine.strategy.StrategyDefinition;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Offline backtest / parameter sweep, no Spring and no Kafka:
+ *
+ *   java -cp "strategy-engine/target/classes:<classpath>" org.pm.strategyengine.backtest.Backtest \
+ *        --journal=/var/lib/pm/journal --from=2024-01-01 --to=2024-12-31 --symbol=BTCUSDT \
+ *        --type=sma-crossover --grid="short-period=5:50:5;long-period=20:200:20" --fee-bps=10
+ *
+ * or --csv=trades-1.csv,trades-2.csv instead of --journal/--from/--to. Other options:
+ * --params="k=v;k=v" (fixed params), --slippage-bps, --short, --capital, --sample-ms (Sharpe
+ * period), --threads (default all cores), --batch (sets per data pass), --top (rows printed).
+ */
+public final class Backtest {
+
+    private Backtest() {}
+
+    public static void main(String[] args) throws IOException {
+        Path journal = null;
+        LocalDate from = null;
+        LocalDate to = null;
+        List<Path> csv = new ArrayList<>();
+        String symbol = "BTCUSDT";
+        String type = "sma-crossover";
+        String grid = "";
+        Map<String, String> fixed = new LinkedHashMap<>();
+        double feeBps = 10;
+        double slippageBps = 0;
+        boolean allowShort = false;
+        double capital = 10_000;
+        long sampleMs = 3_600_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batch = 0;
+        int top = 20;
+
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            switch (kv[0]) {
+                case "journal" -> journal = Path.of(kv[1]);
+                case "from" -> from = LocalDate.parse(kv[1]);
+                case "to" -> to = LocalDate.parse(kv[1]);
+                case "csv" -> {
+                    for (String file : kv[1].split(",")) csv.add(Path.of(file.trim()));
+                }
+                case "symbol" -> symbol = kv[1].toUpperCase();
+                case "type" -> type = kv[1];
+                case "grid" -> grid = kv[1];
+                case "params" -> {
+                    for (String p : kv[1].split(";")) {
+                        String[] pkv = p.split("=", 2);
+                        fixed.put(pkv[0].trim(), pkv[1].trim());
+                    }
+                }
+                case "fee-bps" -> feeBps = Double.parseDouble(kv[1]);
+                case "slippage-bps" -> slippageBps = Double.parseDouble(kv[1]);
+                case "short" -> allowShort = kv.length == 1 || Boolean.parseBoolean(kv[1]);
+                case "capital" -> capital = Double.parseDouble(kv[1]);
+                case "sample-ms" -> sampleMs = Long.parseLong(kv[1]);
+                case "threads" -> threads = Integer.parseInt(kv[1]);
+                case "batch" -> batch = Integer.parseInt(kv[1]);
+                case "top" -> top = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        TickSource source;
+        if (!csv.isEmpty()) {
+            long start = System.nanoTime();
+            source = CsvTickSource.load(csv, symbol);
+            System.out.printf("Loaded %s in %.1fs%n", source.describe(), (System.nanoTime() - start) / 1e9);
+        } else if (journal != null && from != null) {
+            source = new JournalTickSource(journal, from, to != null ? to : from, symbol);
+        } else {
+            throw new IllegalArgumentException("Need --csv=... or --journal=... --from=... [--to=...]");
+        }
+
+        if ("sma-grid".equals(type)) {
+            // its pairs would all trade one account; sweep sma-crossover over the same periods instead
+            throw new IllegalArgumentException("sma-grid can't be backtested as one strategy, use --type=sma-crossover");
+        }
+        List<StrategyDefinition> definitions = ParameterGrid.expand(type, grid, fixed);
+        if (definitions.isEmpty()) {
+            throw new IllegalArgumentException("Grid '" + grid + "' has no valid parameter sets");
+        }
+        if (batch <= 0) batch = ParameterSweep.defaultBatch(definitions.size(), threads);
+
+        FillModel fills = new FillModel(feeBps, slippageBps, allowShort);
+        BacktestEngine engine = new BacktestEngine(source, fills, capital, sampleMs);
+        System.out.printf("Backtesting %d parameter sets of %s on %s, %d threads, %d sets per pass, %s%n",
+                definitions.size(), type, source.describe(), threads, batch, fills);
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<BacktestResult> results;
+        try {
+            results = ParameterSweep.run(pool, engine, definitions, batch);
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long ticks = results.get(0).getTicks();
+        System.out.printf("Done in %.1fs: %d ticks x %d sets (%.1fM strategy-ticks/sec)%n",
+                seconds, ticks, results.size(), ticks * results.size() / seconds / 1e6);
+
+        results.sort(Comparator.comparingDouble(BacktestResult::getSharpe).reversed());
+        for (int i = 0; i < Math.min(top, results.size()); i++) {
+            System.out.println(results.get(i));
+        }
+    }
+}
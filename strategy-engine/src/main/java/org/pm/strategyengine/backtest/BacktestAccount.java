@@ -0,0 +1,112 @@
+package org.pm.strategyengine.backtest;
+
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.strategy.SignalSink;
+
+/**
+ * Simulated book of one strategy instance: all-in long (or short) of its current equity on a
+ * BUY (SELL), flat otherwise. Tracks P&L, fees, max drawdown on every trade's mark, and the
+ * Sharpe ratio of returns sampled every {@code samplePeriodMs} of exchange time.
+ */
+final class BacktestAccount implements SignalSink {
+
+    private final FillModel fills;
+    private final double initialEquity;
+    private final long samplePeriodMs;
+
+    private double cash;
+    private double units;
+    private int side;
+    // side to move to on the next trade, MIN_VALUE = nothing pending
+    private int pendingSide = Integer.MIN_VALUE;
+
+    private long ticks;
+    private long trades;
+    private double fees;
+    private double peak;
+    private double maxDrawdown;
+    private double lastPrice;
+
+    // Welford over per-period returns
+    private long sampleEnd = Long.MIN_VALUE;
+    private double sampleStartEquity;
+    private long periods;
+    private double meanReturn;
+    private double m2;
+
+    BacktestAccount(FillModel fills, double initialEquity, long samplePeriodMs) {
+        this.fills = fills;
+        this.initialEquity = initialEquity;
+        this.samplePeriodMs = samplePeriodMs;
+        this.cash = initialEquity;
+        this.peak = initialEquity;
+        this.sampleStartEquity = initialEquity;
+    }
+
+    /** Called for every trade before the strategy sees it: executes the pending order and marks. */
+    void onTick(Tick tick) {
+        double price = tick.getPrice();
+        long timestamp = tick.getTimestamp();
+        ticks++;
+        lastPrice = price;
+
+        if (pendingSide != Integer.MIN_VALUE) {
+            execute(pendingSide, price);
+            pendingSide = Integer.MIN_VALUE;
+        }
+
+        if (sampleEnd == Long.MIN_VALUE) {
+            sampleEnd = timestamp - Math.floorMod(timestamp, samplePeriodMs) + samplePeriodMs;
+        }
+        double equity = cash + units * price;
+        // the trade crossed one or more sample boundaries: close the period at the last mark
+        while (timestamp >= sampleEnd) {
+            double periodReturn = equity / sampleStartEquity - 1;
+            periods++;
+            double delta = periodReturn - meanReturn;
+            meanReturn += delta / periods;
+            m2 += delta * (periodReturn - meanReturn);
+            sampleStartEquity = equity;
+            sampleEnd += samplePeriodMs;
+        }
+
+        if (equity > peak) {
+            peak = equity;
+        } else {
+            double drawdown = (peak - equity) / peak;
+            if (drawdown > maxDrawdown) maxDrawdown = drawdown;
+        }
+    }
+
+    private void execute(int targetSide, double price) {
+        if (targetSide == side) return;
+        double fillPrice = fills.fillPrice(price, targetSide > side ? 1 : -1);
+        double equity = cash + units * fillPrice;
+        double targetUnits = targetSide * equity / fillPrice;
+        double notional = (targetUnits - units) * fillPrice;
+        double fee = fills.fee(notional);
+
+        cash -= notional + fee;
+        units = targetUnits;
+        fees += fee;
+        side = targetSide;
+        trades++;
+    }
+
+    @Override
+    public void emit(String strategyId, String symbol, String signal, double price, long timestamp) {
+        int target = fills.targetFor(signal);
+        if (target == Integer.MIN_VALUE) return;
+        pendingSide = target == side ? Integer.MIN_VALUE : target;
+    }
+
+    BacktestResult result(String id, String params) {
+        double equity = cash + units * lastPrice;
+        double std = periods > 1 ? Math.sqrt(m2 / (periods - 1)) : 0;
+        // crypto trades around the clock, so a year is 365 full days of periods
+        double periodsPerYear = 365.0 * 24 * 3600 * 1000 / samplePeriodMs;
+        double sharpe = std == 0 ? 0 : meanReturn / std * Math.sqrt(periodsPerYear);
+        return new BacktestResult(id, params, ticks, trades, equity - initialEquity,
+                (equity / initialEquity - 1) * 100, maxDrawdown * 100, sharpe, fees);
+    }
+}
@@ -0,0 +1,68 @@
+package org.pm.strategyengine.backtest;
+
+public class BacktestResult {
+    private final String id;
+    private final String params;
+    private final long ticks;
+    private final long trades;
+    private final double pnl;
+    private final double returnPct;
+    private final double maxDrawdownPct;
+    private final double sharpe;
+    private final double fees;
+
+    public BacktestResult(String id, String params, long ticks, long trades, double pnl, double returnPct,
+                          double maxDrawdownPct, double sharpe, double fees) {
+        this.id = id;
+        this.params = params;
+        this.ticks = ticks;
+        this.trades = trades;
+        this.pnl = pnl;
+        this.returnPct = returnPct;
+        this.maxDrawdownPct = maxDrawdownPct;
+        this.sharpe = sharpe;
+        this.fees = fees;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getParams() {
+        return params;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getTrades() {
+        return trades;
+    }
+
+    public double getPnl() {
+        return pnl;
+    }
+
+    public double getReturnPct() {
+        return returnPct;
+    }
+
+    public double getMaxDrawdownPct() {
+        return maxDrawdownPct;
+    }
+
+    public double getSharpe() {
+        return sharpe;
+    }
+
+    public double getFees() {
+        return fees;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-40s trades=%-7d pnl=%12.2f return=%8.2f%% maxDD=%6.2f%% sharpe=%6.2f fees=%10.2f",
+                params, trades, pnl, returnPct, maxDrawdownPct, sharpe, fees);
+    }
+}
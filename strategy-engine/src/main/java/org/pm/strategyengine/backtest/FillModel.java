@@ -0,0 +1,43 @@
+package org.pm.strategyengine.backtest;
+
+/**
+ * How simulated orders execute: a signal is filled on the next trade after it (never on the
+ * trade that produced it), at that trade's price moved against us by {@code slippageBps}, and
+ * pays {@code feeBps} of the traded notional.
+ */
+public class FillModel {
+
+    private final double feeRate;
+    private final double slippageRate;
+    // false = SELL only closes a long, true = SELL flips to an equal-sized short
+    private final boolean allowShort;
+
+    public FillModel(double feeBps, double slippageBps, boolean allowShort) {
+        this.feeRate = feeBps / 10_000;
+        this.slippageRate = slippageBps / 10_000;
+        this.allowShort = allowShort;
+    }
+
+    /** @param side +1 buying, -1 selling */
+    double fillPrice(double price, int side) {
+        return price * (1 + side * slippageRate);
+    }
+
+    double fee(double notional) {
+        return Math.abs(notional) * feeRate;
+    }
+
+    int targetFor(String signal) {
+        return switch (signal) {
+            case "BUY" -> 1;
+            case "SELL" -> allowShort ? -1 : 0;
+            default -> Integer.MIN_VALUE;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "FillModel{feeBps=" + feeRate * 10_000 + ", slippageBps=" + slippageRate * 10_000
+                + ", allowShort=" + allowShort + '}';
+    }
+}
@@ -0,0 +1,49 @@
+package org.pm.strategyengine.backtest;
+
+import org.pm.common.journal.TickJournalMerger;
+import org.pm.common.journal.TickJournalReader;
+import org.pm.common.model.Tick;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Ticks captured by market-data's journal. Every replay opens its own merger over the mapped
+ * segments, so parallel tasks share the page cache rather than a copy of the data on the heap.
+ */
+public class JournalTickSource implements TickSource {
+
+    private final Path root;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final String symbol;
+
+    public JournalTickSource(Path root, LocalDate from, LocalDate to, String symbol) {
+        this.root = root;
+        this.from = from;
+        this.to = to;
+        this.symbol = symbol;
+    }
+
+    @Override
+    public void replay(Consumer<Tick> sink) throws IOException {
+        Tick tick = new Tick();
+        try (TickJournalMerger merger = TickJournalMerger.open(root, from, to)) {
+            while (merger.next()) {
+                TickJournalReader reader = merger.current();
+                // symbol() returns the same cached String per reader, so this is usually a reference check
+                String recorded = reader.symbol();
+                if (recorded != symbol && !recorded.equals(symbol)) continue;
+                reader.readInto(tick);
+                sink.accept(tick);
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "journal " + root + " " + from + ".." + to + " " + symbol;
+    }
+}
@@ -0,0 +1,83 @@
+package org.pm.strategyengine.backtest;
+
+import org.pm.strategyengine.strategy.StrategyDefinition;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expands a grid spec into strategy definitions, one per combination:
+ * <pre>
+ *   short-period=5:50:5;long-period=20:200:20;hysteresis=0|0.0005
+ * </pre>
+ * {@code from:to:step} is an inclusive range, {@code a|b|c} a list. Combinations where a
+ * short/fast period isn't below the matching long/slow period are skipped.
+ */
+public final class ParameterGrid {
+
+    private ParameterGrid() {}
+
+    public static List<StrategyDefinition> expand(String type, String spec, Map<String, String> fixed) {
+        Map<String, List<String>> axes = new LinkedHashMap<>();
+        for (String axis : spec.split(";")) {
+            if (axis.isBlank()) continue;
+            String[] kv = axis.split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Bad grid axis: " + axis);
+            axes.put(kv[0].trim(), values(kv[1].trim()));
+        }
+
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new LinkedHashMap<>(fixed));
+        for (Map.Entry<String, List<String>> axis : axes.entrySet()) {
+            List<Map<String, String>> next = new ArrayList<>(combinations.size() * axis.getValue().size());
+            for (Map<String, String> partial : combinations) {
+                for (String value : axis.getValue()) {
+                    Map<String, String> params = new LinkedHashMap<>(partial);
+                    params.put(axis.getKey(), value);
+                    next.add(params);
+                }
+            }
+            combinations = next;
+        }
+
+        List<StrategyDefinition> definitions = new ArrayList<>(combinations.size());
+        for (Map<String, String> params : combinations) {
+            if (!ordered(params, "short-period", "long-period") || !ordered(params, "fast-period", "slow-period")) {
+                continue;
+            }
+            String id = type + "-" + definitions.size();
+            definitions.add(new StrategyDefinition(id, type, List.of("*"), params));
+        }
+        return definitions;
+    }
+
+    static List<String> values(String spec) {
+        List<String> values = new ArrayList<>();
+        if (spec.contains(":")) {
+            String[] range = spec.split(":");
+            if (range.length != 3) throw new IllegalArgumentException("Range must be from:to:step: " + spec);
+            // BigDecimal so 0.1 steps don't drift
+            BigDecimal from = new BigDecimal(range[0]);
+            BigDecimal to = new BigDecimal(range[1]);
+            BigDecimal step = new BigDecimal(range[2]);
+            if (step.signum() <= 0) throw new IllegalArgumentException("Step must be positive: " + spec);
+            for (BigDecimal v = from; v.compareTo(to) <= 0; v = v.add(step)) {
+                values.add(v.toPlainString());
+            }
+        } else {
+            for (String v : spec.split("\\|")) {
+                values.add(v.trim());
+            }
+        }
+        return values;
+    }
+
+    private static boolean ordered(Map<String, String> params, String lowKey, String highKey) {
+        String low = params.get(lowKey);
+        String high = params.get(highKey);
+        return low == null || high == null || Double.parseDouble(low) < Double.parseDouble(high);
+    }
+}
@@ -0,0 +1,51 @@
+package org.pm.strategyengine.backtest;
+
+import org.pm.strategyengine.strategy.StrategyDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join over a list of parameter sets: the list is split in halves until a piece is at most
+ * {@code batch} sets, and each piece is one pass over the data evaluating all of its sets together
+ * (so the tick stream is read once per batch rather than once per set). Results keep input order.
+ */
+public class ParameterSweep extends RecursiveTask<List<BacktestResult>> {
+
+    private final BacktestEngine engine;
+    private final List<StrategyDefinition> definitions;
+    private final int batch;
+
+    public ParameterSweep(BacktestEngine engine, List<StrategyDefinition> definitions, int batch) {
+        this.engine = engine;
+        this.definitions = definitions;
+        this.batch = Math.max(1, batch);
+    }
+
+    public static List<BacktestResult> run(ForkJoinPool pool, BacktestEngine engine,
+                                           List<StrategyDefinition> definitions, int batch) {
+        return pool.invoke(new ParameterSweep(engine, definitions, batch));
+    }
+
+    /** A batch size that gives every worker a couple of pieces to balance with. */
+    public static int defaultBatch(int definitions, int parallelism) {
+        return Math.max(1, (int) Math.ceil(definitions / (2.0 * parallelism)));
+    }
+
+    @Override
+    protected List<BacktestResult> compute() {
+        if (definitions.size() <= batch) {
+            return engine.run(definitions);
+        }
+        int mid = definitions.size() / 2;
+        ParameterSweep left = new ParameterSweep(engine, definitions.subList(0, mid), batch);
+        ParameterSweep right = new ParameterSweep(engine, definitions.subList(mid, definitions.size()), batch);
+        left.fork();
+        List<BacktestResult> rightResults = right.compute();
+        List<BacktestResult> results = new ArrayList<>(left.join());
+        results.addAll(rightResults);
+        return results;
+    }
+}
@@ -0,0 +1,17 @@
+package org.pm.strategyengine.backtest;
+
+import org.pm.common.model.Tick;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Recorded trades of one symbol, in time order. {@link #replay} may be called many times and from
+ * several threads at once (one per sweep task); each call passes a single reused Tick.
+ */
+public interface TickSource {
+
+    void replay(Consumer<Tick> sink) throws IOException;
+
+    String describe();
+}
@@ -0,0 +1,74 @@
+package org.pm.strategyengine.basket;
+
+import org.pm.common.model.Tick;
+import org.pm.common.model.TradeSignal;
+import org.pm.strategyengine.strategy.StrategyDefinition;
+import org.pm.strategyengine.strategy.StrategyProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Builds the {@code strategies.baskets} instances and routes each tick to the ones that have its
+ * symbol among their legs. A basket's symbols can be consumed by different threads (partitions,
+ * pipeline shards), so each instance is locked while it handles a tick; its work per tick is
+ * O(symbols), so the lock is short.
+ */
+@Component
+public class BasketEvaluator {
+
+    private static final Map<String, Function<StrategyDefinition, BasketStrategy>> TYPES = Map.of(
+            "pairs", PairsStrategy::new
+    );
+
+    private static final BasketStrategy[] NONE = new BasketStrategy[0];
+
+    private final List<BasketStrategy> baskets = new ArrayList<>();
+    private final Map<String, BasketStrategy[]> bySymbol = new HashMap<>();
+
+    public BasketEvaluator(StrategyProperties properties) {
+        Map<String, List<BasketStrategy>> index = new HashMap<>();
+        for (StrategyDefinition definition : properties.getBaskets()) {
+            Function<StrategyDefinition, BasketStrategy> factory = TYPES.get(definition.getType());
+            if (factory == null) {
+                throw new IllegalArgumentException("Unknown basket strategy type '" + definition.getType()
+                        + "' for " + definition.getId() + ", known types: " + TYPES.keySet());
+            }
+            BasketStrategy basket = factory.apply(definition);
+            baskets.add(basket);
+            for (String symbol : basket.symbols()) {
+                index.computeIfAbsent(symbol, s -> new ArrayList<>()).add(basket);
+            }
+            System.out.println("Basket strategy configured: " + definition + " over " + basket.symbols());
+        }
+        index.forEach((symbol, list) -> bySymbol.put(symbol, list.toArray(new BasketStrategy[0])));
+    }
+
+    public boolean isEnabled() {
+        return !baskets.isEmpty();
+    }
+
+    public void evaluate(Tick tick, Consumer<TradeSignal> out) {
+        for (BasketStrategy basket : bySymbol.getOrDefault(tick.getSymbol(), NONE)) {
+            synchronized (basket) {
+                basket.onTick(tick, out);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (BasketStrategy basket : baskets) {
+            synchronized (basket) {
+                stats.put(basket.id(), basket.stats());
+            }
+        }
+        return stats;
+    }
+}
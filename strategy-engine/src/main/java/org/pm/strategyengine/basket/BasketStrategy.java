@@ -0,0 +1,28 @@
+package org.pm.strategyengine.basket;
+
+import org.pm.common.model.Tick;
+import org.pm.common.model.TradeSignal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A strategy over several symbols at once (pairs, baskets), configured under
+ * {@code strategies.baskets}. Unlike {@link org.pm.strategyengine.strategy.Strategy} one instance
+ * sees the ticks of all its symbols, which may come from different listener or pipeline threads,
+ * so {@link BasketEvaluator} serialises the calls per instance.
+ */
+public interface BasketStrategy {
+
+    String id();
+
+    /** Every symbol the strategy needs ticks for. */
+    List<String> symbols();
+
+    /** One trade of one of {@link #symbols()}; may emit multi-leg signals through {@code out}. */
+    void onTick(Tick tick, Consumer<TradeSignal> out);
+
+    /** Current model state for the stats endpoint. */
+    Map<String, Object> stats();
+}
@@ -0,0 +1,183 @@
+package org.pm.strategyengine.basket;
+
+import java.util.Arrays;
+
+/**
+ * Exponentially weighted (in time) means and covariances of the log prices of k symbols, each
+ * symbol's price held from one of its trades to the next. Updated in O(k) per trade, read in O(1)
+ * per entry.
+ *
+ * Between two trades of symbol i nothing about row i of the matrix changes except the elapsed
+ * time, so instead of decaying all k^2 entries on every trade, the accumulators are kept in
+ * growing units of e^((t - base) / tau): decay becomes implicit, and an entry only needs bringing
+ * up to date when one of its two symbols trades. Entry (i, j) was last brought up to date when
+ * i or j last traded, which is the later of their two {@code since} values, so the catch-up weight
+ * needs no per-pair state and no exp per pair: one exp per trade. Once the scale gets large every
+ * accumulator is divided down and the base moves (O(k^2), once per {@link #REBASE_AFTER} time
+ * constants).
+ *
+ * Log prices are taken relative to each symbol's first price, so the moments stay near zero and
+ * E[xy] - E[x]E[y] doesn't cancel away the precision. Moments are defined once every symbol has
+ * traded at least once ({@link #isReady()}); until then trades only record prices.
+ * Not thread-safe.
+ */
+public final class EwCrossMoments {
+
+    // time constants between rebases: e^40 ~ 2e17, far from overflow even squared with prices
+    static final double REBASE_AFTER = 40;
+
+    private final int k;
+    private final double tauMs;
+
+    // per symbol: log price relative to its first, that first log price, scale at its last trade,
+    // and the running integral of x
+    private final double[] x;
+    private final double[] origin;
+    private final double[] since;
+    private final double[] sum;
+    // integral of x_i * x_j, row-major, only the i <= j half is kept
+    private final double[] cross;
+
+    private int missing;
+    private final boolean[] seen;
+    private double baseMs;
+    private double clockMs;
+    // scale when the matrix started (all symbols seen); the total weight is scale() - start
+    private double start;
+    private double startMs;
+    private long updates;
+
+    /** @param halfLifeMs time for an observation's weight to halve */
+    public EwCrossMoments(int k, double halfLifeMs) {
+        if (k < 1) throw new IllegalArgumentException("need at least one symbol: " + k);
+        if (!(halfLifeMs > 0)) throw new IllegalArgumentException("half-life must be positive: " + halfLifeMs);
+        this.k = k;
+        this.tauMs = halfLifeMs / Math.log(2);
+        this.x = new double[k];
+        this.origin = new double[k];
+        this.since = new double[k];
+        this.sum = new double[k];
+        this.cross = new double[k * k];
+        this.seen = new boolean[k];
+        this.missing = k;
+    }
+
+    /** Symbol {@code i} traded at {@code price}, exchange time {@code timestampMs}. */
+    public void update(int i, double price, long timestampMs) {
+        // symbols arrive over different partitions, a slightly late trade counts as "now"
+        if (timestampMs > clockMs) clockMs = timestampMs;
+        if (!seen[i]) {
+            seen[i] = true;
+            origin[i] = Math.log(price);
+            x[i] = 0;
+            if (--missing == 0) begin();
+            return;
+        }
+        double next = Math.log(price) - origin[i];
+        if (missing > 0) {
+            x[i] = next;
+            return;
+        }
+
+        if ((clockMs - baseMs) / tauMs > REBASE_AFTER) rebase();
+        double g = scale();
+        // close the interval over which x[i] held its previous value, for every pair with i
+        double xi = x[i];
+        double si = since[i];
+        int row = i * k;
+        for (int j = 0; j < i; j++) {
+            cross[j * k + i] += xi * x[j] * (g - Math.max(si, since[j]));
+        }
+        for (int j = i; j < k; j++) {
+            cross[row + j] += xi * x[j] * (g - Math.max(si, since[j]));
+        }
+        sum[i] += xi * (g - si);
+        since[i] = g;
+        x[i] = next;
+        updates++;
+    }
+
+    private void begin() {
+        baseMs = clockMs;
+        startMs = clockMs;
+        start = 1.0;
+        Arrays.fill(since, 1.0);
+    }
+
+    private double scale() {
+        return Math.exp((clockMs - baseMs) / tauMs);
+    }
+
+    // divide everything by the current scale and restart the units at 1
+    private void rebase() {
+        double factor = 1.0 / scale();
+        for (int i = 0; i < k; i++) {
+            since[i] *= factor;
+            sum[i] *= factor;
+            int row = i * k;
+            for (int j = i; j < k; j++) {
+                cross[row + j] *= factor;
+            }
+        }
+        start *= factor;
+        baseMs = clockMs;
+    }
+
+    public boolean isReady() {
+        return missing == 0;
+    }
+
+    // total weight since the start, in the same units as the accumulators
+    private double weight(double g) {
+        return g - start;
+    }
+
+    /** EW mean of symbol i's log price (relative to its first price); NaN until time has passed. */
+    public double mean(int i) {
+        if (missing > 0) return Double.NaN;
+        double g = scale();
+        return (sum[i] + x[i] * (g - since[i])) / weight(g);
+    }
+
+    public double covariance(int i, int j) {
+        if (missing > 0) return Double.NaN;
+        double g = scale();
+        double w = weight(g);
+        int a = Math.min(i, j), b = Math.max(i, j);
+        double xy = (cross[a * k + b] + x[a] * x[b] * (g - Math.max(since[a], since[b]))) / w;
+        double mi = (sum[i] + x[i] * (g - since[i])) / w;
+        double mj = (sum[j] + x[j] * (g - since[j])) / w;
+        return xy - mi * mj;
+    }
+
+    public double variance(int i) {
+        return covariance(i, i);
+    }
+
+    public double correlation(int i, int j) {
+        double vi = variance(i), vj = variance(j);
+        return vi > 0 && vj > 0 ? covariance(i, j) / Math.sqrt(vi * vj) : Double.NaN;
+    }
+
+    /** Current log price of symbol i relative to its first price, as used in the moments. */
+    public double value(int i) {
+        return x[i];
+    }
+
+    /** Milliseconds since every symbol had traded, 0 before that. */
+    public double elapsedMs() {
+        return missing > 0 ? 0 : clockMs - startMs;
+    }
+
+    public double getHalfLifeMs() {
+        return tauMs * Math.log(2);
+    }
+
+    public int size() {
+        return k;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+}
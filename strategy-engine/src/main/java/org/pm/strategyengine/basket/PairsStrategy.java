@@ -0,0 +1,242 @@
+package org.pm.strategyengine.basket;
+
+import org.pm.common.model.SignalLeg;
+import org.pm.common.model.Tick;
+import org.pm.common.model.TradeSignal;
+import org.pm.strategyengine.strategy.Strategy;
+import org.pm.strategyengine.strategy.StrategyDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Mean reversion on the spread of one or more symbol pairs, all sharing one {@link EwCrossMoments}
+ * over the basket's symbols:
+ * <pre>
+ *   - id: pairs
+ *     type: pairs
+ *     symbols: BTCUSDT,ETHUSDT,SOLUSDT     # optional, the pairs' legs are always included
+ *     params:
+ *       pairs: "ETHUSDT/BTCUSDT,SOLUSDT/ETHUSDT"
+ *       half-life-ms: 600000
+ *       entry-z: 2.0
+ *       exit-z: 0.5
+ * </pre>
+ * For a pair A/B the hedge ratio beta is the EW regression of log A on log B, the spread is
+ * log A - beta log B and its z-score comes from the same moments (the regression residual), so
+ * nothing is kept per pair beyond its position. Spread above +entry-z: sell A, buy beta worth of B;
+ * below -entry-z the reverse; back inside exit-z the position is closed by reversing the legs it
+ * was opened with (not the current beta). Only the transitions are
+ * emitted, as two-leg signals tagged {@code <id>:<A>/<B>:long} for entering and leaving the long
+ * spread and {@code ...:short} for the short one. Under each tag the first leg's side alternates
+ * (enter, exit, enter, ...), so the risk manager's per-strategy duplicate check never mistakes a
+ * legitimate trade for a repeat, including a flip, which exits one and enters the other.
+ */
+public class PairsStrategy implements BasketStrategy {
+
+    private final String id;
+    private final List<String> symbols;
+    private final Map<String, Integer> indexOf = new HashMap<>();
+    private final EwCrossMoments moments;
+    private final double[] prices;
+    private final Pair[] pairs;
+    // pairs each symbol is a leg of, so a tick only evaluates those
+    private final Pair[][] pairsOf;
+
+    private final double entryZ;
+    private final double exitZ;
+    private final double minCorrelation;
+    private final long warmupMs;
+
+    public PairsStrategy(StrategyDefinition definition) {
+        this.id = definition.getId();
+        this.entryZ = definition.doubleParam("entry-z", 2.0);
+        this.exitZ = definition.doubleParam("exit-z", 0.5);
+        this.minCorrelation = definition.doubleParam("min-correlation", 0.0);
+        long halfLifeMs = definition.longParam("half-life-ms", 600_000);
+        this.warmupMs = definition.longParam("warmup-ms", halfLifeMs);
+        if (!(exitZ >= 0 && exitZ < entryZ)) {
+            throw new IllegalArgumentException(id + ": need 0 <= exit-z < entry-z, got " + exitZ + " / " + entryZ);
+        }
+
+        String spec = definition.stringParam("pairs", "");
+        List<String[]> legs = new ArrayList<>();
+        for (String pair : spec.split(",")) {
+            if (pair.isBlank()) continue;
+            String[] ab = pair.trim().toUpperCase().split("/");
+            if (ab.length != 2 || ab[0].isBlank() || ab[1].isBlank() || ab[0].equals(ab[1])) {
+                throw new IllegalArgumentException(id + ": bad pair '" + pair + "', expected A/B");
+            }
+            legs.add(ab);
+        }
+        if (legs.isEmpty()) {
+            throw new IllegalArgumentException(id + ": pairs param is empty, expected e.g. \"ETHUSDT/BTCUSDT\"");
+        }
+
+        List<String> universe = new ArrayList<>();
+        for (String symbol : definition.getSymbols()) {
+            String s = symbol.trim().toUpperCase();
+            if (!s.isEmpty() && !"*".equals(s)) add(universe, s);
+        }
+        for (String[] ab : legs) {
+            add(universe, ab[0]);
+            add(universe, ab[1]);
+        }
+        this.symbols = List.copyOf(universe);
+        this.moments = new EwCrossMoments(symbols.size(), halfLifeMs);
+        this.prices = new double[symbols.size()];
+
+        this.pairs = new Pair[legs.size()];
+        List<List<Pair>> bySymbol = new ArrayList<>();
+        for (int s = 0; s < symbols.size(); s++) bySymbol.add(new ArrayList<>());
+        for (int p = 0; p < pairs.length; p++) {
+            int a = indexOf.get(legs.get(p)[0]);
+            int b = indexOf.get(legs.get(p)[1]);
+            pairs[p] = new Pair(id + ":" + symbols.get(a) + "/" + symbols.get(b), a, b);
+            bySymbol.get(a).add(pairs[p]);
+            bySymbol.get(b).add(pairs[p]);
+        }
+        this.pairsOf = new Pair[symbols.size()][];
+        for (int s = 0; s < symbols.size(); s++) {
+            pairsOf[s] = bySymbol.get(s).toArray(new Pair[0]);
+        }
+    }
+
+    private void add(List<String> universe, String symbol) {
+        if (indexOf.putIfAbsent(symbol, universe.size()) == null) universe.add(symbol);
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public List<String> symbols() {
+        return symbols;
+    }
+
+    @Override
+    public void onTick(Tick tick, Consumer<TradeSignal> out) {
+        Integer index = indexOf.get(tick.getSymbol());
+        if (index == null) return;
+        int i = index;
+        prices[i] = tick.getPrice();
+        moments.update(i, tick.getPrice(), tick.getTimestamp());
+        if (!moments.isReady() || moments.elapsedMs() < warmupMs) return;
+
+        for (Pair pair : pairsOf[i]) {
+            pair.evaluate(tick.getTimestamp(), out);
+        }
+    }
+
+    private final class Pair {
+        final String id;
+        // strategy ids of the signals entering / leaving each side
+        final String longId;
+        final String shortId;
+        final int a;
+        final int b;
+        // +1 long the spread (long A, short B), -1 short it, 0 flat
+        int position;
+        // B leg of the open position as traded at entry; the exit reverses exactly this, whatever
+        // beta has drifted to since (a sign change would otherwise add to the hedge, not close it)
+        String entrySideB;
+        double entryRatioB;
+        double beta = Double.NaN;
+        double z = Double.NaN;
+        double correlation = Double.NaN;
+
+        Pair(String id, int a, int b) {
+            this.id = id;
+            this.longId = id + ":long";
+            this.shortId = id + ":short";
+            this.a = a;
+            this.b = b;
+        }
+
+        void evaluate(long timestamp, Consumer<TradeSignal> out) {
+            double varB = moments.variance(b);
+            double cov = moments.covariance(a, b);
+            double varA = moments.variance(a);
+            if (!(varA > 0 && varB > 0)) return;
+            beta = cov / varB;
+            correlation = cov / Math.sqrt(varA * varB);
+            double residualVar = varA - cov * beta;
+            if (!(residualVar > 0)) return;
+            double mean = moments.mean(a) - beta * moments.mean(b);
+            z = (moments.value(a) - beta * moments.value(b) - mean) / Math.sqrt(residualVar);
+
+            int target = position;
+            if (position != 0 && Math.abs(z) <= exitZ) {
+                target = 0;
+            } else if (z >= entryZ) {
+                target = -1;
+            } else if (z <= -entryZ) {
+                target = 1;
+            }
+            if (target == position) return;
+            // a flip closes first; new positions need the pair to be actually related
+            if (position != 0) {
+                out.accept(exit(timestamp));
+                position = 0;
+            }
+            if (target != 0 && Math.abs(correlation) >= minCorrelation) {
+                out.accept(enter(target, timestamp));
+                position = target;
+            }
+        }
+
+        // trade taking the spread by `direction` (+1 buy A / sell beta of B, -1 the reverse)
+        private TradeSignal enter(int direction, long timestamp) {
+            String sideA = direction > 0 ? Strategy.BUY : Strategy.SELL;
+            String opposite = direction > 0 ? Strategy.SELL : Strategy.BUY;
+            // beta is on log prices, i.e. notional: units of B per unit of A = |beta| * pA / pB
+            entrySideB = beta >= 0 ? opposite : sideA;
+            entryRatioB = Math.abs(beta) * prices[a] / prices[b];
+            return signal(direction > 0 ? longId : shortId, sideA, entrySideB, entryRatioB, timestamp);
+        }
+
+        // unwinds the open position leg by leg
+        private TradeSignal exit(long timestamp) {
+            String sideA = position > 0 ? Strategy.SELL : Strategy.BUY;
+            String sideB = Strategy.BUY.equals(entrySideB) ? Strategy.SELL : Strategy.BUY;
+            return signal(position > 0 ? longId : shortId, sideA, sideB, entryRatioB, timestamp);
+        }
+
+        private TradeSignal signal(String strategyId, String sideA, String sideB, double ratioB, long timestamp) {
+            List<SignalLeg> legs = List.of(
+                    new SignalLeg(symbols.get(a), sideA, prices[a], 1.0),
+                    new SignalLeg(symbols.get(b), sideB, prices[b], ratioB));
+            return TradeSignal.ofLegs(strategyId, legs, timestamp);
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("position", position);
+            stats.put("z", z);
+            stats.put("beta", beta);
+            stats.put("correlation", correlation);
+            return stats;
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("symbols", symbols.size());
+        stats.put("ready", moments.isReady());
+        stats.put("elapsedMs", (long) moments.elapsedMs());
+        stats.put("updates", moments.getUpdates());
+        Map<String, Object> byPair = new LinkedHashMap<>();
+        for (Pair pair : pairs) {
+            byPair.put(pair.id, pair.stats());
+        }
+        stats.put("pairs", byPair);
+        return stats;
+    }
+}
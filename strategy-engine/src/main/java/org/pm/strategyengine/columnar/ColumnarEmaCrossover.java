@@ -0,0 +1,164 @@
+package org.pm.strategyengine.columnar;
+
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.strategy.SignalSink;
+import org.pm.strategyengine.strategy.Strategy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EMA crossover (BUY while the fast EMA is above the slow one, SELL below, HOLD equal) for every
+ * symbol, with the per-symbol state in parallel primitive arrays indexed by a dense symbol lane
+ * instead of an object graph per symbol.
+ *
+ * A micro-batch of ticks is split into rounds: round k holds each symbol's k-th tick of the batch,
+ * so a round touches every lane at most once and can go through the kernel in one call. Rounds
+ * run in order, so each symbol still sees its ticks in order, and signals are emitted in that
+ * order too.
+ * Not thread-safe: owned by the listener thread.
+ */
+public class ColumnarEmaCrossover {
+
+    private final String id;
+    private final EmaCrossKernel kernel;
+    private final boolean edge;
+
+    // lane -> symbol and back
+    private final Map<String, Integer> laneOf = new HashMap<>();
+    private String[] symbols = new String[64];
+    private int laneCount;
+
+    // column state, one entry per lane; capacities stay a multiple of 64, i.e. of any vector width
+    private double[] fast = new double[64];
+    private double[] slow = new double[64];
+    private double[] count = new double[64];
+    private byte[] lastSide = new byte[64];
+    // per-batch scratch: ticks of this lane seen so far in the batch
+    private int[] seen = new int[64];
+
+    // per-batch scratch, one entry per tick, ordered by round
+    private int[] roundSizes = new int[16];
+    private int[] tickLanes = new int[256];
+    private int[] tickRounds = new int[256];
+    private int[] lanes = new int[256];
+    private double[] prices = new double[256];
+    private long[] timestamps = new long[256];
+    private double[] spreads = new double[256];
+
+    private long rounds;
+    private long ticks;
+
+    public ColumnarEmaCrossover(String id, int fastPeriod, int slowPeriod, boolean edge, boolean allowVector) {
+        if (fastPeriod <= 0 || fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("EMA crossover needs 0 < fast < slow: " + fastPeriod + "/" + slowPeriod);
+        }
+        this.id = id;
+        this.edge = edge;
+        this.kernel = EmaCrossKernels.best(fastPeriod, slowPeriod, allowVector);
+    }
+
+    public void evaluate(List<Tick> batch, SignalSink sink) {
+        int n = batch.size();
+        if (n == 0) return;
+        ensureBatchCapacity(n);
+
+        // lane and round of every tick
+        int roundCount = 0;
+        for (int i = 0; i < n; i++) {
+            int lane = lane(batch.get(i).getSymbol());
+            int round = seen[lane]++;
+            tickLanes[i] = lane;
+            tickRounds[i] = round;
+            if (round == roundCount) {
+                if (roundCount == roundSizes.length) roundSizes = Arrays.copyOf(roundSizes, roundCount * 2);
+                roundSizes[roundCount++] = 0;
+            }
+            roundSizes[round]++;
+        }
+
+        // counting sort by round; roundSizes becomes each round's start
+        int start = 0;
+        for (int r = 0; r < roundCount; r++) {
+            int size = roundSizes[r];
+            roundSizes[r] = start;
+            start += size;
+        }
+        for (int i = 0; i < n; i++) {
+            Tick tick = batch.get(i);
+            int pos = roundSizes[tickRounds[i]]++;
+            lanes[pos] = tickLanes[i];
+            prices[pos] = tick.getPrice();
+            timestamps[pos] = tick.getTimestamp();
+            seen[tickLanes[i]] = 0;
+        }
+
+        // after the sort roundSizes[r] is round r's end
+        int from = 0;
+        for (int r = 0; r < roundCount; r++) {
+            int to = roundSizes[r];
+            kernel.update(lanes, prices, from, to, laneCount, fast, slow, count, spreads);
+            from = to;
+        }
+        rounds += roundCount;
+        ticks += n;
+
+        for (int pos = 0; pos < n; pos++) {
+            double spread = spreads[pos];
+            if (Double.isNaN(spread)) continue;
+            byte side = spread > 0 ? (byte) 1 : spread < 0 ? (byte) -1 : 0;
+            int lane = lanes[pos];
+            if (edge) {
+                if (side == 0 || side == lastSide[lane]) continue;
+                lastSide[lane] = side;
+            }
+            String signal = side > 0 ? Strategy.BUY : side < 0 ? Strategy.SELL : Strategy.HOLD;
+            sink.emit(id, symbols[lane], signal, prices[pos], timestamps[pos]);
+        }
+    }
+
+    private int lane(String symbol) {
+        Integer lane = laneOf.get(symbol);
+        if (lane != null) return lane;
+
+        int l = laneCount++;
+        if (l == symbols.length) {
+            int capacity = l * 2;
+            symbols = Arrays.copyOf(symbols, capacity);
+            fast = Arrays.copyOf(fast, capacity);
+            slow = Arrays.copyOf(slow, capacity);
+            count = Arrays.copyOf(count, capacity);
+            lastSide = Arrays.copyOf(lastSide, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+        }
+        symbols[l] = symbol;
+        laneOf.put(symbol, l);
+        return l;
+    }
+
+    private void ensureBatchCapacity(int n) {
+        if (n <= lanes.length) return;
+        int capacity = Math.max(n, lanes.length * 2);
+        tickLanes = new int[capacity];
+        tickRounds = new int[capacity];
+        lanes = new int[capacity];
+        prices = new double[capacity];
+        timestamps = new long[capacity];
+        spreads = new double[capacity];
+    }
+
+    public String kernelName() {
+        return kernel.name();
+    }
+
+    public int symbolCount() {
+        return laneCount;
+    }
+
+    /** Mean ticks per kernel call; close to the symbol count means the batches vectorise well. */
+    public double ticksPerRound() {
+        return rounds == 0 ? 0 : (double) ticks / rounds;
+    }
+}
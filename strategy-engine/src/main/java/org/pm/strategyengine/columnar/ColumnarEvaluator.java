@@ -0,0 +1,67 @@
+package org.pm.strategyengine.columnar;
+
+import jakarta.annotation.PostConstruct;
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.strategy.SignalSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional columnar strategy, evaluated on the listener thread next to the configured ones: an EMA
+ * crossover across all symbols, run a whole poll at a time in batch consumer mode.
+ */
+@Component
+public class ColumnarEvaluator {
+
+    @Value("${strategy.columnar.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strategy.columnar.id:ema-columnar}")
+    private String id;
+
+    @Value("${strategy.columnar.fast-period:12}")
+    private int fastPeriod;
+
+    @Value("${strategy.columnar.slow-period:26}")
+    private int slowPeriod;
+
+    // false = always use the scalar kernel
+    @Value("${strategy.columnar.vector:true}")
+    private boolean vector;
+
+    @Value("${strategies.signal-mode:per-tick}")
+    private String signalMode;
+
+    private ColumnarEmaCrossover crossover;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        crossover = new ColumnarEmaCrossover(id, fastPeriod, slowPeriod, "edge".equals(signalMode), vector);
+        System.out.println("Columnar EMA " + fastPeriod + "/" + slowPeriod + " as " + id + ", kernel: "
+                + crossover.kernelName());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void evaluate(List<Tick> batch, SignalSink sink) {
+        crossover.evaluate(batch, sink);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        if (crossover != null) {
+            stats.put("kernel", crossover.kernelName());
+            stats.put("symbols", crossover.symbolCount());
+            stats.put("ticksPerRound", crossover.ticksPerRound());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,21 @@
+package org.pm.strategyengine.columnar;
+
+/**
+ * Updates a fast and a slow EMA for many symbols at once, state held column-wise: {@code fast[s]},
+ * {@code slow[s]} and {@code count[s]} belong to symbol lane s. The EMAs are seeded like
+ * {@link org.pm.strategyengine.indicator.Ema}: running mean for the first {@code period} prices.
+ */
+interface EmaCrossKernel {
+
+    /**
+     * For every i in [from, to): adds {@code prices[i]} to lane {@code lanes[i]} and writes
+     * fast - slow into {@code spreads[i]}, NaN until the slow EMA is seeded. Lanes within one call
+     * must be distinct (one price per symbol per call), which is what makes it vectorisable.
+     * {@code laneCount} is the number of lanes in use; the state arrays are longer than that,
+     * padded to whole vectors.
+     */
+    void update(int[] lanes, double[] prices, int from, int to, int laneCount,
+                double[] fast, double[] slow, double[] count, double[] spreads);
+
+    String name();
+}
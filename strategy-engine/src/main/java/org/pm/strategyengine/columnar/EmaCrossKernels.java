@@ -0,0 +1,28 @@
+package org.pm.strategyengine.columnar;
+
+/**
+ * Picks the vector kernel when the jdk.incubator.vector module is in the boot layer, the scalar
+ * one otherwise. The vector class is only touched reflectively, so without the module it is
+ * never linked and nothing fails.
+ */
+final class EmaCrossKernels {
+
+    private EmaCrossKernels() {}
+
+    static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    static EmaCrossKernel best(int fastPeriod, int slowPeriod, boolean allowVector) {
+        if (allowVector && vectorAvailable()) {
+            try {
+                return (EmaCrossKernel) Class.forName(EmaCrossKernels.class.getPackageName() + ".VectorEmaCrossKernel")
+                        .getDeclaredConstructor(int.class, int.class)
+                        .newInstance(fastPeriod, slowPeriod);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("Vector kernel unavailable (" + e + "), using scalar");
+            }
+        }
+        return new ScalarEmaCrossKernel(fastPeriod, slowPeriod);
+    }
+}
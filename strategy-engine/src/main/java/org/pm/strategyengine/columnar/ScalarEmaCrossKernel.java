@@ -0,0 +1,41 @@
+package org.pm.strategyengine.columnar;
+
+/** Plain loop; what runs when the vector module isn't available. */
+final class ScalarEmaCrossKernel implements EmaCrossKernel {
+
+    private final int fastPeriod;
+    private final int slowPeriod;
+    private final double fastAlpha;
+    private final double slowAlpha;
+
+    ScalarEmaCrossKernel(int fastPeriod, int slowPeriod) {
+        this.fastPeriod = fastPeriod;
+        this.slowPeriod = slowPeriod;
+        this.fastAlpha = 2.0 / (fastPeriod + 1);
+        this.slowAlpha = 2.0 / (slowPeriod + 1);
+    }
+
+    @Override
+    public void update(int[] lanes, double[] prices, int from, int to, int laneCount,
+                       double[] fast, double[] slow, double[] count, double[] spreads) {
+        for (int i = from; i < to; i++) {
+            int s = lanes[i];
+            double p = prices[i];
+            double c = count[s] + 1;
+            count[s] = c;
+            double inv = 1.0 / c;
+            double f = fast[s];
+            f += (c > fastPeriod ? fastAlpha : inv) * (p - f);
+            fast[s] = f;
+            double sl = slow[s];
+            sl += (c > slowPeriod ? slowAlpha : inv) * (p - sl);
+            slow[s] = sl;
+            spreads[i] = c < slowPeriod ? Double.NaN : f - sl;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,104 @@
+package org.pm.strategyengine.columnar;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * {@link ScalarEmaCrossKernel} with the jdk.incubator.vector API. Gathering and scattering the
+ * round's lanes costs more than the handful of flops per lane saves, so instead the round's prices
+ * are dropped into a per-lane column and the kernel sweeps the state columns of all lanes
+ * contiguously, a full register at a time, with a mask for the lanes that have a price. That only
+ * pays when most lanes are in the round, so sparse rounds go to the scalar kernel.
+ * Same operations in the same order as the scalar kernel, so results are bit-identical.
+ *
+ * Only ever loaded through {@link EmaCrossKernels}, which falls back to the scalar kernel when
+ * the JVM wasn't started with --add-modules jdk.incubator.vector.
+ */
+final class VectorEmaCrossKernel implements EmaCrossKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // sweep all lanes when at least this fraction of them has a price in the round
+    private static final double MIN_DENSITY = 0.25;
+
+    private final ScalarEmaCrossKernel scalar;
+    private final double fastPeriod;
+    private final double slowPeriod;
+    private final double fastAlpha;
+    private final double slowAlpha;
+
+    // per-lane columns for the round being swept: price (NaN = not in the round), resulting spread
+    private double[] lanePrice = new double[0];
+    private double[] laneSpread = new double[0];
+
+    VectorEmaCrossKernel(int fastPeriod, int slowPeriod) {
+        this.scalar = new ScalarEmaCrossKernel(fastPeriod, slowPeriod);
+        this.fastPeriod = fastPeriod;
+        this.slowPeriod = slowPeriod;
+        this.fastAlpha = 2.0 / (fastPeriod + 1);
+        this.slowAlpha = 2.0 / (slowPeriod + 1);
+    }
+
+    @Override
+    public void update(int[] lanes, double[] prices, int from, int to, int laneCount,
+                       double[] fast, double[] slow, double[] count, double[] spreads) {
+        int n = to - from;
+        if (n < SPECIES.length() || n < laneCount * MIN_DENSITY) {
+            scalar.update(lanes, prices, from, to, laneCount, fast, slow, count, spreads);
+            return;
+        }
+        int width = SPECIES.length();
+        // whole vectors, the state arrays are sized to match
+        int sweep = (laneCount + width - 1) / width * width;
+        if (lanePrice.length < sweep) {
+            lanePrice = new double[sweep];
+            Arrays.fill(lanePrice, Double.NaN);
+            laneSpread = new double[sweep];
+        }
+        double[] lanePrice = this.lanePrice;
+        double[] laneSpread = this.laneSpread;
+
+        for (int i = from; i < to; i++) {
+            lanePrice[lanes[i]] = prices[i];
+        }
+
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+        for (int s = 0; s < sweep; s += width) {
+            DoubleVector p = DoubleVector.fromArray(SPECIES, lanePrice, s);
+            VectorMask<Double> active = p.compare(VectorOperators.EQ, p);
+            if (!active.anyTrue()) continue;
+
+            DoubleVector c = DoubleVector.fromArray(SPECIES, count, s);
+            c = c.blend(c.add(one), active);
+            c.intoArray(count, s);
+            DoubleVector inv = one.div(c);
+
+            DoubleVector f = DoubleVector.fromArray(SPECIES, fast, s);
+            DoubleVector fastWeight = inv.blend(fastAlpha, c.compare(VectorOperators.GT, fastPeriod));
+            f = f.blend(f.add(fastWeight.mul(p.sub(f))), active);
+            f.intoArray(fast, s);
+
+            DoubleVector sl = DoubleVector.fromArray(SPECIES, slow, s);
+            DoubleVector slowWeight = inv.blend(slowAlpha, c.compare(VectorOperators.GT, slowPeriod));
+            sl = sl.blend(sl.add(slowWeight.mul(p.sub(sl))), active);
+            sl.intoArray(slow, s);
+
+            f.sub(sl).blend(Double.NaN, c.compare(VectorOperators.LT, slowPeriod)).intoArray(laneSpread, s);
+        }
+
+        for (int i = from; i < to; i++) {
+            int s = lanes[i];
+            spreads[i] = laneSpread[s];
+            lanePrice[s] = Double.NaN;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + SPECIES.length() + "x double)";
+    }
+}
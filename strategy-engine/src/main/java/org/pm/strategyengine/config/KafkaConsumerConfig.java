@@ -23,12 +23,22 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // upper bound on records per poll, i.e. per batch in batch mode
+    @Value("${strategy.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // how long a poll may wait for max-poll-records to fill up before returning what it has
+    @Value("${strategy.consumer.fetch-max-wait-ms:50}")
+    private int fetchMaxWaitMs;
+
     @Bean
     public ConsumerFactory<String, Tick> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "strategy-engine");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, 
                   org.springframework.kafka.support.serializer.ErrorHandlingDeserializer.class);
@@ -61,5 +71,24 @@ public class KafkaConsumerConfig {
         System.out.println("✓ Kafka Listener Container Factory created and configured to auto-start");
         return factory;
     }
+
+    // Same consumer, but the listener gets the whole poll as one List<ConsumerRecord>.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Tick> batchKafkaListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Tick> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setAutoStartup(true);
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler(
+            (record, exception) -> {
+                System.err.println("Error deserializing message: " + exception.getMessage());
+                System.err.println("Skipping bad record at offset: " + record.offset());
+            }
+        ));
+
+        System.out.println("✓ Batch Kafka Listener Container Factory created, max.poll.records=" + maxPollRecords);
+        return factory;
+    }
 }
 
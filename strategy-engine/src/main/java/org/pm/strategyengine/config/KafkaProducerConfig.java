@@ -17,9 +17,17 @@ import java.util.Map;
 @Configuration
 public class KafkaProducerConfig {
 
-    @Value("${kafka.bootstrap-servers}")
+    // kafka.bootstrap-servers is only set in the docker profile
+    @Value("${kafka.bootstrap-servers:${spring.kafka.bootstrap-servers}}")
     private String bootstrapServers;
 
+    // signals of one consumer batch are sent back to back; these let them share a producer request
+    @Value("${strategy.producer.batch-size:16384}")
+    private int batchSize;
+
+    @Value("${strategy.producer.linger-ms:0}")
+    private int lingerMs;
+
     @Bean
     public ProducerFactory<String, TradeSignal> producerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -31,6 +39,8 @@ public class KafkaProducerConfig {
         // kafka convert tick java object to json
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         props.put(ProducerConfig.ACKS_CONFIG, "1");
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
         
         System.out.println("Kafka Producer configured with bootstrap servers: " + bootstrapServers);
         
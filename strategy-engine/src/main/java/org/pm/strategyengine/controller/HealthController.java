@@ -1,13 +1,58 @@
 package org.pm.strategyengine.controller;
 
+import org.pm.strategyengine.basket.BasketEvaluator;
+import org.pm.strategyengine.columnar.ColumnarEvaluator;
+import org.pm.strategyengine.pipeline.ShardStats;
+import org.pm.strategyengine.pipeline.ShardedPipeline;
+import org.pm.strategyengine.service.StrategyService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 public class HealthController {
 
+    private final ShardedPipeline pipeline;
+    private final StrategyService strategyService;
+    private final ColumnarEvaluator columnar;
+    private final BasketEvaluator baskets;
+
+    public HealthController(ShardedPipeline pipeline, StrategyService strategyService, ColumnarEvaluator columnar,
+                            BasketEvaluator baskets) {
+        this.pipeline = pipeline;
+        this.strategyService = strategyService;
+        this.columnar = columnar;
+        this.baskets = baskets;
+    }
+
     @GetMapping("/health")
     public String health() {
         return "Strategy Engine is running!";
     }
+
+    // per-shard ring depth, high-water mark and processed count (empty when the pipeline is off)
+    @GetMapping("/stats/pipeline")
+    public List<ShardStats> pipeline() {
+        return pipeline.stats();
+    }
+
+    // records consumed and records/sec for the active listener mode (record or batch)
+    @GetMapping("/stats/consumer")
+    public Map<String, Object> consumer() {
+        return strategyService.consumerStats();
+    }
+
+    // which kernel the columnar evaluator picked and how many ticks each kernel call covers
+    @GetMapping("/stats/columnar")
+    public Map<String, Object> columnar() {
+        return columnar.stats();
+    }
+
+    // per pairs strategy: warm-up state and each pair's position, z-score, hedge ratio, correlation
+    @GetMapping("/stats/baskets")
+    public Map<String, Object> baskets() {
+        return baskets.stats();
+    }
 }
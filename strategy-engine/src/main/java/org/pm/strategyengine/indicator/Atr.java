@@ -0,0 +1,46 @@
+package org.pm.strategyengine.indicator;
+
+/**
+ * Average true range with Wilder's smoothing. Fed bars via {@link #update(double, double, double)}
+ * or raw trades via {@link #update(double)}, where the true range degenerates to the absolute
+ * price change.
+ */
+public final class Atr {
+
+    private final int period;
+    private double previousClose = Double.NaN;
+    private double value;
+    private int count;
+
+    public Atr(int period) {
+        if (period <= 0) throw new IllegalArgumentException("ATR period must be positive: " + period);
+        this.period = period;
+    }
+
+    public double update(double high, double low, double close) {
+        double trueRange = high - low;
+        if (!Double.isNaN(previousClose)) {
+            trueRange = Math.max(trueRange, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+        previousClose = close;
+
+        if (count < period) {
+            value += (trueRange - value) / ++count;
+        } else {
+            value = (value * (period - 1) + trueRange) / period;
+        }
+        return value;
+    }
+
+    public double update(double price) {
+        return update(price, price, price);
+    }
+
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    public double value() {
+        return value;
+    }
+}
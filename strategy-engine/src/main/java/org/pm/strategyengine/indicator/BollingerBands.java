@@ -0,0 +1,80 @@
+package org.pm.strategyengine.indicator;
+
+/**
+ * Bollinger bands over the last {@code period} prices: middle = SMA, upper/lower = middle +- k
+ * standard deviations (population). Running sum and sum of squares over a primitive ring, rebuilt
+ * every max(period, 1024) updates so cancellation error can't build up.
+ */
+public final class BollingerBands {
+
+    private static final int RECOMPUTE_INTERVAL = 1024;
+
+    private final double[] values;
+    private final double k;
+    private final int recomputeEvery;
+    private int next;
+    private int size;
+    private double sum;
+    private double sumSquares;
+    private int sinceRecompute;
+
+    public BollingerBands(int period, double k) {
+        if (period <= 0) throw new IllegalArgumentException("Bollinger period must be positive: " + period);
+        this.values = new double[period];
+        this.k = k;
+        this.recomputeEvery = Math.max(period, RECOMPUTE_INTERVAL);
+    }
+
+    public void update(double price) {
+        if (size == values.length) {
+            double old = values[next];
+            sum -= old;
+            sumSquares -= old * old;
+        } else {
+            size++;
+        }
+        values[next] = price;
+        sum += price;
+        sumSquares += price * price;
+        next = next + 1 == values.length ? 0 : next + 1;
+
+        if (++sinceRecompute >= recomputeEvery) {
+            double s = 0.0, sq = 0.0;
+            for (int i = 0; i < size; i++) {
+                s += values[i];
+                sq += values[i] * values[i];
+            }
+            sum = s;
+            sumSquares = sq;
+            sinceRecompute = 0;
+        }
+    }
+
+    public boolean isReady() {
+        return size == values.length;
+    }
+
+    public double middle() {
+        return size == 0 ? 0.0 : sum / size;
+    }
+
+    public double standardDeviation() {
+        if (size == 0) return 0.0;
+        double mean = sum / size;
+        return Math.sqrt(Math.max(0.0, sumSquares / size - mean * mean));
+    }
+
+    public double upper() {
+        return middle() + k * standardDeviation();
+    }
+
+    public double lower() {
+        return middle() - k * standardDeviation();
+    }
+
+    /** Where price sits in the bands: 0 = lower band, 1 = upper band. */
+    public double percentB(double price) {
+        double width = 2 * k * standardDeviation();
+        return width == 0.0 ? 0.5 : (price - lower()) / width;
+    }
+}
@@ -0,0 +1,56 @@
+package org.pm.strategyengine.indicator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Exponential moving average, alpha = 2 / (period + 1), seeded with the simple average of the
+ * first {@code period} values.
+ */
+public final class Ema {
+
+    private final int period;
+    private final double alpha;
+    private double value;
+    private int count;
+
+    public Ema(int period) {
+        if (period <= 0) throw new IllegalArgumentException("EMA period must be positive: " + period);
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    public double update(double x) {
+        if (count < period) {
+            // running mean of the seed values
+            value += (x - value) / ++count;
+        } else {
+            value += alpha * (x - value);
+        }
+        return value;
+    }
+
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    public void writeTo(ByteBuffer out) {
+        out.putInt(period).putInt(count).putDouble(value);
+    }
+
+    public void readFrom(ByteBuffer in) {
+        int savedPeriod = in.getInt();
+        if (savedPeriod != period) {
+            throw new IllegalStateException("EMA period " + savedPeriod + " in snapshot, " + period + " configured");
+        }
+        count = in.getInt();
+        value = in.getDouble();
+    }
+}
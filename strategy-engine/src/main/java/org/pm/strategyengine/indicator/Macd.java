@@ -0,0 +1,59 @@
+package org.pm.strategyengine.indicator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * MACD line = EMA(fast) - EMA(slow), signal = EMA(signalPeriod) of the MACD line once the slow EMA
+ * is seeded, histogram = MACD - signal. Classic parameters are 12/26/9.
+ */
+public final class Macd {
+
+    private final Ema fast;
+    private final Ema slow;
+    private final Ema signal;
+
+    public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        if (fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("MACD fast period must be shorter than slow: " + fastPeriod + "/" + slowPeriod);
+        }
+        this.fast = new Ema(fastPeriod);
+        this.slow = new Ema(slowPeriod);
+        this.signal = new Ema(signalPeriod);
+    }
+
+    public void update(double price) {
+        fast.update(price);
+        slow.update(price);
+        if (slow.isReady()) {
+            signal.update(macd());
+        }
+    }
+
+    public boolean isReady() {
+        return signal.isReady();
+    }
+
+    public double macd() {
+        return fast.value() - slow.value();
+    }
+
+    public double signal() {
+        return signal.value();
+    }
+
+    public double histogram() {
+        return macd() - signal.value();
+    }
+
+    public void writeTo(ByteBuffer out) {
+        fast.writeTo(out);
+        slow.writeTo(out);
+        signal.writeTo(out);
+    }
+
+    public void readFrom(ByteBuffer in) {
+        fast.readFrom(in);
+        slow.readFrom(in);
+        signal.readFrom(in);
+    }
+}
@@ -0,0 +1,69 @@
+package org.pm.strategyengine.indicator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Relative strength index with Wilder's smoothing: the first average gain/loss is the plain mean
+ * of {@code period} changes, after that avg = (avg * (period - 1) + change) / period.
+ */
+public final class Rsi {
+
+    private final int period;
+    private double previous = Double.NaN;
+    private double avgGain;
+    private double avgLoss;
+    private int changes;
+
+    public Rsi(int period) {
+        if (period <= 0) throw new IllegalArgumentException("RSI period must be positive: " + period);
+        this.period = period;
+    }
+
+    public double update(double price) {
+        if (Double.isNaN(previous)) {
+            previous = price;
+            return value();
+        }
+        double change = price - previous;
+        previous = price;
+        double gain = change > 0 ? change : 0.0;
+        double loss = change < 0 ? -change : 0.0;
+
+        if (changes < period) {
+            changes++;
+            avgGain += (gain - avgGain) / changes;
+            avgLoss += (loss - avgLoss) / changes;
+        } else {
+            avgGain = (avgGain * (period - 1) + gain) / period;
+            avgLoss = (avgLoss * (period - 1) + loss) / period;
+        }
+        return value();
+    }
+
+    public boolean isReady() {
+        return changes >= period;
+    }
+
+    /** 0..100; 50 until the first change */
+    public double value() {
+        if (avgLoss == 0.0) {
+            return avgGain == 0.0 ? 50.0 : 100.0;
+        }
+        return 100.0 - 100.0 / (1.0 + avgGain / avgLoss);
+    }
+
+    public void writeTo(ByteBuffer out) {
+        out.putInt(period).putInt(changes).putDouble(previous).putDouble(avgGain).putDouble(avgLoss);
+    }
+
+    public void readFrom(ByteBuffer in) {
+        int savedPeriod = in.getInt();
+        if (savedPeriod != period) {
+            throw new IllegalStateException("RSI period " + savedPeriod + " in snapshot, " + period + " configured");
+        }
+        changes = in.getInt();
+        previous = in.getDouble();
+        avgGain = in.getDouble();
+        avgLoss = in.getDouble();
+    }
+}
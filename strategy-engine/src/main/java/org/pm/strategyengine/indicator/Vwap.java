@@ -0,0 +1,61 @@
+package org.pm.strategyengine.indicator;
+
+/**
+ * Volume-weighted average price over the last {@code period} trades, from running sums of
+ * price*quantity and quantity over two primitive rings (rebuilt every max(period, 1024) updates
+ * to bound drift).
+ */
+public final class Vwap {
+
+    private static final int RECOMPUTE_INTERVAL = 1024;
+
+    private final double[] notionals;
+    private final double[] quantities;
+    private final int recomputeEvery;
+    private int next;
+    private int size;
+    private double notional;
+    private double quantity;
+    private int sinceRecompute;
+
+    public Vwap(int period) {
+        if (period <= 0) throw new IllegalArgumentException("VWAP period must be positive: " + period);
+        this.notionals = new double[period];
+        this.quantities = new double[period];
+        this.recomputeEvery = Math.max(period, RECOMPUTE_INTERVAL);
+    }
+
+    public double update(double price, double qty) {
+        if (size == notionals.length) {
+            notional -= notionals[next];
+            quantity -= quantities[next];
+        } else {
+            size++;
+        }
+        notionals[next] = price * qty;
+        quantities[next] = qty;
+        notional += notionals[next];
+        quantity += qty;
+        next = next + 1 == notionals.length ? 0 : next + 1;
+
+        if (++sinceRecompute >= recomputeEvery) {
+            double n = 0.0, q = 0.0;
+            for (int i = 0; i < size; i++) {
+                n += notionals[i];
+                q += quantities[i];
+            }
+            notional = n;
+            quantity = q;
+            sinceRecompute = 0;
+        }
+        return value();
+    }
+
+    public boolean isReady() {
+        return size == notionals.length;
+    }
+
+    public double value() {
+        return quantity > 0.0 ? notional / quantity : 0.0;
+    }
+}
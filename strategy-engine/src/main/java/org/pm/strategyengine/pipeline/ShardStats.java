@@ -0,0 +1,59 @@
+package org.pm.strategyengine.pipeline;
+
+/**
+ * One pipeline shard as served by /stats/pipeline.
+ */
+public class ShardStats {
+    private final int shard;
+    private final int depth;
+    private final int maxDepth;
+    private final int capacity;
+    private final long processed;
+    // times a producer found this shard's ring full and had to wait
+    private final long producerWaits;
+
+    public ShardStats(int shard, int depth, int maxDepth, int capacity, long processed, long producerWaits) {
+        this.shard = shard;
+        this.depth = depth;
+        this.maxDepth = maxDepth;
+        this.capacity = capacity;
+        this.processed = processed;
+        this.producerWaits = producerWaits;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getProducerWaits() {
+        return producerWaits;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardStats{" +
+                "shard=" + shard +
+                ", depth=" + depth +
+                ", maxDepth=" + maxDepth +
+                ", capacity=" + capacity +
+                ", processed=" + processed +
+                ", producerWaits=" + producerWaits +
+                '}';
+    }
+}
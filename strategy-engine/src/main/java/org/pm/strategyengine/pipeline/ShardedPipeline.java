@@ -0,0 +1,143 @@
+package org.pm.strategyengine.pipeline;
+
+import jakarta.annotation.PreDestroy;
+import org.pm.common.model.Tick;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Fans ticks out from the Kafka listener thread(s) to N worker threads, each owning a ring.
+ * A symbol always hashes to the same shard, so all per-symbol strategy state is only ever
+ * touched by that shard's worker: single-writer, no locks, and throughput grows with the
+ * number of shards (up to the number of symbols).
+ */
+@Component
+public class ShardedPipeline {
+
+    @Value("${strategy.pipeline.enabled:false}")
+    private boolean enabled;
+
+    // 0 = one per available core
+    @Value("${strategy.pipeline.shards:0}")
+    private int shards;
+
+    @Value("${strategy.pipeline.ring-size:8192}")
+    private int ringSize;
+
+    // busy-spin | yield | park
+    @Value("${strategy.pipeline.wait-strategy:park}")
+    private String waitStrategy;
+
+    private final class Shard implements Runnable {
+        final int index;
+        final TickRing ring = new TickRing(ringSize);
+        final Consumer<Tick> handler;
+        final WaitStrategy wait;
+        volatile long processed;
+        volatile int maxDepth;
+        final LongAdder producerWaits = new LongAdder();
+
+        Shard(int index, Consumer<Tick> handler, WaitStrategy wait) {
+            this.index = index;
+            this.handler = handler;
+            this.wait = wait;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            long count = 0;
+            while (running) {
+                Tick tick = ring.peek();
+                if (tick == null) {
+                    wait.idle(idle);
+                    // saturate: after ~2^31 parks (a day or so idle) it would wrap and spin again
+                    if (idle < Integer.MAX_VALUE) idle++;
+                    continue;
+                }
+                idle = 0;
+                try {
+                    handler.accept(tick);
+                } catch (RuntimeException e) {
+                    System.err.println("Strategy worker " + index + " failed on " + tick + ": " + e.getMessage());
+                }
+                ring.release();
+                processed = ++count;
+            }
+        }
+    }
+
+    private Shard[] workers = new Shard[0];
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void start(Consumer<Tick> handler) {
+        if (!enabled || running) return;
+        int count = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        WaitStrategy wait = WaitStrategy.fromConfig(waitStrategy);
+
+        workers = new Shard[count];
+        running = true;
+        for (int i = 0; i < count; i++) {
+            workers[i] = new Shard(i, handler, wait);
+            Thread thread = new Thread(workers[i], "strategy-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        System.out.println("Strategy pipeline: " + count + " shards, ring " + ringSize + ", " + wait);
+    }
+
+    /**
+     * Copies the tick into its symbol's shard; waits (per the wait strategy) while that ring is full,
+     * which backpressures the Kafka listener instead of dropping ticks.
+     */
+    public void publish(Tick tick) {
+        Shard shard = workers[shardOf(tick.getSymbol(), workers.length)];
+        int idle = 0;
+        while (!shard.ring.offer(tick)) {
+            if (!running) return;
+            if (idle == 0) shard.producerWaits.increment();
+            shard.wait.idle(idle);
+            if (idle < Integer.MAX_VALUE) idle++;
+        }
+        int depth = shard.ring.depth();
+        if (depth > shard.maxDepth) {
+            shard.maxDepth = depth;
+        }
+    }
+
+    static int shardOf(String symbol, int shards) {
+        int h = symbol.hashCode();
+        // spread the low bits so similar symbols don't pile onto one shard
+        h ^= h >>> 16;
+        return Math.floorMod(h * 0x9E3779B9, shards);
+    }
+
+    public List<ShardStats> stats() {
+        List<ShardStats> stats = new ArrayList<>(workers.length);
+        for (Shard shard : workers) {
+            stats.add(new ShardStats(shard.index, shard.ring.depth(), shard.maxDepth, shard.ring.capacity(),
+                    shard.processed, shard.producerWaits.sum()));
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        threads.clear();
+    }
+}
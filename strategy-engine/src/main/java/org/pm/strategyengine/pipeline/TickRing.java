@@ -0,0 +1,91 @@
+package org.pm.strategyengine.pipeline;
+
+import org.pm.common.model.Tick;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer / single-consumer ring of pre-allocated ticks.
+ *
+ * Every slot carries a sequence number: slot i is free for the producer claiming position p when
+ * its sequence is p, and holds a published tick for the consumer at position p when it is p + 1.
+ * Producers claim positions with a CAS on the tail and copy the tick's fields into the slot's own
+ * Tick, so nothing is allocated per tick; the consumer reads the slot in place and hands it back
+ * by moving its sequence on by one lap.
+ */
+final class TickRing {
+
+    private final Tick[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    // consumer-owned; published lazily for the depth metric
+    private long head;
+    private volatile long headSnapshot;
+
+    TickRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("ring size must be a power of two: " + capacity);
+        }
+        slots = new Tick[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Tick();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    /** @return false if the ring is full */
+    boolean offer(Tick tick) {
+        long position;
+        int idx;
+        while (true) {
+            position = tail.get();
+            idx = (int) (position & mask);
+            long sequence = sequences.get(idx);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (sequence < position) {
+                // the consumer hasn't freed this slot from the previous lap yet
+                return false;
+            }
+            // otherwise another producer claimed it first; try the next position
+        }
+
+        Tick slot = slots[idx];
+        slot.setSymbol(tick.getSymbol());
+        slot.setPrice(tick.getPrice());
+        slot.setQuantity(tick.getQuantity());
+        slot.setTimestamp(tick.getTimestamp());
+        slot.setTradeId(tick.getTradeId());
+        slot.setTradeCount(tick.getTradeCount());
+        slot.setVolume(tick.getVolume());
+        sequences.lazySet(idx, position + 1);
+        return true;
+    }
+
+    /** Consumer only: the next published tick, or null. Valid until {@link #release()}. */
+    Tick peek() {
+        int idx = (int) (head & mask);
+        return sequences.get(idx) == head + 1 ? slots[idx] : null;
+    }
+
+    /** Consumer only: hands the slot returned by {@link #peek()} back to the producers. */
+    void release() {
+        int idx = (int) (head & mask);
+        sequences.lazySet(idx, head + slots.length);
+        head++;
+        headSnapshot = head;
+    }
+
+    int depth() {
+        return (int) Math.max(0, tail.get() - headSnapshot);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,56 @@
+package org.pm.strategyengine.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a pipeline thread does while it has nothing to do (worker: empty ring, producer: full ring).
+ * {@code idleCount} is the number of consecutive idle calls, reset once there is work again;
+ * callers saturate it at Integer.MAX_VALUE rather than let it wrap.
+ */
+public enum WaitStrategy {
+
+    /** Lowest latency; burns a core per worker even when there is no traffic. */
+    BUSY_SPIN {
+        @Override
+        void idle(int idleCount) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /** Spins briefly, then yields the core to other runnable threads. */
+    YIELD {
+        @Override
+        void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    /** Spins, yields, then sleeps in short parks; near-zero CPU when idle, up to ~50us extra latency. */
+    PARK {
+        @Override
+        void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    abstract void idle(int idleCount);
+
+    // "busy-spin" / "yield" / "park"
+    public static WaitStrategy fromConfig(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
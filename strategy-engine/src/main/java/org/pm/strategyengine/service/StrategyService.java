@@ -1,22 +1,45 @@
 package org.pm.strategyengine.service;
 
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.pm.common.model.Tick;
 import org.pm.common.model.TradeSignal;
-import org.pm.strategyengine.utils.SMAUtils;
+import org.pm.strategyengine.basket.BasketEvaluator;
+import org.pm.strategyengine.columnar.ColumnarEvaluator;
+import org.pm.strategyengine.pipeline.ShardedPipeline;
+import org.pm.strategyengine.snapshot.StrategySnapshotter;
+import org.pm.strategyengine.strategy.SignalSink;
+import org.pm.strategyengine.strategy.Strategy;
+import org.pm.strategyengine.strategy.StrategyRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
-public class StrategyService {
+public class StrategyService implements ConsumerSeekAware {
 
     private final KafkaTemplate<String, TradeSignal> kafkaTemplate;
+    private final StrategyRegistry strategies;
+    private final ShardedPipeline pipeline;
+    private final StrategySnapshotter snapshotter;
+    private final ColumnarEvaluator columnar;
+    private final BasketEvaluator baskets;
 
     @Value("${topics.signals}")
     private String signalsTopic;
@@ -24,75 +47,285 @@ public class StrategyService {
     @Value("${topics.market}")
     private String marketTopic;
 
-    // thread-safe maps for per-symbol price windows
-    private final Map<String, Deque<Double>> shortWindow = new ConcurrentHashMap<>();
-    private final Map<String, Deque<Double>> longWindow = new ConcurrentHashMap<>();
+    // record = one listener call per tick (original), batch = one call per poll
+    @Value("${strategy.consumer.mode:record}")
+    private String consumerMode;
 
-    private static final int SHORT_PERIOD = 5;
-    private static final int LONG_PERIOD = 10;
+    @Value("${strategy.consumer.report-interval-ms:10000}")
+    private long reportIntervalMs;
 
-    public StrategyService(KafkaTemplate<String, TradeSignal> kafkaTemplate) {
+    private ThroughputMeter meter;
+
+    // every strategy publishes through this
+    private final SignalSink sink = this::publish;
+    private final Consumer<TradeSignal> basketSink = this::publish;
+
+    // batch mode only, owned by the batch listener thread: the poll's ticks per symbol
+    // and the signals they produced, sent together once the poll has been evaluated
+    private final Map<String, List<Tick>> bySymbol = new LinkedHashMap<>();
+    private final List<TradeSignal> pendingSignals = new ArrayList<>();
+    private final List<Tick> batchTicks = new ArrayList<>();
+    private final SignalSink batchSink = this::collect;
+    private final Consumer<TradeSignal> basketBatchSink = pendingSignals::add;
+
+    // next offset to read per market-topic partition, as of the state the strategies are in;
+    // written by the listener thread only, -1 = nothing consumed from that partition
+    private long[] nextOffsets = new long[0];
+    // from the snapshot, only honoured on the first assignment after startup
+    private Map<TopicPartition, Long> restoredOffsets = new HashMap<>();
+    private boolean snapshots;
+    // batch mode: records of a redelivered poll that had already been evaluated
+    private volatile long redelivered;
+    // batch mode: ticks a strategy threw on
+    private volatile long strategyErrors;
+
+    public StrategyService(KafkaTemplate<String, TradeSignal> kafkaTemplate, StrategyRegistry strategies,
+                           ShardedPipeline pipeline, StrategySnapshotter snapshotter, ColumnarEvaluator columnar,
+                           BasketEvaluator baskets) {
         this.kafkaTemplate = kafkaTemplate;
+        this.strategies = strategies;
+        this.pipeline = pipeline;
+        this.snapshotter = snapshotter;
+        this.columnar = columnar;
+        this.baskets = baskets;
+        pipeline.start(this::evaluate);
         System.out.println("✓ StrategyService bean created!");
     }
 
-    @KafkaListener(topics = "market-ticks", groupId = "strategy-engine")
-    public void onMessage(Tick tick) {
+    @PostConstruct
+    void init() {
+        meter = new ThroughputMeter(consumerMode, reportIntervalMs);
+        System.out.println("Consuming " + marketTopic + " in " + consumerMode + " mode");
+
+        // worker threads own the state when the pipeline is on, so there is no safe point to copy it
+        snapshots = snapshotter.isEnabled() && !pipeline.isEnabled();
+        if (snapshotter.isEnabled() && pipeline.isEnabled()) {
+            System.err.println("Strategy snapshots are not supported with strategy.pipeline.enabled, disabled");
+        }
+        if (snapshots) {
+            restoredOffsets = snapshotter.restore();
+        }
+    }
+
+    // Partitions we have a snapshot for resume right after the last tick in that snapshot;
+    // everything else follows auto-offset-reset as before. Only the first assignment uses the
+    // snapshot: a partition that shows up in a later rebalance was consumed elsewhere meanwhile,
+    // so its committed offset is newer than ours.
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition partition : assignments.keySet()) {
+            Long offset = restoredOffsets.remove(partition);
+            if (offset != null) {
+                System.out.println("Resuming " + partition + " from snapshot offset " + offset);
+                callback.seek(partition.topic(), partition.partition(), offset);
+                consumed(partition.partition(), offset - 1);
+            }
+        }
+        if (!restoredOffsets.isEmpty()) {
+            System.out.println("Dropping snapshot offsets of unassigned partitions: " + restoredOffsets.keySet());
+            restoredOffsets.clear();
+        }
+    }
+
+    // Another instance owns these now: forget where we were, so checkpoints don't claim them and
+    // a later reassignment isn't mistaken for a redelivery.
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            if (partition.partition() < nextOffsets.length) nextOffsets[partition.partition()] = -1;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // listener containers are stopped before beans are destroyed, so the state is quiet here
+        if (snapshots) {
+            snapshotter.checkpoint(marketTopic, nextOffsets);
+        }
+    }
+
+    private long nextOffset(int partition) {
+        return partition < nextOffsets.length ? nextOffsets[partition] : -1;
+    }
+
+    private void consumed(int partition, long offset) {
+        if (partition >= nextOffsets.length) {
+            int length = nextOffsets.length;
+            nextOffsets = Arrays.copyOf(nextOffsets, partition + 1);
+            Arrays.fill(nextOffsets, length, nextOffsets.length, -1);
+        }
+        nextOffsets[partition] = offset + 1;
+    }
+
+    @KafkaListener(id = "strategy-ticks", topics = "market-ticks", groupId = "strategy-engine",
+            containerFactory = "kafkaListenerFactory",
+            autoStartup = "#{'${strategy.consumer.mode:record}' == 'record'}")
+    public void onMessage(Tick tick,
+                          @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                          @Header(KafkaHeaders.OFFSET) long offset) {
         System.out.println("Received tick from Kafka: " + tick);
+        meter.record(1);
         
         if (tick == null || tick.getSymbol() == null) {
             System.err.println("Invalid tick received: " + tick);
             return;
         }
 
-        updateWindow(shortWindow, tick.getSymbol(), tick.getPrice(), SHORT_PERIOD);
-        updateWindow(longWindow, tick.getSymbol(), tick.getPrice(), LONG_PERIOD);
+        if (pipeline.isEnabled()) {
+            // the symbol's shard worker evaluates it; the listener thread only copies it in
+            pipeline.publish(tick);
+        } else {
+            // a symbol always arrives on the same partition, so its strategies only ever see one thread
+            evaluate(tick);
+        }
+        if (columnar.isEnabled()) {
+            columnar.evaluate(List.of(tick), sink);
+        }
+        if (snapshots) {
+            consumed(partition, offset);
+            snapshotter.maybeCheckpoint(marketTopic, nextOffsets);
+        }
+    }
+
+    // A whole poll at once: ticks are grouped per symbol (keeping their order) so each symbol's
+    // strategies are looked up once and run over its ticks in one loop, and the signals go out
+    // back to back at the end so the producer can put them in one request.
+    @KafkaListener(id = "strategy-ticks-batch", topics = "market-ticks", groupId = "strategy-engine",
+            containerFactory = "batchKafkaListenerFactory",
+            autoStartup = "#{'${strategy.consumer.mode:record}' == 'batch'}")
+    public void onBatch(List<ConsumerRecord<String, Tick>> records) {
+        meter.record(records.size());
 
-        Deque<Double> s = shortWindow.get(tick.getSymbol());
-        Deque<Double> l = longWindow.get(tick.getSymbol());
+        try {
+            for (ConsumerRecord<String, Tick> record : records) {
+                // DefaultErrorHandler redelivers the whole poll when the listener throws. Strategy
+                // errors are caught per tick below, so by then every tick of the poll has been
+                // evaluated (only sending can still fail): don't apply them twice
+                if (record.offset() < nextOffset(record.partition())) {
+                    redelivered++;
+                    continue;
+                }
+                consumed(record.partition(), record.offset());
+                Tick tick = record.value();
+                if (tick == null || tick.getSymbol() == null) {
+                    System.err.println("Invalid tick received at offset " + record.offset() + ": " + tick);
+                    continue;
+                }
+                if (columnar.isEnabled()) batchTicks.add(tick);
+                if (pipeline.isEnabled()) {
+                    pipeline.publish(tick);
+                } else {
+                    bySymbol.computeIfAbsent(tick.getSymbol(), s -> new ArrayList<>()).add(tick);
+                    // baskets mix symbols, so they see the poll in its original order; grouping
+                    // would run one symbol's whole poll before the other leg's first tick
+                    if (baskets.isEnabled()) {
+                        try {
+                            baskets.evaluate(tick, basketBatchSink);
+                        } catch (RuntimeException e) {
+                            strategyFailed("baskets", tick, e);
+                        }
+                    }
+                }
+            }
+            if (columnar.isEnabled()) {
+                // every symbol of the poll in one columnar pass
+                try {
+                    columnar.evaluate(batchTicks, batchSink);
+                } catch (RuntimeException e) {
+                    strategyFailed("columnar", batchTicks.size() + " ticks", e);
+                }
+            }
 
-        if (s == null || l == null || s.size() < SHORT_PERIOD || l.size() < LONG_PERIOD) {
-            System.out.println("Not enough data yet - short: " + (s != null ? s.size() : 0) + 
-                             ", long: " + (l != null ? l.size() : 0));
-            return;
+            if (!pipeline.isEnabled()) evaluateGrouped();
+        } finally {
+            // also after a send threw: nothing of this poll may leak into the next one
+            try {
+                sendPending(records.size());
+            } finally {
+                pendingSignals.clear();
+                batchTicks.clear();
+                // the lists stay for the next poll, the symbols seen are usually the same
+                for (List<Tick> ticks : bySymbol.values()) {
+                    ticks.clear();
+                }
+            }
+        }
+        if (snapshots) {
+            snapshotter.maybeCheckpoint(marketTopic, nextOffsets);
         }
+    }
 
-        double smaShort = SMAUtils.calculateSMA(s);
-        double smaLong = SMAUtils.calculateSMA(l);
+    private void sendPending(int batchSize) {
+        if (pendingSignals.isEmpty()) return;
+        System.out.printf("Sending %d signals from a batch of %d ticks to '%s'%n",
+                pendingSignals.size(), batchSize, signalsTopic);
+        for (TradeSignal signal : pendingSignals) {
+            send(signal);
+        }
+    }
 
-        String signal;
-        if (smaShort > smaLong) signal = "BUY";
-        else if (smaShort < smaLong) signal = "SELL";
-        else signal = "HOLD";
+    private void evaluateGrouped() {
+        for (Map.Entry<String, List<Tick>> entry : bySymbol.entrySet()) {
+            List<Tick> ticks = entry.getValue();
+            if (ticks.isEmpty()) continue;
+            Strategy[] symbolStrategies = strategies.forSymbol(entry.getKey());
+            for (int i = 0, n = ticks.size(); i < n; i++) {
+                Tick tick = ticks.get(i);
+                for (Strategy strategy : symbolStrategies) {
+                    try {
+                        strategy.onTick(tick, batchSink);
+                    } catch (RuntimeException e) {
+                        strategyFailed(strategy.id(), tick, e);
+                    }
+                }
+            }
+        }
+    }
 
-        TradeSignal tradeSignal = new TradeSignal(tick.getSymbol(), signal, tick.getPrice(), tick.getTimestamp());
+    // batch mode: a strategy that throws misses that one tick, like a record the record listener's
+    // error handler gives up on, and the rest of the poll is still evaluated
+    private void strategyFailed(String strategyId, Object input, RuntimeException e) {
+        strategyErrors++;
+        System.err.println("Strategy " + strategyId + " failed on " + input + ", skipped: " + e);
+    }
 
-        // Validate signal before sending
-        if (tradeSignal == null || tradeSignal.getSymbol() == null || tradeSignal.getSignal() == null) {
-            System.err.println("Invalid trade signal created: " + tradeSignal);
-            return;
+    private void evaluate(Tick tick) {
+        for (Strategy strategy : strategies.forSymbol(tick.getSymbol())) {
+            strategy.onTick(tick, sink);
         }
+        if (baskets.isEnabled()) baskets.evaluate(tick, basketSink);
+    }
+
+    private void collect(String strategyId, String symbol, String signal, double price, long timestamp) {
+        pendingSignals.add(new TradeSignal(strategyId, symbol, signal, price, timestamp));
+    }
+
+    private void publish(String strategyId, String symbol, String signal, double price, long timestamp) {
+        publish(new TradeSignal(strategyId, symbol, signal, price, timestamp));
+    }
 
+    private void publish(TradeSignal tradeSignal) {
         System.out.printf("Sending signal to Kafka topic '%s': %s%n", signalsTopic, tradeSignal);
-        
-        kafkaTemplate.send(signalsTopic, tick.getSymbol(), tradeSignal)
+        send(tradeSignal);
+    }
+
+    private void send(TradeSignal tradeSignal) {
+        kafkaTemplate.send(signalsTopic, tradeSignal.getSymbol(), tradeSignal)
                 .whenComplete((result, ex) -> {
                     if (ex != null) {
                         System.err.println("Failed to send trade signal: " + ex.getMessage());
                     } else {
                         System.out.printf("✓ Signal sent successfully to partition %d | %s for %s @ %.6f%n",
-                                result.getRecordMetadata().partition(), signal, tick.getSymbol(), tick.getPrice());
+                                result.getRecordMetadata().partition(), tradeSignal.getSignal(),
+                                tradeSignal.getSymbol(), tradeSignal.getPrice());
                     }
                 });
     }
 
-    private void updateWindow(Map<String, Deque<Double>> map, String symbol, double price, int maxSize) {
-        map.computeIfAbsent(symbol, k -> new ConcurrentLinkedDeque<>());
-        Deque<Double> q = map.get(symbol);
-        q.addLast(price);
-        while (q.size() > maxSize) {
-            q.removeFirst();
-        }
+    public Map<String, Object> consumerStats() {
+        Map<String, Object> stats = meter.snapshot();
+        stats.put("redelivered", redelivered);
+        stats.put("strategyErrors", strategyErrors);
+        return stats;
     }
 }
-
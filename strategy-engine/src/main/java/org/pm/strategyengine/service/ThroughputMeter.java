@@ -0,0 +1,62 @@
+package org.pm.strategyengine.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records consumed per listener mode. Prints records/sec every {@code reportIntervalMs} from
+ * whichever thread records when the interval is up, and keeps the last rate for /stats/consumer.
+ */
+public class ThroughputMeter {
+
+    private final String mode;
+    private final long reportIntervalMs;
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder polls = new LongAdder();
+
+    private volatile long windowStart = System.currentTimeMillis();
+    private volatile long windowRecords;
+    private volatile double lastRate;
+
+    public ThroughputMeter(String mode, long reportIntervalMs) {
+        this.mode = mode;
+        this.reportIntervalMs = reportIntervalMs;
+    }
+
+    /** One listener invocation delivering {@code count} records. */
+    public void record(int count) {
+        records.add(count);
+        polls.increment();
+
+        long now = System.currentTimeMillis();
+        long elapsed = now - windowStart;
+        if (elapsed >= reportIntervalMs) {
+            report(now, elapsed);
+        }
+    }
+
+    private synchronized void report(long now, long elapsed) {
+        // another thread may have just reported
+        if (now - windowStart < reportIntervalMs) return;
+        long total = records.sum();
+        lastRate = (total - windowRecords) * 1000.0 / elapsed;
+        windowRecords = total;
+        windowStart = now;
+        System.out.printf("Consumer [%s]: %.0f records/sec, %d records in %d polls%n",
+                mode, lastRate, total, polls.sum());
+    }
+
+    public Map<String, Object> snapshot() {
+        long total = records.sum();
+        long invocations = polls.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode);
+        stats.put("records", total);
+        stats.put("invocations", invocations);
+        stats.put("recordsPerInvocation", invocations == 0 ? 0.0 : (double) total / invocations);
+        stats.put("recordsPerSec", lastRate);
+        return stats;
+    }
+}
@@ -0,0 +1,254 @@
+package org.pm.strategyengine.snapshot;
+
+import org.apache.kafka.common.TopicPartition;
+import org.pm.strategyengine.strategy.Strategy;
+import org.pm.strategyengine.strategy.StrategyRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoints every symbol's strategy state, together with the next Kafka offset of each partition
+ * it was consumed from, into one memory-mapped file, so a restart restores both and carries on from
+ * exactly where the state left off instead of re-warming windows from live ticks.
+ *
+ * Layout (little-endian):
+ * <pre>
+ *   header  magic "PMSS", version, created millis, body length, CRC32 of body
+ *   body    topic, partition count, next offset per partition (-1 = none),
+ *           entry count, then per strategy: symbol, strategy id, config fingerprint, state length, state
+ * </pre>
+ * Strings are a short length plus UTF-8. The file is written to a temp file beside it, forced, and
+ * renamed over the old one, so a crash mid-write leaves the previous snapshot intact.
+ *
+ * Checkpoints have to run on the thread that evaluates the strategies (the listener thread), or at
+ * shutdown after the listeners have stopped.
+ */
+@Component
+public class StrategySnapshotter {
+
+    static final int MAGIC = 0x53534d50; // "PMSS" little-endian
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+
+    @Value("${strategy.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strategy.snapshot.path:./state/strategy-engine.snap}")
+    private String path;
+
+    @Value("${strategy.snapshot.interval-ms:5000}")
+    private long intervalMs;
+
+    // an older snapshot is ignored: seeking that far back would replay history
+    @Value("${strategy.snapshot.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    private final StrategyRegistry registry;
+
+    private long nextCheckpointMillis;
+    private int mapSize = 1 << 20;
+    private long checkpoints;
+    private long lastCheckpointNanos;
+
+    public StrategySnapshotter(StrategyRegistry registry) {
+        this.registry = registry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Cheap enough to call after every record: checkpoints once the interval has passed. */
+    public void maybeCheckpoint(String topic, long[] nextOffsets) {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        if (now < nextCheckpointMillis) return;
+        nextCheckpointMillis = now + intervalMs;
+        checkpoint(topic, nextOffsets);
+    }
+
+    public synchronized void checkpoint(String topic, long[] nextOffsets) {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        Path file = Path.of(path);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            while (true) {
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mapSize);
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    int entries = write(buffer, topic, nextOffsets);
+                    buffer.force();
+                    // leave room to grow so the next checkpoint doesn't have to retry
+                    if (buffer.position() > mapSize / 2) mapSize *= 2;
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    checkpoints++;
+                    lastCheckpointNanos = System.nanoTime() - start;
+                    if (checkpoints == 1) {
+                        System.out.printf("Strategy snapshot: %d strategies -> %s (%d bytes, %d us)%n",
+                                entries, file, buffer.position(), lastCheckpointNanos / 1000);
+                    }
+                    return;
+                } catch (BufferOverflowException e) {
+                    mapSize *= 2;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Strategy snapshot to " + file + " failed: " + e.getMessage());
+        }
+    }
+
+    private int write(ByteBuffer buffer, String topic, long[] nextOffsets) {
+        buffer.position(HEADER_SIZE);
+        putString(buffer, topic);
+        buffer.putInt(nextOffsets.length);
+        for (long offset : nextOffsets) {
+            buffer.putLong(offset);
+        }
+
+        int countAt = buffer.position();
+        buffer.putInt(0);
+        int entries = 0;
+        for (Map.Entry<String, Strategy[]> symbol : registry.all().entrySet()) {
+            for (Strategy strategy : symbol.getValue()) {
+                putString(buffer, symbol.getKey());
+                putString(buffer, strategy.id());
+                putString(buffer, registry.fingerprint(strategy.id()));
+                int lengthAt = buffer.position();
+                buffer.putInt(0);
+                strategy.writeState(buffer);
+                buffer.putInt(lengthAt, buffer.position() - lengthAt - 4);
+                entries++;
+            }
+        }
+        buffer.putInt(countAt, entries);
+
+        int end = buffer.position();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_SIZE).limit(end));
+        buffer.putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putLong(8, System.currentTimeMillis())
+                .putInt(16, end - HEADER_SIZE)
+                .putInt(20, (int) crc.getValue());
+        return entries;
+    }
+
+    /**
+     * Loads the snapshot into the registry's strategies and returns where each partition has to
+     * resume; empty when there is no usable snapshot (cold start).
+     */
+    public Map<TopicPartition, Long> restore() {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        if (!enabled) return offsets;
+        Path file = Path.of(path);
+        if (!Files.exists(file)) {
+            System.out.println("No strategy snapshot at " + file + ", starting cold");
+            return offsets;
+        }
+
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                System.err.println("Strategy snapshot " + file + " has an unknown format, starting cold");
+                return offsets;
+            }
+            long age = System.currentTimeMillis() - buffer.getLong(8);
+            if (age > maxAgeMs) {
+                System.out.println("Strategy snapshot " + file + " is " + age / 1000 + "s old, starting cold");
+                return offsets;
+            }
+            int end = HEADER_SIZE + buffer.getInt(16);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(HEADER_SIZE).limit(end));
+            if ((int) crc.getValue() != buffer.getInt(20)) {
+                System.err.println("Strategy snapshot " + file + " is corrupt, starting cold");
+                return offsets;
+            }
+
+            buffer.position(HEADER_SIZE).limit(end);
+            String topic = getString(buffer);
+            int partitions = buffer.getInt();
+            for (int p = 0; p < partitions; p++) {
+                long offset = buffer.getLong();
+                if (offset >= 0) offsets.put(new TopicPartition(topic, p), offset);
+            }
+
+            int entries = buffer.getInt();
+            int restored = 0;
+            for (int i = 0; i < entries; i++) {
+                String symbol = getString(buffer);
+                String id = getString(buffer);
+                String fingerprint = getString(buffer);
+                int length = buffer.getInt();
+                ByteBuffer state = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.position(buffer.position() + length);
+                if (restore(symbol, id, fingerprint, state)) restored++;
+            }
+            System.out.printf("Strategy snapshot restored: %d/%d strategies, offsets %s (%d s old, %d us)%n",
+                    restored, entries, offsets, age / 1000, (System.nanoTime() - start) / 1000);
+            return offsets;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Strategy snapshot " + file + " unreadable (" + e + "), starting cold");
+            return new HashMap<>();
+        }
+    }
+
+    private boolean restore(String symbol, String id, String fingerprint, ByteBuffer state) {
+        if (!fingerprint.equals(registry.fingerprint(id))) {
+            // config changed since the snapshot: this one starts cold
+            return false;
+        }
+        for (Strategy strategy : registry.forSymbol(symbol)) {
+            if (!strategy.id().equals(id)) continue;
+            try {
+                strategy.readState(state);
+                return true;
+            } catch (RuntimeException e) {
+                System.err.println("Could not restore " + id + " for " + symbol + ": " + e.getMessage());
+                // half-restored state is worse than none
+                registry.discard(symbol);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public long getCheckpoints() {
+        return checkpoints;
+    }
+
+    public long getLastCheckpointMicros() {
+        return lastCheckpointNanos / 1000;
+    }
+}
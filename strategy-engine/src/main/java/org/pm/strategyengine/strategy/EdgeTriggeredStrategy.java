@@ -0,0 +1,129 @@
+package org.pm.strategyengine.strategy;
+
+import org.pm.common.model.Tick;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Wraps a strategy so only changes of opinion reach the sink: a BUY or SELL is passed on when it
+ * differs from the last one passed on, HOLD never is (it doesn't end the current position), and
+ * a flip within {@code minHoldMs} of the previous one (by exchange time) is held back until the
+ * hold expires. The wrapped strategy still sees every tick and is unchanged.
+ *
+ * State is kept per emitted strategy id, so a strategy that signals for several parameter sets
+ * ({@link SmaGridStrategy}) gets an independent edge per set.
+ */
+public class EdgeTriggeredStrategy implements Strategy, SignalSink {
+
+    private static final byte NONE = 0;
+    private static final byte BUY_SIDE = 1;
+    private static final byte SELL_SIDE = 2;
+
+    private final Strategy delegate;
+    private final long minHoldMs;
+
+    // one slot per id the delegate has emitted under, found by reference (ids are constants)
+    private String[] ids = new String[1];
+    private byte[] lastSides = new byte[1];
+    private long[] lastSignalTimes = new long[1];
+    private int slots;
+    private long suppressed;
+
+    // the caller's sink for the tick being evaluated
+    private SignalSink downstream;
+
+    public EdgeTriggeredStrategy(Strategy delegate, long minHoldMs) {
+        this.delegate = delegate;
+        this.minHoldMs = minHoldMs;
+    }
+
+    @Override
+    public String id() {
+        return delegate.id();
+    }
+
+    @Override
+    public void onTick(Tick tick, SignalSink sink) {
+        downstream = sink;
+        delegate.onTick(tick, this);
+    }
+
+    @Override
+    public void emit(String strategyId, String symbol, String signal, double price, long timestamp) {
+        byte side = BUY.equals(signal) ? BUY_SIDE : SELL.equals(signal) ? SELL_SIDE : NONE;
+        if (side == NONE) {
+            suppressed++;
+            return;
+        }
+        int slot = slot(strategyId);
+        byte last = lastSides[slot];
+        if (side == last || (last != NONE && timestamp - lastSignalTimes[slot] < minHoldMs)) {
+            suppressed++;
+            return;
+        }
+        lastSides[slot] = side;
+        lastSignalTimes[slot] = timestamp;
+        downstream.emit(strategyId, symbol, signal, price, timestamp);
+    }
+
+    private int slot(String strategyId) {
+        for (int i = 0; i < slots; i++) {
+            if (ids[i] == strategyId) return i;
+        }
+        for (int i = 0; i < slots; i++) {
+            if (ids[i].equals(strategyId)) return i;
+        }
+        if (slots == ids.length) {
+            ids = Arrays.copyOf(ids, slots * 2);
+            lastSides = Arrays.copyOf(lastSides, slots * 2);
+            lastSignalTimes = Arrays.copyOf(lastSignalTimes, slots * 2);
+        }
+        ids[slots] = strategyId;
+        return slots++;
+    }
+
+    // the last published sides survive a restart, otherwise the first tick would re-send them
+    @Override
+    public void writeState(ByteBuffer out) {
+        out.putInt(slots);
+        for (int i = 0; i < slots; i++) {
+            byte[] id = ids[i].getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) id.length).put(id);
+            out.put(lastSides[i]).putLong(lastSignalTimes[i]);
+        }
+        delegate.writeState(out);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        int saved = in.getInt();
+        for (int i = 0; i < saved; i++) {
+            byte[] id = new byte[in.getShort()];
+            in.get(id);
+            int slot = slot(new String(id, StandardCharsets.UTF_8));
+            lastSides[slot] = in.get();
+            lastSignalTimes[slot] = in.getLong();
+        }
+        delegate.readState(in);
+    }
+
+    /** Last side published under {@code strategyId}, null if none yet. */
+    public String getLastSignal(String strategyId) {
+        for (int i = 0; i < slots; i++) {
+            if (ids[i].equals(strategyId)) {
+                return lastSides[i] == BUY_SIDE ? BUY : lastSides[i] == SELL_SIDE ? SELL : null;
+            }
+        }
+        return null;
+    }
+
+    public String getLastSignal() {
+        return getLastSignal(delegate.id());
+    }
+
+    public long getSuppressed() {
+        return suppressed;
+    }
+}
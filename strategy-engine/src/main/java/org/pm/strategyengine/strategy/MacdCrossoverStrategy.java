@@ -0,0 +1,52 @@
+package org.pm.strategyengine.strategy;
+
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.indicator.Macd;
+
+import java.nio.ByteBuffer;
+
+/**
+ * BUY while the MACD line is above its signal line, SELL while below, HOLD when equal (or, with
+ * a hysteresis band, while the histogram is within that fraction of the price).
+ *
+ * params: fast-period (12), slow-period (26), signal-period (9), hysteresis (0)
+ */
+public class MacdCrossoverStrategy implements Strategy {
+
+    private final String id;
+    private final Macd macd;
+    private final double hysteresis;
+
+    public MacdCrossoverStrategy(StrategyDefinition definition) {
+        this.id = definition.getId();
+        this.macd = new Macd(definition.intParam("fast-period", 12), definition.intParam("slow-period", 26),
+                definition.intParam("signal-period", 9));
+        this.hysteresis = definition.doubleParam("hysteresis", 0);
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public void onTick(Tick tick, SignalSink sink) {
+        macd.update(tick.getPrice());
+        if (!macd.isReady()) return;
+
+        double histogram = macd.histogram();
+        double band = tick.getPrice() * hysteresis;
+        String signal = histogram > band ? BUY : histogram < -band ? SELL : HOLD;
+        sink.emit(id, tick.getSymbol(), signal, tick.getPrice(), tick.getTimestamp());
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        macd.writeTo(out);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        macd.readFrom(in);
+    }
+}
@@ -0,0 +1,50 @@
+package org.pm.strategyengine.strategy;
+
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.indicator.Rsi;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Mean reversion on RSI: BUY when oversold, SELL when overbought, HOLD in between.
+ *
+ * params: period (14), oversold (30), overbought (70)
+ */
+public class RsiReversionStrategy implements Strategy {
+
+    private final String id;
+    private final Rsi rsi;
+    private final double oversold;
+    private final double overbought;
+
+    public RsiReversionStrategy(StrategyDefinition definition) {
+        this.id = definition.getId();
+        this.rsi = new Rsi(definition.intParam("period", 14));
+        this.oversold = definition.doubleParam("oversold", 30);
+        this.overbought = definition.doubleParam("overbought", 70);
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public void onTick(Tick tick, SignalSink sink) {
+        double value = rsi.update(tick.getPrice());
+        if (!rsi.isReady()) return;
+
+        String signal = value < oversold ? BUY : value > overbought ? SELL : HOLD;
+        sink.emit(id, tick.getSymbol(), signal, tick.getPrice(), tick.getTimestamp());
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        rsi.writeTo(out);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        rsi.readFrom(in);
+    }
+}
@@ -0,0 +1,11 @@
+package org.pm.strategyengine.strategy;
+
+/**
+ * Where strategies send their signals. Primitive arguments so emitting doesn't force an
+ * allocation on the strategy side.
+ */
+@FunctionalInterface
+public interface SignalSink {
+
+    void emit(String strategyId, String symbol, String signal, double price, long timestamp);
+}
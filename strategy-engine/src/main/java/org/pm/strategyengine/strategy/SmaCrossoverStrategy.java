@@ -0,0 +1,67 @@
+package org.pm.strategyengine.strategy;
+
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.utils.PriceWindow;
+
+import java.nio.ByteBuffer;
+
+/**
+ * BUY while the short SMA is above the long SMA, SELL while below, HOLD when equal;
+ * one signal per tick once both windows are full. With a hysteresis band the short SMA has to
+ * clear the long one by that fraction of its value, otherwise it's HOLD.
+ *
+ * params: short-period (5), long-period (10), hysteresis (0, e.g. 0.0005 = 5 bps)
+ */
+public class SmaCrossoverStrategy implements Strategy {
+
+    private final String id;
+    private final PriceWindow shortWindow;
+    private final PriceWindow longWindow;
+    private final double hysteresis;
+
+    public SmaCrossoverStrategy(StrategyDefinition definition) {
+        this(definition.getId(), definition.intParam("short-period", 5), definition.intParam("long-period", 10),
+                definition.doubleParam("hysteresis", 0));
+    }
+
+    public SmaCrossoverStrategy(String id, int shortPeriod, int longPeriod) {
+        this(id, shortPeriod, longPeriod, 0);
+    }
+
+    public SmaCrossoverStrategy(String id, int shortPeriod, int longPeriod, double hysteresis) {
+        this.id = id;
+        this.shortWindow = new PriceWindow(shortPeriod);
+        this.longWindow = new PriceWindow(longPeriod);
+        this.hysteresis = hysteresis;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public void onTick(Tick tick, SignalSink sink) {
+        shortWindow.add(tick.getPrice());
+        longWindow.add(tick.getPrice());
+        if (!shortWindow.isFull() || !longWindow.isFull()) return;
+
+        double smaShort = shortWindow.mean();
+        double smaLong = longWindow.mean();
+        double band = smaLong * hysteresis;
+        String signal = smaShort > smaLong + band ? BUY : smaShort < smaLong - band ? SELL : HOLD;
+        sink.emit(id, tick.getSymbol(), signal, tick.getPrice(), tick.getTimestamp());
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        shortWindow.writeTo(out);
+        longWindow.writeTo(out);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        shortWindow.readFrom(in);
+        longWindow.readFrom(in);
+    }
+}
@@ -0,0 +1,89 @@
+package org.pm.strategyengine.strategy;
+
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.utils.PrefixSumWindow;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Several SMA crossovers on one symbol over a single shared price history, e.g. 5/10, 20/50 and
+ * 50/200 side by side. Each pair behaves exactly like {@link SmaCrossoverStrategy} with the same
+ * periods and signals under its own id, {@code <id>:<short>/<long>}, so downstream services can
+ * tell the variants apart.
+ *
+ * params: pairs ("5/10,20/50,50/200"), hysteresis (0)
+ */
+public class SmaGridStrategy implements Strategy {
+
+    private final String id;
+    private final int[] shortPeriods;
+    private final int[] longPeriods;
+    // per pair, built once so emitting doesn't concatenate
+    private final String[] pairIds;
+    private final double hysteresis;
+    private final PrefixSumWindow history;
+
+    public SmaGridStrategy(StrategyDefinition definition) {
+        this(definition.getId(), definition.stringParam("pairs", "5/10,20/50,50/200"),
+                definition.doubleParam("hysteresis", 0));
+    }
+
+    public SmaGridStrategy(String id, String pairs, double hysteresis) {
+        String[] specs = pairs.split(",");
+        this.id = id;
+        this.shortPeriods = new int[specs.length];
+        this.longPeriods = new int[specs.length];
+        this.pairIds = new String[specs.length];
+        this.hysteresis = hysteresis;
+
+        int longest = 1;
+        for (int i = 0; i < specs.length; i++) {
+            String[] periods = specs[i].trim().split("/");
+            if (periods.length != 2) {
+                throw new IllegalArgumentException("SMA pair must be short/long: '" + specs[i] + "' in " + id);
+            }
+            shortPeriods[i] = Integer.parseInt(periods[0].trim());
+            longPeriods[i] = Integer.parseInt(periods[1].trim());
+            if (shortPeriods[i] <= 0 || shortPeriods[i] >= longPeriods[i]) {
+                throw new IllegalArgumentException("SMA pair needs 0 < short < long: '" + specs[i] + "' in " + id);
+            }
+            pairIds[i] = id + ":" + shortPeriods[i] + "/" + longPeriods[i];
+            longest = Math.max(longest, longPeriods[i]);
+        }
+        this.history = new PrefixSumWindow(longest);
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public void onTick(Tick tick, SignalSink sink) {
+        history.add(tick.getPrice());
+        for (int i = 0; i < pairIds.length; i++) {
+            int longPeriod = longPeriods[i];
+            if (!history.has(longPeriod)) continue;
+
+            double smaShort = history.mean(shortPeriods[i]);
+            double smaLong = history.mean(longPeriod);
+            double band = smaLong * hysteresis;
+            String signal = smaShort > smaLong + band ? BUY : smaShort < smaLong - band ? SELL : HOLD;
+            sink.emit(pairIds[i], tick.getSymbol(), signal, tick.getPrice(), tick.getTimestamp());
+        }
+    }
+
+    public int pairs() {
+        return pairIds.length;
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        history.writeTo(out);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        history.readFrom(in);
+    }
+}
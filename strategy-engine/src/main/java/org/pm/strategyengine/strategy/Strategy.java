@@ -0,0 +1,33 @@
+package org.pm.strategyengine.strategy;
+
+import org.pm.common.model.Tick;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A trading strategy for one symbol. Instances are created per symbol from the
+ * {@code strategies.instances} config and only ever called by the thread that consumes that
+ * symbol, so they keep plain (non-thread-safe) incremental state.
+ */
+public interface Strategy {
+
+    String BUY = "BUY";
+    String SELL = "SELL";
+    String HOLD = "HOLD";
+
+    /** Config id of the instance this strategy belongs to, e.g. "sma-5-10". */
+    String id();
+
+    /** Updates the strategy with one trade; may emit any number of signals through {@code sink}. */
+    void onTick(Tick tick, SignalSink sink);
+
+    /**
+     * Writes everything needed to carry on after a restart (windows, indicator state) for the
+     * snapshot file. Called on the thread that calls {@link #onTick}. Stateless strategies can
+     * keep the default.
+     */
+    default void writeState(ByteBuffer out) {}
+
+    /** Restores what {@link #writeState} wrote, before the first tick. */
+    default void readState(ByteBuffer in) {}
+}
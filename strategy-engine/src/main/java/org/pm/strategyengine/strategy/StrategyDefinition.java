@@ -0,0 +1,102 @@
+package org.pm.strategyengine.strategy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One entry of {@code strategies.instances} in application.yml:
+ * <pre>
+ *   - id: sma-5-10
+ *     type: sma-crossover
+ *     symbols: BTCUSDT,ETHUSDT     # or "*" for every symbol
+ *     params:
+ *       short-period: 5
+ *       long-period: 10
+ * </pre>
+ */
+public class StrategyDefinition {
+    private String id;
+    private String type;
+    private List<String> symbols = new ArrayList<>(List.of("*"));
+    private Map<String, String> params = new LinkedHashMap<>();
+
+    public StrategyDefinition() {}
+
+    public StrategyDefinition(String id, String type, List<String> symbols, Map<String, String> params) {
+        this.id = id;
+        this.type = type;
+        this.symbols = symbols;
+        this.params = params;
+    }
+
+    public boolean appliesTo(String symbol) {
+        for (String s : symbols) {
+            if ("*".equals(s.trim()) || s.trim().equalsIgnoreCase(symbol)) return true;
+        }
+        return false;
+    }
+
+    public int intParam(String name, int defaultValue) {
+        String value = params.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public long longParam(String name, long defaultValue) {
+        String value = params.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    public String stringParam(String name, String defaultValue) {
+        String value = params.get(name);
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public double doubleParam(String name, double defaultValue) {
+        String value = params.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, String> params) {
+        this.params = params;
+    }
+
+    @Override
+    public String toString() {
+        return "StrategyDefinition{" +
+                "id='" + id + '\'' +
+                ", type='" + type + '\'' +
+                ", symbols=" + symbols +
+                ", params=" + params +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package org.pm.strategyengine.strategy;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "strategies")
+public class StrategyProperties {
+
+    private List<StrategyDefinition> instances = new ArrayList<>();
+
+    // multi-symbol strategies (pairs), one instance each over all of its symbols
+    private List<StrategyDefinition> baskets = new ArrayList<>();
+
+    // per-tick: every evaluation is published (original behaviour)
+    // edge: only BUY/SELL transitions are published; an instance can override with params.signal-mode
+    private String signalMode = "per-tick";
+
+    // edge mode only: minimum time between two published flips; params.min-hold-ms overrides
+    private long minHoldMs = 0;
+
+    public List<StrategyDefinition> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(List<StrategyDefinition> instances) {
+        this.instances = instances;
+    }
+
+    public List<StrategyDefinition> getBaskets() {
+        return baskets;
+    }
+
+    public void setBaskets(List<StrategyDefinition> baskets) {
+        this.baskets = baskets;
+    }
+
+    public String getSignalMode() {
+        return signalMode;
+    }
+
+    public void setSignalMode(String signalMode) {
+        this.signalMode = signalMode;
+    }
+
+    public long getMinHoldMs() {
+        return minHoldMs;
+    }
+
+    public void setMinHoldMs(long minHoldMs) {
+        this.minHoldMs = minHoldMs;
+    }
+}
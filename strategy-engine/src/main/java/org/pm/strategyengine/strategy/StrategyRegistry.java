@@ -0,0 +1,116 @@
+package org.pm.strategyengine.strategy;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Builds the strategy instances for each symbol the first time it trades, from the configured
+ * definitions. New strategy types are registered in {@link #TYPES}.
+ */
+@Component
+public class StrategyRegistry {
+
+    private static final Map<String, Function<StrategyDefinition, Strategy>> TYPES = Map.of(
+            "sma-crossover", SmaCrossoverStrategy::new,
+            "macd-crossover", MacdCrossoverStrategy::new,
+            "rsi-reversion", RsiReversionStrategy::new,
+            "sma-grid", SmaGridStrategy::new
+    );
+
+    // what StrategyService did before strategies were configurable
+    static final StrategyDefinition DEFAULT = new StrategyDefinition("sma-5-10", "sma-crossover",
+            List.of("*"), Map.of("short-period", "5", "long-period", "10"));
+
+    private final List<StrategyDefinition> definitions;
+    private final StrategyProperties properties;
+    private final Map<String, Strategy[]> bySymbol = new ConcurrentHashMap<>();
+
+    public StrategyRegistry(StrategyProperties properties) {
+        this.properties = properties;
+        this.definitions = properties.getInstances().isEmpty()
+                ? List.of(DEFAULT)
+                : List.copyOf(properties.getInstances());
+        for (StrategyDefinition definition : definitions) {
+            if (!TYPES.containsKey(definition.getType())) {
+                throw new IllegalArgumentException("Unknown strategy type '" + definition.getType()
+                        + "' for " + definition.getId() + ", known types: " + TYPES.keySet());
+            }
+            String mode = signalMode(definition);
+            if (!"per-tick".equals(mode) && !"edge".equals(mode)) {
+                throw new IllegalArgumentException("Unknown signal mode '" + mode + "' for " + definition.getId()
+                        + ", expected per-tick or edge");
+            }
+            System.out.println("Strategy configured: " + definition + " signals=" + mode);
+        }
+    }
+
+    /** The strategies that run on {@code symbol}; the array is created once and reused. */
+    public Strategy[] forSymbol(String symbol) {
+        Strategy[] strategies = bySymbol.get(symbol);
+        if (strategies == null) {
+            strategies = bySymbol.computeIfAbsent(symbol, this::create);
+        }
+        return strategies;
+    }
+
+    private Strategy[] create(String symbol) {
+        List<Strategy> strategies = new ArrayList<>();
+        for (StrategyDefinition definition : definitions) {
+            if (definition.appliesTo(symbol)) {
+                Strategy strategy = create(definition);
+                if ("edge".equals(signalMode(definition))) {
+                    strategy = new EdgeTriggeredStrategy(strategy,
+                            definition.longParam("min-hold-ms", properties.getMinHoldMs()));
+                }
+                strategies.add(strategy);
+            }
+        }
+        return strategies.toArray(new Strategy[0]);
+    }
+
+    /** A fresh instance of the definition's type, without any signal-mode wrapping. */
+    public static Strategy create(StrategyDefinition definition) {
+        Function<StrategyDefinition, Strategy> factory = TYPES.get(definition.getType());
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown strategy type '" + definition.getType()
+                    + "' for " + definition.getId() + ", known types: " + TYPES.keySet());
+        }
+        return factory.apply(definition);
+    }
+
+    /** Every symbol's strategies created so far (for snapshots). */
+    public Map<String, Strategy[]> all() {
+        return bySymbol;
+    }
+
+    /** Drops a symbol's instances so the next tick builds fresh ones (after a failed restore). */
+    public void discard(String symbol) {
+        bySymbol.remove(symbol);
+    }
+
+    /**
+     * Identifies the configuration an instance was built from: saved state only fits an instance
+     * with the same type, params and signal mode.
+     */
+    public String fingerprint(String strategyId) {
+        for (StrategyDefinition definition : definitions) {
+            if (definition.getId().equals(strategyId)) {
+                return definition.getType() + definition.getParams() + "/" + signalMode(definition);
+            }
+        }
+        return null;
+    }
+
+    private String signalMode(StrategyDefinition definition) {
+        return definition.stringParam("signal-mode", properties.getSignalMode());
+    }
+
+    public List<StrategyDefinition> getDefinitions() {
+        return definitions;
+    }
+}
@@ -0,0 +1,93 @@
+package org.pm.strategyengine.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Price history kept as running prefix sums, so the mean of the last n prices is
+ * (P[t] - P[t-n]) / n for any n up to the capacity: one shared history serves every window
+ * length of every parameter set on a symbol at O(1) each, where a {@link PriceWindow} per length
+ * would duplicate the prices and the update work.
+ *
+ * Prefix sums grow without bound, and their absolute rounding error with them; once per lap of
+ * the ring every entry is rebased on the oldest one, which keeps magnitudes near one window's sum
+ * at an amortized cost of one subtraction per price.
+ * Not thread-safe: one history per symbol, updated by the thread that consumes that symbol.
+ */
+public final class PrefixSumWindow {
+
+    private final double[] prefix;
+    // index of the latest prefix sum; prefix[latest - n] is the sum n prices earlier
+    private int latest;
+    private long count;
+    private int sinceRebase;
+
+    /** @param capacity the longest window that will be asked for */
+    public PrefixSumWindow(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("window capacity must be positive: " + capacity);
+        this.prefix = new double[capacity + 1];
+    }
+
+    public void add(double price) {
+        double sum = prefix[latest] + price;
+        latest = latest + 1 == prefix.length ? 0 : latest + 1;
+        prefix[latest] = sum;
+        count++;
+        if (++sinceRebase == prefix.length) {
+            rebase();
+        }
+    }
+
+    private void rebase() {
+        int oldest = latest + 1 == prefix.length ? 0 : latest + 1;
+        double base = prefix[oldest];
+        for (int i = 0; i < prefix.length; i++) {
+            prefix[i] -= base;
+        }
+        sinceRebase = 0;
+    }
+
+    /** Sum of the last {@code n} prices, n <= min(count, capacity). */
+    public double sum(int n) {
+        int from = latest - n;
+        if (from < 0) from += prefix.length;
+        return prefix[latest] - prefix[from];
+    }
+
+    public double mean(int n) {
+        return sum(n) / n;
+    }
+
+    /** Whether at least {@code n} prices have been added. */
+    public boolean has(int n) {
+        return count >= n;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int capacity() {
+        return prefix.length - 1;
+    }
+
+    public void writeTo(ByteBuffer out) {
+        out.putInt(prefix.length).putInt(latest).putLong(count).putInt(sinceRebase);
+        for (double p : prefix) {
+            out.putDouble(p);
+        }
+    }
+
+    public void readFrom(ByteBuffer in) {
+        int length = in.getInt();
+        if (length != prefix.length) {
+            throw new IllegalStateException("history capacity " + (length - 1) + " in snapshot, "
+                    + (prefix.length - 1) + " configured");
+        }
+        latest = in.getInt();
+        count = in.getLong();
+        sinceRebase = in.getInt();
+        for (int i = 0; i < length; i++) {
+            prefix[i] = in.getDouble();
+        }
+    }
+}
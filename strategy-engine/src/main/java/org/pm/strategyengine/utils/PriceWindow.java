@@ -0,0 +1,103 @@
+package org.pm.strategyengine.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size rolling window of prices in a primitive ring buffer with a running sum,
+ * so adding a price and reading the mean are both O(1) and allocation-free at any window size.
+ *
+ * The running sum picks up floating-point error with every add/subtract pair; it is rebuilt
+ * from the buffer every {@link #RECOMPUTE_INTERVAL} adds (or once per window, if larger), which
+ * keeps the drift negligible at an amortized cost of about one extra add per price.
+ * Not thread-safe: one window per symbol, updated by the thread that consumes that symbol.
+ */
+public final class PriceWindow {
+
+    static final int RECOMPUTE_INTERVAL = 1024;
+
+    private final double[] values;
+    private final int recomputeEvery;
+    private int next;
+    private int size;
+    private double sum;
+    private int sinceRecompute;
+
+    public PriceWindow(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("window capacity must be positive: " + capacity);
+        this.values = new double[capacity];
+        this.recomputeEvery = Math.max(capacity, RECOMPUTE_INTERVAL);
+    }
+
+    public void add(double price) {
+        if (size == values.length) {
+            sum -= values[next];
+        } else {
+            size++;
+        }
+        values[next] = price;
+        sum += price;
+        next = next + 1 == values.length ? 0 : next + 1;
+
+        if (++sinceRecompute >= recomputeEvery) {
+            recompute();
+        }
+    }
+
+    private void recompute() {
+        double s = 0.0;
+        for (int i = 0; i < size; i++) {
+            s += values[i];
+        }
+        sum = s;
+        sinceRecompute = 0;
+    }
+
+    public double mean() {
+        return size == 0 ? 0.0 : sum / size;
+    }
+
+    public double sum() {
+        return sum;
+    }
+
+    /** @param back 0 = latest price, 1 = the one before, ... up to size()-1 */
+    public double get(int back) {
+        int idx = next - 1 - back;
+        return values[idx < 0 ? idx + values.length : idx];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    /** Writes the full window state, for a snapshot. */
+    public void writeTo(ByteBuffer out) {
+        out.putInt(values.length).putInt(next).putInt(size).putInt(sinceRecompute).putDouble(sum);
+        for (double v : values) {
+            out.putDouble(v);
+        }
+    }
+
+    /** Restores what {@link #writeTo} wrote; the window must have the same capacity. */
+    public void readFrom(ByteBuffer in) {
+        int capacity = in.getInt();
+        if (capacity != values.length) {
+            throw new IllegalStateException("window capacity " + capacity + " in snapshot, " + values.length + " configured");
+        }
+        next = in.getInt();
+        size = in.getInt();
+        sinceRecompute = in.getInt();
+        sum = in.getDouble();
+        for (int i = 0; i < capacity; i++) {
+            values[i] = in.getDouble();
+        }
+    }
+}
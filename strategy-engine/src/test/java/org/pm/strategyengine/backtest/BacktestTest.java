@@ -0,0 +1,83 @@
+package org.pm.strategyengine.backtest;
+
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.strategy.StrategyDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktestTest {
+
+    private static Tick tick(long timestamp, double price) {
+        Tick tick = new Tick();
+        tick.setSymbol("BTCUSDT");
+        tick.setTimestamp(timestamp);
+        tick.setPrice(price);
+        return tick;
+    }
+
+    @Test
+    void fillsOnTheNextTradeAndTracksPnlAndDrawdown() {
+        BacktestAccount account = new BacktestAccount(new FillModel(10, 0, false), 10_000, 1000);
+        account.onTick(tick(0, 95));
+        account.emit("t", "BTCUSDT", "BUY", 95, 0);
+        // bought 100 units here, 10 in fees
+        account.onTick(tick(1, 100));
+        account.onTick(tick(2, 110));
+        account.emit("t", "BTCUSDT", "SELL", 110, 2);
+        // HOLD doesn't cancel the pending exit
+        account.emit("t", "BTCUSDT", "HOLD", 110, 2);
+        account.onTick(tick(3, 99));
+
+        BacktestResult result = account.result("t", "");
+        assertEquals(2, result.getTrades());
+        assertEquals(10 + 9.9, result.getFees(), 1e-9);
+        assertEquals(-119.9, result.getPnl(), 1e-9);
+        // peak 10990 at 110, exit fee included in the trough
+        assertEquals((10_990 - 9_880.1) / 10_990 * 100, result.getMaxDrawdownPct(), 1e-9);
+    }
+
+    @Test
+    void expandsGridsAndSkipsInvertedPeriods() {
+        List<StrategyDefinition> definitions = ParameterGrid.expand("sma-crossover",
+                "short-period=5:20:5;long-period=10|20", Map.of("hysteresis", "0"));
+        // (5,10) (5,20) (10,20) (15,20); 10/10, 15/10, 20/10, 20/20 are dropped
+        assertEquals(4, definitions.size());
+        assertEquals(Map.of("hysteresis", "0", "short-period", "10", "long-period", "20"),
+                definitions.get(2).getParams());
+        assertEquals(List.of("0.1", "0.2", "0.3"), ParameterGrid.values("0.1:0.3:0.1"));
+    }
+
+    @Test
+    void parallelSweepMatchesSinglePass() {
+        Random random = new Random(9);
+        int n = 50_000;
+        long[] timestamps = new long[n];
+        double[] prices = new double[n];
+        double price = 40_000;
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * 0.0005;
+            timestamps[i] = 1_700_000_000_000L + i * 250L;
+            prices[i] = price;
+        }
+        BacktestEngine engine = new BacktestEngine(CsvTickSource.of("BTCUSDT", timestamps, prices),
+                new FillModel(5, 1, true), 10_000, 60_000);
+        List<StrategyDefinition> definitions = ParameterGrid.expand("sma-crossover",
+                "short-period=5:25:5;long-period=30:90:20", Map.of());
+
+        List<BacktestResult> single = engine.run(definitions);
+        List<BacktestResult> parallel = ParameterSweep.run(new ForkJoinPool(4), engine, definitions, 3);
+
+        assertEquals(20, single.size());
+        for (int i = 0; i < single.size(); i++) {
+            assertEquals(single.get(i).toString(), parallel.get(i).toString());
+            assertEquals(n, parallel.get(i).getTicks());
+            assertTrue(parallel.get(i).getTrades() > 0);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.pm.strategyengine.basket;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One trade's worth of covariance maintenance for a basket of k symbols: EwCrossMoments (O(k))
+ * vs decaying and adding the outer product over the whole matrix on every trade (O(k^2)).
+ *
+ * Run the main method from the IDE, or after `mvn -pl strategy-engine test-compile`:
+ *   java -cp "strategy-engine/target/test-classes:strategy-engine/target/classes:<test classpath>" \
+ *        org.pm.strategyengine.basket.EwCrossMomentsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EwCrossMomentsBenchmark {
+
+    @Param({"10", "100", "300"})
+    private int symbols;
+
+    private EwCrossMoments moments;
+    private double[] x;
+    private double[] mean;
+    private double[] cov;
+    private int[] order;
+    private double[] prices;
+    private int next;
+    private long time;
+
+    @Setup
+    public void setup() {
+        moments = new EwCrossMoments(symbols, 60_000);
+        x = new double[symbols];
+        mean = new double[symbols];
+        cov = new double[symbols * symbols];
+        Random random = new Random(3);
+        order = new int[1 << 16];
+        prices = new double[order.length];
+        for (int n = 0; n < order.length; n++) {
+            order[n] = random.nextInt(symbols);
+            prices[n] = 100 * Math.exp(random.nextGaussian() * 0.01);
+        }
+        for (int s = 0; s < symbols; s++) moments.update(s, 100, 0);
+    }
+
+    @Benchmark
+    public double lazy() {
+        int n = next++ & (order.length - 1);
+        int i = order[n];
+        moments.update(i, prices[n], ++time);
+        return moments.covariance(i, 0);
+    }
+
+    @Benchmark
+    public double dense() {
+        int n = next++ & (order.length - 1);
+        int i = order[n];
+        x[i] = Math.log(prices[n] / 100);
+        double alpha = 1e-4;
+        for (int a = 0; a < symbols; a++) {
+            mean[a] += alpha * (x[a] - mean[a]);
+        }
+        for (int a = 0; a < symbols; a++) {
+            double da = x[a] - mean[a];
+            int row = a * symbols;
+            for (int b = 0; b < symbols; b++) {
+                cov[row + b] = (1 - alpha) * cov[row + b] + alpha * da * (x[b] - mean[b]);
+            }
+        }
+        return cov[i * symbols];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EwCrossMomentsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,221 @@
+package org.pm.strategyengine.basket;
+
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.SignalLeg;
+import org.pm.common.model.Tick;
+import org.pm.common.model.TradeSignal;
+import org.pm.strategyengine.strategy.StrategyDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PairsStrategyTest {
+
+    @Test
+    void lazyMomentsMatchDirectIntegration() {
+        int k = 4;
+        double halfLife = 200;
+        double tau = halfLife / Math.log(2);
+        EwCrossMoments moments = new EwCrossMoments(k, halfLife);
+
+        Random random = new Random(5);
+        double[] price = {100, 2_000, 30, 60_000};
+        double[] origin = new double[k];
+        boolean[] seen = new boolean[k];
+        // piecewise-constant path of every symbol's relative log price after all have traded
+        List<double[]> path = new ArrayList<>();
+        double[] x = new double[k];
+        long t = 0;
+        long start = -1;
+        // ~500 half-lives, so the accumulators are rebased many times over
+        for (int n = 0; n < 20_000; n++) {
+            t += random.nextInt(10);
+            int i = random.nextInt(k);
+            price[i] *= Math.exp(random.nextGaussian() * 0.01);
+            moments.update(i, price[i], t);
+
+            if (!seen[i]) {
+                seen[i] = true;
+                origin[i] = Math.log(price[i]);
+            }
+            if (start < 0 && seen[0] && seen[1] && seen[2] && seen[3]) start = t;
+            double[] point = new double[k + 1];
+            point[0] = t;
+            x[i] = Math.log(price[i]) - origin[i];
+            System.arraycopy(x, 0, point, 1, k);
+            if (start >= 0) path.add(point);
+        }
+
+        // integrate e^((s - T) / tau) x_i(s) x_j(s) ds interval by interval
+        double end = t;
+        double total = 0;
+        double[] sum = new double[k];
+        double[][] cross = new double[k][k];
+        for (int p = 0; p + 1 < path.size(); p++) {
+            double[] from = path.get(p);
+            double w = Math.exp((path.get(p + 1)[0] - end) / tau) - Math.exp((from[0] - end) / tau);
+            total += w;
+            for (int i = 0; i < k; i++) {
+                sum[i] += w * from[i + 1];
+                for (int j = 0; j < k; j++) cross[i][j] += w * from[i + 1] * from[j + 1];
+            }
+        }
+
+        for (int i = 0; i < k; i++) {
+            assertEquals(sum[i] / total, moments.mean(i), 1e-9);
+            for (int j = 0; j < k; j++) {
+                double expected = cross[i][j] / total - sum[i] / total * sum[j] / total;
+                assertEquals(expected, moments.covariance(i, j), 1e-9 * Math.max(1, Math.abs(expected)),
+                        "cov(" + i + "," + j + ")");
+            }
+        }
+        assertTrue(Math.abs(moments.correlation(0, 3)) <= 1);
+    }
+
+    @Test
+    void tradesTheSpreadWhenItDivergesAndClosesOnReversion() {
+        StrategyDefinition definition = new StrategyDefinition("pairs", "pairs", List.of("*"),
+                Map.of("pairs", "ETHUSDT/BTCUSDT", "half-life-ms", "60000", "entry-z", "2", "exit-z", "0.5"));
+        PairsStrategy strategy = new PairsStrategy(definition);
+        assertEquals(List.of("ETHUSDT", "BTCUSDT"), strategy.symbols());
+
+        List<TradeSignal> signals = new ArrayList<>();
+        Random random = new Random(9);
+        double btc = 60_000;
+        double noise = 0;
+        long t = 0;
+        Tick tick = new Tick();
+        // ETH follows BTC with a small mean-reverting spread, for several half-lives
+        for (int n = 0; n < 20_000; n++) {
+            t += 50;
+            btc *= Math.exp(random.nextGaussian() * 0.001);
+            noise = 0.9 * noise + random.nextGaussian() * 0.0005;
+            feed(strategy, tick, "BTCUSDT", btc, t, signals);
+            feed(strategy, tick, "ETHUSDT", btc / 20 * Math.exp(noise), t, signals);
+        }
+        // whatever the noise did, get flat before the scenario
+        signals.clear();
+        for (int n = 0; n < 200; n++) {
+            t += 50;
+            feed(strategy, tick, "BTCUSDT", btc, t, signals);
+            feed(strategy, tick, "ETHUSDT", btc / 20, t, signals);
+        }
+        assertEquals(0, ((Map<?, ?>) ((Map<?, ?>) strategy.stats().get("pairs")).get("pairs:ETHUSDT/BTCUSDT")).get("position"));
+        signals.clear();
+
+        // ETH jumps 2% rich against BTC: sell ETH, buy BTC
+        t += 50;
+        feed(strategy, tick, "ETHUSDT", btc / 20 * 1.02, t, signals);
+        assertEquals(1, signals.size());
+        TradeSignal open = signals.get(0);
+        assertEquals("pairs:ETHUSDT/BTCUSDT:short", open.getStrategyId());
+        assertEquals("ETHUSDT", open.getSymbol());
+        assertEquals("SELL", open.getSignal());
+        List<SignalLeg> legs = open.getLegs();
+        assertEquals(2, legs.size());
+        assertEquals("SELL", legs.get(0).getSignal());
+        assertEquals("BTCUSDT", legs.get(1).getSymbol());
+        assertEquals("BUY", legs.get(1).getSignal());
+        // beta ~1 on log prices: about one ETH's worth of BTC per ETH
+        assertEquals(btc / 20 * 1.02 / btc, legs.get(1).getRatio(), 0.01);
+
+        // no repeat while it stays rich, then back in line closes the position
+        t += 50;
+        feed(strategy, tick, "BTCUSDT", btc, t, signals);
+        assertEquals(1, signals.size());
+        t += 50;
+        feed(strategy, tick, "ETHUSDT", btc / 20, t, signals);
+        assertEquals(2, signals.size());
+        TradeSignal close = signals.get(1);
+        assertEquals("pairs:ETHUSDT/BTCUSDT:short", close.getStrategyId());
+        assertEquals("BUY", close.getLegs().get(0).getSignal());
+        assertEquals("SELL", close.getLegs().get(1).getSignal());
+
+        // rich again, then straight to cheap: the flip leaves the short and enters the long
+        t += 50;
+        feed(strategy, tick, "ETHUSDT", btc / 20 * 1.02, t, signals);
+        assertEquals(3, signals.size());
+        t += 50;
+        feed(strategy, tick, "ETHUSDT", btc / 20 * 0.98, t, signals);
+        assertEquals(5, signals.size());
+        TradeSignal exitShort = signals.get(3);
+        TradeSignal enterLong = signals.get(4);
+        assertEquals("pairs:ETHUSDT/BTCUSDT:short", exitShort.getStrategyId());
+        assertEquals("BUY", exitShort.getSignal());
+        assertEquals("pairs:ETHUSDT/BTCUSDT:long", enterLong.getStrategyId());
+        assertEquals("BUY", enterLong.getSignal());
+
+        // the same side twice in a row under one strategy id is what the risk manager drops
+        // as a duplicate; it must never happen here
+        Map<String, String> lastSide = new HashMap<>();
+        for (TradeSignal signal : signals) {
+            assertNotEquals(signal.getSignal(), lastSide.put(signal.getStrategyId(), signal.getSignal()), signal.toString());
+        }
+    }
+
+    @Test
+    void exitUnwindsTheEntryLegsWhenBetaDrifts() {
+        StrategyDefinition definition = new StrategyDefinition("pairs", "pairs", List.of("*"),
+                Map.of("pairs", "ETHUSDT/BTCUSDT", "half-life-ms", "5000", "entry-z", "2", "exit-z", "0.5"));
+        PairsStrategy strategy = new PairsStrategy(definition);
+        List<TradeSignal> signals = new ArrayList<>();
+        List<Double> betas = new ArrayList<>();
+        Random random = new Random(2);
+        double btc = 60_000;
+        double eth = 3_000;
+        long t = 0;
+        Tick tick = new Tick();
+        // ETH moves with BTC, then against it, so beta swings from about +1 to about -1
+        for (int n = 0; n < 4_000; n++) {
+            t += 50;
+            double r = random.nextGaussian() * 0.001;
+            btc *= Math.exp(r);
+            eth *= Math.exp((n < 2_000 ? r : -r) + random.nextGaussian() * 0.0002);
+            for (String symbol : new String[]{"BTCUSDT", "ETHUSDT"}) {
+                tick.setSymbol(symbol);
+                tick.setPrice(symbol.equals("BTCUSDT") ? btc : eth);
+                tick.setTimestamp(t);
+                strategy.onTick(tick, signal -> {
+                    signals.add(signal);
+                    betas.add((Double) pairStats(strategy).get("beta"));
+                });
+            }
+        }
+
+        // per side: enter, exit, enter, ... and every exit trades back exactly the B the entry traded
+        Map<String, Integer> entryOf = new HashMap<>();
+        int betaFlipped = 0;
+        for (int i = 0; i < signals.size(); i++) {
+            TradeSignal signal = signals.get(i);
+            Integer entry = entryOf.remove(signal.getStrategyId());
+            if (entry == null) {
+                entryOf.put(signal.getStrategyId(), i);
+                continue;
+            }
+            SignalLeg in = signals.get(entry).getLegs().get(1);
+            SignalLeg out = signal.getLegs().get(1);
+            assertNotEquals(in.getSignal(), out.getSignal(), signal.toString());
+            assertEquals(in.getRatio(), out.getRatio(), signal.toString());
+            if (Math.signum(betas.get(entry)) != Math.signum(betas.get(i))) betaFlipped++;
+        }
+        // the case that used to double the hedge instead of closing it
+        assertTrue(betaFlipped > 0, "no position was open across a sign change of beta");
+    }
+
+    private static Map<?, ?> pairStats(PairsStrategy strategy) {
+        return (Map<?, ?>) ((Map<?, ?>) strategy.stats().get("pairs")).get("pairs:ETHUSDT/BTCUSDT");
+    }
+
+    private static void feed(PairsStrategy strategy, Tick tick, String symbol, double price, long t,
+                             List<TradeSignal> out) {
+        tick.setSymbol(symbol);
+        tick.setPrice(price);
+        tick.setTimestamp(t);
+        strategy.onTick(tick, out::add);
+    }
+}
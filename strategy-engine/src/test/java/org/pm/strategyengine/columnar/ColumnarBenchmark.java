@@ -0,0 +1,134 @@
+package org.pm.strategyengine.columnar;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.indicator.Ema;
+import org.pm.strategyengine.strategy.SignalSink;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One poll of 4096 ticks spread over `symbols` symbols through an EMA 12/26 crossover:
+ * the object-per-symbol path (map lookup + two Ema objects per symbol) vs the columnar evaluator
+ * with the scalar and the vector kernel, plus the bare kernels on one dense round.
+ *
+ * Run the main method from the IDE, or after `mvn -pl strategy-engine test-compile`:
+ *   java --add-modules jdk.incubator.vector \
+ *        -cp "strategy-engine/target/test-classes:strategy-engine/target/classes:<test classpath>" \
+ *        org.pm.strategyengine.columnar.ColumnarBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ColumnarBenchmark {
+
+    private static final int BATCH = 4096;
+
+    @Param({"1000", "4000"})
+    private int symbols;
+
+    private List<Tick> batch;
+    private Map<String, Ema[]> objects;
+    private ColumnarEmaCrossover scalar;
+    private ColumnarEmaCrossover vector;
+    private SignalSink sink;
+    private Blackhole blackhole;
+
+    // bare kernel inputs: one price per symbol, lanes shuffled like a real round
+    private int[] lanes;
+    private double[] prices;
+    private double[] fast;
+    private double[] slow;
+    private double[] count;
+    private double[] spreads;
+    private EmaCrossKernel scalarKernel;
+    private EmaCrossKernel vectorKernel;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        Random random = new Random(1);
+        String[] names = new String[symbols];
+        for (int s = 0; s < symbols; s++) names[s] = "SYM" + s + "USDT";
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new Tick(names[random.nextInt(symbols)], 100 + random.nextGaussian(), 1, i));
+        }
+        objects = new HashMap<>();
+        scalar = new ColumnarEmaCrossover("ema", 12, 26, false, false);
+        vector = new ColumnarEmaCrossover("ema", 12, 26, false, true);
+        sink = (id, symbol, signal, price, ts) -> this.blackhole.consume(signal);
+
+        lanes = new int[symbols];
+        for (int s = 0; s < symbols; s++) lanes[s] = s;
+        for (int s = symbols - 1; s > 0; s--) {
+            int j = random.nextInt(s + 1);
+            int t = lanes[s];
+            lanes[s] = lanes[j];
+            lanes[j] = t;
+        }
+        prices = new double[symbols];
+        for (int s = 0; s < symbols; s++) prices[s] = 100 + random.nextGaussian();
+        fast = new double[symbols];
+        slow = new double[symbols];
+        count = new double[symbols];
+        spreads = new double[symbols];
+        scalarKernel = EmaCrossKernels.best(12, 26, false);
+        vectorKernel = EmaCrossKernels.best(12, 26, true);
+    }
+
+    @Benchmark
+    public void objectPerSymbol() {
+        for (int i = 0; i < BATCH; i++) {
+            Tick tick = batch.get(i);
+            Ema[] emas = objects.computeIfAbsent(tick.getSymbol(), s -> new Ema[]{new Ema(12), new Ema(26)});
+            double f = emas[0].update(tick.getPrice());
+            double s = emas[1].update(tick.getPrice());
+            if (emas[1].isReady()) {
+                sink.emit("ema", tick.getSymbol(), f > s ? "BUY" : f < s ? "SELL" : "HOLD", tick.getPrice(), i);
+            }
+        }
+    }
+
+    @Benchmark
+    public void columnarScalar() {
+        scalar.evaluate(batch, sink);
+    }
+
+    @Benchmark
+    public void columnarVector() {
+        vector.evaluate(batch, sink);
+    }
+
+    @Benchmark
+    public double kernelScalar() {
+        scalarKernel.update(lanes, prices, 0, symbols, symbols, fast, slow, count, spreads);
+        return spreads[0];
+    }
+
+    @Benchmark
+    public double kernelVector() {
+        vectorKernel.update(lanes, prices, 0, symbols, symbols, fast, slow, count, spreads);
+        return spreads[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ColumnarBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
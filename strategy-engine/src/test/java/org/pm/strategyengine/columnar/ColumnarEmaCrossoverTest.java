@@ -0,0 +1,92 @@
+package org.pm.strategyengine.columnar;
+
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.indicator.Ema;
+import org.pm.strategyengine.strategy.SignalSink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarEmaCrossoverTest {
+
+    @Test
+    void vectorKernelIsPickedWhenTheModuleIsPresent() {
+        // surefire runs with --add-modules jdk.incubator.vector
+        assertTrue(EmaCrossKernels.vectorAvailable());
+        assertTrue(EmaCrossKernels.best(12, 26, true).name().startsWith("vector"));
+        assertEquals("scalar", EmaCrossKernels.best(12, 26, false).name());
+    }
+
+    @Test
+    void bothKernelsMatchPerSymbolEmasInTickOrder() {
+        String[] symbols = new String[300];
+        for (int s = 0; s < symbols.length; s++) symbols[s] = "SYM" + s + "USDT";
+        Random random = new Random(4);
+        double[] prices = new double[symbols.length];
+        Arrays.fill(prices, 100);
+
+        ColumnarEmaCrossover vector = new ColumnarEmaCrossover("ema", 5, 13, false, true);
+        ColumnarEmaCrossover scalar = new ColumnarEmaCrossover("ema", 5, 13, false, false);
+        Map<String, Ema[]> reference = new HashMap<>();
+
+        List<String> fromVector = new ArrayList<>();
+        List<String> fromScalar = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        SignalSink vectorSink = (id, symbol, signal, price, ts) -> fromVector.add(symbol + " " + signal + "@" + ts);
+        SignalSink scalarSink = (id, symbol, signal, price, ts) -> fromScalar.add(symbol + " " + signal + "@" + ts);
+
+        long ts = 0;
+        for (int b = 0; b < 200; b++) {
+            // skewed batches: a few hot symbols repeat many times, so there are many rounds
+            List<Tick> batch = new ArrayList<>();
+            int size = 1 + random.nextInt(700);
+            for (int i = 0; i < size; i++) {
+                int s = random.nextBoolean() ? random.nextInt(4) : random.nextInt(symbols.length);
+                prices[s] *= 1 + random.nextGaussian() * 0.002;
+                batch.add(new Tick(symbols[s], prices[s], 1, ts++));
+
+                Ema[] emas = reference.computeIfAbsent(symbols[s], k -> new Ema[]{new Ema(5), new Ema(13)});
+                double fast = emas[0].update(prices[s]);
+                double slow = emas[1].update(prices[s]);
+                if (emas[1].isReady()) {
+                    expected.add(symbols[s] + " " + (fast > slow ? "BUY" : fast < slow ? "SELL" : "HOLD") + "@" + (ts - 1));
+                }
+            }
+            vector.evaluate(batch, vectorSink);
+            scalar.evaluate(batch, scalarSink);
+        }
+
+        assertEquals(fromScalar, fromVector);
+        // rounds reorder across symbols, never within one
+        List<String> sortedExpected = new ArrayList<>(expected);
+        List<String> sortedActual = new ArrayList<>(fromVector);
+        sortedExpected.sort(null);
+        sortedActual.sort(null);
+        assertEquals(sortedExpected, sortedActual);
+        assertEquals(symbols.length, vector.symbolCount());
+    }
+
+    @Test
+    void edgeModeEmitsOnlyChangesPerSymbol() {
+        ColumnarEmaCrossover edge = new ColumnarEmaCrossover("ema", 2, 3, true, true);
+        List<String> published = new ArrayList<>();
+        SignalSink sink = (id, symbol, signal, price, ts) -> published.add(symbol + " " + signal);
+
+        List<Tick> batch = new ArrayList<>();
+        double[] path = {1, 2, 3, 4, 5, 4, 3, 2, 1};
+        for (int i = 0; i < path.length; i++) {
+            batch.add(new Tick("AAA", path[i], 1, i));
+            batch.add(new Tick("BBB", 10 - path[i], 1, i));
+        }
+        edge.evaluate(batch, sink);
+
+        assertEquals(List.of("AAA BUY", "BBB SELL", "AAA SELL", "BBB BUY"), published);
+    }
+}
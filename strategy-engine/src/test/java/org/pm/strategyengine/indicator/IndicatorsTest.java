@@ -0,0 +1,110 @@
+package org.pm.strategyengine.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Incremental indicators against straightforward full recomputation over the same prices.
+ */
+class IndicatorsTest {
+
+    private static double[] randomWalk(int n) {
+        Random random = new Random(3);
+        double[] prices = new double[n];
+        double p = 100.0;
+        for (int i = 0; i < n; i++) {
+            p *= 1 + (random.nextGaussian() * 0.002);
+            prices[i] = p;
+        }
+        return prices;
+    }
+
+    @Test
+    void emaMatchesRecursiveDefinition() {
+        double[] prices = randomWalk(200);
+        Ema ema = new Ema(10);
+        for (double p : prices) ema.update(p);
+
+        double expected = 0;
+        for (int i = 0; i < 10; i++) expected += prices[i] / 10;
+        for (int i = 10; i < prices.length; i++) expected += 2.0 / 11 * (prices[i] - expected);
+        assertTrue(ema.isReady());
+        assertEquals(expected, ema.value(), 1e-9);
+    }
+
+    @Test
+    void bollingerMatchesWindowStatistics() {
+        double[] prices = randomWalk(5000);
+        BollingerBands bands = new BollingerBands(20, 2.0);
+        for (double p : prices) bands.update(p);
+
+        double mean = 0;
+        for (int i = prices.length - 20; i < prices.length; i++) mean += prices[i] / 20;
+        double variance = 0;
+        for (int i = prices.length - 20; i < prices.length; i++) variance += (prices[i] - mean) * (prices[i] - mean) / 20;
+        assertEquals(mean, bands.middle(), 1e-9);
+        assertEquals(mean + 2 * Math.sqrt(variance), bands.upper(), 1e-6);
+        assertEquals(mean - 2 * Math.sqrt(variance), bands.lower(), 1e-6);
+    }
+
+    @Test
+    void vwapMatchesWindowStatistics() {
+        double[] prices = randomWalk(3000);
+        Vwap vwap = new Vwap(50);
+        double notional = 0, quantity = 0;
+        for (int i = 0; i < prices.length; i++) {
+            double qty = 1 + i % 7;
+            vwap.update(prices[i], qty);
+            if (i >= prices.length - 50) {
+                notional += prices[i] * qty;
+                quantity += qty;
+            }
+        }
+        assertEquals(notional / quantity, vwap.value(), 1e-9);
+    }
+
+    @Test
+    void rsiBoundsAndExtremes() {
+        Rsi rsi = new Rsi(14);
+        for (int i = 0; i < 30; i++) rsi.update(100 + i);
+        assertEquals(100.0, rsi.value());
+
+        Rsi falling = new Rsi(14);
+        for (int i = 0; i < 30; i++) falling.update(100 - i);
+        assertEquals(0.0, falling.value(), 1e-12);
+
+        Rsi mixed = new Rsi(14);
+        for (double p : randomWalk(500)) {
+            double value = mixed.update(p);
+            assertTrue(value >= 0 && value <= 100);
+        }
+    }
+
+    @Test
+    void macdIsFastMinusSlowEma() {
+        double[] prices = randomWalk(300);
+        Macd macd = new Macd(12, 26, 9);
+        Ema fast = new Ema(12), slow = new Ema(26);
+        for (double p : prices) {
+            macd.update(p);
+            fast.update(p);
+            slow.update(p);
+        }
+        assertTrue(macd.isReady());
+        assertEquals(fast.value() - slow.value(), macd.macd(), 1e-12);
+        assertEquals(macd.macd() - macd.signal(), macd.histogram(), 1e-12);
+    }
+
+    @Test
+    void atrUsesTrueRange() {
+        Atr atr = new Atr(2);
+        atr.update(10, 8, 9);    // TR 2
+        atr.update(12, 11, 11);  // TR max(1, |12-9|, |11-9|) = 3
+        assertEquals(2.5, atr.value(), 1e-12);
+        atr.update(11, 10, 10);  // TR 1, Wilder: (2.5 + 1) / 2
+        assertEquals(1.75, atr.value(), 1e-12);
+    }
+}
@@ -0,0 +1,106 @@
+package org.pm.strategyengine.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPipelineTest {
+
+    @Test
+    void ringRejectsWhenFullAndReusesSlots() {
+        TickRing ring = new TickRing(4);
+        Tick tick = new Tick();
+        tick.setSymbol("BTCUSDT");
+        for (int i = 0; i < 4; i++) {
+            tick.setTradeId(i);
+            assertTrue(ring.offer(tick));
+        }
+        assertFalse(ring.offer(tick));
+        assertEquals(4, ring.depth());
+
+        assertEquals(0, ring.peek().getTradeId());
+        ring.release();
+        tick.setTradeId(4);
+        assertTrue(ring.offer(tick));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.peek().getTradeId());
+            ring.release();
+        }
+        assertNull(ring.peek());
+        assertEquals(0, ring.depth());
+    }
+
+    @Test
+    void keepsPerSymbolOrderAcrossProducersForEveryWaitStrategy() throws Exception {
+        for (String wait : new String[]{"busy-spin", "yield", "park"}) {
+            runProducers(wait);
+        }
+    }
+
+    private void runProducers(String wait) throws Exception {
+        ShardedPipeline pipeline = new ShardedPipeline();
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "shards", 3);
+        // small ring so producers actually hit backpressure
+        ReflectionTestUtils.setField(pipeline, "ringSize", 64);
+        ReflectionTestUtils.setField(pipeline, "waitStrategy", wait);
+
+        Map<String, AtomicLong> lastSeen = new ConcurrentHashMap<>();
+        Map<String, Thread> owner = new ConcurrentHashMap<>();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        AtomicInteger wrongThread = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+        pipeline.start(tick -> {
+            AtomicLong last = lastSeen.computeIfAbsent(tick.getSymbol(), s -> new AtomicLong(-1));
+            if (tick.getTradeId() != last.get() + 1) outOfOrder.incrementAndGet();
+            last.set(tick.getTradeId());
+            if (owner.computeIfAbsent(tick.getSymbol(), s -> Thread.currentThread()) != Thread.currentThread()) {
+                wrongThread.incrementAndGet();
+            }
+            handled.incrementAndGet();
+        });
+
+        // one producer per symbol, like one partition per symbol on the listener side
+        String[] symbols = {"BTCUSDT", "ETHUSDT", "SOLUSDT", "BNBUSDT"};
+        int perSymbol = 5_000;
+        Thread[] producers = new Thread[symbols.length];
+        for (int p = 0; p < symbols.length; p++) {
+            String symbol = symbols[p];
+            producers[p] = new Thread(() -> {
+                Tick tick = new Tick();
+                tick.setSymbol(symbol);
+                for (int i = 0; i < perSymbol; i++) {
+                    tick.setTradeId(i);
+                    tick.setPrice(100 + i);
+                    pipeline.publish(tick);
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (handled.get() < symbols.length * perSymbol && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        List<ShardStats> stats = pipeline.stats();
+        pipeline.stop();
+
+        assertEquals(symbols.length * perSymbol, handled.get(), wait);
+        assertEquals(0, outOfOrder.get(), wait);
+        assertEquals(0, wrongThread.get(), wait);
+        assertEquals(3, stats.size());
+        assertEquals(symbols.length * perSymbol, stats.stream().mapToLong(ShardStats::getProcessed).sum());
+        assertTrue(stats.stream().allMatch(s -> s.getMaxDepth() <= s.getCapacity()));
+    }
+}
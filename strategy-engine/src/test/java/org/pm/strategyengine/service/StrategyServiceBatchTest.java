@@ -0,0 +1,235 @@
+package org.pm.strategyengine.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.pm.common.model.Tick;
+import org.pm.common.model.TradeSignal;
+import org.pm.strategyengine.basket.BasketEvaluator;
+import org.pm.strategyengine.columnar.ColumnarEvaluator;
+import org.pm.strategyengine.pipeline.ShardedPipeline;
+import org.pm.strategyengine.snapshot.StrategySnapshotter;
+import org.pm.strategyengine.strategy.SignalSink;
+import org.pm.strategyengine.strategy.Strategy;
+import org.pm.strategyengine.strategy.StrategyDefinition;
+import org.pm.strategyengine.strategy.StrategyProperties;
+import org.pm.strategyengine.strategy.StrategyRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StrategyServiceBatchTest {
+
+    @SuppressWarnings("unchecked")
+    private static KafkaTemplate<String, TradeSignal> template() {
+        KafkaTemplate<String, TradeSignal> template = mock(KafkaTemplate.class);
+        when(template.send(anyString(), anyString(), any(TradeSignal.class))).thenReturn(new CompletableFuture<>());
+        return template;
+    }
+
+    private static StrategyService service(KafkaTemplate<String, TradeSignal> template, String mode) {
+        return service(template, mode, new StrategyProperties());
+    }
+
+    private static StrategyService service(KafkaTemplate<String, TradeSignal> template, String mode,
+                                           StrategyProperties basketProperties) {
+        return service(template, mode, new StrategyRegistry(new StrategyProperties()), basketProperties);
+    }
+
+    private static StrategyService service(KafkaTemplate<String, TradeSignal> template, String mode,
+                                           StrategyRegistry registry, StrategyProperties basketProperties) {
+        StrategyService service = new StrategyService(template, registry,
+                new ShardedPipeline(), new StrategySnapshotter(null), new ColumnarEvaluator(),
+                new BasketEvaluator(basketProperties));
+        ReflectionTestUtils.setField(service, "signalsTopic", "trade-signals");
+        ReflectionTestUtils.setField(service, "consumerMode", mode);
+        ReflectionTestUtils.setField(service, "reportIntervalMs", 60_000L);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void batchProducesTheSameSignalsAsRecordMode() {
+        String[] symbols = {"BTCUSDT", "ETHUSDT", "SOLUSDT"};
+        Random random = new Random(5);
+        double[] prices = {50_000, 3_000, 150};
+        List<ConsumerRecord<String, Tick>> records = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            int s = random.nextInt(symbols.length);
+            prices[s] *= 1 + random.nextGaussian() * 0.001;
+            Tick tick = new Tick(symbols[s], prices[s], 1.0, i);
+            records.add(new ConsumerRecord<>("market-ticks", s, i, symbols[s], tick));
+        }
+
+        KafkaTemplate<String, TradeSignal> recordTemplate = template();
+        StrategyService recordService = service(recordTemplate, "record");
+        for (ConsumerRecord<String, Tick> record : records) {
+            recordService.onMessage(record.value(), record.partition(), record.offset());
+        }
+
+        KafkaTemplate<String, TradeSignal> batchTemplate = template();
+        StrategyService batchService = service(batchTemplate, "batch");
+        // two polls, so the per-symbol lists get reused
+        batchService.onBatch(records.subList(0, 250));
+        batchService.onBatch(records.subList(250, records.size()));
+
+        ArgumentCaptor<TradeSignal> fromRecords = ArgumentCaptor.forClass(TradeSignal.class);
+        ArgumentCaptor<TradeSignal> fromBatches = ArgumentCaptor.forClass(TradeSignal.class);
+        verify(recordTemplate, atLeastOnce()).send(eq("trade-signals"), anyString(), fromRecords.capture());
+        verify(batchTemplate, atLeastOnce()).send(eq("trade-signals"), anyString(), fromBatches.capture());
+
+        // batches reorder across symbols but never within one
+        for (String symbol : symbols) {
+            assertEquals(signals(fromRecords.getAllValues(), symbol), signals(fromBatches.getAllValues(), symbol));
+        }
+        assertEquals(fromRecords.getAllValues().size(), fromBatches.getAllValues().size());
+
+        Map<String, Object> stats = batchService.consumerStats();
+        assertEquals(600L, stats.get("records"));
+        assertEquals(2L, stats.get("invocations"));
+    }
+
+    @Test
+    void basketsSeeBatchesInPollOrder() {
+        StrategyProperties properties = new StrategyProperties();
+        properties.setBaskets(List.of(new StrategyDefinition("pairs", "pairs", List.of("*"),
+                Map.of("pairs", "ETHUSDT/BTCUSDT", "half-life-ms", "5000", "entry-z", "1.5", "exit-z", "0.3"))));
+        Random random = new Random(11);
+        double btc = 60_000;
+        double noise = 0;
+        List<ConsumerRecord<String, Tick>> records = new ArrayList<>();
+        // the two legs interleaved, as they arrive on their partitions
+        for (int i = 0; i < 4_000; i++) {
+            btc *= Math.exp(random.nextGaussian() * 0.001);
+            noise = 0.95 * noise + random.nextGaussian() * 0.001;
+            records.add(new ConsumerRecord<>("market-ticks", 0, i, "BTCUSDT", new Tick("BTCUSDT", btc, 1.0, i * 50L)));
+            double eth = btc / 20 * Math.exp(noise);
+            records.add(new ConsumerRecord<>("market-ticks", 1, i, "ETHUSDT", new Tick("ETHUSDT", eth, 1.0, i * 50L + 25)));
+        }
+
+        KafkaTemplate<String, TradeSignal> recordTemplate = template();
+        StrategyService recordService = service(recordTemplate, "record", properties);
+        for (ConsumerRecord<String, Tick> record : records) {
+            recordService.onMessage(record.value(), record.partition(), record.offset());
+        }
+        KafkaTemplate<String, TradeSignal> batchTemplate = template();
+        StrategyService batchService = service(batchTemplate, "batch", properties);
+        for (int from = 0; from < records.size(); from += 500) {
+            batchService.onBatch(records.subList(from, Math.min(records.size(), from + 500)));
+        }
+
+        ArgumentCaptor<TradeSignal> fromRecords = ArgumentCaptor.forClass(TradeSignal.class);
+        ArgumentCaptor<TradeSignal> fromBatches = ArgumentCaptor.forClass(TradeSignal.class);
+        verify(recordTemplate, atLeastOnce()).send(eq("trade-signals"), anyString(), fromRecords.capture());
+        verify(batchTemplate, atLeastOnce()).send(eq("trade-signals"), anyString(), fromBatches.capture());
+        assertEquals(basketSignals(fromRecords.getAllValues()), basketSignals(fromBatches.getAllValues()));
+    }
+
+    @Test
+    void failingStrategyOnlyMissesItsTick() {
+        List<Long> seen = new ArrayList<>();
+        Strategy strategy = new Strategy() {
+            @Override
+            public String id() {
+                return "flaky";
+            }
+
+            @Override
+            public void onTick(Tick tick, SignalSink sink) {
+                if (tick.getTimestamp() == 2) throw new IllegalStateException("boom");
+                seen.add(tick.getTimestamp());
+                if (tick.getTimestamp() == 0) sink.emit(id(), tick.getSymbol(), Strategy.BUY, tick.getPrice(), 0);
+            }
+        };
+        StrategyRegistry registry = mock(StrategyRegistry.class);
+        when(registry.forSymbol(anyString())).thenReturn(new Strategy[]{strategy});
+        KafkaTemplate<String, TradeSignal> template = template();
+        // the first send fails outright (e.g. buffer full), so the poll is redelivered
+        when(template.send(anyString(), anyString(), any(TradeSignal.class)))
+                .thenThrow(new IllegalStateException("send failed"))
+                .thenReturn(new CompletableFuture<>());
+        StrategyService service = service(template, "batch", registry, new StrategyProperties());
+
+        List<ConsumerRecord<String, Tick>> poll = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            poll.add(new ConsumerRecord<>("market-ticks", 0, i, "BTCUSDT", new Tick("BTCUSDT", 100 + i, 1.0, i)));
+        }
+        poll.add(new ConsumerRecord<>("market-ticks", 1, 0, "ETHUSDT", new Tick("ETHUSDT", 10, 1.0, 10)));
+        assertThrows(IllegalStateException.class, () -> service.onBatch(poll));
+        // only tick 2 is lost, the rest of the symbol and the other symbols were evaluated
+        assertEquals(List.of(0L, 1L, 3L, 10L), seen);
+        assertEquals(1L, service.consumerStats().get("strategyErrors"));
+
+        // the error handler hands the same poll back: nothing in it is applied twice
+        service.onBatch(poll);
+        assertEquals(List.of(0L, 1L, 3L, 10L), seen);
+        assertEquals(5L, service.consumerStats().get("redelivered"));
+
+        // and nothing of the failed poll is left over for the next one
+        service.onBatch(List.of(new ConsumerRecord<>("market-ticks", 0, 4L, "BTCUSDT", new Tick("BTCUSDT", 104, 1.0, 4))));
+        assertEquals(List.of(0L, 1L, 3L, 10L, 4L), seen);
+        verify(template, times(1)).send(eq("trade-signals"), anyString(), any(TradeSignal.class));
+    }
+
+    @Test
+    void snapshotOffsetsOnlyApplyToTheFirstAssignment() {
+        TopicPartition p0 = new TopicPartition("market-ticks", 0);
+        TopicPartition p1 = new TopicPartition("market-ticks", 1);
+        StrategySnapshotter snapshotter = mock(StrategySnapshotter.class);
+        when(snapshotter.isEnabled()).thenReturn(true);
+        when(snapshotter.restore()).thenReturn(new HashMap<>(Map.of(p0, 10L, p1, 20L)));
+        StrategyService service = new StrategyService(template(), new StrategyRegistry(new StrategyProperties()),
+                new ShardedPipeline(), snapshotter, new ColumnarEvaluator(), new BasketEvaluator(new StrategyProperties()));
+        ReflectionTestUtils.setField(service, "marketTopic", "market-ticks");
+        ReflectionTestUtils.setField(service, "consumerMode", "batch");
+        ReflectionTestUtils.setField(service, "reportIntervalMs", 60_000L);
+        service.init();
+
+        ConsumerSeekAware.ConsumerSeekCallback callback = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+        service.onPartitionsAssigned(Map.of(p0, 0L), callback);
+        verify(callback).seek("market-ticks", 0, 10L);
+        // p1 went to another instance: its offset isn't ours to checkpoint
+        service.shutdown();
+        verify(snapshotter).checkpoint("market-ticks", new long[]{10});
+        clearInvocations(snapshotter); // it records the live array
+
+        // p1 comes back in a rebalance, after someone else consumed it
+        service.onPartitionsRevoked(List.of(p0));
+        service.onPartitionsAssigned(Map.of(p1, 0L), callback);
+        verifyNoMoreInteractions(callback);
+        service.shutdown();
+        verify(snapshotter).checkpoint("market-ticks", new long[]{-1});
+    }
+
+    private static List<String> basketSignals(List<TradeSignal> all) {
+        List<String> result = new ArrayList<>();
+        for (TradeSignal signal : all) {
+            if (signal.getLegs() != null) {
+                result.add(signal.getStrategyId() + " " + signal.getSignal() + "@" + signal.getTimestamp());
+            }
+        }
+        return result;
+    }
+
+    private static List<String> signals(List<TradeSignal> all, String symbol) {
+        List<String> result = new ArrayList<>();
+        for (TradeSignal signal : all) {
+            if (signal.getSymbol().equals(symbol)) {
+                result.add(signal.getSignal() + "@" + signal.getTimestamp());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+package org.pm.strategyengine.snapshot;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pm.common.model.Tick;
+import org.pm.strategyengine.strategy.SignalSink;
+import org.pm.strategyengine.strategy.Strategy;
+import org.pm.strategyengine.strategy.StrategyDefinition;
+import org.pm.strategyengine.strategy.StrategyProperties;
+import org.pm.strategyengine.strategy.StrategyRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategySnapshotterTest {
+
+    @TempDir
+    Path dir;
+
+    private static StrategyRegistry registry(String longPeriod) {
+        StrategyProperties properties = new StrategyProperties();
+        properties.setInstances(List.of(
+                new StrategyDefinition("sma", "sma-crossover", List.of("*"),
+                        Map.of("short-period", "20", "long-period", longPeriod)),
+                new StrategyDefinition("macd", "macd-crossover", List.of("*"), Map.of("signal-mode", "edge")),
+                new StrategyDefinition("rsi", "rsi-reversion", List.of("*"), Map.of())));
+        return new StrategyRegistry(properties);
+    }
+
+    private StrategySnapshotter snapshotter(StrategyRegistry registry) {
+        StrategySnapshotter snapshotter = new StrategySnapshotter(registry);
+        ReflectionTestUtils.setField(snapshotter, "enabled", true);
+        ReflectionTestUtils.setField(snapshotter, "path", dir.resolve("state/strategy.snap").toString());
+        ReflectionTestUtils.setField(snapshotter, "maxAgeMs", 60_000L);
+        return snapshotter;
+    }
+
+    private static List<String> feed(StrategyRegistry registry, double[] prices, int from, int to) {
+        List<String> signals = new ArrayList<>();
+        SignalSink sink = (id, symbol, signal, price, ts) -> signals.add(id + " " + symbol + " " + signal + "@" + ts);
+        Tick tick = new Tick();
+        for (int i = from; i < to; i++) {
+            for (String symbol : new String[]{"BTCUSDT", "ETHUSDT"}) {
+                tick.setSymbol(symbol);
+                tick.setPrice(prices[i]);
+                tick.setTimestamp(i);
+                for (Strategy strategy : registry.forSymbol(symbol)) {
+                    strategy.onTick(tick, sink);
+                }
+            }
+        }
+        return signals;
+    }
+
+    @Test
+    void restoredStrategiesContinueExactlyWhereTheyStopped() {
+        Random random = new Random(17);
+        double[] prices = new double[4000];
+        double price = 100;
+        for (int i = 0; i < prices.length; i++) {
+            price *= 1 + random.nextGaussian() * 0.002;
+            prices[i] = price;
+        }
+
+        StrategyRegistry live = registry("500");
+        feed(live, prices, 0, 2000);
+        snapshotter(live).checkpoint("market-ticks", new long[]{120, -1, 7});
+
+        StrategyRegistry restarted = registry("500");
+        Map<TopicPartition, Long> offsets = snapshotter(restarted).restore();
+        assertEquals(Map.of(new TopicPartition("market-ticks", 0), 120L,
+                new TopicPartition("market-ticks", 2), 7L), offsets);
+
+        List<String> expected = feed(live, prices, 2000, prices.length);
+        List<String> actual = feed(restarted, prices, 2000, prices.length);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+        // the 500-tick SMA is ready straight away instead of after another 500 ticks
+        assertTrue(actual.stream().anyMatch(s -> s.startsWith("sma BTCUSDT") && s.endsWith("@2000")));
+    }
+
+    @Test
+    void changedConfigStartsThatStrategyCold() {
+        StrategyRegistry live = registry("500");
+        feed(live, new double[1000], 0, 1000);
+        snapshotter(live).checkpoint("market-ticks", new long[]{1});
+
+        StrategyRegistry restarted = registry("600");
+        snapshotter(restarted).restore();
+        double[] prices = new double[10];
+        Arrays.fill(prices, 1.0);
+        List<String> signals = feed(restarted, prices, 0, 10);
+        // rsi kept its state and keeps signalling, the resized sma has to warm up again
+        assertTrue(signals.stream().anyMatch(s -> s.startsWith("rsi")));
+        assertTrue(signals.stream().noneMatch(s -> s.startsWith("sma")));
+    }
+}
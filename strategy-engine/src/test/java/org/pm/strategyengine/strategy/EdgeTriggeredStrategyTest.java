@@ -0,0 +1,85 @@
+package org.pm.strategyengine.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeTriggeredStrategyTest {
+
+    // emits whatever the test tells it to, one signal per tick
+    private static final class Scripted implements Strategy {
+        String next;
+
+        @Override
+        public String id() {
+            return "scripted";
+        }
+
+        @Override
+        public void onTick(Tick tick, SignalSink sink) {
+            sink.emit(id(), tick.getSymbol(), next, tick.getPrice(), tick.getTimestamp());
+        }
+    }
+
+    private static Tick tick(long timestamp, double price) {
+        Tick tick = new Tick();
+        tick.setSymbol("BTCUSDT");
+        tick.setTimestamp(timestamp);
+        tick.setPrice(price);
+        return tick;
+    }
+
+    @Test
+    void publishesOnlyTransitionsAndRespectsMinimumHold() {
+        Scripted scripted = new Scripted();
+        EdgeTriggeredStrategy edge = new EdgeTriggeredStrategy(scripted, 1000);
+        List<String> published = new ArrayList<>();
+        SignalSink sink = (id, symbol, signal, price, ts) -> published.add(signal + "@" + ts);
+
+        String[] script = {"HOLD", "BUY", "BUY", "HOLD", "BUY", "SELL", "SELL", "BUY", "BUY"};
+        long[] times = {0, 100, 200, 300, 400, 500, 1200, 1300, 2300};
+        for (int i = 0; i < script.length; i++) {
+            scripted.next = script[i];
+            edge.onTick(tick(times[i], 100), sink);
+        }
+
+        // SELL at 500 is inside the hold after BUY@100, so it only goes out at 1200;
+        // BUY at 1300 is inside that hold and goes out at 2300
+        assertEquals(List.of("BUY@100", "SELL@1200", "BUY@2300"), published);
+        assertEquals(6, edge.getSuppressed());
+        assertEquals("BUY", edge.getLastSignal());
+    }
+
+    @Test
+    void edgeModeCutsSignalVolumeOnRandomWalk() {
+        StrategyProperties properties = new StrategyProperties();
+        properties.setInstances(List.of(
+                new StrategyDefinition("per-tick", "sma-crossover", List.of("*"),
+                        Map.of("short-period", "5", "long-period", "10", "signal-mode", "per-tick")),
+                new StrategyDefinition("edge", "sma-crossover", List.of("*"),
+                        Map.of("short-period", "5", "long-period", "10", "signal-mode", "edge",
+                                "hysteresis", "0.0005"))));
+        StrategyRegistry registry = new StrategyRegistry(properties);
+
+        Map<String, int[]> counts = Map.of("per-tick", new int[1], "edge", new int[1]);
+        SignalSink sink = (id, symbol, signal, price, ts) -> counts.get(id)[0]++;
+        Random random = new Random(11);
+        double price = 50_000;
+        for (int i = 0; i < 100_000; i++) {
+            price *= 1 + random.nextGaussian() * 0.0002;
+            for (Strategy strategy : registry.forSymbol("BTCUSDT")) {
+                strategy.onTick(tick(i, price), sink);
+            }
+        }
+
+        assertEquals(100_000 - 9, counts.get("per-tick")[0]);
+        assertTrue(counts.get("edge")[0] > 0);
+        assertTrue(counts.get("edge")[0] * 100 < counts.get("per-tick")[0], "edge: " + counts.get("edge")[0]);
+    }
+}
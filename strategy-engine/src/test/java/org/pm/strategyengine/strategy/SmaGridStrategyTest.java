@@ -0,0 +1,66 @@
+package org.pm.strategyengine.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.pm.common.model.Tick;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmaGridStrategyTest {
+
+    @Test
+    void matchesSeparateCrossoversForEveryPair() {
+        int[][] pairs = {{5, 10}, {20, 50}, {50, 200}};
+        SmaGridStrategy grid = new SmaGridStrategy("grid", "5/10, 20/50, 50/200", 0);
+        SmaCrossoverStrategy[] separate = new SmaCrossoverStrategy[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            separate[i] = new SmaCrossoverStrategy("grid:" + pairs[i][0] + "/" + pairs[i][1], pairs[i][0], pairs[i][1]);
+        }
+
+        List<String> fromGrid = new ArrayList<>();
+        List<String> fromSeparate = new ArrayList<>();
+        SignalSink gridSink = (id, symbol, signal, price, ts) -> fromGrid.add(id + " " + signal + "@" + ts);
+        SignalSink separateSink = (id, symbol, signal, price, ts) -> fromSeparate.add(id + " " + signal + "@" + ts);
+
+        Random random = new Random(21);
+        Tick tick = new Tick();
+        tick.setSymbol("BTCUSDT");
+        double price = 60_000;
+        // many laps of the 201-slot history, so rebasing is exercised
+        for (int i = 0; i < 200_000; i++) {
+            price *= 1 + random.nextGaussian() * 0.001;
+            tick.setPrice(price);
+            tick.setTimestamp(i);
+            grid.onTick(tick, gridSink);
+            for (SmaCrossoverStrategy strategy : separate) {
+                strategy.onTick(tick, separateSink);
+            }
+        }
+
+        fromSeparate.sort(null);
+        fromGrid.sort(null);
+        assertEquals(fromSeparate.size(), fromGrid.size());
+        assertEquals(fromSeparate, fromGrid);
+    }
+
+    @Test
+    void edgeTriggersEachPairIndependently() {
+        SmaGridStrategy grid = new SmaGridStrategy("grid", "2/3,2/4", 0);
+        EdgeTriggeredStrategy edge = new EdgeTriggeredStrategy(grid, 0);
+        List<String> published = new ArrayList<>();
+        SignalSink sink = (id, symbol, signal, price, ts) -> published.add(id + " " + signal);
+
+        Tick tick = new Tick();
+        tick.setSymbol("ETHUSDT");
+        for (double p : new double[]{1, 2, 3, 4, 5, 6, 5, 4, 3, 2}) {
+            tick.setPrice(p);
+            edge.onTick(tick, sink);
+        }
+
+        assertEquals(List.of("grid:2/3 BUY", "grid:2/4 BUY", "grid:2/3 SELL", "grid:2/4 SELL"), published);
+        assertEquals("SELL", edge.getLastSignal("grid:2/4"));
+    }
+}
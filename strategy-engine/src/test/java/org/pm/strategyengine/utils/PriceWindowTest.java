@@ -0,0 +1,42 @@
+package org.pm.strategyengine.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceWindowTest {
+
+    @Test
+    void rollsOverOldestPrice() {
+        PriceWindow window = new PriceWindow(3);
+        window.add(1.0);
+        window.add(2.0);
+        assertFalse(window.isFull());
+        assertEquals(1.5, window.mean());
+
+        window.add(3.0);
+        window.add(4.0);
+        assertTrue(window.isFull());
+        assertEquals(3.0, window.mean());
+        assertEquals(4.0, window.get(0));
+        assertEquals(2.0, window.get(2));
+    }
+
+    @Test
+    void runningSumDoesNotDrift() {
+        PriceWindow window = new PriceWindow(50);
+        Random random = new Random(1);
+        double[] last = new double[50];
+        for (int i = 0; i < 1_000_000; i++) {
+            // wildly different magnitudes are the worst case for add/subtract error
+            double price = random.nextBoolean() ? random.nextDouble() * 1e-4 : random.nextDouble() * 1e6;
+            window.add(price);
+            last[i % 50] = price;
+        }
+        double exact = 0;
+        for (double p : last) exact += p;
+        assertEquals(exact / 50, window.mean(), 1e-6);
+    }
+}
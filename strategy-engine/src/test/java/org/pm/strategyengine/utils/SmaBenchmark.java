@@ -0,0 +1,71 @@
+package org.pm.strategyengine.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick's worth of rolling-SMA work: the old boxed deque + SMAUtils path that StrategyService
+ * used vs PriceWindow.
+ *
+ * Run the main method from the IDE, or after `mvn -pl strategy-engine test-compile`:
+ *   java -cp "strategy-engine/target/test-classes:strategy-engine/target/classes:<test classpath>" \
+ *        org.pm.strategyengine.utils.SmaBenchmark
+ * Add "-prof gc" to the JMH options to see the allocation rate of each path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SmaBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int window;
+
+    private Deque<Double> deque;
+    private PriceWindow ring;
+    private double price;
+
+    @Setup
+    public void setup() {
+        deque = new ConcurrentLinkedDeque<>();
+        ring = new PriceWindow(window);
+        for (int i = 0; i < window; i++) {
+            deque.addLast(100.0 + i);
+            ring.add(100.0 + i);
+        }
+        price = 100.0;
+    }
+
+    @Benchmark
+    public double dequeAndStream() {
+        price += 0.01;
+        deque.addLast(price);
+        while (deque.size() > window) {
+            deque.removeFirst();
+        }
+        return SMAUtils.calculateSMA(deque);
+    }
+
+    @Benchmark
+    public double primitiveRing() {
+        price += 0.01;
+        ring.add(price);
+        return ring.mean();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SmaBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}